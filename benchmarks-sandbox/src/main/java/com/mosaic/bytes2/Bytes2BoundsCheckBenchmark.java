@@ -0,0 +1,121 @@
+package com.mosaic.bytes2;
+
+import com.mosaic.bytes2.fields.ByteFieldsRegistry2;
+import com.mosaic.bytes2.fields.LongField2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the per access cost of checking bounds (see SystemX.CHECK_BOUNDS).  Each scan is
+ * run twice;  the checked variant forks the JVM with -ea, which turns the checks on, and the
+ * unchecked variant forks it without, which lets Hotspot fold the checks away.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations=5, time=1 )
+@Measurement( iterations=10, time=1 )
+@Fork( value=2, jvmArgsAppend={"-Xms1g", "-Xmx1g"} )
+public class Bytes2BoundsCheckBenchmark {
+
+    private static final ByteFieldsRegistry2 registry = new ByteFieldsRegistry2();
+
+    private static final LongField2 fromField = registry.registerLong();
+    private static final LongField2 toField   = registry.registerLong();
+
+    private static final int RECORD_SIZE = registry.sizeBytes();
+    private static final int NUM_RECORDS = 1024;
+    private static final int NUM_BYTES   = RECORD_SIZE * NUM_RECORDS;
+
+
+    @Param({"ARRAY", "OFFHEAP", "MAPPED", "VIEW"})
+    public Bytes2Implementation implementation;
+
+
+    private Bytes2              bytes;
+    private FixedWidthBytesView flyweight;
+
+
+    @Setup
+    public void setup() {
+        bytes     = implementation.create( NUM_BYTES );
+        flyweight = new FixedWidthBytesView( registry );
+
+        for ( int i=0; i<NUM_RECORDS; i++ ) {
+            flyweight.setBytes( bytes, i*RECORD_SIZE );
+
+            fromField.set( flyweight, i );
+            toField.set( flyweight, i+1 );
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        bytes.release();
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_RECORDS*2 )
+    public long scanLongsUnchecked() {
+        return scanLongs();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_RECORDS*2 )
+    @Fork( value=2, jvmArgsAppend={"-Xms1g", "-Xmx1g", "-ea"} )
+    public long scanLongsChecked() {
+        return scanLongs();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_RECORDS*2 )
+    public long scanRecordsViaFlyweightUnchecked() {
+        return scanRecordsViaFlyweight();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_RECORDS*2 )
+    @Fork( value=2, jvmArgsAppend={"-Xms1g", "-Xmx1g", "-ea"} )
+    public long scanRecordsViaFlyweightChecked() {
+        return scanRecordsViaFlyweight();
+    }
+
+
+    private long scanLongs() {
+        long sum = 0;
+
+        for ( long offset=0; offset<NUM_BYTES; offset+=8 ) {
+            sum += bytes.readLong( offset, offset+8 );
+        }
+
+        return sum;
+    }
+
+    private long scanRecordsViaFlyweight() {
+        long sum = 0;
+
+        for ( int i=0; i<NUM_RECORDS; i++ ) {
+            flyweight.setBytes( bytes, i*RECORD_SIZE );
+
+            sum += fromField.get(flyweight) + toField.get(flyweight);
+        }
+
+        return sum;
+    }
+
+}
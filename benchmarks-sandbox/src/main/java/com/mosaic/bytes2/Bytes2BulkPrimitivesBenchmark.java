@@ -0,0 +1,107 @@
+package com.mosaic.bytes2;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compares moving a column of longs/doubles one value at a time against the bulk
+ * readLongs/writeLongs style methods.  Reported as us per column.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations=5, time=1 )
+@Measurement( iterations=10, time=1 )
+@Fork( value=2, jvmArgsAppend={"-Xms1g", "-Xmx1g"} )
+public class Bytes2BulkPrimitivesBenchmark {
+
+    @Param({"ARRAY", "OFFHEAP", "MAPPED", "VIEW"})
+    public Bytes2Implementation implementation;
+
+    @Param({"1024", "1048576"})
+    public int numValues;
+
+
+    private Bytes2   bytes;
+    private long     numBytes;
+    private long[]   longs;
+    private double[] doubles;
+
+
+    @Setup
+    public void setup() {
+        numBytes = numValues*8L;
+        bytes    = implementation.create( numBytes );
+        longs    = new long[numValues];
+        doubles  = new double[numValues];
+
+        for ( int i=0; i<numValues; i++ ) {
+            longs[i] = i;
+        }
+
+        bytes.writeLongs( 0, numBytes, longs );
+    }
+
+    @TearDown
+    public void tearDown() {
+        bytes.release();
+    }
+
+
+    @Benchmark
+    public long[] readLongsOneAtATime() {
+        long offset = 0;
+
+        for ( int i=0; i<numValues; i++ ) {
+            longs[i] = bytes.readLong( offset, offset+8 );
+
+            offset += 8;
+        }
+
+        return longs;
+    }
+
+    @Benchmark
+    public long[] readLongsInBulk() {
+        bytes.readLongs( 0, numBytes, longs );
+
+        return longs;
+    }
+
+    @Benchmark
+    public void writeLongsOneAtATime() {
+        long offset = 0;
+
+        for ( int i=0; i<numValues; i++ ) {
+            bytes.writeLong( offset, offset+8, longs[i] );
+
+            offset += 8;
+        }
+    }
+
+    @Benchmark
+    public int writeLongsInBulk() {
+        return bytes.writeLongs( 0, numBytes, longs );
+    }
+
+    @Benchmark
+    public double[] readDoublesInBulk() {
+        bytes.readDoubles( 0, numBytes, doubles );
+
+        return doubles;
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.mosaic.bytes2;
+
+import com.mosaic.bytes2.impl.OffHeapBytes2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures bulk copies in and out of each Bytes2 implementation.  Reported as ns per copy;
+ * divide by numBytes for the per byte cost.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations=5, time=1 )
+@Measurement( iterations=10, time=1 )
+@Fork( value=2, jvmArgsAppend={"-Xms1g", "-Xmx1g"} )
+public class Bytes2CopyBenchmark {
+
+    @Param({"ARRAY", "OFFHEAP", "MAPPED", "VIEW", "NESTED_VIEW", "AUTO_RESIZING"})
+    public Bytes2Implementation implementation;
+
+    @Param({"64", "4096", "65536"})
+    public int numBytes;
+
+
+    private Bytes2 bytes;
+    private Bytes2 offHeapBytes;
+    private byte[] array;
+
+
+    @Setup
+    public void setup() {
+        bytes        = implementation.create( numBytes );
+        offHeapBytes = new OffHeapBytes2( numBytes );
+        array        = new byte[numBytes];
+
+        for ( int i=0; i<numBytes; i++ ) {
+            array[i] = (byte) i;
+        }
+
+        bytes.writeBytes( 0, numBytes, array );
+    }
+
+    @TearDown
+    public void tearDown() {
+        bytes.release();
+        offHeapBytes.release();
+    }
+
+
+    @Benchmark
+    public int writeBytesFromArray() {
+        return bytes.writeBytes( 0, numBytes, array );
+    }
+
+    @Benchmark
+    public int readBytesIntoArray() {
+        return bytes.readBytes( 0, numBytes, array );
+    }
+
+    @Benchmark
+    public int writeBytesFromOffHeapBytes2() {
+        return bytes.writeBytes( 0, numBytes, offHeapBytes, 0, numBytes );
+    }
+
+    @Benchmark
+    public int readBytesIntoOffHeapBytes2() {
+        return bytes.readBytes( 0, numBytes, offHeapBytes, 0, numBytes );
+    }
+
+    @Benchmark
+    public void fill() {
+        bytes.fill( 0, numBytes, (byte) 0 );
+    }
+
+    @Benchmark
+    public boolean compareBytes() {
+        return bytes.compareBytes( 0, numBytes, array );
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.mosaic.bytes2;
+
+import com.mosaic.bytes2.impl.ArrayBytes2;
+import com.mosaic.bytes2.impl.MemoryMappedBytes2;
+import com.mosaic.bytes2.impl.OffHeapBytes2;
+import com.mosaic.io.RuntimeIOException;
+import com.mosaic.io.filesystemx.FileModeEnum;
+import com.mosaic.lang.system.LiveSystem;
+import com.mosaic.lang.system.SystemX;
+
+import java.io.File;
+import java.io.IOException;
+
+
+/**
+ * The Bytes2 implementations (and wrappers) that the benchmarks are run against.  Each
+ * benchmark declares a @Param over the names of this enum, so that JMH reports the cost
+ * of every implementation side by side.
+ */
+public enum Bytes2Implementation {
+
+    ARRAY {
+        public Bytes2 create( long numBytes ) {
+            return new ArrayBytes2( numBytes );
+        }
+    },
+
+    OFFHEAP {
+        public Bytes2 create( long numBytes ) {
+            return new OffHeapBytes2( numBytes );
+        }
+    },
+
+    MAPPED {
+        public Bytes2 create( long numBytes ) {
+            try {
+                File file = File.createTempFile( "Bytes2Benchmark", ".dat" );
+                file.deleteOnExit();
+
+                return MemoryMappedBytes2.mapFile( file, FileModeEnum.READ_WRITE, numBytes );
+            } catch ( IOException ex ) {
+                throw RuntimeIOException.recast( ex );
+            }
+        }
+    },
+
+    /**
+     * A BytesView2 over off heap memory that has been offset by a few bytes;  measures the
+     * cost of the extra level of indirection and the Math.min clamp.
+     */
+    VIEW {
+        public Bytes2 create( long numBytes ) {
+            return new OffHeapBytes2( numBytes + VIEW_OFFSET ).narrow( VIEW_OFFSET, VIEW_OFFSET+numBytes );
+        }
+    },
+
+    /**
+     * A view of a view;  journal entries and structs commonly end up two views deep.
+     */
+    NESTED_VIEW {
+        public Bytes2 create( long numBytes ) {
+            return VIEW.create( numBytes + VIEW_OFFSET ).narrow( VIEW_OFFSET, VIEW_OFFSET+numBytes );
+        }
+    },
+
+    /**
+     * Sized up front so that the benchmark measures the cost of the touchRW check and not
+     * the cost of resizing.
+     */
+    AUTO_RESIZING {
+        public Bytes2 create( long numBytes ) {
+            return new AutoResizingBytes2( SYSTEM, new OffHeapBytes2(numBytes), "benchmark", numBytes );
+        }
+    };
+
+
+    private static final long    VIEW_OFFSET = 8;
+    private static final SystemX SYSTEM      = LiveSystem.withNoLogging( new File(SystemX.getTempDirectory()) );
+
+
+    public abstract Bytes2 create( long numBytes );
+
+}
@@ -0,0 +1,177 @@
+package com.mosaic.bytes2;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the per access cost of the primitive getters and setters on each Bytes2
+ * implementation.  The region is kept small enough to sit within L1/L2 so that the numbers
+ * reflect the cost of the accessor and not of the memory subsystem.
+ *
+ * Results are reported as ns per primitive access.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations=5, time=1 )
+@Measurement( iterations=10, time=1 )
+@Fork( value=2, jvmArgsAppend={"-Xms1g", "-Xmx1g"} )
+public class Bytes2PrimitivesBenchmark {
+
+    private static final int NUM_BYTES  = 32*1024;
+    private static final int NUM_LONGS  = NUM_BYTES/8;
+    private static final int NUM_INTS   = NUM_BYTES/4;
+    private static final int NUM_SHORTS = NUM_BYTES/2;
+
+
+    @Param({"ARRAY", "OFFHEAP", "MAPPED", "VIEW", "NESTED_VIEW", "AUTO_RESIZING"})
+    public Bytes2Implementation implementation;
+
+    private Bytes2 bytes;
+
+
+    @Setup
+    public void setup() {
+        bytes = implementation.create( NUM_BYTES );
+
+        for ( long i=0; i<NUM_BYTES; i+=8 ) {
+            bytes.writeLong( i, i+8, i );
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        bytes.release();
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_BYTES )
+    public void readByte( Blackhole bh ) {
+        long sum = 0;
+
+        for ( long i=0; i<NUM_BYTES; i++ ) {
+            sum += bytes.readByte( i, i+1 );
+        }
+
+        bh.consume( sum );
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_BYTES )
+    public void writeByte() {
+        for ( long i=0; i<NUM_BYTES; i++ ) {
+            bytes.writeByte( i, i+1, (byte) i );
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_SHORTS )
+    public void readShort( Blackhole bh ) {
+        long sum = 0;
+
+        for ( long i=0; i<NUM_BYTES; i+=2 ) {
+            sum += bytes.readShort( i, i+2 );
+        }
+
+        bh.consume( sum );
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_SHORTS )
+    public void writeShort() {
+        for ( long i=0; i<NUM_BYTES; i+=2 ) {
+            bytes.writeShort( i, i+2, (short) i );
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_INTS )
+    public void readInt( Blackhole bh ) {
+        long sum = 0;
+
+        for ( long i=0; i<NUM_BYTES; i+=4 ) {
+            sum += bytes.readInt( i, i+4 );
+        }
+
+        bh.consume( sum );
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_INTS )
+    public void writeInt() {
+        for ( long i=0; i<NUM_BYTES; i+=4 ) {
+            bytes.writeInt( i, i+4, (int) i );
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_LONGS )
+    public void readLong( Blackhole bh ) {
+        long sum = 0;
+
+        for ( long i=0; i<NUM_BYTES; i+=8 ) {
+            sum += bytes.readLong( i, i+8 );
+        }
+
+        bh.consume( sum );
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_LONGS )
+    public void writeLong() {
+        for ( long i=0; i<NUM_BYTES; i+=8 ) {
+            bytes.writeLong( i, i+8, i );
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_LONGS )
+    public void readDouble( Blackhole bh ) {
+        double sum = 0;
+
+        for ( long i=0; i<NUM_BYTES; i+=8 ) {
+            sum += bytes.readDouble( i, i+8 );
+        }
+
+        bh.consume( sum );
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_LONGS )
+    public void writeDouble() {
+        for ( long i=0; i<NUM_BYTES; i+=8 ) {
+            bytes.writeDouble( i, i+8, i );
+        }
+    }
+
+    /**
+     * A single access at a fixed offset;  shows the fixed overhead of a call without the
+     * benefit of loop unrolling.
+     */
+    @Benchmark
+    public long readLongSingle() {
+        return bytes.readLong( 64, 72 );
+    }
+
+    @Benchmark
+    public void writeLongSingle() {
+        bytes.writeLong( 64, 72, 42 );
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.mosaic.bytes2;
+
+import com.mosaic.lang.text.DecodedCharacter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures UTF-8 encoding and decoding of strings to and from each Bytes2 implementation.
+ * Reported as ns per string.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations=5, time=1 )
+@Measurement( iterations=10, time=1 )
+@Fork( value=2, jvmArgsAppend={"-Xms1g", "-Xmx1g"} )
+public class Bytes2UTF8Benchmark {
+
+    private static final int NUM_BYTES = 4*1024;
+
+
+    @Param({"ARRAY", "OFFHEAP", "MAPPED", "VIEW", "NESTED_VIEW", "AUTO_RESIZING"})
+    public Bytes2Implementation implementation;
+
+    /**
+     * ASCII is one byte per character, the other two exercise the two and three byte
+     * encodings respectively.
+     */
+    @Param({"Hello World, this is a typical forty char", "Größenmaßstäbe für Übergrößen", "日本語のテキストです"})
+    public String text;
+
+
+    private Bytes2           bytes;
+    private long             encodedLength;
+    private StringBuilder    buf     = new StringBuilder();
+    private DecodedCharacter decoded = new DecodedCharacter();
+
+
+    @Setup
+    public void setup() {
+        bytes         = implementation.create( NUM_BYTES );
+        encodedLength = bytes.writeUTF8String( 0, NUM_BYTES, text );
+    }
+
+    @TearDown
+    public void tearDown() {
+        bytes.release();
+    }
+
+
+    @Benchmark
+    public int writeUTF8String() {
+        return bytes.writeUTF8String( 0, NUM_BYTES, text );
+    }
+
+    @Benchmark
+    public int writeUTF8StringUndemarcated() {
+        return bytes.writeUTF8StringUndemarcated( 0, NUM_BYTES, text );
+    }
+
+    @Benchmark
+    public StringBuilder readUTF8StringIntoAppendable() {
+        buf.setLength( 0 );
+
+        bytes.readUTF8String( 0, encodedLength, buf );
+
+        return buf;
+    }
+
+    /**
+     * Allocates a UTF8 wrapper per call;  compare with readUTF8StringIntoAppendable.
+     */
+    @Benchmark
+    public Object readUTF8StringAsUTF8() {
+        return bytes.readUTF8String( 0, encodedLength );
+    }
+
+    @Benchmark
+    public void readUTF8Characters( Blackhole bh ) {
+        long i   = 2;   // skip the length prefix
+        long sum = 0;
+
+        while ( i < encodedLength ) {
+            bytes.readUTF8Character( i, encodedLength, decoded );
+
+            sum += decoded.c;
+            i   += decoded.numBytesConsumed;
+        }
+
+        bh.consume( sum );
+    }
+
+}
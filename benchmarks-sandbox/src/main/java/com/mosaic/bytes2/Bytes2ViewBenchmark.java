@@ -0,0 +1,143 @@
+package com.mosaic.bytes2;
+
+import com.mosaic.bytes2.fields.ByteFieldsRegistry2;
+import com.mosaic.bytes2.fields.DoubleField2;
+import com.mosaic.bytes2.fields.LongField2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the cost of layering views over Bytes2;  both creating views via narrow() and
+ * repointing a flyweight over a series of fixed width records, which is how JournalEntry
+ * and the struct classes access their bytes.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations=5, time=1 )
+@Measurement( iterations=10, time=1 )
+@Fork( value=2, jvmArgsAppend={"-Xms1g", "-Xmx1g"} )
+public class Bytes2ViewBenchmark {
+
+    private static final ByteFieldsRegistry2 registry = new ByteFieldsRegistry2();
+
+    private static final LongField2   fromField   = registry.registerLong();
+    private static final LongField2   toField     = registry.registerLong();
+    private static final DoubleField2 amountField = registry.registerDouble();
+
+    private static final int RECORD_SIZE = registry.sizeBytes();
+    private static final int NUM_RECORDS = 1024;
+    private static final int NUM_BYTES   = RECORD_SIZE * NUM_RECORDS;
+
+
+    @Param({"ARRAY", "OFFHEAP", "MAPPED", "VIEW", "AUTO_RESIZING"})
+    public Bytes2Implementation implementation;
+
+
+    private Bytes2              bytes;
+    private BytesView2          view;
+    private FixedWidthBytesView fixedWidthView;
+
+
+    @Setup
+    public void setup() {
+        bytes          = implementation.create( NUM_BYTES );
+        view           = new BytesView2();
+        fixedWidthView = new FixedWidthBytesView( registry );
+
+        for ( int i=0; i<NUM_RECORDS; i++ ) {
+            long from = i*RECORD_SIZE;
+
+            view.setBytes( bytes, from, from+RECORD_SIZE );
+
+            fromField.set( view, i );
+            toField.set( view, i+1 );
+            amountField.set( view, i*1.5 );
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        bytes.release();
+    }
+
+
+    /**
+     * Allocates a new view per call;  escape analysis may or may not remove it.
+     */
+    @Benchmark
+    public long narrowAndRead() {
+        return bytes.narrow( RECORD_SIZE, RECORD_SIZE*2 ).readLong( 0, 8 );
+    }
+
+    /**
+     * Baseline for narrowAndRead, reads the same long directly.
+     */
+    @Benchmark
+    public long directRead() {
+        return bytes.readLong( RECORD_SIZE, RECORD_SIZE+8 );
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_RECORDS )
+    public void scanRecordsViaFlyweight( Blackhole bh ) {
+        double sum = 0;
+
+        for ( int i=0; i<NUM_RECORDS; i++ ) {
+            long from = i*RECORD_SIZE;
+
+            view.setBytes( bytes, from, from+RECORD_SIZE );
+
+            sum += fromField.get(view) + toField.get(view) + amountField.get(view);
+        }
+
+        bh.consume( sum );
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_RECORDS )
+    public void scanRecordsViaFixedWidthFlyweight( Blackhole bh ) {
+        double sum = 0;
+
+        for ( int i=0; i<NUM_RECORDS; i++ ) {
+            fixedWidthView.setBytes( bytes, i*RECORD_SIZE );
+
+            sum += fromField.get(fixedWidthView) + toField.get(fixedWidthView) + amountField.get(fixedWidthView);
+        }
+
+        bh.consume( sum );
+    }
+
+    /**
+     * Baseline for the flyweight scans;  the same reads with the offsets calculated by hand.
+     */
+    @Benchmark
+    @OperationsPerInvocation( NUM_RECORDS )
+    public void scanRecordsDirectly( Blackhole bh ) {
+        double sum = 0;
+
+        for ( int i=0; i<NUM_RECORDS; i++ ) {
+            long from = i*RECORD_SIZE;
+
+            sum += bytes.readLong(from, from+8) + bytes.readLong(from+8, from+16) + bytes.readDouble(from+16, from+24);
+        }
+
+        bh.consume( sum );
+    }
+
+}
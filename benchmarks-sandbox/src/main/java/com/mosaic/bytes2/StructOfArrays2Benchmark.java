@@ -0,0 +1,138 @@
+package com.mosaic.bytes2;
+
+import com.mosaic.bytes2.fields.ByteFieldsRegistry2;
+import com.mosaic.bytes2.fields.LongField2;
+import com.mosaic.bytes2.impl.OffHeapBytes2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compares summing one field of a 64 byte struct, across more records than fit in the caches,
+ * when the structs are laid out one after another and when they are stored as a struct of
+ * arrays (see StructOfArrays2).  The array of structs pulls a whole cache line in to use 8
+ * bytes of it;  the struct of arrays region streams through only the field being summed.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations=5, time=1 )
+@Measurement( iterations=10, time=1 )
+@Fork( value=2, jvmArgsAppend={"-Xms1g", "-Xmx1g"} )
+public class StructOfArrays2Benchmark {
+
+    public static class Order extends FixedWidthBytesView {
+        private static final ByteFieldsRegistry2 registry = new ByteFieldsRegistry2();
+
+        private static final LongField2 idField       = registry.registerLong();
+        private static final LongField2 accountField  = registry.registerLong();
+        private static final LongField2 priceField    = registry.registerLong();
+        private static final LongField2 quantityField = registry.registerLong();
+        private static final LongField2 createdField  = registry.registerLong();
+        private static final LongField2 updatedField  = registry.registerLong();
+        private static final LongField2 venueField    = registry.registerLong();
+        private static final LongField2 flagsField    = registry.registerLong();
+
+        public Order() {
+            super( registry );
+        }
+
+        public long getQuantity() {
+            return quantityField.get( this );
+        }
+
+        public void setQuantity( long quantity ) {
+            quantityField.set( this, quantity );
+        }
+    }
+
+
+    private static final int  NUM_RECORDS = 1024*1024;
+    private static final long RECORD_SIZE = Order.registry.sizeBytes();
+
+
+    private Bytes2                 arrayOfStructs;
+    private StructOfArrays2<Order> structOfArrays;
+    private Bytes2                 quantities;
+
+    private Order                  order = new Order();
+
+
+    @Setup
+    public void setup() {
+        arrayOfStructs = new OffHeapBytes2( NUM_RECORDS*RECORD_SIZE );
+        structOfArrays = StructOfArrays2.allocateOffHeap( Order.registry, NUM_RECORDS, Order::new );
+
+        structOfArrays.allocateNewRecords( NUM_RECORDS );
+
+        for ( int i=0; i<NUM_RECORDS; i++ ) {
+            order.setBytes( arrayOfStructs, i*RECORD_SIZE );
+            order.setQuantity( i );
+
+            structOfArrays.selectInto( order, i );
+            order.setQuantity( i );
+        }
+
+        quantities = structOfArrays.getRegion( Order.quantityField );
+    }
+
+    @TearDown
+    public void tearDown() {
+        arrayOfStructs.release();
+        structOfArrays.release();
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_RECORDS )
+    public long sumFieldOfArrayOfStructs() {
+        long sum = 0;
+
+        for ( int i=0; i<NUM_RECORDS; i++ ) {
+            order.setBytes( arrayOfStructs, i*RECORD_SIZE );
+
+            sum += order.getQuantity();
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_RECORDS )
+    public long sumFieldOfStructOfArraysViaFlyweight() {
+        long sum = 0;
+
+        for ( int i=0; i<NUM_RECORDS; i++ ) {
+            structOfArrays.selectInto( order, i );
+
+            sum += order.getQuantity();
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_RECORDS )
+    public long sumFieldOfStructOfArraysViaRegion() {
+        long sum = 0;
+
+        for ( long i=0; i<NUM_RECORDS; i++ ) {
+            sum += quantities.readLong( i*8, i*8+8 );
+        }
+
+        return sum;
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.mosaic.collections;
+
+import com.mosaic.bytes2.Bytes2Implementation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compares LongHashMap, over each of the Bytes2 implementations, against a boxed
+ * java.util.HashMap<Long,Long>.  The keys are random, so most lookups miss the cache once the
+ * map outgrows it.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations=5, time=1 )
+@Measurement( iterations=10, time=1 )
+@Fork( value=2, jvmArgsAppend={"-Xms1g", "-Xmx1g"} )
+public class LongHashMapBenchmark {
+
+    private static final int NUM_LOOKUPS = 1024;
+
+
+    @Param({"ARRAY", "OFFHEAP", "MAPPED"})
+    public Bytes2Implementation implementation;
+
+    @Param({"1000", "1000000"})
+    public int numKeys;
+
+
+    private long[]         keys;
+    private long[]         lookupKeys;
+
+    private LongHashMap    map;
+    private Map<Long,Long> hashMap;
+
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random( 42 );
+
+        keys       = new long[numKeys];
+        lookupKeys = new long[NUM_LOOKUPS];
+        map        = LongHashMap.createLongLongMap( implementation.create(1), numKeys );
+        hashMap    = new HashMap<>( numKeys*2 );
+
+        for ( int i=0; i<numKeys; i++ ) {
+            keys[i] = rnd.nextLong();
+
+            map.put( keys[i], i );
+            hashMap.put( keys[i], (long) i );
+        }
+
+        for ( int i=0; i<NUM_LOOKUPS; i++ ) {
+            lookupKeys[i] = keys[rnd.nextInt(numKeys)];
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        map.release();
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_LOOKUPS )
+    public void longHashMapGet( Blackhole bh ) {
+        long sum = 0;
+
+        for ( long key : lookupKeys ) {
+            sum += map.get( key, 0 );
+        }
+
+        bh.consume( sum );
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_LOOKUPS )
+    public void hashMapGet( Blackhole bh ) {
+        long sum = 0;
+
+        for ( long key : lookupKeys ) {
+            sum += hashMap.get( key );
+        }
+
+        bh.consume( sum );
+    }
+
+    /**
+     * Overwrites existing keys, so the map does not grow during the measurement.
+     */
+    @Benchmark
+    @OperationsPerInvocation( NUM_LOOKUPS )
+    public void longHashMapPut() {
+        for ( long key : lookupKeys ) {
+            map.put( key, key );
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_LOOKUPS )
+    public void hashMapPut() {
+        for ( long key : lookupKeys ) {
+            hashMap.put( key, key );
+        }
+    }
+
+    /**
+     * Removes and then restores a key;  exercises the backward shift deletion.
+     */
+    @Benchmark
+    @OperationsPerInvocation( NUM_LOOKUPS )
+    public void longHashMapRemoveAndPut() {
+        for ( long key : lookupKeys ) {
+            map.remove( key );
+            map.put( key, key );
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( NUM_LOOKUPS )
+    public void hashMapRemoveAndPut() {
+        for ( long key : lookupKeys ) {
+            hashMap.remove( key );
+            hashMap.put( key, key );
+        }
+    }
+
+}
@@ -21,7 +21,11 @@ import static com.mosaic.lang.system.Backdoor.toInt;
 
 /**
  * An implementation of PersistableMap that uses ChronicleMap as its implementation.
+ *
+ * @deprecated replaced by PersistableMappedMap, which does not allocate per lookup and does not
+ *             depend upon chronicle-map
  */
+@Deprecated
 @SuppressWarnings("unchecked")
 public class PersistableChronicleMap<K, V extends ByteView> extends ServiceMixin<PersistableMap<K,V>>
     implements PersistableMap<K,V>
@@ -1,6 +1,7 @@
 package com.mosaic.io.chronicle.map;
 
 import com.mosaic.bytes.ByteSerializers;
+import com.mosaic.collections.map.BasePersistableMapTestCases;
 import com.mosaic.collections.map.chronicle.PersistableChronicleMap;
 import com.mosaic.collections.map.PersistableMap;
 import com.mosaic.io.FileUtils;
@@ -0,0 +1,85 @@
+package com.mosaic.columnstore;
+
+import com.mosaic.lang.system.SystemX;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * Pre-populates a set of columns in parallel.  A formula column calculates its cells from its
+ * own source columns, never from the caches of the other columns in the set;  so the columns
+ * do not wait for each other, and each is populated on its own fork join task.  Each column
+ * then splits its own rows into blocks (see ColumnUtils.forEachRowBlock).
+ */
+@SuppressWarnings("unchecked")
+class ColumnPrePopulator {
+
+    private final List<? extends Column> columns;
+    private final List<? extends Column> caches;
+
+
+    /**
+     * @param caches the destination of each column, in the same order as columns
+     */
+    public ColumnPrePopulator( List<? extends Column> columns, List<? extends Column> caches ) {
+        this.columns = columns;
+        this.caches  = caches;
+    }
+
+
+    /**
+     * Blocks until every column has been populated.
+     */
+    public void execute() {
+        AllColumnsAction action = new AllColumnsAction( columns, caches );
+
+        if ( ForkJoinTask.inForkJoinPool() ) {
+            action.invoke();
+        } else {
+            SystemX.FORK_JOIN_POOL.invoke( action );
+        }
+    }
+
+
+    private static class AllColumnsAction extends RecursiveAction {
+        private static final long serialVersionUID = 1792310400000L;
+
+        private final List<? extends Column> columns;
+        private final List<? extends Column> caches;
+
+        public AllColumnsAction( List<? extends Column> columns, List<? extends Column> caches ) {
+            this.columns = columns;
+            this.caches  = caches;
+        }
+
+        protected void compute() {
+            List<ColumnAction> actions = new ArrayList<>( columns.size() );
+
+            for ( int i=0; i<columns.size(); i++ ) {
+                actions.add( new ColumnAction(columns.get(i), caches.get(i)) );
+            }
+
+            invokeAll( actions );
+        }
+    }
+
+    private static class ColumnAction extends RecursiveAction {
+        private static final long serialVersionUID = 1792310400001L;
+
+        private final Column column;
+        private final Column cache;
+
+        public ColumnAction( Column column, Column cache ) {
+            this.column = column;
+            this.cache  = cache;
+        }
+
+        protected void compute() {
+            column.prePopulateColumn( cache );
+        }
+    }
+
+}
@@ -221,40 +221,19 @@ public class Columns<T extends Column> implements Iterable<T> {
         };
     }
 
-    // NB so far I have found that going parallel here has made next to no difference..  left the
-    // code here to make future comparisons easier...  to be reviewed.
-    // probably because we only had three columns at the time? will retry later
+    /**
+     * Creates a cache of each column, and populates the caches in parallel.  Each column is
+     * calculated from its own source columns, and not from the caches of the others.
+     */
     public Columns<T> prePopulateColumns( final Function1<T,T> cacheColumnFactory ) {
-//        final T[] cachedColumns = columns.clone();
-//
-//        ForkJoinTask job = new ForkJoinTask(0, columns.length) {
-//            protected void doJob( long index ) {
-//                QA.isInt( index, "index" );
-//
-//                int i = (int) index;
-//
-//                T cache = cacheColumnFactory.invoke( columns[i] );
-//
-//                cachedColumns[i] = cache;
-//
-//                columns[i].prePopulateColumn( cache );
-//            }
-//        };
-//
-//        job.execute();
-
-
-
         ArrayList<T> cachedColumns = (ArrayList<T>) columns.clone();
 
         for ( int i=0; i<columns.size(); i++ ) {
-            T cache = cacheColumnFactory.invoke( columns.get(i) );
-
-            cachedColumns.set(i, cache);
-
-            columns.get(i).prePopulateColumn( cache );
+            cachedColumns.set( i, cacheColumnFactory.invoke(columns.get(i)) );
         }
 
+        new ColumnPrePopulator( columns, cachedColumns ).execute();
+
         return new Columns(cachedColumns);
     }
 
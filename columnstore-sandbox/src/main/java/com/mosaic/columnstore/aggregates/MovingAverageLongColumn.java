@@ -2,7 +2,6 @@ package com.mosaic.columnstore.aggregates;
 
 import com.mosaic.collections.LongSet;
 import com.mosaic.columnstore.LongColumn;
-import com.mosaic.columnstore.columns.LongColumnFormula1;
 import com.mosaic.lang.system.SystemX;
 
 import java.util.Map;
@@ -11,9 +10,7 @@ import java.util.Map;
 /**
  *
  */
-public class MovingAverageLongColumn extends LongColumnFormula1 {
-
-    private final long numSamples;
+public class MovingAverageLongColumn extends SlidingWindowLongColumn {
 
     public MovingAverageLongColumn( SystemX system, LongColumn source, int numSamples ) {
         super(
@@ -24,8 +21,6 @@ public class MovingAverageLongColumn extends LongColumnFormula1 {
             source,
             numSamples
         );
-
-        this.numSamples = numSamples;
     }
 
     protected long get( long row, LongColumn col ) {
@@ -44,6 +39,24 @@ public class MovingAverageLongColumn extends LongColumnFormula1 {
         return n == 0 ? 0 : count/n;
     }
 
+    protected RunningAggregate newRunningAggregate() {
+        return new RunningAggregate() {
+            private long sum;
+
+            public void enter( long v ) {
+                sum += v;
+            }
+
+            public void exit( long v ) {
+                sum -= v;
+            }
+
+            public long get( long n ) {
+                return sum/n;
+            }
+        };
+    }
+
     protected String toEquation( Map<String, LongSet> touchedCells ) {
         return "sum(cellValues)/numberOfCells";
     }
@@ -0,0 +1,92 @@
+package com.mosaic.columnstore.aggregates;
+
+import com.mosaic.columnstore.LongColumn;
+import com.mosaic.columnstore.columns.LongColumnFormula1;
+import com.mosaic.lang.system.SystemX;
+
+
+/**
+ * A column whose cells aggregate the last numSamples set cells of a source column, up to and
+ * including the same row.  get(row) walks back over the window for each row that is asked for,
+ * which is O(numSamples) per cell and so O(rows x numSamples) for the whole column.  When
+ * pre-populating the whole column, the window is instead slid over the source column in a
+ * single pass;  each set cell enters the aggregate once and leaves it once.
+ */
+public abstract class SlidingWindowLongColumn extends LongColumnFormula1 {
+
+    protected final int numSamples;
+
+
+    protected SlidingWindowLongColumn( SystemX system, String columnName, String description, String opName, LongColumn sourceColumn, int numSamples ) {
+        super( system, columnName, description, opName, sourceColumn, numSamples );
+
+        this.numSamples = numSamples;
+    }
+
+
+    public void prePopulateColumn( LongColumn destinationColumn ) {
+        if ( numSamples <= 0 ) {
+            super.prePopulateColumn( destinationColumn );
+
+            return;
+        }
+
+        LongColumn       source    = getSourceColumn();
+        long             size      = size();
+        RunningAggregate aggregate = newRunningAggregate();
+
+        long[]           window    = new long[numSamples];
+        int              count     = 0;
+        int              next      = 0;
+
+        destinationColumn.resizeIfNecessary( size );
+
+        for ( long row=0; row<size; row++ ) {
+            if ( !source.isSet(row) ) {
+                continue;
+            }
+
+            long v = source.get( row );
+
+            if ( count == numSamples ) {
+                aggregate.exit( window[next] );
+            } else {
+                count++;
+            }
+
+            window[next] = v;
+            next         = next+1 == numSamples ? 0 : next+1;
+
+            aggregate.enter( v );
+
+            destinationColumn.set( row, aggregate.get(count) );
+        }
+    }
+
+    /**
+     * Creates the state of a single pass over the source column.
+     */
+    protected abstract RunningAggregate newRunningAggregate();
+
+
+    /**
+     * Maintains an aggregate of the values within the window as it slides down the column.
+     */
+    protected static interface RunningAggregate {
+        /**
+         * v has just become the newest value in the window.
+         */
+        public void enter( long v );
+
+        /**
+         * v was the oldest value in the window, and has just been pushed out.
+         */
+        public void exit( long v );
+
+        /**
+         * The value of the aggregate over the n values currently within the window.
+         */
+        public long get( long n );
+    }
+
+}
@@ -2,7 +2,6 @@ package com.mosaic.columnstore.aggregates;
 
 import com.mosaic.collections.LongSet;
 import com.mosaic.columnstore.LongColumn;
-import com.mosaic.columnstore.columns.LongColumnFormula1;
 import com.mosaic.lang.system.SystemX;
 
 import java.util.Map;
@@ -11,9 +10,7 @@ import java.util.Map;
 /**
  *
  */
-public class StandardDeviationLongColumn extends LongColumnFormula1 {
-
-    private final long numSamples;
+public class StandardDeviationLongColumn extends SlidingWindowLongColumn {
 
     public StandardDeviationLongColumn( SystemX system, LongColumn source, int numSamples ) {
         super(
@@ -24,53 +21,115 @@ public class StandardDeviationLongColumn extends LongColumnFormula1 {
             source,
             numSamples
         );
-
-        this.numSamples = numSamples;
     }
 
     protected long get( long row, LongColumn col ) {
-        double mean = calcMean(row, col);
-
-        double n   = 0;
-        double sum = 0;
+        SumOfSquares sums = new SumOfSquares();
+        int          n    = 0;
 
         while ( row >= 0 && n < numSamples ) {
             if ( col.isSet(row) ) {
-                n     += 1;
-
-                double v = col.get(row) - mean;
+                n += 1;
 
-                sum += v * v;
+                sums.enter( col.get(row) );
             }
 
             row--;
         }
 
-        if ( n == 0 ) {
-            return 0;
-        }
+        return sums.stdDev();
+    }
+
+    /**
+     * Slides the same exact integer sums as get(row) down the column, so every pre-populated
+     * cell is identical to the one that get(row) would have calculated.
+     */
+    protected RunningAggregate newRunningAggregate() {
+        return new SumOfSquares();
+    }
 
-        return Math.round( Math.sqrt(sum/n) );
+    protected String toEquation( Map<String, LongSet> touchedCells ) {
+        return "stddev(cells)";
     }
 
 
-    private double calcMean( long row, LongColumn col ) {
-        double n     = 0;
-        double count = 0;
+    /**
+     * The count, sum and sum of squares of the values within the window.  The sum of squares is
+     * held as a 128 bit integer, so values may enter and leave the window in any order without
+     * any error creeping in;  the floating point maths happens once, when the standard deviation
+     * is read.  The sum itself is a long, and so supports windows whose values total no more
+     * than Long.MAX_VALUE.
+     */
+    private static class SumOfSquares implements RunningAggregate {
+        private long n;
+        private long sum;
+        private long sumSqHi;
+        private long sumSqLo;
+
+        public void enter( long v ) {
+            long lo = v * v;
+
+            n       += 1;
+            sum     += v;
+            sumSqHi += multiplyHigh( v, v ) + (Long.compareUnsigned(sumSqLo + lo, lo) < 0 ? 1 : 0);
+            sumSqLo += lo;
+        }
 
-        while ( row >= 0 && n < numSamples ) {
-            if ( col.isSet(row) ) {
-                n     += 1;
-                count += col.get( row );
+        public void exit( long v ) {
+            long lo = v * v;
+
+            n       -= 1;
+            sum     -= v;
+            sumSqHi -= multiplyHigh( v, v ) + (Long.compareUnsigned(sumSqLo, lo) < 0 ? 1 : 0);
+            sumSqLo -= lo;
+        }
+
+        public long get( long n ) {
+            return stdDev();
+        }
+
+        /**
+         * sqrt( n.sum(v^2) - sum(v)^2 ) / n
+         */
+        public long stdDev() {
+            if ( n == 0 ) {
+                return 0;
             }
 
-            row--;
+            long nSumSqLo = sumSqLo * n;
+            long nSumSqHi = sumSqHi * n + unsignedMultiplyHigh( sumSqLo, n );
+
+            long sumSqrdLo = sum * sum;
+            long sumSqrdHi = multiplyHigh( sum, sum );
+
+            long diffLo = nSumSqLo - sumSqrdLo;
+            long diffHi = nSumSqHi - sumSqrdHi - (Long.compareUnsigned(nSumSqLo, sumSqrdLo) < 0 ? 1 : 0);
+
+            double diff = diffHi * 0x1p64 + (double) (diffLo >>> 1) * 2 + (diffLo & 1);
+
+            return Math.round( Math.sqrt(Math.max(0, diff)) / n );
         }
 
-        return n == 0 ? 0 : count/n;
-    }
+        /**
+         * The upper 64 bits of the 128 bit product of two signed longs;  Math.multiplyHigh
+         * arrived after Java 8.
+         */
+        private static long multiplyHigh( long x, long y ) {
+            long x1 = x >> 32;
+            long x2 = x & 0xFFFFFFFFL;
+            long y1 = y >> 32;
+            long y2 = y & 0xFFFFFFFFL;
+
+            long z2 = x2 * y2;
+            long t  = x1 * y2 + (z2 >>> 32);
+            long z1 = (t & 0xFFFFFFFFL) + x2 * y1;
+            long z0 = t >> 32;
+
+            return x1 * y1 + z0 + (z1 >> 32);
+        }
 
-    protected String toEquation( Map<String, LongSet> touchedCells ) {
-        return "stddev(cells)";
+        private static long unsignedMultiplyHigh( long x, long y ) {
+            return multiplyHigh( x, y ) + ((x >> 63) & y) + ((y >> 63) & x);
+        }
     }
 }
@@ -1,21 +1,16 @@
 package com.mosaic.columnstore.aggregates;
 
 import com.mosaic.columnstore.LongColumn;
-import com.mosaic.columnstore.columns.LongColumnFormula1;
 import com.mosaic.lang.system.SystemX;
 
 
 /**
  *
  */
-public class SumLastNLongColumn extends LongColumnFormula1 {
-
-    private final long numSamples;
+public class SumLastNLongColumn extends SlidingWindowLongColumn {
 
     public SumLastNLongColumn( SystemX system, String columnName, String description, String opLabel, LongColumn source, int numSamples ) {
         super( system, columnName, description, opLabel, source, numSamples );
-
-        this.numSamples = numSamples;
     }
 
     public SumLastNLongColumn( SystemX system, LongColumn source, int numSamples ) {
@@ -27,8 +22,6 @@ public class SumLastNLongColumn extends LongColumnFormula1 {
             source,
             numSamples
         );
-
-        this.numSamples = numSamples;
     }
 
     protected long get( long row, LongColumn col ) {
@@ -47,4 +40,22 @@ public class SumLastNLongColumn extends LongColumnFormula1 {
         return sum;
     }
 
+    protected RunningAggregate newRunningAggregate() {
+        return new RunningAggregate() {
+            private long sum;
+
+            public void enter( long v ) {
+                sum += v;
+            }
+
+            public void exit( long v ) {
+                sum -= v;
+            }
+
+            public long get( long n ) {
+                return sum;
+            }
+        };
+    }
+
 }
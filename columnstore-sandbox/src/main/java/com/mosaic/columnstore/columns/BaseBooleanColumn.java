@@ -1,6 +1,5 @@
 package com.mosaic.columnstore.columns;
 
-import com.mosaic.collections.concurrent.ForkJoinTask;
 import com.mosaic.columnstore.BooleanColumn;
 
 
@@ -18,22 +17,17 @@ public abstract class BaseBooleanColumn implements BooleanColumn {
     }
 
     public void prePopulateColumn( final BooleanColumn destinationColumn ) {
-        ForkJoinTask job = new ForkJoinTask(0, size()) {
-            protected void doJob( long i ) {
-                if ( BaseBooleanColumn.this.isSet(i) ) {
-                    boolean v = BaseBooleanColumn.this.get( i );
+        destinationColumn.resizeIfNecessary( this.size() );
+
+        ColumnUtils.forEachRowBlock( size(), (fromRow, toRowExc) -> {
+            for ( long i=fromRow; i<toRowExc; i++ ) {
+                if ( isSet(i) ) {
+                    boolean v = get( i );
 
                     destinationColumn.set( i, v );
                 }
             }
-        };
-
-        destinationColumn.resizeIfNecessary( this.size() );
-
-        job.setForkThreshold( 10000 );
-        job.setForkFactor( 3 );
-
-        job.execute();
+        });
     }
 
     public int reserveWidth() {
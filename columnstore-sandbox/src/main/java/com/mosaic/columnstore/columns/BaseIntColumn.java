@@ -1,6 +1,5 @@
 package com.mosaic.columnstore.columns;
 
-import com.mosaic.collections.concurrent.ForkJoinTask;
 import com.mosaic.columnstore.IntColumn;
 
 
@@ -10,22 +9,17 @@ import com.mosaic.columnstore.IntColumn;
 public abstract class BaseIntColumn implements IntColumn {
 
     public void prePopulateColumn( final IntColumn destinationColumn ) {
-        ForkJoinTask job = new ForkJoinTask(0, size()) {
-            protected void doJob( long i ) {
-                if ( BaseIntColumn.this.isSet(i) ) {
-                    int v = BaseIntColumn.this.get( i );
+        destinationColumn.resizeIfNecessary( this.size() );
+
+        ColumnUtils.forEachRowBlock( size(), (fromRow, toRowExc) -> {
+            for ( long i=fromRow; i<toRowExc; i++ ) {
+                if ( isSet(i) ) {
+                    int v = get( i );
 
                     destinationColumn.set( i, v );
                 }
             }
-        };
-
-        destinationColumn.resizeIfNecessary( this.size() );
-
-        job.setForkThreshold( 10000 );
-        job.setForkFactor( 3 );
-
-        job.execute();
+        });
     }
 
     public int reserveWidth() {
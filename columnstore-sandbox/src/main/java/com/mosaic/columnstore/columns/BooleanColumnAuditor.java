@@ -17,7 +17,7 @@ public class BooleanColumnAuditor extends BaseBooleanColumn implements ColumnAud
 
     public BooleanColumnAuditor( BooleanColumn sourceColumn, long targetSampleCount ) {
         this.sourceColumn = sourceColumn;
-        this.visitedRows  = LongSet.factory( targetSampleCount );
+        this.visitedRows  = LongSet.concurrentFactory( targetSampleCount );
     }
 
     public String getColumnName() {
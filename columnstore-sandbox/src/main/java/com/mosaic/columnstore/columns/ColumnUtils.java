@@ -1,14 +1,52 @@
 package com.mosaic.columnstore.columns;
 
 import com.mosaic.collections.LongSet;
+import com.mosaic.lang.functional.VoidFunctionLong2;
+import com.mosaic.lang.system.SystemX;
 
 import java.util.Map;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 
 /**
  *
  */
 public class ColumnUtils {
+
+    /**
+     * The number of rows that are populated by a single task when pre-populating a column.
+     * Blocks start on multiples of this size, so no two threads write to the same cache line of
+     * the destination column.  Large enough to make the cost of scheduling a block small,
+     * while leaving plenty of blocks to share between cores.
+     */
+    public static final long ROWS_PER_BLOCK = 8192;
+
+
+    /**
+     * Splits the rows [0,rowCount) into blocks of ROWS_PER_BLOCK rows, and invokes
+     * job(fromRow,toRowExc) for each block in parallel.  Returns once every block is done.<p/>
+     *
+     * When called from within a fork join task, for example while pre-populating many columns
+     * at once, the blocks are forked from that task rather than submitted to the pool afresh.
+     */
+    public static void forEachRowBlock( long rowCount, VoidFunctionLong2 job ) {
+        if ( rowCount <= ROWS_PER_BLOCK ) {
+            job.invoke( 0, rowCount );
+
+            return;
+        }
+
+        long            numBlocks = (rowCount + ROWS_PER_BLOCK - 1) / ROWS_PER_BLOCK;
+        RowBlocksAction action    = new RowBlocksAction( 0, numBlocks, rowCount, job );
+
+        if ( ForkJoinTask.inForkJoinPool() ) {
+            action.invoke();
+        } else {
+            SystemX.FORK_JOIN_POOL.invoke( action );
+        }
+    }
+
     /**
      * Default implementations of getEquation on each of the Formula classes.  It formats
      * the formula as 'OpName(columnName [rowIds])'.
@@ -42,4 +80,37 @@ public class ColumnUtils {
 
         return buf.toString();
     }
+
+
+    private static class RowBlocksAction extends RecursiveAction {
+        private static final long serialVersionUID = 1792310400002L;
+
+        private final long              fromBlock;
+        private final long              toBlockExc;
+        private final long              rowCount;
+        private final VoidFunctionLong2 job;
+
+        public RowBlocksAction( long fromBlock, long toBlockExc, long rowCount, VoidFunctionLong2 job ) {
+            this.fromBlock  = fromBlock;
+            this.toBlockExc = toBlockExc;
+            this.rowCount   = rowCount;
+            this.job        = job;
+        }
+
+        protected void compute() {
+            if ( toBlockExc - fromBlock == 1 ) {
+                long fromRow = fromBlock * ROWS_PER_BLOCK;
+
+                job.invoke( fromRow, Math.min(fromRow+ROWS_PER_BLOCK, rowCount) );
+            } else {
+                long midBlock = (fromBlock + toBlockExc) >>> 1;
+
+                invokeAll(
+                    new RowBlocksAction( fromBlock, midBlock, rowCount, job ),
+                    new RowBlocksAction( midBlock, toBlockExc, rowCount, job )
+                );
+            }
+        }
+    }
+
 }
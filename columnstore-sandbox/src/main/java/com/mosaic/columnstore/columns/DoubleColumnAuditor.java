@@ -18,7 +18,7 @@ class DoubleColumnAuditor extends BaseDoubleColumn implements ColumnAuditor {
 
     public DoubleColumnAuditor( DoubleColumn sourceColumn, long targetSampleCount ) {
         this.sourceColumn = sourceColumn;
-        this.visitedRows  = LongSet.factory( targetSampleCount );
+        this.visitedRows  = LongSet.concurrentFactory( targetSampleCount );
     }
 
     public String getColumnName() {
@@ -18,7 +18,7 @@ class FloatColumnAuditor extends BaseFloatColumn implements ColumnAuditor {
 
     public FloatColumnAuditor( FloatColumn sourceColumn, int targetSampleCount ) {
         this.sourceColumn = sourceColumn;
-        this.visitedRows  = LongSet.factory( targetSampleCount );
+        this.visitedRows  = LongSet.concurrentFactory( targetSampleCount );
     }
 
     public String getColumnName() {
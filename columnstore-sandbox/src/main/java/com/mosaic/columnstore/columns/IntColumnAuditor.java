@@ -18,7 +18,7 @@ class IntColumnAuditor extends BaseIntColumn implements ColumnAuditor {
 
     public IntColumnAuditor( IntColumn sourceColumn, int targetSampleCount ) {
         this.sourceColumn = sourceColumn;
-        this.visitedRows  = LongSet.factory( targetSampleCount );
+        this.visitedRows  = LongSet.concurrentFactory( targetSampleCount );
     }
 
     public String getColumnName() {
@@ -17,7 +17,7 @@ class LongColumnAuditor extends BaseLongColumn implements ColumnAuditor {
 
 
     public LongColumnAuditor( LongColumn sourceColumn, long targetSampleCount ) {
-        this( sourceColumn, LongSet.factory(targetSampleCount) );
+        this( sourceColumn, LongSet.concurrentFactory(targetSampleCount) );
     }
 
     public LongColumnAuditor( LongColumn sourceColumn, LongSet visitedRows ) {
@@ -38,9 +38,7 @@ class LongColumnAuditor extends BaseLongColumn implements ColumnAuditor {
     }
 
     public long get( long row ) {
-        synchronized (visitedRows) {  // LongSet is not thread safe
-            visitedRows.add(row);
-        }
+        visitedRows.add(row);
 
         return sourceColumn.get( row );
     }
@@ -89,6 +89,10 @@ public abstract class LongColumnFormula1 extends BaseLongColumn {
         return sourceColumn.getCodec();
     }
 
+    protected LongColumn getSourceColumn() {
+        return sourceColumn;
+    }
+
     public void writeValueTo( CharacterStream out, long row ) {
         if ( isSet(row) ) {
             long v = get(row);
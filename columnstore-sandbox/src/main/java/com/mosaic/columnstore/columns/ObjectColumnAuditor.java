@@ -17,7 +17,7 @@ public class ObjectColumnAuditor<T> extends BaseObjectColumn<T> implements Colum
 
     public ObjectColumnAuditor( ObjectColumn<T> sourceColumn, long targetSampleCount ) {
         this.sourceColumn = sourceColumn;
-        this.visitedRows  = LongSet.factory( targetSampleCount );
+        this.visitedRows  = LongSet.concurrentFactory( targetSampleCount );
     }
 
     public String getColumnName() {
@@ -2,11 +2,15 @@ package com.mosaic.columnstore;
 
 import com.mosaic.collections.LongIterator;
 import com.mosaic.collections.LongSet;
+import com.mosaic.columnstore.columns.LongColumnArray;
+import com.mosaic.lang.system.SystemX;
 import org.junit.ComparisonFailure;
 
 import java.util.Map;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 
@@ -50,4 +54,40 @@ public class ColumnTestUtils {
         }
     }
 
+    /**
+     * Creates a column where roughly one row in five is left unset.
+     */
+    public static LongColumn createSparseRandomColumn( SystemX system, String columnName, int rowCount, long seed ) {
+        LongColumn col = new LongColumnArray( system, columnName, "desc", rowCount );
+        Random     rnd = new Random( seed );
+
+        for ( int i=0; i<rowCount; i++ ) {
+            if ( rnd.nextInt(5) > 0 ) {
+                col.set( i, rnd.nextInt(20_000) - 10_000 );
+            }
+        }
+
+        return col;
+    }
+
+    /**
+     * Pre-populates a cache of the column, and then checks every row of the cache against the
+     * column's own get(row).
+     */
+    public static void assertPrePopulatedColumnMatchesGet( SystemX system, LongColumn col ) {
+        LongColumn cache = new LongColumnArray( system, "cache", "cache of "+col.getColumnName(), 10 );
+
+        col.prePopulateColumn( cache );
+
+        assertEquals( col.size(), cache.size() );
+
+        for ( long row=0; row<col.size(); row++ ) {
+            if ( col.isSet(row) ) {
+                assertEquals( "row " + row, col.get(row), cache.get(row) );
+            } else {
+                assertFalse( "row " + row, cache.isSet(row) );
+            }
+        }
+    }
+
 }
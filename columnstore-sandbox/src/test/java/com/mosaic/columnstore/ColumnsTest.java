@@ -1,5 +1,7 @@
 package com.mosaic.columnstore;
 
+import com.mosaic.columnstore.columns.LongColumnArray;
+import com.mosaic.columnstore.columns.LongColumnFormula1;
 import com.mosaic.io.streams.UTF8Builder;
 import com.mosaic.lang.system.DebugSystem;
 import com.mosaic.lang.system.SystemX;
@@ -90,4 +92,43 @@ public class ColumnsTest {
         );
     }
 
+
+// PRE-POPULATE
+
+    @Test
+    public void prePopulateColumns_expectEachCacheToHoldItsColumnsValues() {
+        int        rowCount = 100_000;
+        LongColumn a        = ColumnTestUtils.createSparseRandomColumn( system, "a", rowCount, 42 );
+        LongColumn b        = plus( "b", a, 1 );
+        LongColumn c        = plus( "c", b, 10 );
+        LongColumn d        = plus( "d", a, 100 );
+
+        Columns<LongColumn> caches = new Columns<>( c, d, b, a ).prePopulateColumns( col -> LongColumnArray.cache(system, col) );
+
+        assertEquals( 4, caches.numColumns() );
+
+        long[] offsets = {11, 100, 1, 0};
+        for ( int i=0; i<4; i++ ) {
+            LongColumn cache = caches.getColumn( i );
+
+            assertEquals( rowCount, cache.size() );
+
+            for ( long row=0; row<rowCount; row++ ) {
+                assertEquals( a.isSet(row), cache.isSet(row) );
+
+                if ( a.isSet(row) ) {
+                    assertEquals( a.get(row) + offsets[i], cache.get(row) );
+                }
+            }
+        }
+    }
+
+    private LongColumn plus( String columnName, LongColumn source, long delta ) {
+        return new LongColumnFormula1( system, columnName, "desc", "PLUS", source ) {
+            protected long get( long row, LongColumn col ) {
+                return col.get(row) + delta;
+            }
+        };
+    }
+
 }
@@ -10,7 +10,7 @@ import org.junit.Test;
 
 import java.util.Map;
 
-import static com.mosaic.columnstore.ColumnTestUtils.assertReferencedCellsEquals;
+import static com.mosaic.columnstore.ColumnTestUtils.*;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -225,4 +225,16 @@ public class MovingAverageLongColumnTest {
         }
     }
 
+
+// PRE-POPULATE
+
+    @Test
+    public void givenSparseSource_prePopulateColumn_expectEachCellToMatchGet() {
+        LongColumn source = createSparseRandomColumn( system, "cost", 10_000, 42 );
+
+        for ( int numSamples : new int[] {1, 3, 50} ) {
+            assertPrePopulatedColumnMatchesGet( system, new MovingAverageLongColumn(system, source, numSamples) );
+        }
+    }
+
 }
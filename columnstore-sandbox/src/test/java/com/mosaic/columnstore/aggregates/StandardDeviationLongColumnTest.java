@@ -7,7 +7,9 @@ import com.mosaic.lang.system.DebugSystem;
 import com.mosaic.lang.system.SystemX;
 import org.junit.Test;
 
-import static com.mosaic.columnstore.ColumnTestUtils.assertReferencedCellsEquals;
+import java.util.Random;
+
+import static com.mosaic.columnstore.ColumnTestUtils.*;
 import static org.junit.Assert.assertEquals;
 
 
@@ -176,4 +178,34 @@ public class StandardDeviationLongColumnTest {
         assertEquals( "stddev(cells)", explanation.toString() );
     }
 
+
+// PRE-POPULATE
+
+    @Test
+    public void givenSparseSource_prePopulateColumn_expectEachCellToMatchGet() {
+        LongColumn source = createSparseRandomColumn( system, "cost", 10_000, 42 );
+
+        for ( int numSamples : new int[] {1, 3, 50} ) {
+            assertPrePopulatedColumnMatchesGet( system, new StandardDeviationLongColumn(system, source, numSamples) );
+        }
+    }
+
+    @Test
+    public void givenLargeValuesWithARelativelySmallSpread_prePopulateColumn_expectEachCellToMatchGetExactly() {
+        LongColumn source = new LongColumnArray( system, "cost", "d", 20_000 );
+        Random     rnd    = new Random( 42 );
+
+        for ( int i=0; i<20_000; i++ ) {
+            source.set( i, 5_000_000_000_000L + Math.round(rnd.nextGaussian() * 1e9) );
+        }
+
+        for ( int numSamples : new int[] {2, 3, 50, 1000} ) {
+            assertPrePopulatedColumnMatchesGet( system, new StandardDeviationLongColumn(system, source, numSamples) );
+        }
+
+        StandardDeviationLongColumn stdDev = new StandardDeviationLongColumn( system, source, 1000 );
+
+        assertEquals( 1e9, stdDev.get(19_999), 1e8 );
+    }
+
 }
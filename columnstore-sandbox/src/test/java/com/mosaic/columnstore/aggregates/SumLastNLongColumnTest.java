@@ -7,7 +7,7 @@ import com.mosaic.lang.system.DebugSystem;
 import com.mosaic.lang.system.SystemX;
 import org.junit.Test;
 
-import static com.mosaic.columnstore.ColumnTestUtils.assertReferencedCellsEquals;
+import static com.mosaic.columnstore.ColumnTestUtils.*;
 import static org.junit.Assert.assertEquals;
 
 
@@ -184,4 +184,16 @@ public class SumLastNLongColumnTest {
         assertEquals( "SUM3(cost[10])", explanation.toString() );
     }
 
+
+// PRE-POPULATE
+
+    @Test
+    public void givenSparseSource_prePopulateColumn_expectEachCellToMatchGet() {
+        LongColumn source = createSparseRandomColumn( system, "cost", 10_000, 42 );
+
+        for ( int numSamples : new int[] {1, 3, 50} ) {
+            assertPrePopulatedColumnMatchesGet( system, new SumLastNLongColumn(system, source, numSamples) );
+        }
+    }
+
 }
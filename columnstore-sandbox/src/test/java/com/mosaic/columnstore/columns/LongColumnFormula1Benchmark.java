@@ -14,13 +14,13 @@ import org.junit.runner.RunWith;
 @RunWith(JUnitMosaicRunner.class)
 public class LongColumnFormula1Benchmark {
 
-    private SystemX    system       = new DebugSystem();
+    protected SystemX    system       = new DebugSystem();
 
 
-    private int        rowCount     = 1000000;
-    private LongColumn columnA      = LongColumnFormula1Test.createColumn(system, "A", rowCount);
-    private LongColumn columnB      = LongColumnFormula1Test.createFormulaColumn( system, "B", columnA );
-    private LongColumn columnBCache = new LongColumnArray( system, "BCache", "cache of B", rowCount );
+    protected int        rowCount     = 1000000;
+    protected LongColumn columnA      = LongColumnFormula1Test.createColumn(system, "A", rowCount);
+    protected LongColumn columnB      = LongColumnFormula1Test.createFormulaColumn( system, "B", columnA );
+    protected LongColumn columnBCache = new LongColumnArray( system, "BCache", "cache of B", rowCount );
 
     /**
       Serial version:     8.88ms per call
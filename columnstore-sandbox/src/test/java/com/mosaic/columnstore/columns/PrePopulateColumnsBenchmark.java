@@ -0,0 +1,46 @@
+package com.mosaic.columnstore.columns;
+
+import com.mosaic.columnstore.Columns;
+import com.mosaic.columnstore.LongColumn;
+import com.mosaic.columnstore.aggregates.MovingAverageLongColumn;
+import com.mosaic.columnstore.aggregates.StandardDeviationLongColumn;
+import com.mosaic.columnstore.aggregates.SumLastNLongColumn;
+import com.softwaremosaic.junit.JUnitMosaicRunner;
+import com.softwaremosaic.junit.annotations.Benchmark;
+import org.junit.runner.RunWith;
+
+
+/**
+ * Pre-populates several columns that are derived from columnA, some directly and some via
+ * columnB.  Compares populating them one after another with Columns.prePopulateColumns, which
+ * populates them all at the same time.
+ */
+@RunWith(JUnitMosaicRunner.class)
+@SuppressWarnings("unchecked")
+public class PrePopulateColumnsBenchmark extends LongColumnFormula1Benchmark {
+
+    private Columns<LongColumn> columns = new Columns<>(
+        columnB,
+        LongColumnFormula1Test.createFormulaColumn( system, "C", columnB ),
+        LongColumnFormula1Test.createFormulaColumn( system, "D", columnA ),
+        new MovingAverageLongColumn( system, columnA, 20 ),
+        new SumLastNLongColumn( system, columnB, 20 ),
+        new StandardDeviationLongColumn( system, columnA, 20 )
+    );
+
+    /**
+     * Creates its caches as it goes, as prePopulateColumns does.
+     */
+    @Benchmark( value=20 )
+    public void benchmarkPrePopulateColumnsOneAfterAnother() {
+        for ( LongColumn column : columns ) {
+            column.prePopulateColumn( LongColumnArray.cache(system, column) );
+        }
+    }
+
+    @Benchmark( value=20 )
+    public void benchmarkPrePopulateColumns() {
+        columns.prePopulateColumns( col -> LongColumnArray.cache(system, col) );
+    }
+
+}
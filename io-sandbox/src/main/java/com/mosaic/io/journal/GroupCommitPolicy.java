@@ -0,0 +1,53 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.lang.QA;
+import com.mosaic.lang.time.Duration;
+
+
+/**
+ * Controls how often a JournalWriter2 flushes its completed messages to disk when group commit
+ * has been enabled.  Rather than paying for an fsync per message, the messages are flushed as a
+ * batch when either the oldest unflushed message has waited for maxDelay or maxUnflushedMessages
+ * have built up;  whichever comes first.
+ */
+public class GroupCommitPolicy {
+
+    public static GroupCommitPolicy every( Duration maxDelay ) {
+        return new GroupCommitPolicy( maxDelay, Long.MAX_VALUE );
+    }
+
+    public static GroupCommitPolicy everyNMessages( long maxUnflushedMessages ) {
+        return new GroupCommitPolicy( Duration.INDEFINITE, maxUnflushedMessages );
+    }
+
+    public static GroupCommitPolicy every( Duration maxDelay, long maxUnflushedMessages ) {
+        return new GroupCommitPolicy( maxDelay, maxUnflushedMessages );
+    }
+
+
+    private final Duration maxDelay;
+    private final long     maxUnflushedMessages;
+
+
+    public GroupCommitPolicy( Duration maxDelay, long maxUnflushedMessages ) {
+        QA.argNotNull(  maxDelay,             "maxDelay"             );
+        QA.argIsGTZero( maxUnflushedMessages, "maxUnflushedMessages" );
+
+        this.maxDelay             = maxDelay;
+        this.maxUnflushedMessages = maxUnflushedMessages;
+    }
+
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    public long getMaxUnflushedMessages() {
+        return maxUnflushedMessages;
+    }
+
+    public String toString() {
+        return "GroupCommitPolicy(maxDelay="+maxDelay+", maxUnflushedMessages="+maxUnflushedMessages+")";
+    }
+
+}
@@ -6,12 +6,16 @@ import com.mosaic.io.filesystemx.FileX;
 import com.mosaic.lang.QA;
 import com.mosaic.lang.Service;
 import com.mosaic.lang.ServiceThread;
+import com.mosaic.lang.WaitStrategy;
 import com.mosaic.lang.functional.Function0;
 import com.mosaic.lang.functional.FunctionObj2Int;
 import com.mosaic.lang.functional.VoidFunction0;
 import com.mosaic.lang.system.SystemX;
+import com.mosaic.lang.time.SystemClock;
 
+import java.net.InetSocketAddress;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -19,9 +23,11 @@ import static com.mosaic.lang.ServiceThread.ThreadType.*;
 
 
 /**
- * A high speed, low GC, single writer, multiple reader, file backed journal.  A journal can be
+ * A high speed, low GC, multiple reader, file backed journal.  Written to either by a single
+ * JournalWriter2, or by multiple threads sharing a JournalMultiWriter2.  A journal can be
  * used to capture events and to replay them, either for recovery of a JVM on restart or to
- * distribute events between JVMs.
+ * distribute events between JVMs;  either via a shared file system, or by replicating the journal
+ * over TCP with createReplicationServer and createReplicationClient.
  */
 public class Journal2 {
 
@@ -29,15 +35,28 @@ public class Journal2 {
     static final long FILEFOOTER_SIZE             = JournalDataFile2.FILEFOOTER_SIZE;
     static final long PER_MSGHEADER_SIZE          = JournalDataFile2.PER_MSGHEADER_SIZE;
     static final long DEFAULT_PER_FILE_SIZE_BYTES = 100 * SystemX.MEGABYTE;
+    static final int  ASYNC_READER_BATCH_SIZE     = 1024;
 
 
-    final DirectoryX dataDirectory;
-    final String     serviceName;
-    final long       perFileSizeBytes;
+    final DirectoryX      dataDirectory;
+    final String          serviceName;
+    final long            perFileSizeBytes;
+    final JournalChecksum checksum;
 
     private final Function0<String> writerServiceNameFactory;
     private final Function0<String> readerServiceNameFactory;
     private final Function0<String> asyncReaderServiceNameFactory;
+    private final Function0<String> retentionServiceNameFactory;
+    private final Function0<String> replicationServerServiceNameFactory;
+    private final Function0<String> replicationClientServiceNameFactory;
+
+    private final List<JournalReaderPosition> runningReaders = new CopyOnWriteArrayList<>();
+
+    /**
+     * Held while a reader opens a data file by seq and while a data file is retired, so that a
+     * data file is never retired from under a reader that is about to open it.
+     */
+    final Object retentionLock = new Object();
 
 
     public Journal2( DirectoryX dataDirectory, String serviceName ) {
@@ -45,16 +64,30 @@ public class Journal2 {
     }
 
     public Journal2( DirectoryX dataDirectory, String serviceName, long perFileSizeBytes ) {
+        this( dataDirectory, serviceName, perFileSizeBytes, JournalChecksum.SUM_OF_LONGS );
+    }
+
+    /**
+     * @param checksum the checksum used to protect the messages of newly created data files;  existing
+     *                 data files continue to use the checksum recorded in their header
+     */
+    public Journal2( DirectoryX dataDirectory, String serviceName, long perFileSizeBytes, JournalChecksum checksum ) {
         QA.argNotNull(  dataDirectory,    "dataDirectory"    );
         QA.argIsGTZero( perFileSizeBytes, "perFileSizeBytes" );
+        QA.argNotNull(  checksum,         "checksum"         );
 
         this.dataDirectory    = dataDirectory;
         this.serviceName      = serviceName;
         this.perFileSizeBytes = perFileSizeBytes;
+        this.checksum         = checksum;
 
         this.writerServiceNameFactory      = NameFactoryUtils.createSequenceNameFactory(serviceName+"-writer");
         this.readerServiceNameFactory      = NameFactoryUtils.createSequenceNameFactory(serviceName+"-reader");
         this.asyncReaderServiceNameFactory = NameFactoryUtils.createSequenceNameFactory(serviceName+"-asyncreader");
+        this.retentionServiceNameFactory   = NameFactoryUtils.createSequenceNameFactory(serviceName+"-retention");
+
+        this.replicationServerServiceNameFactory = NameFactoryUtils.createSequenceNameFactory(serviceName+"-replicationserver");
+        this.replicationClientServiceNameFactory = NameFactoryUtils.createSequenceNameFactory(serviceName+"-replicationclient");
     }
 
 
@@ -64,6 +97,74 @@ public class Journal2 {
         return new JournalWriter2( this, writerServiceName );
     }
 
+    /**
+     * Creates a writer that flushes its completed messages to disk in batches, as governed by
+     * the specified policy.  See JournalWriter2.awaitDurable().
+     */
+    public JournalWriter2 createWriter( GroupCommitPolicy groupCommitPolicy ) {
+        QA.argNotNull( groupCommitPolicy, "groupCommitPolicy" );
+
+        String writerServiceName = writerServiceNameFactory.invoke();
+
+        return new JournalWriter2( this, writerServiceName, groupCommitPolicy, false );
+    }
+
+    /**
+     * Creates a writer that has a background thread create and pre-fault the next data file while
+     * the current one is still being filled;  taking the cost of creating and mapping a file off
+     * of the writer's thread when it rolls over.
+     *
+     * @param groupCommitPolicyNbl when not null, enables group commit as per createWriter(GroupCommitPolicy)
+     */
+    public JournalWriter2 createPreallocatingWriter( GroupCommitPolicy groupCommitPolicyNbl ) {
+        String writerServiceName = writerServiceNameFactory.invoke();
+
+        return new JournalWriter2( this, writerServiceName, groupCommitPolicyNbl, true );
+    }
+
+    /**
+     * Creates a writer that may be shared by multiple producer threads.  See JournalMultiWriter2.
+     */
+    public JournalMultiWriter2 createMultiWriter() {
+        String writerServiceName = writerServiceNameFactory.invoke();
+
+        return new JournalMultiWriter2( this, writerServiceName );
+    }
+
+    /**
+     * Creates a background service that deletes the oldest data files of this journal, as governed
+     * by the specified policy.  The clock is used to age the data files.
+     */
+    public JournalRetentionService createRetentionService( JournalRetentionPolicy policy, SystemClock clock ) {
+        return new JournalRetentionService( this, retentionServiceNameFactory.invoke(), policy, clock, null );
+    }
+
+    /**
+     * Creates a background service that moves the oldest data files of this journal into
+     * archiveDirectory as gzip compressed files, as governed by the specified policy.
+     */
+    public JournalRetentionService createRetentionService( JournalRetentionPolicy policy, SystemClock clock, DirectoryX archiveDirectory ) {
+        QA.argNotNull( archiveDirectory, "archiveDirectory" );
+
+        return new JournalRetentionService( this, retentionServiceNameFactory.invoke(), policy, clock, archiveDirectory );
+    }
+
+    /**
+     * Creates a server that streams this journal to followers in other processes, see
+     * createReplicationClient.  Bind to port zero to have a free port chosen when the server starts.
+     */
+    public JournalReplicationServer createReplicationServer( InetSocketAddress bindAddress ) {
+        return new JournalReplicationServer( this, replicationServerServiceNameFactory.invoke(), bindAddress );
+    }
+
+    /**
+     * Creates a client that makes this journal a copy of the journal served by a JournalReplicationServer
+     * at leaderAddress.  The client writes to this journal, so it must not have any other writers.
+     */
+    public JournalReplicationClient createReplicationClient( InetSocketAddress leaderAddress ) {
+        return new JournalReplicationClient( this, replicationClientServiceNameFactory.invoke(), leaderAddress );
+    }
+
     public JournalReader2 createReader() {
         String readerServiceName = readerServiceNameFactory.invoke();
 
@@ -74,36 +175,30 @@ public class Journal2 {
         return createReaderAsync( callback, () -> {}, 0 );
     }
 
+    public ServiceThread<?> createReaderAsync( JournalReaderCallback callback, WaitStrategy waitStrategy ) {
+        return createReaderAsync( callback, () -> {}, 0, waitStrategy );
+    }
+
     public Service createReaderAsync( JournalReaderCallback callback, VoidFunction0 idleCallback ) {
         return createReaderAsync( callback, idleCallback, 0 );
     }
 
     public Service createReaderAsync( JournalReaderCallback callback, VoidFunction0 idleCallback, long fromSeq ) {
+        return createReaderAsync( callback, idleCallback, fromSeq, WaitStrategy.sleep() );
+    }
+
+    /**
+     * Creates a reader that delivers messages from its own thread.  The wait strategy decides how
+     * that thread waits for the next message, and trades CPU for latency;  the default sleeps
+     * for 10ms while spinning delivers within microseconds.  The returned ServiceThread reports how
+     * often the reader went idle, and the wait strategy how often it spun, yielded and parked.
+     */
+    public ServiceThread<?> createReaderAsync( JournalReaderCallback callback, VoidFunction0 idleCallback, long fromSeq, WaitStrategy waitStrategy ) {
         String         readerName = asyncReaderServiceNameFactory.invoke();
         JournalReader2 reader     = createReader();
 
 
-        ServiceThread thread = new ServiceThread(readerName, NON_DAEMON) {
-            private long sequentialIdleCount = 0;
-
-            protected long loop() throws InterruptedException {
-                boolean successFlag = reader.readNextUsingCallback( callback );
-
-                if ( successFlag ) {
-                    sequentialIdleCount = 0;
-
-                    return 0;
-                } else {
-                    sequentialIdleCount++;
-
-                    if ( sequentialIdleCount == 10 ) {
-                        idleCallback.invoke();
-                    }
-
-                    return 10;
-                }
-            }
-        };
+        AsyncReaderThread thread = new AsyncReaderThread( readerName, waitStrategy, reader, callback, idleCallback );
 
         reader.onStartAfter( () -> {
             if ( fromSeq > 0 ) {
@@ -120,6 +215,18 @@ public class Journal2 {
 
 
 
+    void readerStarted( JournalReaderPosition reader ) {
+        runningReaders.add( reader );
+    }
+
+    void readerStopped( JournalReaderPosition reader ) {
+        runningReaders.remove( reader );
+    }
+
+    List<JournalReaderPosition> getRunningReaders() {
+        return runningReaders;
+    }
+
     JournalDataFile2 selectLastFileRW() {
         int fileSeq = selectLastFileSeq();
 
@@ -140,6 +247,8 @@ public class Journal2 {
 
         JournalDataFile2 dataFile = newDataFile( fileSeq, FileModeEnum.READ_ONLY ).open();
 
+        dataFile.seekToClosestIndexedMessage( targetMessageSeq );
+
         while ( dataFile.getCurrentMessageSeq() != targetMessageSeq ) {
             boolean successFlag = dataFile.scrollToNext();
 
@@ -153,7 +262,7 @@ public class Journal2 {
 
 
     private JournalDataFile2 newDataFile( int fileSeq, FileModeEnum fileMode ) {
-        return new JournalDataFile2( dataDirectory, serviceName, fileSeq, perFileSizeBytes, fileMode );
+        return new JournalDataFile2( dataDirectory, serviceName, fileSeq, perFileSizeBytes, fileMode, checksum );
     }
 
     private int selectLastFileSeq() {
@@ -183,7 +292,7 @@ public class Journal2 {
         }
     }
 
-    private List<FileX> fetchSortedFiles() {
+    List<FileX> fetchSortedFiles() {
         List<FileX> dataFiles = dataDirectory.files( f -> f.getFileName().startsWith(serviceName) && f.getFileName().endsWith(".data") );
 
         dataFiles.sort( new JournalDataFile2.DataFileNameComparator(serviceName) );
@@ -191,44 +300,97 @@ public class Journal2 {
         return dataFiles;
     }
 
+    /**
+     * Binary searches the data files for the last one that starts at or before targetMessageSeq.
+     * The first message seq of each data file is taken from the first seq table, falling back to
+     * the header of the data file for files that were not recorded in the table.
+     */
     private int findJournalFileThatContainsMessageSeq( long targetMessageSeq ) {
         return selectFileSeq( files -> {
-            // scan through the data files in order, looking for targetMessageSeq.
-            JournalDataFile2 previousDataFile        = null;
-            int              indexOfPreviousDataFile = -1;
-            for ( int i = 0; i < files.size(); i++ ) {
-                FileX f = files.get( i );
-                int fs = JournalDataFile2.extractFileSeq( f, serviceName );
-                JournalDataFile2 dataFile = new JournalDataFile2( dataDirectory, serviceName, fs, perFileSizeBytes, FileModeEnum.READ_WRITE ).open();
-
-                try {
-                    if ( dataFile.getCurrentMessageSeq() > targetMessageSeq ) {
-                        if ( previousDataFile == null ) {
-                            throw new JournalNotFoundException2(
-                                String.format( "Unable to find msg seq '%s' under '%s'; has the data file been removed?", targetMessageSeq, dataDirectory.getFullPath() + "/" + serviceName )
-                            );
-                        }
-
-                        return i-1;
-                    } else if ( dataFile.getCurrentMessageSeq() == targetMessageSeq ) {
-                        return i;
+            DirectoryX            indexDirectory = dataDirectory.getDirectory( JournalDataFile2.indexDirectoryName(serviceName) );
+            JournalFirstSeqTable2 firstSeqTable  = JournalFirstSeqTable2.openRO( indexDirectory, serviceName );
+
+            try {
+                int lhs   = 0;
+                int rhs   = files.size() - 1;
+                int match = -1;
+
+                while ( lhs <= rhs ) {
+                    int  mid      = (lhs + rhs) >>> 1;
+                    long firstSeq = fetchFirstMessageSeq( firstSeqTable, files.get(mid) );
+
+                    if ( firstSeq <= targetMessageSeq ) {
+                        match = mid;
+                        lhs   = mid + 1;
+                    } else {
+                        rhs   = mid - 1;
                     }
-                } finally {
-                    dataFile.close();
                 }
 
-                previousDataFile        = dataFile;
-                indexOfPreviousDataFile = i;
-            }
+                if ( match < 0 ) {
+                    throw new JournalNotFoundException2(
+                        String.format( "Unable to find msg seq '%s' under '%s'; has the data file been removed?", targetMessageSeq, dataDirectory.getFullPath() + "/" + serviceName )
+                    );
+                }
 
-            if ( previousDataFile == null ) {
-                throw new JournalNotFoundException2(
-                    String.format( "Unable to find journal data file containing msg seq '%s' under '%s'", targetMessageSeq, dataDirectory.getFullPath() + "/" + serviceName )
-                );
+                return match;
+            } finally {
+                firstSeqTable.close();
             }
-
-            return indexOfPreviousDataFile;
         } );
     }
 
+    private long fetchFirstMessageSeq( JournalFirstSeqTable2 firstSeqTable, FileX f ) {
+        int  fileSeq  = JournalDataFile2.extractFileSeq( f, serviceName );
+        long firstSeq = firstSeqTable.getFirstMessageSeq( fileSeq );
+
+        if ( firstSeq >= 0 ) {
+            return firstSeq;
+        }
+
+        JournalDataFile2 dataFile = newDataFile( fileSeq, FileModeEnum.READ_ONLY ).open();
+
+        try {
+            return dataFile.getCurrentMessageSeq();
+        } finally {
+            dataFile.close();
+        }
+    }
+
+
+
+    private static class AsyncReaderThread extends ServiceThread<AsyncReaderThread> {
+        private final JournalReader2        reader;
+        private final JournalReaderCallback callback;
+        private final VoidFunction0         idleCallback;
+
+        private long sequentialIdleCount = 0;
+
+        public AsyncReaderThread( String readerName, WaitStrategy waitStrategy, JournalReader2 reader, JournalReaderCallback callback, VoidFunction0 idleCallback ) {
+            super( readerName, NON_DAEMON, waitStrategy );
+
+            this.reader       = reader;
+            this.callback     = callback;
+            this.idleCallback = idleCallback;
+        }
+
+        protected long loop() throws InterruptedException {
+            int numMessagesRead = reader.readNextBatchUsingCallback( callback, ASYNC_READER_BATCH_SIZE );
+
+            if ( numMessagesRead > 0 ) {
+                sequentialIdleCount = 0;
+
+                return 0;
+            } else {
+                sequentialIdleCount++;
+
+                if ( sequentialIdleCount == 10 ) {
+                    idleCallback.invoke();
+                }
+
+                return 10;
+            }
+        }
+    }
+
 }
@@ -0,0 +1,71 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.bytes2.Bytes2;
+
+
+/**
+ * The checksums that may be used to protect the payload of each journal message.  Selected
+ * per journal when it is created, and recorded in the header of each data file so that files
+ * written with different checksums may be read back from the same journal.
+ */
+public enum JournalChecksum {
+
+    /**
+     * The original checksum, and the only one supported by version 1 data files.  Sums the
+     * payload a long at a time which is very cheap, however it skips the trailing bytes of each
+     * payload;  so corruption of the last 1-8 bytes goes undetected.
+     */
+    SUM_OF_LONGS( (byte) 0 ) {
+        public int calculate( Bytes2 bytes, long fromInc, long toExc ) {
+            long sum = 7;
+
+            // incrementing in 8's means that some bytes at the end of a message may not be included
+            // this is a pragmatic trade-off between robustness and speed.  Summing longs is much
+            // faster than summing bytes, and is marginally faster than ints.  An extra for loop
+            // to catch the stragglers doubles the cost of the checksum.  If this becomes a serious
+            // concern, then use CRC32C instead.
+            for ( long i=fromInc; i<toExc-8; i+=8 ) {
+                sum += bytes.readLong( i, toExc );
+
+                sum += sum;  // double add here makes the checksum sensitive to the order of the bytes
+            }
+
+            return (int) sum;
+        }
+    },
+
+    /**
+     * CRC-32C over every byte of the payload.
+     */
+    CRC32C( (byte) 1 ) {
+        public int calculate( Bytes2 bytes, long fromInc, long toExc ) {
+            return com.mosaic.io.CRC32C.calculate( bytes, fromInc, toExc );
+        }
+    };
+
+
+    private static final JournalChecksum[] VALUES = values();
+
+    public static JournalChecksum fromId( byte id ) {
+        if ( id < 0 || id >= VALUES.length ) {
+            throw new IllegalStateException( "Unknown journal checksum id: " + id );
+        }
+
+        return VALUES[id];
+    }
+
+
+    private final byte id;
+
+    private JournalChecksum( byte id ) {
+        this.id = id;
+    }
+
+
+    public byte getId() {
+        return id;
+    }
+
+    public abstract int calculate( Bytes2 bytes, long fromInc, long toExc );
+
+}
@@ -1,5 +1,6 @@
 package com.mosaic.io.journal;
 
+import com.mosaic.bytes2.Bytes2;
 import com.mosaic.bytes2.BytesView2;
 import com.mosaic.io.CheckSumException;
 import com.mosaic.io.filesystemx.DirectoryX;
@@ -9,7 +10,10 @@ import com.mosaic.io.filesystemx.FileX;
 import com.mosaic.lang.QA;
 import com.mosaic.lang.system.Backdoor;
 
+import java.nio.channels.WritableByteChannel;
 import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -19,8 +23,11 @@ class JournalDataFile2 {
 
 
     // Data file format:
-    // |------------10 bytes-------------------| -------------8 bytes------------------
-    // | version:ushort | startFromMsgSeq:long | (payloadLength:int,payloadHashCode:int, payload:byte[])* |
+    // |---------------------10 bytes-----------------------| -------------8 bytes------------------
+    // | version:byte | checksum:byte | startFromMsgSeq:long | (payloadLength:int,payloadHashCode:int, payload:byte[])* |
+
+//    version 1 files were written before the version was recorded, and so have 0 for both version and
+//    checksum.  They always use JournalChecksum.SUM_OF_LONGS.  Version 2 files record the id of their checksum.
 
 //    reader stops when payloadLength is read as zero
 //    payloadLength of -1 means that the data file has come to an end, and that there will be another data file to roll over to.
@@ -39,6 +46,14 @@ class JournalDataFile2 {
      */
     public static final long FILEHEADER_JOURNALVERSION_INDEX   =  0;
 
+    /**
+     * the id of the JournalChecksum used by each message in the file, since version 2
+     */
+    public static final long FILEHEADER_CHECKSUM_INDEX         =  1;
+
+    public static final byte JOURNAL_VERSION_1                 =  1;
+    public static final byte JOURNAL_VERSION_2                 =  2;
+
     /**
      * how many messages have preceded this point from other files
      */
@@ -48,6 +63,17 @@ class JournalDataFile2 {
     public static final long PER_MSGHEADER_HASHCODE_INDEX      =  4;
 
 
+    /**
+     * Return codes from claimAndAssignTo().
+     */
+    public static final int  CLAIM_SUCCEEDED                   =  0;
+    public static final int  CLAIM_FAILED_FILE_FULL            =  1;
+    public static final int  CLAIM_FAILED_ROLL_REQUIRED        =  2;
+
+    private static final long CLAIMSTATE_OFFSET_MASK           = 0xFFFFFFFFL;
+    private static final long MAX_CONCURRENT_FILE_SIZE         = CLAIMSTATE_OFFSET_MASK;
+
+
 //    public static final long PER_MSGHEADER_PAYLOADSIZE_SIZE    =  4;
 //    public static final long PER_MSGHEADER_HASH_SIZE           =  4;
 
@@ -63,23 +89,47 @@ class JournalDataFile2 {
     private final FileModeEnum fileMode;
 
 
-    private FileX         file;
-    private FileContents2 contents;
-    private long          fileSize;
-    private long          footerOffset;
+    private final JournalChecksum checksumForNewFiles;
+
+
+    private FileX                 file;
+    private FileContents2         contents;
+    private JournalIndexFile2     index;           // only opened by writers
+    private JournalFirstSeqTable2 firstSeqTable;   // only opened by preallocate(), until setFirstMessageSeq()
+    private JournalChecksum       checksum;        // used when writing messages
+    private long                  firstMessageSeq;
+    private long                  fileSize;
+    private long                  footerOffset;
 
-    private long          currentIndex;
-    private long          currentToExc;
-    private long          currentMessageSeq;
+    private long                  currentIndex;
+    private long                  currentToExc;
+    private long                  currentMessageSeq;
+
+    // Multiple producer state, only created by initConcurrentAppends()
+    private AtomicLong            claimState;            // (numClaimedMessages << 32) | endOffset
+    private AtomicLong            numPublishedMessages;
+    private AtomicBoolean         isClosed;
+    private volatile long         numClaimedMessagesWhenSealed = -1;
+    private long                  sealedAtOffset               = -1;  // only touched by the producer that sealed the file
+    private long                  numClaimedAtSeal;
 
 
 
     public JournalDataFile2( DirectoryX dataDirectory, String journalName, int fileSeq, long perFileSizeBytes, FileModeEnum readWrite ) {
-        this.dataDirectory    = dataDirectory;
-        this.journalName      = journalName;
-        this.fileSeq          = fileSeq;
-        this.perFileSizeBytes = perFileSizeBytes;
-        this.fileMode         = readWrite;
+        this( dataDirectory, journalName, fileSeq, perFileSizeBytes, readWrite, JournalChecksum.SUM_OF_LONGS );
+    }
+
+    /**
+     * @param checksumForNewFiles the checksum that a writer records in the header of a data file that
+     *                            has yet to have any messages written to it
+     */
+    public JournalDataFile2( DirectoryX dataDirectory, String journalName, int fileSeq, long perFileSizeBytes, FileModeEnum readWrite, JournalChecksum checksumForNewFiles ) {
+        this.dataDirectory       = dataDirectory;
+        this.journalName         = journalName;
+        this.fileSeq             = fileSeq;
+        this.perFileSizeBytes    = perFileSizeBytes;
+        this.fileMode            = readWrite;
+        this.checksumForNewFiles = checksumForNewFiles;
     }
 
 
@@ -95,11 +145,93 @@ class JournalDataFile2 {
         fileSize     = targetFileSize;
         footerOffset = this.fileSize - FILEFOOTER_SIZE;
 
+        if ( fileMode.isWritable() ) {
+            this.index = JournalIndexFile2.openRW( dataDirectory.getOrCreateDirectory(indexDirectoryName(journalName)), journalName, fileSeq, fileSize );
+
+            writeVersionHeaderIfEmpty();
+        }
+
+        this.checksum = readChecksumFromHeader();
+
         seekToBeginningOfFile();
 
         return this;
     }
 
+    /**
+     * Creates, sizes and touches every page of this data file under a temporary name, so that
+     * the cost of creating the file and of the page faults on the first writes is paid before
+     * the writer rolls on to it.  Its index and the journal's first seq table are created and
+     * mapped here too, leaving nothing but renames and writes to already mapped memory for the
+     * roll over itself.  Readers do not see the file until publishPreallocated() gives it its
+     * real name.
+     */
+    public JournalDataFile2 preallocate() {
+        QA.isNull( contents, "contents" );
+        QA.isTrue( fileMode.isWritable(), "only writers preallocate data files" );
+
+        FileX staleFile = dataDirectory.getFile( preallocatedFileName(journalName, fileSeq) );
+        if ( staleFile != null ) {   // left behind by a writer that did not shut down cleanly
+            staleFile.delete();
+        }
+
+        this.file     = dataDirectory.getOrCreateFile( preallocatedFileName(journalName, fileSeq) );
+        this.contents = file.openFile2( fileMode, perFileSizeBytes );
+
+        fileSize     = perFileSizeBytes;
+        footerOffset = this.fileSize - FILEFOOTER_SIZE;
+
+        long pageSize = Backdoor.getPageSize();
+        for ( long i=0; i<fileSize; i+=pageSize ) {
+            contents.writeByte( i, fileSize, (byte) 0 );
+        }
+
+        writeVersionHeaderIfEmpty();
+
+        DirectoryX indexDirectory = dataDirectory.getOrCreateDirectory( indexDirectoryName(journalName) );
+
+        this.index         = JournalIndexFile2.openPreallocated( indexDirectory, journalName, fileSeq, fileSize );
+        this.firstSeqTable = JournalFirstSeqTable2.openRW( indexDirectory, journalName, fileSeq );
+
+        this.checksum = readChecksumFromHeader();
+
+        seekToBeginningOfFile();
+
+        return this;
+    }
+
+    /**
+     * Gives a preallocated data file and its index their real names.  Must be followed by
+     * setFirstMessageSeq(), before the previous data file is sealed.
+     */
+    public JournalDataFile2 publishPreallocated() {
+        QA.notNull( contents, "contents" );
+
+        file.renameTo( dataFileName(journalName, fileSeq) );
+        index.publishPreallocated( journalName, fileSeq );
+
+        return this;
+    }
+
+    /**
+     * Releases and deletes a preallocated data file that will not be used.
+     */
+    public void discardPreallocated() {
+        FileX preallocatedFile = file;
+
+        if ( index != null ) {
+            index.discardPreallocated();
+
+            index = null;
+        }
+
+        close();
+
+        if ( preallocatedFile != null ) {
+            preallocatedFile.delete();
+        }
+    }
+
     public void seekToEnd() {
         while ( isReadyToReadNextMessage() /*&& !hasReachedEOFMarker()*/ ) {   // reached the end of the journal
             int i = contents.readInt( currentIndex + PER_MSGHEADER_PAYLOADSIZE_INDEX, fileSize );
@@ -125,11 +257,148 @@ class JournalDataFile2 {
         // used here so that any local memory readers get to see the change
         // asap, and in a known sequential order
 
+        indexMessage( currentMessageSeq, currentIndex );
+
         currentMessageSeq++;
 
         currentIndex = currentToExc;
     }
 
+    /**
+     * Prepares this file for use by multiple producers, appending from the current position.
+     * Call after seekToEnd() or setFirstMessageSeq().  The end of file pointer is packed into
+     * a single long with a count of the messages claimed, so that both may be claimed with a
+     * single CAS;  which limits the file size to 4GB.
+     */
+    public JournalDataFile2 initConcurrentAppends() {
+        QA.isLTE( fileSize, MAX_CONCURRENT_FILE_SIZE, "fileSize" );
+        QA.isEqualTo( currentIndex, currentToExc, "currentIndex", "currentToExc" );
+
+        this.claimState           = new AtomicLong( currentIndex );
+        this.numPublishedMessages = new AtomicLong();
+        this.isClosed             = new AtomicBoolean( false );
+
+        return this;
+    }
+
+    /**
+     * Thread safe version of allocateAndAssignTo().  Space is claimed by a CAS on the end of file
+     * pointer, after which the payload may be written in parallel with other producers.  The
+     * message is invisible to readers until publish() has been called;  readers stop at the
+     * first unpublished message, so they always see a gap free sequence.<p/>
+     *
+     * When the message does not fit, the first producer to fail seals the file and is told to
+     * roll over to the next file (CLAIM_FAILED_ROLL_REQUIRED), after which it must call
+     * writeEOFMarker().  Every other producer receives CLAIM_FAILED_FILE_FULL and must wait for
+     * the next file.
+     */
+    public int claimAndAssignTo( JournalEntry entry, int messageSizeBytes ) {
+        while ( true ) {
+            long state     = claimState.get();
+            long endOffset = state & CLAIMSTATE_OFFSET_MASK;
+            long numClaims = state >>> 32;
+
+            if ( endOffset > footerOffset ) {
+                return CLAIM_FAILED_FILE_FULL;
+            }
+
+            long payloadIndex         = endOffset + PER_MSGHEADER_SIZE;
+            long proposedEndOfMessage = payloadIndex + messageSizeBytes;
+
+            if ( proposedEndOfMessage > footerOffset ) {
+                if ( claimState.compareAndSet(state, (numClaims << 32) | (footerOffset+1)) ) {
+                    this.sealedAtOffset     = endOffset;
+                    this.numClaimedAtSeal   = numClaims;
+
+                    return CLAIM_FAILED_ROLL_REQUIRED;
+                }
+            } else if ( claimState.compareAndSet(state, ((numClaims+1) << 32) | proposedEndOfMessage) ) {
+                contents.writeInt( endOffset + PER_MSGHEADER_PAYLOADSIZE_INDEX, proposedEndOfMessage, messageSizeBytes );
+
+                entry.msgSeq             = currentMessageSeq + numClaims;
+                entry.claimedFrom        = this;
+                entry.claimedHeaderIndex = endOffset;
+                entry.bytes.setBytes( contents, payloadIndex, proposedEndOfMessage );
+
+                return CLAIM_SUCCEEDED;
+            }
+        }
+    }
+
+    /**
+     * Makes a message that was claimed via claimAndAssignTo() visible to readers.  The hash
+     * is written last, as the readers treat a non-zero hash as the signal that the message
+     * is ready.
+     */
+    public void publish( JournalEntry entry ) {
+        long headerIndex  = entry.claimedHeaderIndex;
+        long payloadIndex = headerIndex + PER_MSGHEADER_SIZE;
+        long payloadEnd   = payloadIndex + contents.readInt( headerIndex + PER_MSGHEADER_PAYLOADSIZE_INDEX, payloadIndex );
+
+        int hash = calcHash( payloadIndex, payloadEnd );
+
+        Backdoor.storeFence(); // the header and payload must be visible before the hash
+        contents.writeInt( headerIndex + PER_MSGHEADER_HASHCODE_INDEX, payloadEnd, hash );
+
+        entry.claimedFrom = null;
+
+        indexMessage( entry.msgSeq, headerIndex );
+
+        long numPublished = numPublishedMessages.incrementAndGet();
+        if ( numPublished == numClaimedMessagesWhenSealed ) {
+            closeOnce();
+        }
+    }
+
+    /**
+     * The seq that the file after this one starts from.  Only valid for the producer that was
+     * told to roll over by claimAndAssignTo().
+     */
+    public long getNextFilesFirstMessageSeq() {
+        QA.isGTEZero( sealedAtOffset, "sealedAtOffset" );
+
+        return currentMessageSeq + numClaimedAtSeal;
+    }
+
+    /**
+     * Writes the EOF marker that tells readers to move on to the next file.  Called by the
+     * producer that was told to roll over, once the next file has been created;  so that readers
+     * never open the next file before its header has been written.
+     */
+    public void writeEOFMarker() {
+        QA.isGTEZero( sealedAtOffset, "sealedAtOffset" );
+
+        contents.writeInt( sealedAtOffset + PER_MSGHEADER_PAYLOADSIZE_INDEX, fileSize, -1 );
+        Backdoor.storeFence();
+        contents.writeInt( sealedAtOffset + PER_MSGHEADER_HASHCODE_INDEX,    fileSize, -1 );
+
+        sealAfter( numClaimedAtSeal );
+    }
+
+    /**
+     * Closes a concurrently appended file, unless claimed messages are still being written in
+     * which case the producer that publishes the last of them will close it.
+     */
+    public void closeWhenPublished() {
+        long numClaimed = claimState.get() >>> 32;
+
+        sealAfter( numClaimed );
+    }
+
+    private void sealAfter( long numClaimed ) {
+        this.numClaimedMessagesWhenSealed = numClaimed;
+
+        if ( numPublishedMessages.get() == numClaimed ) {
+            closeOnce();
+        }
+    }
+
+    private void closeOnce() {
+        if ( isClosed.compareAndSet(false, true) ) {
+            close();
+        }
+    }
+
     public void flush() {
         if ( contents != null ) {
             Backdoor.storeFence();
@@ -138,6 +407,18 @@ class JournalDataFile2 {
         }
     }
 
+    /**
+     * Flushes the specified range of bytes within this file to disk.  Used by group commit
+     * to only fsync the messages that have been completed since the previous flush.
+     */
+    public void flush( long fromInc, long toExc ) {
+        if ( contents != null && toExc > fromInc ) {
+            Backdoor.storeFence();
+
+            contents.flush( fromInc, toExc );
+        }
+    }
+
     public void close() {
         if ( contents != null ) {
             flush();
@@ -147,10 +428,22 @@ class JournalDataFile2 {
             contents = null;
             file     = null;
         }
+
+        if ( index != null ) {
+            index.close();
+
+            index = null;
+        }
+
+        closeFirstSeqTable();
     }
 
     public JournalDataFile2 nextFile() {
-        return new JournalDataFile2( dataDirectory, journalName, fileSeq+1, perFileSizeBytes, fileMode );
+        return new JournalDataFile2( dataDirectory, journalName, fileSeq+1, perFileSizeBytes, fileMode, checksumForNewFiles );
+    }
+
+    public JournalDataFile2 previousFile() {
+        return new JournalDataFile2( dataDirectory, journalName, fileSeq-1, perFileSizeBytes, fileMode, checksumForNewFiles );
     }
 
 
@@ -158,16 +451,121 @@ class JournalDataFile2 {
         contents.writeLong( FILEHEADER_STARTSFROMMSGSEQ_INDEX, FILEHEADER_SIZE, firstMessageSeq );
 
         this.currentMessageSeq = firstMessageSeq;
+        this.firstMessageSeq   = firstMessageSeq;
+
+        if ( firstSeqTable != null ) {  // mapped by preallocate()
+            firstSeqTable.record( fileSeq, firstMessageSeq );
+
+            closeFirstSeqTable();
+        } else {
+            JournalFirstSeqTable2.record( dataDirectory.getOrCreateDirectory(indexDirectoryName(journalName)), journalName, fileSeq, firstMessageSeq );
+        }
+    }
+
+    private void closeFirstSeqTable() {
+        if ( firstSeqTable != null ) {
+            firstSeqTable.close();
+
+            firstSeqTable = null;
+        }
+    }
+
+    /**
+     * Uses the data files index to jump to the closest indexed message at or before the target
+     * message.  Leaves the position unchanged when the file has not been indexed.
+     */
+    public void seekToClosestIndexedMessage( long targetMessageSeq ) {
+        long relativeTargetSeq = targetMessageSeq - firstMessageSeq;
+        if ( relativeTargetSeq <= 0 ) {
+            return;
+        }
+
+        DirectoryX        indexDirectory = dataDirectory.getDirectory( indexDirectoryName(journalName) );
+        JournalIndexFile2 indexFile      = indexDirectory == null ? null : JournalIndexFile2.openRO( indexDirectory, journalName, fileSeq );
+
+        if ( indexFile == null ) {
+            return;
+        }
+
+        try {
+            long slot = indexFile.findClosestSlot( relativeTargetSeq );
+
+            if ( slot > 0 ) {
+                this.currentIndex      = indexFile.getOffset( slot );
+                this.currentToExc      = currentIndex;
+                this.currentMessageSeq = firstMessageSeq + slot*JournalIndexFile2.INDEX_INTERVAL;
+            }
+        } finally {
+            indexFile.close();
+        }
+    }
+
+    static String indexDirectoryName( String journalName ) {
+        return journalName + "-index";
     }
 
     private void seekToBeginningOfFile() {
         this.currentIndex      = FILEHEADER_SIZE;
         this.currentToExc      = currentIndex;
         this.currentMessageSeq = contents.readLong( FILEHEADER_STARTSFROMMSGSEQ_INDEX, FILEHEADER_SIZE );
+        this.firstMessageSeq   = currentMessageSeq;
+    }
+
+    private void indexMessage( long msgSeq, long offset ) {
+        long relativeMessageSeq = msgSeq - firstMessageSeq;
+
+        if ( index != null && JournalIndexFile2.isIndexed(relativeMessageSeq) ) {
+            index.record( relativeMessageSeq, offset );
+        }
+    }
+
+    /**
+     * Writes the EOF marker that tells readers to move on to the next file.  Called by a single
+     * writer once the next file has been created and its header written.
+     */
+    public void seal() {
+        QA.isEqualTo( currentIndex, currentToExc, "currentIndex", "currentToExc" );
+
+        contents.writeInt( currentIndex + PER_MSGHEADER_PAYLOADSIZE_INDEX, fileSize, -1 );
+        Backdoor.storeFence();
+        contents.writeInt( currentIndex + PER_MSGHEADER_HASHCODE_INDEX,    fileSize, -1 );
+    }
+
+    /**
+     * Seals a file that a writer rolled away from without sealing, as happens when the JVM dies
+     * part way through a roll over.  Call on a freshly opened file.
+     */
+    public void sealIfUnsealed() {
+        while ( isReadyToReadNextMessage() ) {
+            int payloadLength = contents.readInt( currentIndex + PER_MSGHEADER_PAYLOADSIZE_INDEX, fileSize );
+
+            if ( payloadLength == -1 ) {
+                return;
+            }
+
+            this.currentIndex      += PER_MSGHEADER_SIZE + payloadLength;
+            this.currentMessageSeq += 1;
+        }
+
+        this.currentToExc = currentIndex;
+
+        seal();
+    }
+
+    public boolean exists() {
+        return dataDirectory.getFile( dataFileName(journalName, fileSeq) ) != null;
+    }
+
+    public static String dataFileName( String journalName, int fileSeq ) {
+        return journalName + fileSeq + ".data";
+    }
+
+    public static String preallocatedFileName( String journalName, int fileSeq ) {
+        return dataFileName( journalName, fileSeq ) + ".prealloc";
     }
 
     private FileX fetchFile() {
-        String fileName = journalName + fileSeq + ".data";
+        String fileName = dataFileName( journalName, fileSeq );
 
         this.file = dataDirectory.getOrCreateFile( fileName );
 
@@ -189,7 +587,8 @@ class JournalDataFile2 {
 
     /**
      *
-     * @return true on successful allocation, and false if the end of the file has been reached
+     * @return true on successful allocation, and false if the end of the file has been reached;
+     *         in which case the caller is expected to roll over to the next file and then seal() this one
      */
     public boolean allocateAndAssignTo( BytesView2 view, int messageSizeBytes ) {
         QA.isEqualTo( currentIndex, currentToExc, "currentIndex", "currentToExc" );
@@ -199,10 +598,7 @@ class JournalDataFile2 {
         long proposedEndOfMessage = payloadIndex + messageSizeBytes;
 
         if ( proposedEndOfMessage > footerOffset ) {  // todo add unit test that shows the need for the footer AND create a constant
-            contents.writeInt( currentIndex + PER_MSGHEADER_PAYLOADSIZE_INDEX, fileSize, -1 );
-            contents.writeInt( currentIndex + PER_MSGHEADER_HASHCODE_INDEX,    fileSize, -1 );
-
-            return false;
+            return false;   // the caller creates the next file and then calls seal()
         }
 
         this.currentToExc = proposedEndOfMessage;
@@ -235,9 +631,107 @@ class JournalDataFile2 {
         return true;
     }
 
+    /**
+     * Delivers every message that is available to be read from this file, up to maxMessages.  Unlike
+     * readNextUsingCallback, the load fence and the lookup of the file's checksum are made once for
+     * the whole batch, and the message headers are then walked in a tight loop.  Messages that are
+     * completed by the writer during the batch may or may not be included.
+     *
+     * @return the number of messages delivered;  stops early on reaching either a message that has
+     *         not yet been written or the end of the file
+     */
+    public int readBatchUsingCallback( JournalReaderCallback callback, int maxMessages ) {
+        Backdoor.loadFence();
+
+        JournalChecksum checksum = readChecksumFromHeader();
+        long            index    = currentIndex;
+        int             count    = 0;
+
+        while ( count < maxMessages && index+PER_MSGHEADER_SIZE <= fileSize ) {
+            int recordedHash  = contents.readInt( index + PER_MSGHEADER_HASHCODE_INDEX,    fileSize );
+            int payloadLength = contents.readInt( index + PER_MSGHEADER_PAYLOADSIZE_INDEX, fileSize );
+
+            if ( recordedHash == 0 || payloadLength == -1 ) {
+                break;
+            }
+
+            long payloadIndex = index + PER_MSGHEADER_SIZE;
+            long payloadEnd   = payloadIndex + payloadLength;
+
+            if ( recordedHash != calcHash(checksum, payloadIndex, payloadEnd) ) {
+                throw new CheckSumException();
+            }
+
+            callback.entryReceived( currentMessageSeq, contents, payloadIndex, payloadEnd );
+
+            index = payloadEnd;
+
+            this.currentIndex       = index;
+            this.currentMessageSeq += 1;
+
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Moves past every message that has been completed since the current position, without reading
+     * their payloads.  Stops at the first message that has not yet been written or at the EOF marker.
+     * Used to find the range of bytes that may be shipped as is to another process.
+     *
+     * @return the number of messages skipped
+     */
+    public long skipCompletedMessages() {
+        Backdoor.loadFence();
+
+        long index    = currentIndex;
+        long numMoved = 0;
+
+        while ( index+PER_MSGHEADER_SIZE <= fileSize ) {
+            int recordedHash  = contents.readInt( index + PER_MSGHEADER_HASHCODE_INDEX,    fileSize );
+            int payloadLength = contents.readInt( index + PER_MSGHEADER_PAYLOADSIZE_INDEX, fileSize );
+
+            if ( recordedHash == 0 || payloadLength == -1 ) {
+                break;
+            }
+
+            index    += PER_MSGHEADER_SIZE + payloadLength;
+            numMoved += 1;
+        }
+
+        this.currentIndex       = index;
+        this.currentToExc       = index;
+        this.currentMessageSeq += numMoved;
+
+        return numMoved;
+    }
+
+    /**
+     * Returns true when the current position holds the marker that says that the writer has moved
+     * on to the next data file.
+     */
+    public boolean hasReachedEOFMarker() {
+        return isReadyToReadNextMessage() && contents.readInt( currentIndex + PER_MSGHEADER_PAYLOADSIZE_INDEX, fileSize ) == -1;
+    }
+
+    /**
+     * Writes the raw bytes of this file to the specified channel;  see FileContents2.transferTo.
+     */
+    public long transferTo( long fromInc, long toExc, WritableByteChannel target ) {
+        return contents.transferTo( fromInc, toExc, target );
+    }
+
+    /**
+     * The checksum that protects the messages of this file.
+     */
+    public JournalChecksum getChecksum() {
+        return readChecksumFromHeader();  // re-read, as a writer may have written the header since this file was opened
+    }
+
     private void throwOnChecksumFailure( long hashIndex, long fromInc, long toExc ) {
         int recordedHash = contents.readInt( hashIndex, fileSize );
-        int actualHash   = calcHash(fromInc,toExc);
+        int actualHash   = calcHash( readChecksumFromHeader(), fromInc, toExc ); // re-read, as a writer may have written the header since this file was opened
 
         if ( recordedHash != actualHash ) {
             throw new CheckSumException();
@@ -267,26 +761,63 @@ class JournalDataFile2 {
     }
 
     private int calcHash( long fromInc, long toExc ) {
-        long sum = 7;
+        return calcHash( checksum, fromInc, toExc );
+    }
 
-        // incrementing in 8's means that some bytes at the end of a message may not be included
-        // this is a pragmatic trade-off between robustness and speed.  Summing longs is much
-        // faster than summing bytes, and is marginally faster than ints.  An extra for loop
-        // to catch the stragglers doubles the cost of the checksum.  If this becomes a serious
-        // concern, then we can always pad the affected messages out to be a multiple of 8.
-        for ( long i=fromInc; i<toExc-8; i+=8 ) {
-            sum += contents.readLong( i, toExc );
+    private int calcHash( JournalChecksum checksum, long fromInc, long toExc ) {
+        return calcHash( checksum, contents, fromInc, toExc );
+    }
 
-            sum += sum;  // double add here makes the checksum sensitive to the order of the bytes
+    /**
+     * The hash that is recorded in the header of a message, for the specified payload.
+     */
+    static int calcHash( JournalChecksum checksum, Bytes2 bytes, long fromInc, long toExc ) {
+        int hash = checksum.calculate( bytes, fromInc, toExc );
+
+        return hash == 0 ? 1 : hash;  // zero is reserved to mean 'message not yet written'
+    }
+
+    /**
+     * Records the version and checksum of a data file, before its first message is written.  A
+     * data file that already has messages keeps its version;  which keeps version 1 files readable.
+     */
+    private void writeVersionHeaderIfEmpty() {
+        boolean hasNoVersion  = contents.readByte( FILEHEADER_JOURNALVERSION_INDEX, FILEHEADER_SIZE ) == 0;
+        boolean hasNoMessages = contents.readInt( FILEHEADER_SIZE + PER_MSGHEADER_HASHCODE_INDEX, fileSize ) == 0;
+
+        if ( hasNoVersion && hasNoMessages ) {
+            contents.writeByte( FILEHEADER_CHECKSUM_INDEX,       FILEHEADER_SIZE, checksumForNewFiles.getId() );
+            contents.writeByte( FILEHEADER_JOURNALVERSION_INDEX, FILEHEADER_SIZE, JOURNAL_VERSION_2 );
         }
+    }
+
+    private JournalChecksum readChecksumFromHeader() {
+        byte version = contents.readByte( FILEHEADER_JOURNALVERSION_INDEX, FILEHEADER_SIZE );
 
-        return (int) sum;
+        if ( version < JOURNAL_VERSION_2 ) {
+            return JournalChecksum.SUM_OF_LONGS;
+        } else if ( version == JOURNAL_VERSION_2 ) {
+            return JournalChecksum.fromId( contents.readByte(FILEHEADER_CHECKSUM_INDEX, FILEHEADER_SIZE) );
+        } else {
+            throw new IllegalStateException( "Unsupported journal version '"+version+"' in " + file.getFullPath() );
+        }
     }
 
     public long getCurrentMessageSeq() {
         return currentMessageSeq;
     }
 
+    /**
+     * The offset within this file of the end of the last completed message.
+     */
+    public long getCurrentIndex() {
+        return currentIndex;
+    }
+
+    public int getFileSeq() {
+        return fileSeq;
+    }
+
     static class DataFileNameComparator implements Comparator<FileX> {
         private String serviceName;
 
@@ -0,0 +1,115 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.lang.ServiceThread;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Background thread used by JournalWriter2 to create, size and pre-fault the next data file
+ * (along with its index) while the current one is still being filled, and to flush and close
+ * each data file that the writer rolls away from.  Rolling over then becomes a couple of renames
+ * and a pointer swap, rather than the creation and mapping of new files and the flushing of a
+ * full one.  Started and stopped with the writer.
+ */
+class JournalDataFilePreallocator extends ServiceThread<JournalDataFilePreallocator> {
+
+    private final JournalWriter2                    writer;
+
+    private final AtomicReference<JournalDataFile2> preallocatedFile = new AtomicReference<>();
+    private final AtomicBoolean                     isCloseRequested = new AtomicBoolean();
+
+    // the data file to preallocate next;  claimed by the preallocator thread before it touches
+    // the file so that a file instance is only ever owned by one thread at a time
+    private final AtomicReference<JournalDataFile2> targetFile       = new AtomicReference<>();
+
+
+    public JournalDataFilePreallocator( String serviceName, JournalWriter2 writer ) {
+        super( serviceName, ThreadType.DAEMON );
+
+        this.writer = writer;
+    }
+
+
+    /**
+     * Called by the writer when it opens a data file, requesting that the file after it be preallocated.
+     */
+    public void preallocateFileAfter( JournalDataFile2 currentFile ) {
+        targetFile.set( currentFile.nextFile() );
+    }
+
+    /**
+     * Hands the preallocated data file over to the writer, and requests that the file after it
+     * be preallocated next.
+     *
+     * @return null if the requested file has not been preallocated yet
+     */
+    public JournalDataFile2 takePreallocatedFile( int fileSeq ) {
+        JournalDataFile2 f = preallocatedFile.getAndSet( null );
+
+        if ( f != null && f.getFileSeq() == fileSeq ) {
+            preallocateFileAfter( f );
+
+            return f;
+        }
+
+        if ( f != null ) {
+            f.discardPreallocated();
+        }
+
+        return null;
+    }
+
+    /**
+     * Called by the writer after rolling over, requesting that the data file that it rolled away
+     * from be flushed and closed by this thread;  see JournalWriter2.closeRolledOverDataFile().
+     */
+    public void closeRolledOverFile() {
+        isCloseRequested.set( true );
+    }
+
+    /**
+     * @return the seq of the data file that is ready to be rolled on to, or -1
+     */
+    public int getPreallocatedFileSeq() {
+        JournalDataFile2 f = preallocatedFile.get();
+
+        return f == null ? -1 : f.getFileSeq();
+    }
+
+
+    protected long loop() {
+        if ( isCloseRequested.getAndSet(false) ) {
+            writer.closeRolledOverDataFile();
+        }
+
+        JournalDataFile2 target = targetFile.getAndSet( null );
+
+        if ( target == null ) {
+            return 1;
+        }
+
+        target.preallocate();
+
+        JournalDataFile2 stale = preallocatedFile.getAndSet( target );
+        if ( stale != null ) {  // the writer rolled over without waiting for us
+            stale.discardPreallocated();
+        }
+
+        return 0;
+    }
+
+    protected void doStop() throws Exception {
+        super.doStop();
+
+        JournalDataFile2 f = preallocatedFile.getAndSet( null );
+
+        if ( f != null ) {
+            f.discardPreallocated();
+        }
+
+        targetFile.set( null );
+    }
+
+}
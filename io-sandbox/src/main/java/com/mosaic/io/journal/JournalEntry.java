@@ -13,6 +13,10 @@ public abstract class JournalEntry {
     protected long       msgSeq = -1;
     protected BytesView2 bytes  = new BytesView2();  // NB accessible by Journal2 directly
 
+    // set by JournalMultiWriter2 between allocateTo() and completeMessage()
+    JournalDataFile2 claimedFrom;
+    long             claimedHeaderIndex;
+
     private final int fixedSizeBytes;
 
     protected JournalEntry( int fixedSizeBytes ) {
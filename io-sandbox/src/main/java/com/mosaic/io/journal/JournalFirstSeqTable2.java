@@ -0,0 +1,106 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.io.filesystemx.DirectoryX;
+import com.mosaic.io.filesystemx.FileContents2;
+import com.mosaic.io.filesystemx.FileModeEnum;
+import com.mosaic.io.filesystemx.FileX;
+
+
+/**
+ * Directory level table of the first message seq of each of a journal's data files.  Lets
+ * Journal2 binary search for the data file that holds a message, without having to open every
+ * data file in turn.  Stored as '<name>.seqs' within the journal's index directory.
+ */
+class JournalFirstSeqTable2 {
+
+    // Table file format:
+    // | (firstMessageSeq+1):long* |
+    //
+    // indexed by the data files seq, a value of 0 means that the data file has not been recorded
+
+    private static final long SLOT_SIZE        = 8;
+    private static final long GROWTH_INCREMENT = 4096;
+
+
+    public static void record( DirectoryX indexDirectory, String journalName, int fileSeq, long firstMessageSeq ) {
+        JournalFirstSeqTable2 table = openRW( indexDirectory, journalName, fileSeq );
+
+        try {
+            table.record( fileSeq, firstMessageSeq );
+        } finally {
+            table.close();
+        }
+    }
+
+    /**
+     * Opens the table for recording, growing it first if need be so that it has a slot for the
+     * specified data file.  Lets the data file preallocator map the table ahead of a roll over.
+     */
+    public static JournalFirstSeqTable2 openRW( DirectoryX indexDirectory, String journalName, int fileSeq ) {
+        FileX file         = indexDirectory.getOrCreateFile( fileName(journalName) );
+        long  slotOffset   = fileSeq * SLOT_SIZE;
+        long  requiredSize = (slotOffset/GROWTH_INCREMENT + 1) * GROWTH_INCREMENT;
+
+        return new JournalFirstSeqTable2( file.openFile2(FileModeEnum.READ_WRITE, Math.max(requiredSize, file.sizeInBytes())) );
+    }
+
+    /**
+     * Opens the table for lookups.  A journal that predates the table, or one that has not yet
+     * rolled over, will return -1 for every lookup.
+     *
+     * @param indexDirectory null when the journal has no index directory
+     */
+    public static JournalFirstSeqTable2 openRO( DirectoryX indexDirectory, String journalName ) {
+        FileX file = indexDirectory == null ? null : indexDirectory.getFile( fileName(journalName) );
+
+        if ( file == null || file.sizeInBytes() == 0 ) {
+            return new JournalFirstSeqTable2( null );
+        }
+
+        return new JournalFirstSeqTable2( file.openFile2(FileModeEnum.READ_ONLY) );
+    }
+
+    public static String fileName( String journalName ) {
+        return journalName + ".seqs";
+    }
+
+
+    private FileContents2 contents;
+
+
+    private JournalFirstSeqTable2( FileContents2 contents ) {
+        this.contents = contents;
+    }
+
+
+    /**
+     * Only valid on a table opened by openRW() for a data file with the same or a later seq.
+     */
+    public void record( int fileSeq, long firstMessageSeq ) {
+        long slotOffset = fileSeq * SLOT_SIZE;
+
+        contents.writeLong( slotOffset, slotOffset+SLOT_SIZE, firstMessageSeq+1 );
+    }
+
+    /**
+     * @return -1 if the first message seq of the data file was not recorded
+     */
+    public long getFirstMessageSeq( int fileSeq ) {
+        long slotOffset = fileSeq * SLOT_SIZE;
+
+        if ( contents == null || slotOffset+SLOT_SIZE > contents.sizeBytes() ) {
+            return -1;
+        }
+
+        return contents.readLong( slotOffset, slotOffset+SLOT_SIZE ) - 1;
+    }
+
+    public void close() {
+        if ( contents != null ) {
+            contents.release();
+
+            contents = null;
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.lang.ServiceThread;
+
+
+/**
+ * Background thread used by JournalWriter2 to flush completed messages to disk in batches.
+ * Started and stopped with the writer.
+ */
+class JournalGroupCommitter extends ServiceThread<JournalGroupCommitter> {
+
+    private final JournalWriter2 writer;
+    private final long           maxDelayNanos;
+    private final long           maxUnflushedMessages;
+
+    private long                 pendingSinceNanos = -1;
+
+
+    public JournalGroupCommitter( String serviceName, JournalWriter2 writer, GroupCommitPolicy policy ) {
+        super( serviceName, ThreadType.DAEMON );
+
+        long maxDelayMillis = policy.getMaxDelay().getMillis();
+
+        this.writer               = writer;
+        this.maxDelayNanos        = maxDelayMillis >= Long.MAX_VALUE/1000000 ? Long.MAX_VALUE : maxDelayMillis*1000000;
+        this.maxUnflushedMessages = policy.getMaxUnflushedMessages();
+    }
+
+
+    protected long loop() throws InterruptedException {
+        long numUnflushedMessages = writer.getNumUnflushedMessages();
+
+        if ( numUnflushedMessages <= 0 ) {
+            pendingSinceNanos = -1;
+
+            return 1;
+        }
+
+        long nowNanos = System.nanoTime();
+        if ( pendingSinceNanos < 0 ) {
+            pendingSinceNanos = nowNanos;
+        }
+
+        if ( numUnflushedMessages >= maxUnflushedMessages || nowNanos-pendingSinceNanos >= maxDelayNanos ) {
+            writer.flushCompletedMessages();
+
+            pendingSinceNanos = -1;
+
+            return 0;
+        }
+
+        return numUnflushedMessages*2 >= maxUnflushedMessages ? 0 : 1;
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.io.filesystemx.DirectoryX;
+import com.mosaic.io.filesystemx.FileContents2;
+import com.mosaic.io.filesystemx.FileModeEnum;
+import com.mosaic.io.filesystemx.FileX;
+
+
+/**
+ * Sparse index over a single journal data file.  Records the offset of every INDEX_INTERVAL'th
+ * message within the data file, so that a seek can jump to within INDEX_INTERVAL messages of its
+ * target rather than scanning the data file from its start.  Stored as '<name><seq>.idx' within
+ * the journal's index directory.
+ */
+class JournalIndexFile2 {
+
+    // Index file format:
+    // | offset:long* |
+    //
+    // slot n holds the offset within the data file of message firstMessageSeq + n*INDEX_INTERVAL,
+    // or 0 when that message has not been indexed (0 is never a valid offset, as it is the file header)
+
+
+    public static final int  INDEX_INTERVAL_SHIFT = 7;
+    public static final long INDEX_INTERVAL       = 1L << INDEX_INTERVAL_SHIFT;
+
+    private static final long INDEX_INTERVAL_MASK = INDEX_INTERVAL - 1;
+    private static final long SLOT_SIZE           = 8;
+
+
+    /**
+     * Returns true if the message, as measured from the first message of its data file, is one
+     * that gets indexed.
+     */
+    public static boolean isIndexed( long relativeMessageSeq ) {
+        return (relativeMessageSeq & INDEX_INTERVAL_MASK) == 0;
+    }
+
+    public static JournalIndexFile2 openRW( DirectoryX indexDirectory, String journalName, int fileSeq, long dataFileSizeBytes ) {
+        FileX file         = indexDirectory.getOrCreateFile( fileName(journalName, fileSeq) );
+        long  requiredSize = requiredSize( dataFileSizeBytes );
+
+        return new JournalIndexFile2( file, file.openFile2(FileModeEnum.READ_WRITE, Math.max(requiredSize, file.sizeInBytes())) );
+    }
+
+    /**
+     * Creates and maps the index of a data file that is being preallocated, under a temporary
+     * name so that a stale index is never picked up should the data file not be published.
+     * See publishPreallocated().
+     */
+    public static JournalIndexFile2 openPreallocated( DirectoryX indexDirectory, String journalName, int fileSeq, long dataFileSizeBytes ) {
+        String preallocatedFileName = preallocatedFileName( journalName, fileSeq );
+        FileX  staleFile            = indexDirectory.getFile( preallocatedFileName );
+
+        if ( staleFile != null ) {   // left behind by a writer that did not shut down cleanly
+            staleFile.delete();
+        }
+
+        FileX file         = indexDirectory.getOrCreateFile( preallocatedFileName );
+        long  requiredSize = requiredSize( dataFileSizeBytes );
+
+        return new JournalIndexFile2( file, file.openFile2(FileModeEnum.READ_WRITE, requiredSize) );
+    }
+
+    /**
+     * @return null if the data file has not been indexed
+     */
+    public static JournalIndexFile2 openRO( DirectoryX indexDirectory, String journalName, int fileSeq ) {
+        FileX file = indexDirectory.getFile( fileName(journalName, fileSeq) );
+
+        if ( file == null || file.sizeInBytes() == 0 ) {
+            return null;
+        }
+
+        return new JournalIndexFile2( file, file.openFile2(FileModeEnum.READ_ONLY) );
+    }
+
+    public static String fileName( String journalName, int fileSeq ) {
+        return journalName + fileSeq + ".idx";
+    }
+
+    public static String preallocatedFileName( String journalName, int fileSeq ) {
+        return fileName( journalName, fileSeq ) + ".prealloc";
+    }
+
+    private static long requiredSize( long dataFileSizeBytes ) {
+        long maxMessages = dataFileSizeBytes / JournalDataFile2.PER_MSGHEADER_SIZE;
+
+        return ((maxMessages >>> INDEX_INTERVAL_SHIFT) + 1) * SLOT_SIZE;
+    }
+
+
+    private FileX         file;
+    private FileContents2 contents;
+    private long          numSlots;
+
+
+    private JournalIndexFile2( FileX file, FileContents2 contents ) {
+        this.file     = file;
+        this.contents = contents;
+        this.numSlots = contents.sizeBytes() / SLOT_SIZE;
+    }
+
+
+    /**
+     * Gives an index opened by openPreallocated() its real name.  The index stays mapped.
+     */
+    public void publishPreallocated( String journalName, int fileSeq ) {
+        file.renameTo( fileName(journalName, fileSeq) );
+    }
+
+    /**
+     * Releases and deletes an index opened by openPreallocated() that will not be used.
+     */
+    public void discardPreallocated() {
+        FileX preallocatedFile = file;
+
+        close();
+
+        preallocatedFile.delete();
+    }
+
+
+    /**
+     * Records the offset of a message.  Only messages for which isIndexed() returns true are recorded.
+     */
+    public void record( long relativeMessageSeq, long offset ) {
+        long slot = relativeMessageSeq >>> INDEX_INTERVAL_SHIFT;
+
+        if ( slot < numSlots ) {
+            contents.writeLong( slot*SLOT_SIZE, slot*SLOT_SIZE+SLOT_SIZE, offset );
+        }
+    }
+
+    /**
+     * Finds the closest indexed message at or before the target message.
+     *
+     * @return the slot of the closest indexed message, or -1 if there is none;  the slot's message
+     *         seq (relative to the start of the data file) is slot*INDEX_INTERVAL
+     */
+    public long findClosestSlot( long relativeMessageSeq ) {
+        long slot = Math.min( relativeMessageSeq >>> INDEX_INTERVAL_SHIFT, numSlots-1 );
+
+        while ( slot >= 0 && getOffset(slot) == 0 ) {
+            slot--;
+        }
+
+        return slot;
+    }
+
+    public long getOffset( long slot ) {
+        return contents.readLong( slot*SLOT_SIZE, slot*SLOT_SIZE+SLOT_SIZE );
+    }
+
+    public void close() {
+        if ( contents != null ) {
+            contents.release();
+
+            contents = null;
+        }
+    }
+
+}
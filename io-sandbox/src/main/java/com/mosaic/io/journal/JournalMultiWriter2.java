@@ -0,0 +1,112 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.lang.QA;
+import com.mosaic.lang.ServiceMixin;
+
+
+/**
+ * A journal writer that may be shared by multiple producer threads without any locking.  Each
+ * producer claims space for its message with a CAS on the end of the current data file, writes
+ * its payload in parallel with the other producers and then publishes it.  Readers see the
+ * messages in the order that they were claimed, and never see a gap;  they wait at the first
+ * message that has been claimed but not yet published.<p/>
+ *
+ * Each producer thread must use its own JournalEntry flyweight, and a journal must not be
+ * written to by both a JournalWriter2 and a JournalMultiWriter2 at the same time.
+ */
+public class JournalMultiWriter2 extends ServiceMixin<JournalMultiWriter2> {
+
+    private final    Journal2         journal;
+    private volatile JournalDataFile2 currentDataFile;
+
+
+    JournalMultiWriter2( Journal2 journal, String serviceName ) {
+        super( serviceName );
+
+        this.journal = journal;
+    }
+
+
+    /**
+     * Allocates space for the specified flyweight.  The flyweight is asked how many bytes to
+     * assign.
+     */
+    public long allocateTo( JournalEntry entry ) {
+        return allocateTo( entry, entry.getNumBytes() );
+    }
+
+    /**
+     * Allocates space for the specified flyweight.  Safe to call concurrently from multiple threads.
+     *
+     * @return the seq of the allocated message
+     */
+    public long allocateTo( JournalEntry entry, int numBytes ) {
+        QA.isNull( entry.claimedFrom, "entry.claimedFrom" );
+
+        while ( true ) {
+            JournalDataFile2 dataFile = currentDataFile;
+
+            switch ( dataFile.claimAndAssignTo(entry, numBytes) ) {
+                case JournalDataFile2.CLAIM_SUCCEEDED:
+                    return entry.msgSeq;
+                case JournalDataFile2.CLAIM_FAILED_ROLL_REQUIRED:
+                    rollOver( dataFile );
+                    break;
+                case JournalDataFile2.CLAIM_FAILED_FILE_FULL:
+                    while ( currentDataFile == dataFile ) {  // another producer is rolling on to the next file
+                        Thread.yield();
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException( "unknown claim result" );
+            }
+        }
+    }
+
+    /**
+     * Publishes the message that was allocated to the specified flyweight, making it visible to
+     * readers once every message allocated before it has also been published.
+     */
+    public long completeMessage( JournalEntry entry ) {
+        QA.notNull( entry.claimedFrom, "entry.claimedFrom" );
+
+        long msgSeq = entry.msgSeq;
+
+        entry.claimedFrom.publish( entry );
+
+        return msgSeq;
+    }
+
+
+    protected void doStart() throws Exception {
+        QA.isNull( currentDataFile, "currentDataFile" );
+
+        JournalDataFile2 dataFile = journal.selectLastFileRW().open();
+        dataFile.seekToEnd();
+
+        this.currentDataFile = dataFile.initConcurrentAppends();
+    }
+
+    protected void doStop() throws Exception {
+        this.currentDataFile.closeWhenPublished();
+
+        this.currentDataFile = null;
+    }
+
+
+    /**
+     * Only called by the producer that sealed the previous file, so no other producer will be
+     * rolling over at the same time.  The sealed file stays open until its last message has been
+     * published, and the EOF marker is written only once the next file has its header.
+     */
+    private void rollOver( JournalDataFile2 sealedDataFile ) {
+        JournalDataFile2 nextDataFile = sealedDataFile.nextFile().open();
+
+        nextDataFile.setFirstMessageSeq( sealedDataFile.getNextFilesFirstMessageSeq() );
+
+        this.currentDataFile = nextDataFile.initConcurrentAppends();
+
+        sealedDataFile.writeEOFMarker();
+    }
+
+}
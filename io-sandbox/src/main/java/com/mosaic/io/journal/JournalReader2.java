@@ -7,10 +7,11 @@ import com.mosaic.lang.ServiceMixin;
 /**
  * Reader for journal data files created using JournalWriter.
  */
-public class JournalReader2 extends ServiceMixin<JournalReader2> {
+public class JournalReader2 extends ServiceMixin<JournalReader2> implements JournalReaderPosition {
 
     private final Journal2         journal;
     private       JournalDataFile2 currentDataFile;
+    private volatile int           currentFileSeq = -1;   // read by JournalRetentionService
 
 
     /**
@@ -48,6 +49,7 @@ public class JournalReader2 extends ServiceMixin<JournalReader2> {
                 this.currentDataFile.close();
 
                 this.currentDataFile = currentDataFile.nextFile().open();
+                this.currentFileSeq  = currentDataFile.getFileSeq();
 
                 return readNextUsingCallback( callback );
             }
@@ -56,32 +58,84 @@ public class JournalReader2 extends ServiceMixin<JournalReader2> {
         }
     }
 
-    public boolean seekTo( long messageSeq ) {
-        JournalDataFile2 initialDataFile = this.currentDataFile;
+    /**
+     * Delivers up to maxMessages of the messages that are available now, rolling over data files
+     * as required.  Each data file is walked in a single pass behind one load fence, which makes
+     * this considerably cheaper per message than calling readNextInto in a loop when replaying
+     * a journal in bulk.
+     *
+     * @return the number of messages delivered, zero when there are no new messages
+     */
+    public int readNextBatchUsingCallback( JournalReaderCallback callback, int maxMessages ) {
+        QA.argIsGTZero( maxMessages, "maxMessages" );
+
+        if ( currentDataFile == null ) {
+            return 0;
+        }
+
+        int count = 0;
+
+        while ( count < maxMessages ) {
+            count += currentDataFile.readBatchUsingCallback( callback, maxMessages-count );
 
-        this.currentDataFile = journal.seekTo(messageSeq);
+            // the batch stopped either on a message that has not been written yet or on the EOF
+            // marker;  a writer may complete the former at any moment, so test for the marker itself
+            if ( count < maxMessages && currentDataFile.hasReachedEOFMarker() ) {
+                this.currentDataFile.close();
 
-        if ( currentDataFile.getCurrentMessageSeq() == messageSeq ) {
-            if ( initialDataFile != null ) {
-                initialDataFile.close();
+                this.currentDataFile = currentDataFile.nextFile().open();
+                this.currentFileSeq  = currentDataFile.getFileSeq();
+            } else {
+                return count;
             }
+        }
 
-            return true;
-        } else {
-            this.currentDataFile.close();
+        return count;
+    }
 
-            this.currentDataFile = initialDataFile;
+    public boolean seekTo( long messageSeq ) {
+        synchronized ( journal.retentionLock ) {  // stops the target data file from being retired while it is opened
+            JournalDataFile2 initialDataFile = this.currentDataFile;
 
-            return false;
+            this.currentDataFile = journal.seekTo(messageSeq);
+
+            if ( currentDataFile.getCurrentMessageSeq() == messageSeq ) {
+                if ( initialDataFile != null ) {
+                    initialDataFile.close();
+                }
+
+                this.currentFileSeq = currentDataFile.getFileSeq();
+
+                return true;
+            } else {
+                this.currentDataFile.close();
+
+                this.currentDataFile = initialDataFile;
+
+                return false;
+            }
         }
     }
 
+    /**
+     * The seq of the data file that this reader is currently positioned within, or -1 when the
+     * reader is not running.
+     */
+    public int getCurrentFileSeq() {
+        return currentFileSeq;
+    }
+
 
 
     protected void doStart() {
         QA.isNull( currentDataFile, "currentDataFile" );
 
-        this.currentDataFile = journal.selectFirstFileRO().open();
+        synchronized ( journal.retentionLock ) {
+            this.currentDataFile = journal.selectFirstFileRO().open();
+            this.currentFileSeq  = currentDataFile.getFileSeq();
+
+            journal.readerStarted( this );
+        }
     }
 
     protected void doStop() {
@@ -89,9 +143,12 @@ public class JournalReader2 extends ServiceMixin<JournalReader2> {
             return;
         }
 
+        journal.readerStopped( this );
+
         this.currentDataFile.close();
 
         this.currentDataFile = null;
+        this.currentFileSeq  = -1;
     }
 
-}
\ No newline at end of file
+}
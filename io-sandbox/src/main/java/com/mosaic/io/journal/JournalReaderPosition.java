@@ -0,0 +1,17 @@
+package com.mosaic.io.journal;
+
+
+/**
+ * Where a reader of a journal is up to.  While registered with Journal2.readerStarted,
+ * JournalRetentionService will not retire the data file that the reader is positioned within.
+ *
+ * @see com.mosaic.io.journal.JournalRetentionService
+ */
+interface JournalReaderPosition {
+
+    /**
+     * The seq of the data file that the reader is currently positioned within.
+     */
+    public int getCurrentFileSeq();
+
+}
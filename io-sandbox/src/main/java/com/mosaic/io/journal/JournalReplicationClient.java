@@ -0,0 +1,236 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.bytes2.impl.ArrayBytes2;
+import com.mosaic.io.RuntimeIOException;
+import com.mosaic.lang.QA;
+import com.mosaic.lang.ServiceThread;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+
+import static com.mosaic.io.journal.JournalDataFile2.*;
+
+
+/**
+ * Follows a journal that is being served by a JournalReplicationServer, appending every message
+ * that it receives to a local journal.  The hash of every message is checked against the checksum
+ * used by the leader before it is written, and the local writer then protects the message with the
+ * local journal's own checksum.  Messages keep the seq that they were given by the leader.<p/>
+ *
+ * Should the link fail, the client keeps trying to reconnect and resumes from the last message
+ * that it wrote;  the local journal is the only record of how far replication got, so a client
+ * may be restarted at any time.  The local journal must not be written to by anything else.
+ */
+public class JournalReplicationClient extends ServiceThread<JournalReplicationClient> {
+
+    static final long RECONNECT_INTERVAL_MILLIS = 250;
+
+    private static final int RECEIVE_BUFFER_SIZE = 64*1024;
+
+
+    private final InetSocketAddress leaderAddress;
+    private final JournalWriter2    writer;
+    private final ReplicatedEntry   entry = new ReplicatedEntry();
+    private final ByteBuffer        in    = ByteBuffer.allocate( RECEIVE_BUFFER_SIZE ).order( ByteOrder.nativeOrder() );
+
+    private SocketChannel           channel;
+    private byte[]                  payload      = new byte[256];
+    private ArrayBytes2             payloadBytes = new ArrayBytes2( payload );
+
+    private volatile long           leaderMessageSeqExc;
+    private volatile long           numMessagesReplicated;
+    private volatile long           numConnects;
+    private volatile long           numChecksumFailures;
+
+
+    JournalReplicationClient( Journal2 journal, String serviceName, InetSocketAddress leaderAddress ) {
+        super( serviceName, ThreadType.DAEMON );
+
+        QA.argNotNull( leaderAddress, "leaderAddress" );
+
+        this.leaderAddress = leaderAddress;
+        this.writer        = journal.createWriter();
+
+        registerServicesBefore( writer );
+    }
+
+
+    /**
+     * The number of messages that the leader has told this client about, and that have yet to be
+     * written to the local journal.  Zero when the follower has caught up with the leader, as of
+     * the last frame or heartbeat received from the leader.
+     */
+    public long getLagMessages() {
+        return Math.max( 0, leaderMessageSeqExc - writer.getNextMessageSeq() );
+    }
+
+    /**
+     * The seq of the next message to be received from the leader.
+     */
+    public long getNextMessageSeq() {
+        return writer.getNextMessageSeq();
+    }
+
+    /**
+     * The number of messages that have been written to the local journal since this client was created.
+     */
+    public long getNumMessagesReplicated() {
+        return numMessagesReplicated;
+    }
+
+    /**
+     * The number of times that a connection to the leader has been established.
+     */
+    public long getNumConnects() {
+        return numConnects;
+    }
+
+    /**
+     * The number of messages that failed their hash check on arrival.  The link is dropped and
+     * re-established on each failure.
+     */
+    public long getNumChecksumFailures() {
+        return numChecksumFailures;
+    }
+
+
+    protected long loop() {
+        try {
+            if ( channel == null ) {
+                connect();
+            }
+
+            receiveFrame();
+
+            return 0;
+        } catch ( IOException | RuntimeIOException ex ) {
+            disconnect();
+
+            return RECONNECT_INTERVAL_MILLIS;
+        }
+    }
+
+    protected void doStop() throws Exception {
+        super.doStop();
+
+        disconnect();
+    }
+
+
+    private void connect() throws IOException {
+        this.channel = SocketChannel.open( leaderAddress );   // interrupted by stop()
+
+        channel.socket().setTcpNoDelay( true );
+
+        ByteBuffer request = ByteBuffer.allocate( JournalReplicationSession.REQUEST_SIZE ).order( ByteOrder.nativeOrder() );
+        request.putLong( writer.getNextMessageSeq() );
+        request.flip();
+
+        while ( request.hasRemaining() ) {
+            channel.write( request );
+        }
+
+        in.clear().flip();
+
+        numConnects++;
+    }
+
+    private void receiveFrame() throws IOException {
+        fill( JournalReplicationSession.FRAMEHEADER_SIZE );
+
+        long            firstMessageSeq     = in.getLong();
+        long            leaderMessageSeqExc = in.getLong();
+        long            numBytes            = in.getLong();
+        JournalChecksum checksum            = JournalChecksum.fromId( (byte) in.getInt() );
+
+        if ( firstMessageSeq != writer.getNextMessageSeq() ) {
+            throw new RuntimeIOException( "Expected msg seq '"+writer.getNextMessageSeq()+"' from the leader, received '"+firstMessageSeq+"'" );
+        }
+
+        this.leaderMessageSeqExc = leaderMessageSeqExc;
+
+        while ( numBytes > 0 ) {
+            fill( (int) PER_MSGHEADER_SIZE );
+
+            int payloadLength = in.getInt();
+            int recordedHash  = in.getInt();
+
+            readPayload( payloadLength );
+
+            if ( recordedHash != calcHash(checksum, payloadBytes, 0, payloadLength) ) {
+                numChecksumFailures++;
+
+                throw new RuntimeIOException( "Checksum failure on msg seq '"+writer.getNextMessageSeq()+"' received from the leader" );
+            }
+
+            writer.allocateTo( entry, payloadLength );
+            entry.bytes.writeBytes( 0, payloadLength, payload, 0, payloadLength );
+            writer.completeMessage();
+
+            numMessagesReplicated++;
+            numBytes -= PER_MSGHEADER_SIZE + payloadLength;
+        }
+    }
+
+    private void readPayload( int payloadLength ) throws IOException {
+        if ( payloadLength > payload.length ) {
+            this.payload      = new byte[Math.max( payloadLength, payload.length*2 )];
+            this.payloadBytes = new ArrayBytes2( payload );
+        }
+
+        int i = 0;
+        while ( i < payloadLength ) {
+            fill( 1 );
+
+            int numBytes = Math.min( in.remaining(), payloadLength-i );
+
+            in.get( payload, i, numBytes );
+            i += numBytes;
+        }
+    }
+
+    /**
+     * Blocks until at least numBytes are available to be read from the receive buffer.
+     */
+    private void fill( int numBytes ) throws IOException {
+        if ( in.remaining() >= numBytes ) {
+            return;
+        }
+
+        in.compact();
+
+        while ( in.position() < numBytes ) {
+            if ( channel.read(in) < 0 ) {
+                throw new EOFException( "The leader closed the connection" );
+            }
+        }
+
+        in.flip();
+    }
+
+    private void disconnect() {
+        if ( channel == null ) {
+            return;
+        }
+
+        try {
+            channel.close();
+        } catch ( IOException ex ) {
+            // the link has already failed
+        }
+
+        this.channel = null;
+    }
+
+
+    private static class ReplicatedEntry extends JournalEntry {
+        public ReplicatedEntry() {
+            super( 0 );
+        }
+    }
+
+}
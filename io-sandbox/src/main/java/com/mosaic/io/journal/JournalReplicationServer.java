@@ -0,0 +1,138 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.lang.QA;
+import com.mosaic.lang.ServiceThread;
+import com.mosaic.lang.functional.Function0;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Replicates a journal to other processes over TCP.  Each follower (see JournalReplicationClient)
+ * is served by its own thread, which ships the raw bytes of the data files straight from the file
+ * to the socket as the writer completes messages.  Followers may disconnect and reconnect at
+ * will, resuming from the seq of the last message that they received.<p/>
+ *
+ * A follower that has fallen so far behind that the data files that it needs have been retired
+ * is disconnected, as is one that claims to have messages that this journal does not have.
+ */
+public class JournalReplicationServer extends ServiceThread<JournalReplicationServer> {
+
+    private static final long ACCEPT_RETRY_MILLIS = 100;
+
+
+    private final Journal2                        journal;
+    private final InetSocketAddress               bindAddress;
+    private final Function0<String>               sessionServiceNameFactory;
+    private final List<JournalReplicationSession> sessions            = new CopyOnWriteArrayList<>();
+    private final AtomicLong                      numBytesSentCounter = new AtomicLong();
+
+    private ServerSocketChannel                   serverChannel;
+    private volatile int                          localPort = -1;
+
+
+    JournalReplicationServer( Journal2 journal, String serviceName, InetSocketAddress bindAddress ) {
+        super( serviceName, ThreadType.DAEMON );
+
+        QA.argNotNull( bindAddress, "bindAddress" );
+
+        this.journal                   = journal;
+        this.bindAddress               = bindAddress;
+        this.sessionServiceNameFactory = NameFactoryUtils.createSequenceNameFactory( serviceName+"-session" );
+    }
+
+
+    /**
+     * The port that followers connect to;  useful when the server was bound to port zero.  -1
+     * when the server is not running.
+     */
+    public int getPort() {
+        return localPort;
+    }
+
+    /**
+     * The number of followers that are currently connected.
+     */
+    public int getNumFollowers() {
+        int count = 0;
+
+        for ( JournalReplicationSession session : sessions ) {
+            if ( session.isConnected() ) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * The number of data file bytes that have been sent to followers, in total.
+     */
+    public long getNumBytesSent() {
+        return numBytesSentCounter.get();
+    }
+
+
+    protected void doStart() throws IOException {
+        this.serverChannel = ServerSocketChannel.open();
+
+        serverChannel.socket().setReuseAddress( true );
+        serverChannel.bind( bindAddress );
+
+        this.localPort = serverChannel.socket().getLocalPort();
+
+        super.doStart();
+    }
+
+    protected long loop() {
+        try {
+            SocketChannel channel = serverChannel.accept();   // interrupted by stop()
+
+            channel.socket().setTcpNoDelay( true );
+
+            JournalReplicationSession session = new JournalReplicationSession( journal, sessionServiceNameFactory.invoke(), channel, numBytesSentCounter );
+
+            sessions.add( session );
+            session.start();
+
+            stopDisconnectedSessions();
+        } catch ( IOException ex ) {
+            return ACCEPT_RETRY_MILLIS;   // eg the process has run out of file handles
+        }
+
+        return 0;
+    }
+
+    protected void doStop() throws Exception {
+        super.doStop();
+
+        serverChannel.close();
+
+        for ( JournalReplicationSession session : sessions ) {
+            session.stop();
+        }
+
+        sessions.clear();
+
+        this.serverChannel = null;
+        this.localPort     = -1;
+    }
+
+
+    private void stopDisconnectedSessions() {
+        for ( JournalReplicationSession session : sessions ) {
+            if ( !session.isConnected() ) {
+                session.stop();
+
+                sessions.remove( session );
+            }
+        }
+    }
+
+}
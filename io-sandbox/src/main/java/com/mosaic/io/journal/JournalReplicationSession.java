@@ -0,0 +1,197 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.io.RuntimeIOException;
+import com.mosaic.lang.ServiceThread;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Streams the messages of a journal to a single follower, on behalf of JournalReplicationServer.
+ * The follower opens the session by sending the seq of the first message that it wants, after
+ * which the session sends frames of raw data file bytes as messages are completed by the writer.<p/>
+ *
+ * Each frame is a header followed by numBytes of (payloadLength:int,payloadHashCode:int,payload:byte[])*,
+ * exactly as laid out in the data file;  which is what allows the bytes to be handed to the OS
+ * with FileX.transferTo without ever being copied into the JVM.  Frames are sent with no payload
+ * as a heartbeat while the journal is idle.
+ */
+class JournalReplicationSession extends ServiceThread<JournalReplicationSession> implements JournalReaderPosition {
+
+    // Frame header format:
+    // | firstMessageSeq:long | leaderMessageSeqExc:long | numBytes:long | checksumId:int |
+
+    static final int  REQUEST_SIZE              = 8;
+    static final int  FRAMEHEADER_SIZE          = 28;
+    static final long HEARTBEAT_INTERVAL_MILLIS = 1000;
+
+    private static final long DISCONNECTED_POLL_MILLIS = 100;
+
+
+    private final Journal2      journal;
+    private final SocketChannel channel;
+    private final AtomicLong    numBytesSentCounter;
+    private final ByteBuffer    buf = ByteBuffer.allocate( FRAMEHEADER_SIZE ).order( ByteOrder.nativeOrder() );
+
+    private JournalDataFile2    dataFile;             // positioned at the next message to be sent
+    private volatile int        currentFileSeq = -1;  // read by JournalRetentionService
+    private long                lastSentMillis;
+    private volatile boolean    isConnected = true;
+
+
+    JournalReplicationSession( Journal2 journal, String serviceName, SocketChannel channel, AtomicLong numBytesSentCounter ) {
+        super( serviceName, ThreadType.DAEMON );
+
+        this.journal             = journal;
+        this.channel             = channel;
+        this.numBytesSentCounter = numBytesSentCounter;
+    }
+
+
+    /**
+     * Returns false once the link to the follower has failed.  The follower is expected to reconnect.
+     */
+    public boolean isConnected() {
+        return isConnected;
+    }
+
+    /**
+     * The seq of the data file that is being sent to the follower, or -1 when the follower has
+     * yet to say where it wants to start from.  Registered as a reader of the journal for as
+     * long as it has a data file open, so that the data files that the follower has yet to
+     * receive are not retired.
+     */
+    public int getCurrentFileSeq() {
+        return currentFileSeq;
+    }
+
+
+    protected long loop() {
+        if ( !isConnected ) {
+            return DISCONNECTED_POLL_MILLIS;
+        }
+
+        try {
+            if ( dataFile == null ) {
+                openAt( readRequestedMessageSeq() );
+            }
+
+            return sendNextFrame();
+        } catch ( IOException | RuntimeIOException | JournalNotFoundException2 ex ) {
+            disconnect();
+
+            return DISCONNECTED_POLL_MILLIS;
+        }
+    }
+
+    protected void doStop() throws Exception {
+        super.doStop();
+
+        disconnect();
+    }
+
+
+    private long readRequestedMessageSeq() throws IOException {
+        buf.clear().limit( REQUEST_SIZE );
+
+        while ( buf.hasRemaining() ) {
+            if ( channel.read(buf) < 0 ) {
+                throw new EOFException();
+            }
+        }
+
+        return buf.getLong( 0 );
+    }
+
+    private void openAt( long messageSeq ) {
+        synchronized ( journal.retentionLock ) {  // stops the target data file from being retired while it is opened
+            this.dataFile       = journal.seekTo( messageSeq );
+            this.currentFileSeq = dataFile.getFileSeq();
+
+            journal.readerStarted( this );
+        }
+
+        if ( dataFile.getCurrentMessageSeq() != messageSeq ) {
+            throw new JournalNotFoundException2( "Follower requested msg seq '"+messageSeq+"' which is past the end of the journal" );
+        }
+
+        this.lastSentMillis = System.currentTimeMillis();
+    }
+
+    private long sendNextFrame() throws IOException {
+        long fromIndex = dataFile.getCurrentIndex();
+        long fromSeq   = dataFile.getCurrentMessageSeq();
+        long nowMillis = System.currentTimeMillis();
+
+        if ( dataFile.skipCompletedMessages() > 0 ) {
+            long toIndex = dataFile.getCurrentIndex();
+
+            writeFrameHeader( fromSeq, dataFile.getCurrentMessageSeq(), toIndex-fromIndex );
+            dataFile.transferTo( fromIndex, toIndex, channel );
+
+            numBytesSentCounter.addAndGet( toIndex-fromIndex );
+            this.lastSentMillis = nowMillis;
+
+            return 0;
+        } else if ( dataFile.hasReachedEOFMarker() ) {
+            rollOver();
+
+            return 0;
+        } else if ( nowMillis - lastSentMillis >= HEARTBEAT_INTERVAL_MILLIS ) {
+            writeFrameHeader( fromSeq, fromSeq, 0 );
+
+            this.lastSentMillis = nowMillis;
+        }
+
+        return 1;
+    }
+
+    private void rollOver() {
+        JournalDataFile2 previousDataFile = dataFile;
+
+        synchronized ( journal.retentionLock ) {
+            this.dataFile       = previousDataFile.nextFile().open();
+            this.currentFileSeq = dataFile.getFileSeq();
+        }
+
+        previousDataFile.close();
+    }
+
+    private void writeFrameHeader( long firstMessageSeq, long leaderMessageSeqExc, long numBytes ) throws IOException {
+        buf.clear();
+        buf.putLong( firstMessageSeq );
+        buf.putLong( leaderMessageSeqExc );
+        buf.putLong( numBytes );
+        buf.putInt( dataFile.getChecksum().getId() );
+        buf.flip();
+
+        while ( buf.hasRemaining() ) {
+            channel.write( buf );
+        }
+    }
+
+    private void disconnect() {
+        this.isConnected = false;
+
+        try {
+            channel.close();
+        } catch ( IOException ex ) {
+            // the link has already failed
+        }
+
+        if ( dataFile != null ) {
+            journal.readerStopped( this );
+
+            dataFile.close();
+
+            this.dataFile       = null;
+            this.currentFileSeq = -1;
+        }
+    }
+
+}
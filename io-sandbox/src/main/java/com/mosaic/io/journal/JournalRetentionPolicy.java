@@ -0,0 +1,83 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.lang.QA;
+import com.mosaic.lang.time.Duration;
+
+
+/**
+ * Decides when a JournalRetentionService may retire the oldest data files of a journal.  A data
+ * file is retired as soon as any one of the following holds:  it was sealed more than maxAge ago,
+ * the data files of the journal total more than maxTotalBytes, or (when retireConsumedFiles is set)
+ * every running reader has moved past it.<p/>
+ *
+ * Regardless of the policy, data files are only ever retired oldest first, the two newest data
+ * files are always kept (the writers may still be completing messages in the file that they have
+ * just rolled away from) and a data file that a running reader in this JVM has yet to move past
+ * is never retired from under it.
+ */
+public class JournalRetentionPolicy {
+
+    public static JournalRetentionPolicy olderThan( Duration maxAge ) {
+        return new JournalRetentionPolicy( maxAge, Long.MAX_VALUE, false );
+    }
+
+    public static JournalRetentionPolicy totalBytesExceeds( long maxTotalBytes ) {
+        return new JournalRetentionPolicy( Duration.INDEFINITE, maxTotalBytes, false );
+    }
+
+    /**
+     * Retires data files once every running reader has moved on to a later data file.  Nothing is
+     * retired while there are no running readers.
+     */
+    public static JournalRetentionPolicy consumedByAllReaders() {
+        return new JournalRetentionPolicy( Duration.INDEFINITE, Long.MAX_VALUE, true );
+    }
+
+
+    private final Duration maxAge;
+    private final long     maxTotalBytes;
+    private final boolean  retireConsumedFiles;
+
+
+    public JournalRetentionPolicy( Duration maxAge, long maxTotalBytes, boolean retireConsumedFiles ) {
+        QA.argNotNull(  maxAge,        "maxAge"        );
+        QA.argIsGTZero( maxTotalBytes, "maxTotalBytes" );
+
+        this.maxAge              = maxAge;
+        this.maxTotalBytes       = maxTotalBytes;
+        this.retireConsumedFiles = retireConsumedFiles;
+    }
+
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public long getMaxTotalBytes() {
+        return maxTotalBytes;
+    }
+
+    public boolean isRetireConsumedFiles() {
+        return retireConsumedFiles;
+    }
+
+    /**
+     * @param sealedForMillis how long ago the data file was sealed
+     * @param totalBytes      the size of this data file plus every data file after it
+     * @param isConsumed      true when every running reader has moved past this data file
+     */
+    boolean shouldRetire( long sealedForMillis, long totalBytes, boolean isConsumed ) {
+        if ( retireConsumedFiles && isConsumed ) {
+            return true;
+        } else if ( totalBytes > maxTotalBytes ) {
+            return true;
+        } else {
+            return sealedForMillis >= maxAge.getMillis();
+        }
+    }
+
+    public String toString() {
+        return "JournalRetentionPolicy(maxAge="+maxAge+", maxTotalBytes="+maxTotalBytes+", retireConsumedFiles="+retireConsumedFiles+")";
+    }
+
+}
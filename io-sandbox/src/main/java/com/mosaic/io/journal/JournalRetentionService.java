@@ -0,0 +1,291 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.io.RuntimeIOException;
+import com.mosaic.io.filesystemx.DirectoryX;
+import com.mosaic.io.filesystemx.FileContents2;
+import com.mosaic.io.filesystemx.FileModeEnum;
+import com.mosaic.io.filesystemx.FileX;
+import com.mosaic.lang.QA;
+import com.mosaic.lang.ServiceThread;
+import com.mosaic.lang.time.SystemClock;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * Background thread that retires the oldest data files of a journal, either deleting them or
+ * moving them into an archive directory as '<name><seq>.data.gz'.  Which data files are retired
+ * is governed by a JournalRetentionPolicy.  An archive is written as '<name><seq>.data.gz.partial',
+ * and is only renamed once it and its directory have been forced to disk;  the data file is not
+ * deleted until then, so a crash never loses a data file that has not been archived.<p/>
+ *
+ * The writers are never blocked;  the data files that they append to are never retired, and
+ * the compression happens before the only lock is taken.  That lock is shared with readers that
+ * are opening a data file by seq, so that a data file is not retired from under them.  Once
+ * retired, new readers start from the oldest remaining data file and seeking to a retired
+ * message will throw JournalNotFoundException2.<p/>
+ *
+ * The age of a data file is measured from when this service first saw that it had been sealed,
+ * so after a restart data files are kept for longer rather than being retired early.
+ */
+public class JournalRetentionService extends ServiceThread<JournalRetentionService> {
+
+    static final long           CHECK_INTERVAL_MILLIS  = 1000;
+    private static final int    NUM_DATA_FILES_KEPT    = 2;
+    private static final int    COPY_BUFFER_SIZE       = 64*1024;
+    private static final int    ARCHIVE_WRITE_SIZE     = 1024*1024;
+    private static final String PARTIAL_ARCHIVE_SUFFIX = ".partial";
+
+
+    private final Journal2               journal;
+    private final JournalRetentionPolicy policy;
+    private final SystemClock            clock;
+    private final DirectoryX             archiveDirectoryNbl;
+
+    private final Map<Integer,Long>      sealedAtMillis = new HashMap<>();
+    private volatile long                numDataFilesRetired;
+
+
+    JournalRetentionService( Journal2 journal, String serviceName, JournalRetentionPolicy policy, SystemClock clock, DirectoryX archiveDirectoryNbl ) {
+        super( serviceName, ThreadType.DAEMON );
+
+        QA.argNotNull( policy, "policy" );
+        QA.argNotNull( clock,  "clock"  );
+
+        this.journal             = journal;
+        this.policy              = policy;
+        this.clock               = clock;
+        this.archiveDirectoryNbl = archiveDirectoryNbl;
+    }
+
+
+    public long getNumDataFilesRetired() {
+        return numDataFilesRetired;
+    }
+
+
+    protected long loop() {
+        retireDataFiles();
+
+        return CHECK_INTERVAL_MILLIS;
+    }
+
+    /**
+     * Runs a single pass over the data files, retiring as many of the oldest as the policy allows.
+     *
+     * @return the number of data files retired
+     */
+    synchronized int retireDataFiles() {
+        List<FileX> dataFiles  = journal.fetchSortedFiles();
+        int         numSealed  = Math.max( 0, dataFiles.size() - NUM_DATA_FILES_KEPT );
+        long        nowMillis  = clock.getCurrentMillis();
+        long        totalBytes = 0;
+
+        Set<Integer> sealedFileSeqs = new HashSet<>();
+        for ( int i=0; i<dataFiles.size(); i++ ) {
+            totalBytes += dataFiles.get(i).sizeInBytes();
+
+            if ( i < numSealed ) {
+                int fileSeq = extractFileSeq( dataFiles.get(i) );
+
+                sealedAtMillis.putIfAbsent( fileSeq, nowMillis );
+                sealedFileSeqs.add( fileSeq );
+            }
+        }
+
+        sealedAtMillis.keySet().retainAll( sealedFileSeqs );
+
+
+        int numRetired = 0;
+        for ( int i=0; i<numSealed; i++ ) {
+            FileX   dataFile        = dataFiles.get( i );
+            int     fileSeq         = extractFileSeq( dataFile );
+            long    fileSizeBytes   = dataFile.sizeInBytes();
+            long    sealedForMillis = nowMillis - sealedAtMillis.get( fileSeq );
+            boolean isConsumed      = isConsumedByAllReaders( fileSeq );
+
+            if ( !policy.shouldRetire(sealedForMillis, totalBytes, isConsumed) || !retire(dataFile, fileSeq, dataFiles.get(i+1)) ) {
+                break;   // data files are only retired oldest first, so that the remaining files are contiguous
+            }
+
+            totalBytes -= fileSizeBytes;
+            numRetired += 1;
+        }
+
+        numDataFilesRetired += numRetired;
+
+        return numRetired;
+    }
+
+
+    private boolean retire( FileX dataFile, int fileSeq, FileX nextDataFile ) {
+        if ( isInUseByAReader(fileSeq) ) {
+            return false;
+        }
+
+        if ( archiveDirectoryNbl != null ) {
+            archive( dataFile );
+        }
+
+        synchronized ( journal.retentionLock ) {
+            if ( isInUseByAReader(fileSeq) ) {  // a reader may have sought back into the file while it was being archived
+                return false;
+            }
+
+            recordFirstMessageSeqOf( nextDataFile );
+
+            dataFile.delete();
+            deleteIndexFile( fileSeq );
+        }
+
+        return true;
+    }
+
+    /**
+     * Streams the data file through gzip straight into the archive file, a chunk at a time, so
+     * that the heap used does not grow with the size of the data file.
+     */
+    private void archive( FileX dataFile ) {
+        String archiveFileName = dataFile.getFileName() + ".gz";
+        String partialFileName = archiveFileName + PARTIAL_ARCHIVE_SUFFIX;
+        FileX  partialArchive  = archiveDirectoryNbl.getFile( partialFileName );
+
+        if ( partialArchive != null ) {  // left behind by an earlier attempt that did not complete
+            partialArchive.delete();
+        }
+
+        FileX         archiveFile = archiveDirectoryNbl.getOrCreateFile( partialFileName );
+        FileContents2 contents    = dataFile.openFile2( FileModeEnum.READ_ONLY );
+
+        try ( OutputStream out = new GZIPOutputStream(new BufferedOutputStream(new FileAppender(archiveFile), ARCHIVE_WRITE_SIZE), COPY_BUFFER_SIZE) ) {
+            byte[] buf  = new byte[COPY_BUFFER_SIZE];
+            long   size = contents.sizeBytes();
+
+            for ( long i=0; i<size; i+=buf.length ) {
+                int numBytes = (int) Math.min( buf.length, size-i );
+
+                contents.readBytes( i, i+numBytes, buf, 0, numBytes );
+                out.write( buf, 0, numBytes );
+            }
+        } catch ( IOException ex ) {
+            throw RuntimeIOException.recast( ex );
+        } finally {
+            contents.release();
+        }
+
+        archiveFile.renameTo( archiveFileName );
+        archiveDirectoryNbl.flush();
+    }
+
+    /**
+     * Data files written before the first seq table was introduced will not have been recorded;
+     * record the new oldest data file so that seekTo can rule out retired messages without opening it.
+     */
+    private void recordFirstMessageSeqOf( FileX dataFile ) {
+        int                   fileSeq        = extractFileSeq( dataFile );
+        DirectoryX            indexDirectory = journal.dataDirectory.getOrCreateDirectory( JournalDataFile2.indexDirectoryName(journal.serviceName) );
+        JournalFirstSeqTable2 firstSeqTable  = JournalFirstSeqTable2.openRO( indexDirectory, journal.serviceName );
+
+        try {
+            if ( firstSeqTable.getFirstMessageSeq(fileSeq) >= 0 ) {
+                return;
+            }
+        } finally {
+            firstSeqTable.close();
+        }
+
+        JournalDataFile2 f = new JournalDataFile2( journal.dataDirectory, journal.serviceName, fileSeq, journal.perFileSizeBytes, FileModeEnum.READ_ONLY ).open();
+
+        try {
+            JournalFirstSeqTable2.record( indexDirectory, journal.serviceName, fileSeq, f.getCurrentMessageSeq() );
+        } finally {
+            f.close();
+        }
+    }
+
+    private void deleteIndexFile( int fileSeq ) {
+        DirectoryX indexDirectory = journal.dataDirectory.getDirectory( JournalDataFile2.indexDirectoryName(journal.serviceName) );
+        FileX      indexFile      = indexDirectory == null ? null : indexDirectory.getFile( JournalIndexFile2.fileName(journal.serviceName, fileSeq) );
+
+        if ( indexFile != null ) {
+            indexFile.delete();
+        }
+    }
+
+    private boolean isConsumedByAllReaders( int fileSeq ) {
+        List<JournalReaderPosition> readers = journal.getRunningReaders();
+
+        return !readers.isEmpty() && !isInUseByAReader( fileSeq );
+    }
+
+    private boolean isInUseByAReader( int fileSeq ) {
+        for ( JournalReaderPosition reader : journal.getRunningReaders() ) {
+            if ( reader.getCurrentFileSeq() <= fileSeq ) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private int extractFileSeq( FileX dataFile ) {
+        return JournalDataFile2.extractFileSeq( dataFile, journal.serviceName );
+    }
+
+
+    /**
+     * Appends to a file, growing it by exactly the number of bytes written so that the file never
+     * ends with unused bytes.  Each write remaps the file, so wrap it in a large buffer.  Closing
+     * the appender forces the file to disk.
+     */
+    private static class FileAppender extends OutputStream {
+        private final FileX   file;
+
+        private FileContents2 contents;
+        private long          sizeBytes;
+
+        public FileAppender( FileX file ) {
+            this.file = file;
+        }
+
+        public void write( int b ) {
+            write( new byte[] {(byte) b}, 0, 1 );
+        }
+
+        public void write( byte[] buf, int off, int len ) {
+            if ( len == 0 ) {
+                return;
+            }
+
+            long newSizeBytes = sizeBytes + len;
+
+            if ( contents != null ) {
+                contents.release();
+            }
+
+            this.contents = file.openFile2( FileModeEnum.READ_WRITE, newSizeBytes );
+
+            contents.writeBytes( sizeBytes, newSizeBytes, buf, off, off+len );
+
+            this.sizeBytes = newSizeBytes;
+        }
+
+        public void close() {
+            if ( contents != null ) {
+                contents.flush();
+                contents.release();
+
+                this.contents = null;
+            }
+        }
+    }
+
+}
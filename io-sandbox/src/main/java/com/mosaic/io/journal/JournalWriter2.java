@@ -2,6 +2,9 @@ package com.mosaic.io.journal;
 
 import com.mosaic.lang.QA;
 import com.mosaic.lang.ServiceMixin;
+import com.mosaic.lang.time.Duration;
+
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -9,14 +12,54 @@ import com.mosaic.lang.ServiceMixin;
  */
 public class JournalWriter2 extends ServiceMixin<JournalWriter2> {
 
-    private final Journal2         journal;
-    private       JournalDataFile2 currentDataFile;
+    private final Journal2                    journal;
+    private final JournalGroupCommitter       groupCommitter;
+    private final JournalDataFilePreallocator preallocator;
+
+    /**
+     * Guards currentDataFile changing (roll over, start and stop) and the flushing of it to disk.
+     * The allocate and complete methods do not take this lock.
+     */
+    private final Object                      commitLock             = new Object();
+
+    // published by the writer thread after each completed message;  offset first and then seq
+    private final AtomicLong                  completedToOffset      = new AtomicLong();
+    private final AtomicLong                  completedMessageSeqExc = new AtomicLong();
+
+    private volatile long                     durableMessageSeqExc;
+    private long                              flushedToOffset;       // guarded by commitLock
+
+    private JournalDataFile2                  currentDataFile;
+
+    // the data file rolled away from, until it has been flushed and closed;  guarded by commitLock
+    private JournalDataFile2                  rolledOverDataFile;
+    private long                              rolledOverMessageSeqExc;
 
 
     JournalWriter2( Journal2 journal, String serviceName ) {
+        this( journal, serviceName, null, false );
+    }
+
+    /**
+     * @param groupCommitPolicy    when not null, completed messages are flushed to disk in batches by a
+     *                             background thread.  Use awaitDurable() to wait for a message to be flushed.
+     * @param preallocateDataFiles when true, the next data file is created and pre-faulted by a background
+     *                             thread while the current one is being filled
+     */
+    JournalWriter2( Journal2 journal, String serviceName, GroupCommitPolicy groupCommitPolicy, boolean preallocateDataFiles ) {
         super( serviceName );
 
-        this.journal = journal;
+        this.journal        = journal;
+        this.groupCommitter = groupCommitPolicy == null ? null : new JournalGroupCommitter( serviceName+"-groupcommit", this, groupCommitPolicy );
+        this.preallocator   = preallocateDataFiles ? new JournalDataFilePreallocator( serviceName+"-preallocator", this ) : null;
+
+        if ( groupCommitter != null ) {
+            registerServicesAfter( groupCommitter );
+        }
+
+        if ( preallocator != null ) {
+            registerServicesAfter( preallocator );
+        }
     }
 
     /**
@@ -34,39 +77,283 @@ public class JournalWriter2 extends ServiceMixin<JournalWriter2> {
         boolean successFlag = currentDataFile.allocateAndAssignTo( view.bytes, numBytes );
 
         if ( !successFlag ) {  // roll on to a new file
-            currentDataFile.close();
+            synchronized ( commitLock ) {
+                closeRolledOverDataFile();   // only still open when the preallocator has fallen a whole data file behind
+
+                JournalDataFile2 previousDataFile = currentDataFile;
+                long             nextMessageSeq   = previousDataFile.getCurrentMessageSeq();
+
+                this.currentDataFile = openNextDataFile( previousDataFile );
+                this.currentDataFile.setFirstMessageSeq(nextMessageSeq);
+
+                previousDataFile.seal();   // readers only move on once the next file's header has been written
 
-            long nextMessageSeq = currentDataFile.getCurrentMessageSeq();
+                this.flushedToOffset = 0;  // includes the new files header in the next flush
+                this.completedToOffset.set( currentDataFile.getCurrentIndex() );
 
-            this.currentDataFile = currentDataFile.nextFile().open();
-            this.currentDataFile.setFirstMessageSeq(nextMessageSeq);
+                this.rolledOverDataFile      = previousDataFile;
+                this.rolledOverMessageSeqExc = nextMessageSeq;
 
-            allocateTo( view ); // try again after having rolled on to the next data file
+                if ( preallocator == null ) {
+                    closeRolledOverDataFile();
+                } else {
+                    preallocator.closeRolledOverFile();   // keeps the flush of the whole file off of the writer thread
+                }
+            }
+
+            allocateTo( view, numBytes ); // try again after having rolled on to the next data file
         }
     }
 
-    public void completeMessage() {
+    /**
+     * Marks the current message as complete, making it visible to readers.
+     *
+     * @return the seq of the message that was completed;  pass to awaitDurable() to wait for
+     *         the message to reach disk
+     */
+    public long completeMessage() {
         currentDataFile.complete();
+
+        long msgSeqExc = currentDataFile.getCurrentMessageSeq();
+
+        completedToOffset.lazySet( currentDataFile.getCurrentIndex() );
+        completedMessageSeqExc.lazySet( msgSeqExc );
+
+        return msgSeqExc - 1;
     }
 
     public void flush() {
-        currentDataFile.flush();
+        synchronized ( commitLock ) {
+            closeRolledOverDataFile();
+
+            long msgSeqExc = completedMessageSeqExc.get();
+            long offsetExc = completedToOffset.get();
+
+            currentDataFile.flush();
+
+            this.flushedToOffset = offsetExc;
+
+            markDurable( msgSeqExc );
+        }
+    }
+
+    /**
+     * Returns true if the specified message has been flushed to disk.
+     */
+    public boolean isDurable( long msgSeq ) {
+        return msgSeq < durableMessageSeqExc;
+    }
+
+    /**
+     * The seq of the next message that has yet to be flushed to disk;  every message before it
+     * is durable.
+     */
+    public long getDurableMessageSeqExc() {
+        return durableMessageSeqExc;
+    }
+
+    /**
+     * Blocks the calling thread until the specified message has been flushed to disk.
+     */
+    public boolean awaitDurable( long msgSeq ) {
+        return awaitDurable( msgSeq, Duration.INDEFINITE );
+    }
+
+    /**
+     * Blocks the calling thread until the specified message has been flushed to disk.  When
+     * group commit has not been enabled, then the completed messages are flushed by the calling thread.
+     *
+     * @return false if the timeout expired, the writer was stopped or the thread was interrupted
+     *         before the message became durable
+     */
+    public boolean awaitDurable( long msgSeq, Duration timeout ) {
+        if ( isDurable(msgSeq) ) {
+            return true;
+        } else if ( groupCommitter == null ) {
+            flushCompletedMessages();
+
+            return isDurable( msgSeq );
+        }
+
+        long timeoutMillis  = timeout.getMillis();
+        long deadlineMillis = timeoutMillis == Long.MAX_VALUE ? Long.MAX_VALUE : System.currentTimeMillis() + timeoutMillis;
+
+        synchronized ( commitLock ) {
+            while ( !isDurable(msgSeq) ) {
+                long remainingMillis = deadlineMillis == Long.MAX_VALUE ? 0 : deadlineMillis - System.currentTimeMillis();
+
+                if ( !isRunning() || (deadlineMillis != Long.MAX_VALUE && remainingMillis <= 0) ) {
+                    return false;
+                }
+
+                try {
+                    commitLock.wait( remainingMillis );
+                } catch ( InterruptedException ex ) {
+                    Thread.currentThread().interrupt();
+
+                    return isDurable( msgSeq );
+                }
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Flushes the bytes of the messages that have been completed since the last flush.  Only
+     * the dirty range of the current data file is flushed.
+     */
+    void flushCompletedMessages() {
+        synchronized ( commitLock ) {
+            if ( currentDataFile == null ) {
+                return;
+            }
+
+            closeRolledOverDataFile();
+
+            long msgSeqExc = completedMessageSeqExc.get();  // read seq before offset;  the writer publishes them in the opposite order
+            long offsetExc = completedToOffset.get();
+
+            if ( msgSeqExc <= durableMessageSeqExc ) {
+                return;
+            }
+
+            currentDataFile.flush( flushedToOffset, offsetExc );
+
+            this.flushedToOffset = offsetExc;
+
+            markDurable( msgSeqExc );
+        }
     }
 
+    /**
+     * Flushes and closes the data file that was last rolled away from, which makes its messages
+     * durable.  Called from the preallocator thread after each roll over, so that the writer thread
+     * never waits on the flush of a whole data file;  and before any flush of the current data
+     * file, as messages only become durable in order.
+     */
+    void closeRolledOverDataFile() {
+        synchronized ( commitLock ) {
+            if ( rolledOverDataFile == null ) {
+                return;
+            }
+
+            rolledOverDataFile.close();
+
+            this.rolledOverDataFile = null;
+
+            markDurable( rolledOverMessageSeqExc );
+        }
+    }
+
+    /**
+     * The seq that will be given to the next message to be completed.
+     */
+    long getNextMessageSeq() {
+        return completedMessageSeqExc.get();
+    }
+
+    long getNumUnflushedMessages() {
+        return completedMessageSeqExc.get() - durableMessageSeqExc;
+    }
+
+    /**
+     * @return the seq of the data file that has been preallocated ready to roll on to, or -1
+     */
+    int getPreallocatedFileSeq() {
+        return preallocator == null ? -1 : preallocator.getPreallocatedFileSeq();
+    }
 
 
     protected void doStart() throws Exception {
         QA.isNull( currentDataFile, "currentDataFile" );
 
-        this.currentDataFile = journal.selectLastFileRW().open();
+        synchronized ( commitLock ) {
+            this.currentDataFile = journal.selectLastFileRW().open();
+
+            this.currentDataFile.seekToEnd();
+
+            if ( currentDataFile.getFileSeq() > 0 && currentDataFile.getCurrentIndex() == JournalDataFile2.FILEHEADER_SIZE ) {
+                recoverFromAnInterruptedRollOver();
+            }
 
-        this.currentDataFile.seekToEnd();
+            if ( preallocator != null ) {
+                preallocator.preallocateFileAfter( currentDataFile );
+            }
+
+            long msgSeq = currentDataFile.getCurrentMessageSeq();
+            long offset = currentDataFile.getCurrentIndex();
+
+            this.flushedToOffset = offset;
+            this.completedToOffset.set( offset );
+            this.completedMessageSeqExc.set( msgSeq );
+            this.durableMessageSeqExc = msgSeq;
+        }
     }
 
     protected void doStop() throws Exception {
-        this.currentDataFile.close();
+        synchronized ( commitLock ) {
+            closeRolledOverDataFile();
+
+            this.currentDataFile.close();
+
+            markDurable( completedMessageSeqExc.get() );
+
+            this.currentDataFile = null;
+
+            commitLock.notifyAll();
+        }
+    }
+
+
+    private JournalDataFile2 openNextDataFile( JournalDataFile2 previousDataFile ) {
+        if ( preallocator == null ) {
+            return previousDataFile.nextFile().open();
+        }
+
+        JournalDataFile2 preallocatedDataFile = preallocator.takePreallocatedFile( previousDataFile.getFileSeq()+1 );
+        if ( preallocatedDataFile != null ) {
+            return preallocatedDataFile.publishPreallocated();
+        }
 
-        this.currentDataFile = null;
+        JournalDataFile2 nextDataFile = previousDataFile.nextFile().open();   // the preallocator has fallen behind
+        preallocator.preallocateFileAfter( nextDataFile );
+
+        return nextDataFile;
+    }
+
+    /**
+     * A roll over creates the next data file before sealing the previous one.  Should the JVM have
+     * died in between, then the previous data file is sealed here so that readers can move on, and
+     * the empty current data file is given the correct first message seq.
+     */
+    private void recoverFromAnInterruptedRollOver() {
+        JournalDataFile2 previousDataFile = currentDataFile.previousFile();
+        if ( !previousDataFile.exists() ) {
+            return;
+        }
+
+        previousDataFile.open();
+
+        try {
+            previousDataFile.sealIfUnsealed();
+
+            long nextMessageSeq = previousDataFile.getCurrentMessageSeq();
+            if ( currentDataFile.getCurrentMessageSeq() != nextMessageSeq ) {
+                currentDataFile.setFirstMessageSeq( nextMessageSeq );
+            }
+        } finally {
+            previousDataFile.close();
+        }
+    }
+
+    private void markDurable( long msgSeqExc ) {
+        if ( msgSeqExc > durableMessageSeqExc ) {
+            this.durableMessageSeqExc = msgSeqExc;
+
+            commitLock.notifyAll();
+        }
     }
 
 }
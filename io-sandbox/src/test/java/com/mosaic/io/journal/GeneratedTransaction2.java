@@ -0,0 +1,40 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.bytes2.fields.ByteFieldsRegistry2;
+import com.mosaic.bytes2.fields.DoubleField2;
+import com.mosaic.bytes2.fields.FlyweightGenerator;
+import com.mosaic.bytes2.fields.LongField2;
+
+
+/**
+ * Shares its layout with Transaction2, but leaves its accessors to be generated by FlyweightGenerator.
+ */
+public abstract class GeneratedTransaction2 extends JournalEntry {
+
+    private static final ByteFieldsRegistry2 registry = new ByteFieldsRegistry2();
+
+    private static final LongField2   fromField   = registry.registerLong();
+    private static final LongField2   toField     = registry.registerLong();
+    private static final DoubleField2 amountField = registry.registerDouble();
+
+    public static final int SIZE_BYTES = registry.sizeBytes();
+
+
+    public static GeneratedTransaction2 newInstance() {
+        return FlyweightGenerator.newInstance( GeneratedTransaction2.class );
+    }
+
+
+    protected GeneratedTransaction2() {
+        super( SIZE_BYTES );
+    }
+
+    public abstract long getFrom();
+    public abstract long getTo();
+    public abstract double getAmount();
+
+    public abstract void setFrom( long newValue );
+    public abstract void setTo( long newValue );
+    public abstract void setAmount( double newAmount );
+
+}
@@ -108,4 +108,22 @@ public class Journal2Benchmark {
         return s;
     }
 
+    // NB same data requirements as reader();  one load fence and checksum lookup per batch rather than per message
+    @Benchmark( value=3, batchCount=6, durationResultMultiplier=1.0/21, units="per million 24 byte messages" )
+    public long batchReader() {
+        JournalReader2 reader = journal.createReader();
+        reader.start();
+
+        long[] s = new long[1];
+        JournalReaderCallback callback = (seq,bytes,from,toExc) -> {
+            s[0] += bytes.readLong( from, toExc ) + bytes.readLong( from+8, toExc );
+        };
+
+        while ( reader.readNextBatchUsingCallback(callback, 4096) > 0 ) {}
+
+        reader.stop();
+
+        return s[0];
+    }
+
 }
@@ -13,6 +13,8 @@ import org.junit.Before;
 import org.junit.internal.runners.model.MultipleFailureException;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static java.util.Arrays.asList;
@@ -118,6 +120,29 @@ public class Journal2Test extends Tests {
         assertFalse( reader.readNextInto( transaction ) );
     }
 
+    @Test
+    public void givenGeneratedFlyweight_writeAndReadMessages_expectSameLayoutAsHandWrittenFlyweight() {
+        GeneratedTransaction2 generated = GeneratedTransaction2.newInstance();
+
+        writer.allocateTo( generated );
+        generated.setFrom( 11 );
+        generated.setTo( 12 );
+        generated.setAmount( 13 );
+        writer.completeMessage();
+
+        writeMessage( 21, 22, 23 );
+
+        assertNextMessageIs( 0, 11, 12, 13 );
+
+        assertTrue( reader.readNextInto(generated) );
+        assertEquals( 1, generated.getMessageSeq() );
+        assertEquals( 21, generated.getFrom() );
+        assertEquals( 22, generated.getTo() );
+        assertEquals( 23, generated.getAmount(), 1e-6 );
+
+        assertFalse( reader.readNextInto(generated) );
+    }
+
 
 // ROLL OVER DATA FILE
 
@@ -326,6 +351,118 @@ public class Journal2Test extends Tests {
     }
 
 
+// BATCH READS
+
+    @Test
+    public void givenNoJournal_readBatch_expectNoMessages() {
+        assertEquals( 0, reader.readNextBatchUsingCallback(collectingCallback(), 100) );
+        assertEquals( 0, batchSeqs.size() );
+    }
+
+    @Test
+    public void givenMessagesInOneFile_readBatch_expectAllMessagesInOnePass() {
+        writeMessages( 5 );
+
+        assertEquals( 5, reader.readNextBatchUsingCallback(collectingCallback(), 100) );
+        assertEquals( asList(0L, 1L, 2L, 3L, 4L), batchSeqs );
+
+        assertEquals( 0, reader.readNextBatchUsingCallback(collectingCallback(), 100) );
+        assertFalse( reader.readNextInto(transaction) );
+    }
+
+    @Test
+    public void givenMoreMessagesThanTheBatchLimit_readBatch_expectToStopAtTheLimitAndResumeFromThere() {
+        writeMessages( 10 );
+
+        assertEquals( 3, reader.readNextBatchUsingCallback(collectingCallback(), 3) );
+        assertEquals( asList(0L, 1L, 2L), batchSeqs );
+
+        assertNextMessageIs( 3 );
+
+        assertEquals( 6, reader.readNextBatchUsingCallback(collectingCallback(), 100) );
+        assertEquals( asList(0L, 1L, 2L, 4L, 5L, 6L, 7L, 8L, 9L), batchSeqs );
+    }
+
+    @Test
+    public void givenMessagesSpanningThreeFiles_readBatch_expectToRollOverFilesWithinTheBatch() {
+        writeMessages( TRANSACTION_COUNT_PERDATAFILE*2 + 5 );
+
+        assertEquals( TRANSACTION_COUNT_PERDATAFILE*2 + 5, reader.readNextBatchUsingCallback(collectingCallback(), 1000) );
+
+        for ( long seq=0; seq<batchSeqs.size(); seq++ ) {
+            assertEquals( seq, batchSeqs.get((int) seq).longValue() );
+        }
+
+        writeMessage( 11, 12, 13 );
+        assertNextMessageIs( TRANSACTION_COUNT_PERDATAFILE*2 + 5, 11, 12, 13 );
+    }
+
+    @Test
+    @SuppressWarnings("EmptyCatchBlock")
+    public void givenCorruptedMessage_readBatch_expectCheckSumFailureAfterTheMessagesBeforeIt() {
+        writeMessages( 3 );
+
+        corruptMessage( 1 );
+
+        try {
+            reader.readNextBatchUsingCallback( collectingCallback(), 100 );
+            fail( "expected checksum failure" );
+        } catch ( CheckSumException ex ) {
+            // expected
+        }
+
+        assertEquals( asList(0L), batchSeqs );
+    }
+
+    @Test
+    public void concurrentlyWriteWhileReadingBatches_expectEveryMessageInOrderAcrossFileRollOvers() throws MultipleFailureException {
+        long numMessages = TRANSACTION_COUNT_PERDATAFILE*50 + 3;
+
+        Runnable writerJob = () -> writeMessages( numMessages );
+
+        Runnable readerJob = () -> {
+            Transaction2 t = new Transaction2();
+
+            JournalReaderCallback callback = (seq,bytes,from,toExc) -> {
+                t.bytes.setBytes( bytes, from, toExc );
+
+                assertEquals( batchSeqs.size(), seq );
+                assertEquals( expectedFrom(seq), t.getFrom() );
+                assertEquals( expectedAmount(seq), t.getAmount(), 1e-6 );
+
+                batchSeqs.add( seq );
+            };
+
+            while ( batchSeqs.size() < numMessages ) {
+                reader.readNextBatchUsingCallback( callback, 7 );
+            }
+        };
+
+        JUnitMosaic.runConcurrentlyAndWaitFor(
+            "Journal2Test.concurrentlyWriteWhileReadingBatches_expectEveryMessageInOrderAcrossFileRollOvers",
+            writerJob,
+            readerJob
+        );
+
+        assertEquals( numMessages, batchSeqs.size() );
+        assertFalse( reader.readNextInto(transaction) );
+    }
+
+
+    private List<Long> batchSeqs = new ArrayList<>();
+
+    private JournalReaderCallback collectingCallback() {
+        return (seq,bytes,from,toExc) -> {
+            transaction.bytes.setBytes( bytes, from, toExc );
+
+            assertEquals( expectedFrom(seq), transaction.getFrom() );
+            assertEquals( expectedAmount(seq), transaction.getAmount(), 1e-6 );
+
+            batchSeqs.add( seq );
+        };
+    }
+
+
 // MISSING DATA FILES
 
     @Test
@@ -2,7 +2,10 @@ package com.mosaic.io.journal;
 
 import com.mosaic.bytes2.Bytes2;
 import com.mosaic.lang.Service;
+import com.mosaic.lang.ServiceThread;
+import com.mosaic.lang.WaitStrategy;
 import com.mosaic.lang.system.Backdoor;
+import com.mosaic.lang.time.Duration;
 import com.softwaremosaic.junit.JUnitMosaic;
 import com.softwaremosaic.junit.JUnitMosaicRunner;
 import com.softwaremosaic.junit.annotations.Test;
@@ -149,6 +152,45 @@ public class JournalAsyncReaderTests extends Tests {
         }
     }
 
+    @Test(threadCheck = true)
+    public void givenSpinThenParkWaitStrategy_writeEntries_expectAsyncReaderToPickUpTheEntriesAndReportIdling() {
+        reader.stop();
+
+        ServiceThread<?> spinningReader = journal.createReaderAsync( new JournalReaderCallback() {
+            public void entryReceived( long seq, Bytes2 bytes, long from, long toExc ) {
+                Transaction2 t = new Transaction2();
+
+                t.bytes.setBytes( bytes, from, toExc );
+
+                audit.add( "entry(" + seq + "," + t + ")" );
+            }
+        }, WaitStrategy.spinThenPark(100, 10, Duration.millis(1)) );
+
+        spinningReader.start();
+
+        try {
+            JUnitMosaic.spinUntilTrue( () -> spinningReader.getWaitStrategy().getParkCount() > 0 );
+
+            writeMessage( 10, 11,  100 );
+            writeMessage( 11, 12,  101 );
+
+            JUnitMosaic.spinUntilTrue( () -> audit.size() == 2 );
+
+
+            List<String> expected = Arrays.asList(
+                "entry(0,Transaction(10,11,100.0))",
+                "entry(1,Transaction(11,12,101.0))"
+            );
+
+            assertEquals( expected, audit );
+            assertTrue( spinningReader.getIdleLoopCount() > 110 );
+            assertTrue( spinningReader.getLoopCount() > spinningReader.getIdleLoopCount() );
+            assertTrue( spinningReader.getWaitStrategy().getSpinCount() >= 100 );
+        } finally {
+            spinningReader.stop();
+        }
+    }
+
 
     private void writeMessage( long expectedFrom, long expectedTo, long expectedAmount ) {
         writer.allocateTo( transaction );
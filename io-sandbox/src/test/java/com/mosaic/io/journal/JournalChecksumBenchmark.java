@@ -0,0 +1,94 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.bytes2.Bytes2;
+import com.mosaic.bytes2.impl.OffHeapBytes2;
+import com.mosaic.io.filesystemx.DirectoryX;
+import com.mosaic.lang.system.LiveSystem;
+import com.mosaic.lang.system.SystemX;
+import com.softwaremosaic.junit.JUnitMosaicRunner;
+import com.softwaremosaic.junit.annotations.Benchmark;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+
+
+/**
+ * Compares the cost of the journal checksums;  both in isolation and as part of writing to a journal.
+ * Compare the writer results with Journal2Benchmark.writer, which uses SUM_OF_LONGS.
+ */
+@RunWith(JUnitMosaicRunner.class)
+@SuppressWarnings("UnusedDeclaration")
+public class JournalChecksumBenchmark {
+
+    private SystemX    system  = new LiveSystem();
+    private DirectoryX dataDir = system.fileSystem.getCurrentWorkingDirectory().getOrCreateDirectory( "benchmark_tmp" );
+
+    private Journal2       journal = new Journal2( dataDir, "checksumBenchmark", Journal2.DEFAULT_PER_FILE_SIZE_BYTES, JournalChecksum.CRC32C );
+    private JournalWriter2 writer  = journal.createWriter();
+
+    private Bytes2         bytes   = new OffHeapBytes2( 1024 );
+
+
+    @Before
+    public void setup() {
+        writer.start();
+
+        for ( long i=0; i<1024; i+=8 ) {
+            bytes.writeLong( i, i+8, i*31 );
+        }
+    }
+
+    @After
+    public void tearDown() {
+        writer.stop();
+        bytes.release();
+
+        dataDir.deleteAll();
+    }
+
+
+    @Benchmark( value=3, batchCount=6, units="per million 24 byte payloads" )
+    public int sumOfLongs24Bytes() {
+        return checksumMillionTimes( JournalChecksum.SUM_OF_LONGS, 24 );
+    }
+
+    @Benchmark( value=3, batchCount=6, units="per million 24 byte payloads" )
+    public int crc32c24Bytes() {
+        return checksumMillionTimes( JournalChecksum.CRC32C, 24 );
+    }
+
+    @Benchmark( value=3, batchCount=6, units="per million 1kb payloads" )
+    public int sumOfLongs1KB() {
+        return checksumMillionTimes( JournalChecksum.SUM_OF_LONGS, 1024 );
+    }
+
+    @Benchmark( value=3, batchCount=6, units="per million 1kb payloads" )
+    public int crc32c1KB() {
+        return checksumMillionTimes( JournalChecksum.CRC32C, 1024 );
+    }
+
+    @Benchmark( value=3, batchCount=6, units="per million 24 byte messages" )
+    public void writerCRC32C() {
+        Transaction2 t = new Transaction2();
+
+        for ( int i=0; i<1000000; i++ ) {
+            writer.allocateTo( t );
+                t.setFrom( i );
+                t.setTo( i );
+                t.setAmount( i );
+            writer.completeMessage();
+        }
+    }
+
+
+    private int checksumMillionTimes( JournalChecksum checksum, long numBytes ) {
+        int sum = 0;
+
+        for ( int i=0; i<1000000; i++ ) {
+            sum += checksum.calculate( bytes, 0, numBytes );
+        }
+
+        return sum;
+    }
+
+}
@@ -0,0 +1,212 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.io.CheckSumException;
+import com.mosaic.io.filesystemx.FileModeEnum;
+import com.mosaic.io.filesystemx.FileX;
+import com.softwaremosaic.junit.JUnitMosaicRunner;
+import com.softwaremosaic.junit.annotations.Test;
+import org.junit.runner.RunWith;
+
+
+@RunWith(JUnitMosaicRunner.class)
+public class JournalChecksumTest extends Tests {
+
+    private static final long TRANSACTION_COUNT_PERDATAFILE = 20;
+    private static final long JOURNAL_FILE_SIZE             = Journal2.FILEHEADER_SIZE + Journal2.FILEFOOTER_SIZE +
+        + TRANSACTION_COUNT_PERDATAFILE*(Transaction2.SIZE_BYTES+Journal2.PER_MSGHEADER_SIZE);
+
+
+    private Transaction2 transaction = new Transaction2();
+
+
+// FILE HEADER
+
+    @Test
+    public void givenCRC32CJournal_writeMessages_expectVersion2HeaderInEveryDataFile() {
+        writeMessages( newJournal(JournalChecksum.CRC32C), 0, TRANSACTION_COUNT_PERDATAFILE+1 );
+
+        for ( String fileName : new String[] {"junitJournal0.data", "junitJournal1.data"} ) {
+            assertEquals( JournalDataFile2.JOURNAL_VERSION_2, readHeaderByte(fileName, JournalDataFile2.FILEHEADER_JOURNALVERSION_INDEX) );
+            assertEquals( JournalChecksum.CRC32C.getId(),     readHeaderByte(fileName, JournalDataFile2.FILEHEADER_CHECKSUM_INDEX) );
+        }
+    }
+
+    @Test
+    public void givenCRC32CJournal_writeMessagesAcrossFiles_expectReaderToReceiveThem() {
+        Journal2 journal     = newJournal( JournalChecksum.CRC32C );
+        long     numMessages = TRANSACTION_COUNT_PERDATAFILE*2 + 3;
+
+        writeMessages( journal, 0, numMessages );
+
+        assertMessages( journal, 0, numMessages );
+    }
+
+
+// CORRUPTION
+
+    @Test
+    public void givenCRC32CJournal_corruptTheLastByteOfAPayload_expectReaderToDetectIt() {
+        Journal2 journal = newJournal( JournalChecksum.CRC32C );
+        writeMessages( journal, 0, 3 );
+
+        corruptLastByteOfMessage( 1 );
+
+        JournalReader2 reader = journal.createReader().start();
+
+        try {
+            assertTrue( reader.readNextInto(transaction) );
+
+            reader.readNextInto( transaction );
+            fail( "expected checksum failure" );
+        } catch ( CheckSumException ex ) {
+            // expected
+        } finally {
+            reader.stop();
+        }
+    }
+
+    @Test
+    public void givenSumOfLongsJournal_corruptTheLastByteOfAPayload_expectCorruptionToGoUndetected() {
+        Journal2 journal = newJournal( JournalChecksum.SUM_OF_LONGS );
+        writeMessages( journal, 0, 3 );
+
+        corruptLastByteOfMessage( 1 );
+
+        JournalReader2 reader = journal.createReader().start();
+
+        try {
+            assertTrue( reader.readNextInto(transaction) );
+            assertTrue( reader.readNextInto(transaction) );
+        } finally {
+            reader.stop();
+        }
+    }
+
+
+// BACKWARDS COMPATIBILITY
+
+    @Test
+    public void givenVersion1DataFile_readMessages_expectThemToBeVerifiedWithSumOfLongs() {
+        writeMessages( newJournal(JournalChecksum.SUM_OF_LONGS), 0, 5 );
+
+        writeHeaderByte( "junitJournal0.data", JournalDataFile2.FILEHEADER_JOURNALVERSION_INDEX, (byte) 0 ); // as written before versions were recorded
+
+        assertMessages( newJournal(JournalChecksum.CRC32C), 0, 5 );
+    }
+
+    @Test
+    public void givenVersion1DataFile_appendWithCRC32CJournal_expectExistingFileToKeepSumOfLongsAndNewFilesToUseCRC32C() {
+        writeMessages( newJournal(JournalChecksum.SUM_OF_LONGS), 0, 5 );
+        writeHeaderByte( "junitJournal0.data", JournalDataFile2.FILEHEADER_JOURNALVERSION_INDEX, (byte) 0 );
+
+        Journal2 journal     = newJournal( JournalChecksum.CRC32C );
+        long     numMessages = TRANSACTION_COUNT_PERDATAFILE + 10;
+
+        writeMessages( journal, 5, numMessages );
+
+        assertEquals( 0,                              readHeaderByte("junitJournal0.data", JournalDataFile2.FILEHEADER_JOURNALVERSION_INDEX) );
+        assertEquals( JournalChecksum.CRC32C.getId(), readHeaderByte("junitJournal1.data", JournalDataFile2.FILEHEADER_CHECKSUM_INDEX) );
+
+        assertMessages( journal, 0, numMessages );
+    }
+
+    @Test
+    public void givenReaderOpenedBeforeTheWriter_expectReaderToUseTheChecksumTheWriterRecorded() {
+        Journal2       journal = newJournal( JournalChecksum.CRC32C );
+        JournalReader2 reader  = journal.createReader().start();
+
+        try {
+            writeMessages( journal, 0, 3 );
+
+            for ( long seq=0; seq<3; seq++ ) {
+                assertTrue( reader.readNextInto(transaction) );
+                assertEquals( seq, transaction.getFrom() );
+            }
+        } finally {
+            reader.stop();
+        }
+    }
+
+
+    private Journal2 newJournal( JournalChecksum checksum ) {
+        return new Journal2( dataDir, "junitJournal", JOURNAL_FILE_SIZE, checksum );
+    }
+
+    private void writeMessages( Journal2 journal, long fromSeq, long toSeqExc ) {
+        JournalWriter2 writer = journal.createWriter().start();
+
+        try {
+            for ( long seq=fromSeq; seq<toSeqExc; seq++ ) {
+                writer.allocateTo( transaction );
+
+                transaction.setFrom( seq );
+                transaction.setTo( seq+1 );
+                transaction.setAmount( seq+2 );
+
+                writer.completeMessage();
+            }
+        } finally {
+            writer.stop();
+        }
+    }
+
+    private void assertMessages( Journal2 journal, long fromSeq, long toSeqExc ) {
+        JournalReader2 reader = journal.createReader().start();
+
+        try {
+            for ( long seq=fromSeq; seq<toSeqExc; seq++ ) {
+                assertTrue( reader.readNextInto(transaction) );
+
+                assertEquals( seq,   transaction.getMessageSeq() );
+                assertEquals( seq,   transaction.getFrom() );
+                assertEquals( seq+1, transaction.getTo() );
+                assertEquals( seq+2, transaction.getAmount(), 1e-6 );
+            }
+
+            assertFalse( reader.readNextInto(transaction) );
+        } finally {
+            reader.stop();
+        }
+    }
+
+    /**
+     * The sum of longs checksum skips the trailing bytes of a payload.
+     */
+    private void corruptLastByteOfMessage( long targetMessageSeq ) {
+        FileX dataFile = dataDir.getFile("junitJournal0.data");
+        long  fileSize = dataFile.sizeInBytes();
+
+        dataFile.processFile2( contents -> {
+            long pos               = JournalDataFile2.FILEHEADER_SIZE;
+            long currentMessageSeq = 0;
+
+            while ( currentMessageSeq != targetMessageSeq ) {
+                int payloadSize = contents.readInt( pos + JournalDataFile2.PER_MSGHEADER_PAYLOADSIZE_INDEX, fileSize );
+
+                pos += JournalDataFile2.PER_MSGHEADER_SIZE + payloadSize;
+                currentMessageSeq += 1;
+            }
+
+            int payloadSize = contents.readInt( pos + JournalDataFile2.PER_MSGHEADER_PAYLOADSIZE_INDEX, fileSize );
+            contents.writeByte( pos+JournalDataFile2.PER_MSGHEADER_SIZE+payloadSize-1, fileSize, (byte) 7 );
+
+            return null;
+        }, FileModeEnum.READ_WRITE );
+    }
+
+    private byte readHeaderByte( String fileName, long offset ) {
+        return dataDir.getFile(fileName).processFile2(
+            contents -> contents.readByte( offset, JournalDataFile2.FILEHEADER_SIZE ),
+            FileModeEnum.READ_ONLY
+        );
+    }
+
+    private void writeHeaderByte( String fileName, long offset, byte v ) {
+        dataDir.getFile(fileName).processFile2( contents -> {
+            contents.writeByte( offset, JournalDataFile2.FILEHEADER_SIZE, v );
+
+            return null;
+        }, FileModeEnum.READ_WRITE );
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.lang.time.Duration;
+import com.softwaremosaic.junit.JUnitMosaicRunner;
+import com.softwaremosaic.junit.annotations.Test;
+import org.junit.runner.RunWith;
+
+
+@RunWith(JUnitMosaicRunner.class)
+public class JournalGroupCommitTest extends Tests {
+
+    private static final long JOURNAL_FILE_SIZE = Journal2.FILEHEADER_SIZE + Journal2.FILEFOOTER_SIZE +
+        + 20*(Transaction2.SIZE_BYTES+Journal2.PER_MSGHEADER_SIZE);
+
+
+    private Journal2       journal     = new Journal2( dataDir, "junitJournal", JOURNAL_FILE_SIZE );
+    private Transaction2   transaction = new Transaction2();
+
+
+// NO GROUP COMMIT
+
+    @Test
+    public void givenPlainWriter_completeMessages_expectSeqsToBeReturned() {
+        JournalWriter2 writer = startWriter( journal.createWriter() );
+
+        assertEquals( 0, writeMessage(writer, 1) );
+        assertEquals( 1, writeMessage(writer, 2) );
+        assertEquals( 2, writeMessage(writer, 3) );
+    }
+
+    @Test
+    public void givenPlainWriter_awaitDurable_expectCallingThreadToFlush() {
+        JournalWriter2 writer = startWriter( journal.createWriter() );
+
+        long msgSeq = writeMessage( writer, 1 );
+
+        assertFalse( writer.isDurable(msgSeq) );
+        assertTrue( writer.awaitDurable(msgSeq) );
+        assertTrue( writer.isDurable(msgSeq) );
+        assertEquals( 1, writer.getDurableMessageSeqExc() );
+    }
+
+    @Test
+    public void givenPlainWriter_flush_expectAllCompletedMessagesToBeDurable() {
+        JournalWriter2 writer = startWriter( journal.createWriter() );
+
+        writeMessage( writer, 1 );
+        long msgSeq = writeMessage( writer, 2 );
+
+        writer.flush();
+
+        assertTrue( writer.isDurable(msgSeq) );
+    }
+
+
+// GROUP COMMIT
+
+    @Test
+    public void givenCountPolicy_writeFewerMessagesThanThreshold_expectNoFlush() {
+        JournalWriter2 writer = startWriter( journal.createWriter(GroupCommitPolicy.everyNMessages(5)) );
+
+        long msgSeq = writeMessages( writer, 4 );
+
+        assertFalse( writer.awaitDurable(msgSeq, Duration.millis(20)) );
+    }
+
+    @Test
+    public void givenCountPolicy_writeMessagesUpToThreshold_expectBatchToBecomeDurable() {
+        JournalWriter2 writer = startWriter( journal.createWriter(GroupCommitPolicy.everyNMessages(5)) );
+
+        long msgSeq = writeMessages( writer, 5 );
+
+        assertTrue( writer.awaitDurable(msgSeq, Duration.millis(2000)) );
+        assertEquals( 5, writer.getDurableMessageSeqExc() );
+    }
+
+    @Test
+    public void givenTimePolicy_writeMessage_expectItToBecomeDurableAfterTheDelay() {
+        JournalWriter2 writer = startWriter( journal.createWriter(GroupCommitPolicy.every(Duration.millis(5))) );
+
+        long msgSeq = writeMessage( writer, 1 );
+
+        assertTrue( writer.awaitDurable(msgSeq, Duration.millis(2000)) );
+    }
+
+    @Test
+    public void givenGroupCommit_writeAcrossDataFiles_expectAllMessagesToBecomeDurable() {
+        JournalWriter2 writer = startWriter( journal.createWriter(GroupCommitPolicy.every(Duration.millis(1), 8)) );
+
+        long msgSeq = writeMessages( writer, 50 );
+
+        assertTrue( writer.awaitDurable(msgSeq) );
+        assertEquals( 50, writer.getDurableMessageSeqExc() );
+    }
+
+    @Test
+    public void givenGroupCommit_awaitFromAnotherThread_expectToBeWokenWhenDurable() throws InterruptedException {
+        JournalWriter2 writer = startWriter( journal.createWriter(GroupCommitPolicy.every(Duration.millis(5))) );
+
+        boolean[] result = new boolean[1];
+        Thread    waiter = new Thread( () -> result[0] = writer.awaitDurable(2, Duration.millis(2000)) );
+        waiter.start();
+
+        writeMessages( writer, 3 );
+
+        waiter.join();
+
+        assertTrue( result[0] );
+    }
+
+    @Test
+    public void givenGroupCommit_stopWriter_expectWaitersToBeReleased() throws InterruptedException {
+        JournalWriter2 writer = journal.createWriter( GroupCommitPolicy.everyNMessages(1000) ).start();
+
+        boolean[] result = new boolean[] {true};
+        Thread    waiter = new Thread( () -> result[0] = writer.awaitDurable(10) );
+        waiter.start();
+
+        writeMessages( writer, 3 );
+        writer.stop();
+
+        waiter.join();
+
+        assertFalse( result[0] );
+        assertTrue( writer.isDurable(2) );
+    }
+
+
+    private JournalWriter2 startWriter( JournalWriter2 writer ) {
+        system.registerServicesAfter( writer );   // starts the writer, as the system is already running
+
+        return writer;
+    }
+
+    private long writeMessages( JournalWriter2 writer, int numMessages ) {
+        long msgSeq = -1;
+
+        for ( int i=0; i<numMessages; i++ ) {
+            msgSeq = writeMessage( writer, i );
+        }
+
+        return msgSeq;
+    }
+
+    private long writeMessage( JournalWriter2 writer, long v ) {
+        writer.allocateTo( transaction );
+
+        transaction.setFrom( v );
+        transaction.setTo( v+1 );
+        transaction.setAmount( v+2 );
+
+        return writer.completeMessage();
+    }
+
+}
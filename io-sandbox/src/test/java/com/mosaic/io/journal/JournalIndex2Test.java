@@ -0,0 +1,133 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.io.filesystemx.DirectoryX;
+import com.softwaremosaic.junit.JUnitMosaicRunner;
+import com.softwaremosaic.junit.annotations.Test;
+import org.junit.runner.RunWith;
+
+
+@RunWith(JUnitMosaicRunner.class)
+public class JournalIndex2Test extends Tests {
+
+    private static final long TRANSACTION_COUNT_PERDATAFILE = 1000;
+    private static final long JOURNAL_FILE_SIZE             = Journal2.FILEHEADER_SIZE + Journal2.FILEFOOTER_SIZE +
+        + TRANSACTION_COUNT_PERDATAFILE*(Transaction2.SIZE_BYTES+Journal2.PER_MSGHEADER_SIZE);
+
+    private static final long NUM_MESSAGES                  = TRANSACTION_COUNT_PERDATAFILE*3 + 500;
+
+
+    private Journal2       journal     = new Journal2( dataDir, "junitJournal", JOURNAL_FILE_SIZE );
+
+    private JournalReader2 reader      = journal.createReader();
+    private JournalWriter2 writer      = journal.createWriter();
+    private Transaction2   transaction = new Transaction2();
+
+
+    public JournalIndex2Test() {
+        system.registerServicesAfter( reader, writer );
+    }
+
+
+    @Test
+    public void writeMessagesAcrossFiles_expectIndexFilesAndFirstSeqTable() {
+        writeMessages( NUM_MESSAGES );
+
+        DirectoryX indexDir = dataDir.getDirectory( "junitJournal-index" );
+
+        assertNotNull( indexDir.getFile("junitJournal0.idx") );
+        assertNotNull( indexDir.getFile("junitJournal3.idx") );
+        assertNotNull( indexDir.getFile("junitJournal.seqs") );
+        assertEquals( "index files are not data files", 4, dataDir.files().size() );
+    }
+
+    @Test
+    public void seekToIndexedAndUnindexedMessages_expectReaderToReceiveThem() {
+        writeMessages( NUM_MESSAGES );
+
+        long[] targets = {0, 1, 127, 128, 129, 999, 1000, 1001, 1128, 2500, 3127, NUM_MESSAGES-1};
+        for ( long seq : targets ) {
+            assertTrue( "seekTo("+seq+")", reader.seekTo(seq) );
+
+            assertNextMessageIs( seq );
+        }
+    }
+
+    @Test
+    public void seekTo_expectReaderToContinueAcrossDataFiles() {
+        writeMessages( NUM_MESSAGES );
+
+        assertTrue( reader.seekTo(TRANSACTION_COUNT_PERDATAFILE*2 - 3) );
+
+        for ( long seq=TRANSACTION_COUNT_PERDATAFILE*2 - 3; seq<NUM_MESSAGES; seq++ ) {
+            assertNextMessageIs( seq );
+        }
+
+        assertFalse( reader.readNextInto(transaction) );
+    }
+
+    @Test
+    public void seekPastTheEnd_expectFalse() {
+        writeMessages( NUM_MESSAGES );
+
+        assertFalse( reader.seekTo(NUM_MESSAGES + 10) );
+    }
+
+    @Test
+    public void givenIndexDirectoryRemoved_seekTo_expectFallBackToScanning() {
+        writeMessages( NUM_MESSAGES );
+
+        writer.stop();
+        dataDir.getDirectory( "junitJournal-index" ).deleteAll();
+
+        assertTrue( reader.seekTo(2500) );
+        assertNextMessageIs( 2500 );
+
+        assertTrue( reader.seekTo(130) );
+        assertNextMessageIs( 130 );
+
+        writer.start();
+    }
+
+    @Test
+    public void givenRestartedWriter_writeMoreMessages_expectIndexToCarryOn() {
+        writeMessages( 300 );
+
+        writer.stop();
+        writer.start();
+
+        for ( long seq=300; seq<NUM_MESSAGES; seq++ ) {
+            writeMessage( seq );
+        }
+
+        assertTrue( reader.seekTo(257) );
+        assertNextMessageIs( 257 );
+
+        assertTrue( reader.seekTo(3400) );
+        assertNextMessageIs( 3400 );
+    }
+
+
+    private void writeMessages( long numMessages ) {
+        for ( long seq=0; seq<numMessages; seq++ ) {
+            writeMessage( seq );
+        }
+    }
+
+    private void writeMessage( long seq ) {
+        writer.allocateTo( transaction );
+
+        transaction.setFrom( seq );
+        transaction.setTo( seq+1 );
+
+        writer.completeMessage();
+    }
+
+    private void assertNextMessageIs( long seq ) {
+        assertTrue( reader.readNextInto(transaction) );
+
+        assertEquals( seq, transaction.getMessageSeq() );
+        assertEquals( seq, transaction.getFrom() );
+        assertEquals( seq+1, transaction.getTo() );
+    }
+
+}
@@ -0,0 +1,192 @@
+package com.mosaic.io.journal;
+
+import com.softwaremosaic.junit.JUnitMosaic;
+import com.softwaremosaic.junit.JUnitMosaicRunner;
+import com.softwaremosaic.junit.annotations.Test;
+import org.junit.internal.runners.model.MultipleFailureException;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+@RunWith(JUnitMosaicRunner.class)
+public class JournalMultiWriter2Test extends Tests {
+
+    private static final long TRANSACTION_COUNT_PERDATAFILE = 20;
+    private static final long JOURNAL_FILE_SIZE             = Journal2.FILEHEADER_SIZE + Journal2.FILEFOOTER_SIZE +
+        + TRANSACTION_COUNT_PERDATAFILE*(Transaction2.SIZE_BYTES+Journal2.PER_MSGHEADER_SIZE);
+
+
+    private Journal2            journal     = new Journal2( dataDir, "junitJournal", JOURNAL_FILE_SIZE );
+
+    private JournalReader2      reader      = journal.createReader();
+    private JournalMultiWriter2 writer      = journal.createMultiWriter();
+    private Transaction2        transaction = new Transaction2();
+
+
+    public JournalMultiWriter2Test() {
+        system.registerServicesAfter( reader, writer );
+    }
+
+
+// SINGLE PRODUCER
+
+    @Test( threadCheck=true )
+    public void givenEmptyJournal_addMessages_expectReaderToReceiveThemInOrder() {
+        assertEquals( 0, writeMessage(transaction, 11) );
+        assertEquals( 1, writeMessage(transaction, 21) );
+
+        assertNextMessageIs( 0, 11 );
+        assertNextMessageIs( 1, 21 );
+        assertFalse( reader.readNextInto(transaction) );
+    }
+
+    @Test
+    public void addEnoughMessagesToOverflowTwoDataFiles_expectReaderToReceiveThemAll() {
+        long numMessages = TRANSACTION_COUNT_PERDATAFILE*2 + 1;
+
+        for ( long seq=0; seq<numMessages; seq++ ) {
+            assertEquals( seq, writeMessage(transaction, seq) );
+        }
+
+        for ( long seq=0; seq<numMessages; seq++ ) {
+            assertNextMessageIs( seq, seq );
+        }
+
+        assertFalse( reader.readNextInto(transaction) );
+        assertEquals( 3, dataDir.files().size() );
+    }
+
+    @Test
+    public void givenMessagesWrittenByJournalWriter2_restartWithMultiWriter_expectSeqsToCarryOn() {
+        writer.stop();
+
+        JournalWriter2 singleWriter = journal.createWriter().start();
+        for ( long seq=0; seq<TRANSACTION_COUNT_PERDATAFILE+3; seq++ ) {
+            singleWriter.allocateTo( transaction );
+            transaction.setFrom( seq );
+            singleWriter.completeMessage();
+        }
+        singleWriter.stop();
+
+        writer.start();
+
+        assertEquals( TRANSACTION_COUNT_PERDATAFILE+3, writeMessage(transaction, 99) );
+    }
+
+
+// OUT OF ORDER COMPLETION
+
+    @Test
+    public void allocateTwoMessagesCompleteTheSecond_expectReaderToWaitForTheFirst() {
+        Transaction2 t1 = new Transaction2();
+        Transaction2 t2 = new Transaction2();
+
+        assertEquals( 0, writer.allocateTo(t1) );
+        assertEquals( 1, writer.allocateTo(t2) );
+
+        t2.setFrom( 21 );
+        writer.completeMessage( t2 );
+
+        assertFalse( reader.readNextInto(transaction) );
+
+        t1.setFrom( 11 );
+        writer.completeMessage( t1 );
+
+        assertNextMessageIs( 0, 11 );
+        assertNextMessageIs( 1, 21 );
+        assertFalse( reader.readNextInto(transaction) );
+    }
+
+    @Test
+    public void givenUnpublishedMessageInFirstFile_rollOnToSecondFile_expectFirstFileToStayOpenUntilPublished() {
+        Transaction2 slow = new Transaction2();
+
+        writer.allocateTo( slow );
+
+        for ( long seq=1; seq<TRANSACTION_COUNT_PERDATAFILE+5; seq++ ) {
+            writeMessage( transaction, seq );
+        }
+
+        assertEquals( 2, dataDir.files().size() );
+        assertFalse( reader.readNextInto(transaction) );
+
+        slow.setFrom( 0 );
+        writer.completeMessage( slow );
+
+        for ( long seq=0; seq<TRANSACTION_COUNT_PERDATAFILE+5; seq++ ) {
+            assertNextMessageIs( seq, seq );
+        }
+
+        assertFalse( reader.readNextInto(transaction) );
+    }
+
+
+// MULTIPLE PRODUCERS
+
+    @Test
+    public void multipleProducersAcrossManyDataFiles_expectGapFreeSequenceWithEachProducersMessagesInOrder() throws MultipleFailureException {
+        int  numProducers           = 4;
+        long numMessagesPerProducer = TRANSACTION_COUNT_PERDATAFILE*10 + 3;
+
+        List<Runnable> jobs = new ArrayList<>();
+        for ( int i=0; i<numProducers; i++ ) {
+            long producerId = i;
+
+            jobs.add( () -> {
+                Transaction2 t = new Transaction2();
+
+                for ( long n=0; n<numMessagesPerProducer; n++ ) {
+                    writer.allocateTo( t );
+
+                    t.setFrom( producerId );
+                    t.setTo( n );
+                    t.setAmount( producerId*1000 + n );
+
+                    writer.completeMessage( t );
+                }
+            } );
+        }
+
+        JUnitMosaic.runConcurrentlyAndWaitFor(
+            "JournalMultiWriter2Test.multipleProducersAcrossManyDataFiles",
+            jobs.toArray( new Runnable[numProducers] )
+        );
+
+
+        long[] nextExpectedPerProducer = new long[numProducers];
+        long   totalMessages           = numProducers*numMessagesPerProducer;
+
+        for ( long seq=0; seq<totalMessages; seq++ ) {
+            assertTrue( reader.readNextInto(transaction) );
+            assertEquals( seq, transaction.getMessageSeq() );
+
+            int producerId = (int) transaction.getFrom();
+
+            assertEquals( nextExpectedPerProducer[producerId], transaction.getTo() );
+            assertEquals( producerId*1000 + transaction.getTo(), transaction.getAmount(), 1e-6 );
+
+            nextExpectedPerProducer[producerId]++;
+        }
+
+        assertFalse( reader.readNextInto(transaction) );
+    }
+
+
+    private long writeMessage( Transaction2 t, long v ) {
+        writer.allocateTo( t );
+
+        t.setFrom( v );
+
+        return writer.completeMessage( t );
+    }
+
+    private void assertNextMessageIs( long expectedSeq, long expectedFrom ) {
+        assertTrue( reader.readNextInto(transaction) );
+
+        assertEquals( expectedSeq, transaction.getMessageSeq() );
+        assertEquals( expectedFrom, transaction.getFrom() );
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.io.filesystemx.DirectoryX;
+import com.mosaic.io.filesystemx.FileModeEnum;
+import com.softwaremosaic.junit.JUnitMosaicRunner;
+import com.softwaremosaic.junit.annotations.Test;
+import org.junit.runner.RunWith;
+
+
+/**
+ * @see Journal2#createPreallocatingWriter(GroupCommitPolicy)
+ */
+@RunWith(JUnitMosaicRunner.class)
+public class JournalPreallocationTest extends Tests {
+
+    // Size each journal file to be able to store exactly 20 transactions before overflowing
+    private static final long TRANSACTION_COUNT_PERDATAFILE = 20;
+    private static final long JOURNAL_FILE_SIZE             = Journal2.FILEHEADER_SIZE + Journal2.FILEFOOTER_SIZE +
+        + TRANSACTION_COUNT_PERDATAFILE*(Transaction2.SIZE_BYTES+Journal2.PER_MSGHEADER_SIZE);
+
+
+    private Journal2       journal     = new Journal2( dataDir, "junitJournal", JOURNAL_FILE_SIZE );
+    private Transaction2   transaction = new Transaction2();
+    private long           nextFrom    = 0;
+
+
+    @Test( threadCheck=true )
+    public void startWriter_expectNextDataFileToBePreallocatedButNotVisibleToReaders() {
+        JournalWriter2 writer = journal.createPreallocatingWriter( null );
+        system.registerServicesAfter( writer );
+
+        spinUntilPreallocated( writer, 1 );
+
+        assertEquals( 1, dataDir.files(".data").size() );
+        assertEquals( JOURNAL_FILE_SIZE, dataDir.getFile(JournalDataFile2.preallocatedFileName("junitJournal", 1)).sizeInBytes() );
+
+        assertNotNull( indexDir().getFile(JournalIndexFile2.preallocatedFileName("junitJournal", 1)) );
+        assertNull( indexDir().getFile(JournalIndexFile2.fileName("junitJournal", 1)) );
+    }
+
+    @Test( threadCheck=true )
+    public void rollOver_expectThePreallocatedIndexToBePublishedAndUsedBySeeks() {
+        JournalWriter2 writer = journal.createPreallocatingWriter( null );
+        JournalReader2 reader = journal.createReader();
+        system.registerServicesAfter( writer, reader );
+
+        writeMessages( writer, TRANSACTION_COUNT_PERDATAFILE );
+        spinUntilPreallocated( writer, 1 );
+
+        writeMessages( writer, TRANSACTION_COUNT_PERDATAFILE );   // rolls on to the preallocated file
+
+        assertNull( indexDir().getFile(JournalIndexFile2.preallocatedFileName("junitJournal", 1)) );
+        assertNotNull( indexDir().getFile(JournalIndexFile2.fileName("junitJournal", 1)) );
+
+        assertTrue( reader.seekTo(TRANSACTION_COUNT_PERDATAFILE+3) );
+        assertTrue( reader.readNextInto(transaction) );
+        assertEquals( TRANSACTION_COUNT_PERDATAFILE+3, transaction.getFrom() );
+    }
+
+    @Test( threadCheck=true )
+    public void rollOver_expectThePreallocatorToFlushThePreviousFileAndMarkItsMessagesDurable() {
+        JournalWriter2 writer = journal.createPreallocatingWriter( null );
+        system.registerServicesAfter( writer );
+
+        writeMessages( writer, TRANSACTION_COUNT_PERDATAFILE );
+        spinUntilPreallocated( writer, 1 );
+
+        writeMessages( writer, 1 );   // rolls on to the preallocated file
+
+        spinUntilTrue( () -> writer.isDurable(TRANSACTION_COUNT_PERDATAFILE-1) );
+        assertFalse( writer.isDurable(TRANSACTION_COUNT_PERDATAFILE) );
+    }
+
+    @Test( threadCheck=true )
+    public void writeAcrossSeveralDataFiles_expectEachRollOverToUseThePreallocatedFile() {
+        JournalWriter2 writer = journal.createPreallocatingWriter( null );
+        JournalReader2 reader = journal.createReader();
+        system.registerServicesAfter( writer, reader );
+
+        writeMessages( writer, TRANSACTION_COUNT_PERDATAFILE );   // fills data file 0
+
+        for ( int fileSeq=1; fileSeq<=3; fileSeq++ ) {
+            spinUntilPreallocated( writer, fileSeq );
+
+            writeMessages( writer, 1 );   // rolls on to the preallocated file
+            assertNull( dataDir.getFile(JournalDataFile2.preallocatedFileName("junitJournal", fileSeq)) );
+
+            writeMessages( writer, TRANSACTION_COUNT_PERDATAFILE-1 );
+        }
+
+        assertEquals( 4, dataDir.files(".data").size() );
+        spinUntilPreallocated( writer, 4 );
+
+        for ( long seq=0; seq<TRANSACTION_COUNT_PERDATAFILE*4; seq++ ) {
+            assertTrue( reader.readNextInto(transaction) );
+            assertEquals( seq, transaction.getMessageSeq() );
+            assertEquals( seq, transaction.getFrom() );
+        }
+
+        assertFalse( reader.readNextInto(transaction) );
+    }
+
+    @Test( threadCheck=true )
+    public void givenPreallocatorThatHasFallenBehind_expectRollOverToCreateTheFileItself() {
+        JournalWriter2 writer = journal.createPreallocatingWriter( null );
+        JournalReader2 reader = journal.createReader();
+        system.registerServicesAfter( writer, reader );
+
+        writeMessages( writer, TRANSACTION_COUNT_PERDATAFILE*5 );   // likely to outpace the preallocator
+
+        for ( long seq=0; seq<TRANSACTION_COUNT_PERDATAFILE*5; seq++ ) {
+            assertTrue( reader.readNextInto(transaction) );
+            assertEquals( seq, transaction.getMessageSeq() );
+        }
+
+        spinUntilPreallocated( writer, 5 );
+        spinUntilTrue( () -> dataDir.files(".prealloc").size() == 1 );
+    }
+
+    @Test( threadCheck=true )
+    public void stopWriter_expectPreallocatedFileToBeRemoved() {
+        JournalWriter2 writer = journal.createPreallocatingWriter( null );
+        system.registerServicesAfter( writer );
+
+        spinUntilPreallocated( writer, 1 );
+
+        writer.stop();
+
+        assertEquals( 0, dataDir.files(".prealloc").size() );
+        assertEquals( 0, indexDir().files(".prealloc").size() );
+        assertEquals( 1, dataDir.files(".data").size() );
+    }
+
+    @Test
+    public void givenWriterThatDiedPartWayThroughARollOver_startWriter_expectThePreviousFileToBeSealed() {
+        JournalWriter2 writer = journal.createWriter();
+        system.registerServicesAfter( writer );
+
+        writeMessages( writer, TRANSACTION_COUNT_PERDATAFILE );
+        writer.stop();
+
+        // the next data file was created, but neither its header nor the previous files EOF marker was written
+        new JournalDataFile2( dataDir, "junitJournal", 1, JOURNAL_FILE_SIZE, FileModeEnum.READ_WRITE ).open().close();
+
+        writer = journal.createWriter();
+        JournalReader2 reader = journal.createReader();
+        system.registerServicesAfter( writer, reader );
+
+        writeMessages( writer, 1 );
+
+        for ( long seq=0; seq<=TRANSACTION_COUNT_PERDATAFILE; seq++ ) {
+            assertTrue( reader.readNextInto(transaction) );
+            assertEquals( seq, transaction.getMessageSeq() );
+            assertEquals( seq, transaction.getFrom() );
+        }
+
+        assertFalse( reader.readNextInto(transaction) );
+    }
+
+
+    private DirectoryX indexDir() {
+        return dataDir.getDirectory( JournalDataFile2.indexDirectoryName("junitJournal") );
+    }
+
+    private void spinUntilPreallocated( JournalWriter2 writer, int fileSeq ) {
+        spinUntilTrue( () -> writer.getPreallocatedFileSeq() == fileSeq );
+
+        assertNotNull( dataDir.getFile(JournalDataFile2.preallocatedFileName("junitJournal", fileSeq)) );
+    }
+
+    private void writeMessages( JournalWriter2 writer, long numMessages ) {
+        for ( long i=0; i<numMessages; i++ ) {
+            writer.allocateTo( transaction );
+
+            transaction.setFrom( nextFrom++ );
+            transaction.setTo( 2 );
+            transaction.setAmount( 3 );
+
+            writer.completeMessage();
+        }
+    }
+
+}
@@ -0,0 +1,221 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.io.filesystemx.DirectoryX;
+import com.mosaic.io.filesystemx.FileContents2;
+import com.mosaic.io.filesystemx.FileModeEnum;
+import com.softwaremosaic.junit.JUnitMosaicRunner;
+import com.softwaremosaic.junit.annotations.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+
+
+/**
+ * Replicates between two journals within the same JVM, over the loopback interface.
+ *
+ * @see JournalReplicationServer
+ * @see JournalReplicationClient
+ */
+@RunWith(JUnitMosaicRunner.class)
+public class JournalReplicationTest extends Tests {
+
+    // Size each journal file to be able to store exactly 20 transactions before overflowing
+    private static final long TRANSACTION_COUNT_PERDATAFILE = 20;
+    private static final long JOURNAL_FILE_SIZE             = Journal2.FILEHEADER_SIZE + Journal2.FILEFOOTER_SIZE +
+        + TRANSACTION_COUNT_PERDATAFILE*(Transaction2.SIZE_BYTES+Journal2.PER_MSGHEADER_SIZE);
+
+
+    private DirectoryX     followerDir     = system.fileSystem.getCurrentWorkingDirectory().getOrCreateDirectory( "follower" );
+
+    private Journal2       leaderJournal   = new Journal2( dataDir,     "junitJournal", JOURNAL_FILE_SIZE );
+    private Journal2       followerJournal = new Journal2( followerDir, "junitJournal", JOURNAL_FILE_SIZE*2, JournalChecksum.CRC32C );
+    private JournalWriter2 leaderWriter    = leaderJournal.createWriter();
+
+    private JournalReplicationServer server = leaderJournal.createReplicationServer( new InetSocketAddress(InetAddress.getLoopbackAddress(), 0) );
+
+    private long           nextFrom        = 0;
+
+
+    public JournalReplicationTest() {
+        system.registerServicesAfter( leaderWriter, server );
+    }
+
+
+    @Test( threadCheck=true )
+    public void givenLeaderWithMessages_connectFollower_expectEveryMessageToBeReplicated() {
+        writeMessages( TRANSACTION_COUNT_PERDATAFILE*3 + 5 );
+
+        JournalReplicationClient client = createAndRegisterClient();
+
+        spinUntilTrue( () -> client.getNextMessageSeq() == TRANSACTION_COUNT_PERDATAFILE*3 + 5 );
+
+        assertFollowerHasMessages( TRANSACTION_COUNT_PERDATAFILE*3 + 5 );
+        assertEquals( 0, client.getLagMessages() );
+        assertEquals( TRANSACTION_COUNT_PERDATAFILE*3 + 5, client.getNumMessagesReplicated() );
+        assertEquals( 1, server.getNumFollowers() );
+        assertTrue( server.getNumBytesSent() > 0 );
+    }
+
+    @Test( threadCheck=true )
+    public void givenConnectedFollower_writeMoreMessages_expectThemToBeStreamedAsTheyAreWritten() {
+        JournalReplicationClient client = createAndRegisterClient();
+
+        for ( long n=1; n<=TRANSACTION_COUNT_PERDATAFILE*2; n++ ) {
+            writeMessages( 1 );
+
+            final long expectedSeqExc = n;
+            spinUntilTrue( () -> client.getNextMessageSeq() == expectedSeqExc );
+        }
+
+        assertFollowerHasMessages( TRANSACTION_COUNT_PERDATAFILE*2 );
+    }
+
+    @Test( threadCheck=true )
+    public void givenFollowerThatWasStopped_restartIt_expectItToResumeFromItsLastMessage() {
+        writeMessages( 30 );
+
+        JournalReplicationClient client = createAndRegisterClient();
+        spinUntilTrue( () -> client.getNextMessageSeq() == 30 );
+        client.stop();
+
+        writeMessages( 30 );
+
+        JournalReplicationClient restartedClient = createAndRegisterClient();
+        spinUntilTrue( () -> restartedClient.getNextMessageSeq() == 60 );
+
+        assertEquals( 30, restartedClient.getNumMessagesReplicated() );
+        assertFollowerHasMessages( 60 );
+    }
+
+    @Test( threadCheck=true )
+    public void givenLeaderThatRestarts_expectFollowerToReconnectAndCatchUp() {
+        writeMessages( 10 );
+
+        JournalReplicationClient client = createAndRegisterClient();
+        spinUntilTrue( () -> client.getNextMessageSeq() == 10 );
+
+        int port = server.getPort();
+        server.stop();
+
+        writeMessages( 30 );
+
+        JournalReplicationServer restartedServer = leaderJournal.createReplicationServer( new InetSocketAddress(InetAddress.getLoopbackAddress(), port) );
+        system.registerServicesAfter( restartedServer );
+
+        spinUntilTrue( () -> client.getNextMessageSeq() == 40 );
+
+        assertTrue( client.getNumConnects() >= 2 );
+        assertFollowerHasMessages( 40 );
+    }
+
+    @Test( threadCheck=true )
+    public void givenCorruptedMessage_expectFollowerToStopBeforeIt() {
+        writeMessages( 10 );
+        corruptPayloadOfMessage( 6 );
+
+        JournalReplicationClient client = createAndRegisterClient();
+
+        spinUntilTrue( () -> client.getNumChecksumFailures() >= 1 );
+
+        assertEquals( 6, client.getNextMessageSeq() );
+        assertFollowerHasMessages( 6 );
+    }
+
+
+    /**
+     * The follower never reads from its socket, so the leader stalls part way through sending
+     * the first data file;  each data file is larger than the socket buffers can hold.
+     */
+    @Test( threadCheck=true )
+    public void givenFollowerThatHasNotReceivedTheOldestDataFile_retireFiles_expectThatFileToBeKept() throws IOException {
+        long                     largeFileSize = 16*1024*1024;
+        long                     perFileCount  = (largeFileSize - Journal2.FILEHEADER_SIZE - Journal2.FILEFOOTER_SIZE) / (Transaction2.SIZE_BYTES+Journal2.PER_MSGHEADER_SIZE);
+        Journal2                 largeJournal  = new Journal2( dataDir, "largeJournal", largeFileSize );
+        JournalWriter2           largeWriter   = largeJournal.createWriter();
+        JournalReplicationServer largeServer   = largeJournal.createReplicationServer( new InetSocketAddress(InetAddress.getLoopbackAddress(), 0) );
+
+        system.registerServicesAfter( largeWriter, largeServer );
+
+        Transaction2 transaction = new Transaction2();
+        for ( long i=0; i<perFileCount*3 + 5; i++ ) {
+            largeWriter.allocateTo( transaction );
+            transaction.setFrom( i );
+            largeWriter.completeMessage();
+        }
+
+        JournalRetentionService retention = largeJournal.createRetentionService( JournalRetentionPolicy.totalBytesExceeds(1), system.clock );
+
+        try ( SocketChannel follower = SocketChannel.open() ) {
+            follower.socket().setReceiveBufferSize( 4096 );
+            follower.connect( new InetSocketAddress(InetAddress.getLoopbackAddress(), largeServer.getPort()) );
+            follower.write( (ByteBuffer) ByteBuffer.allocate(JournalReplicationSession.REQUEST_SIZE).order(ByteOrder.nativeOrder()).putLong(0).flip() );
+
+            spinUntilTrue( () -> largeJournal.getRunningReaders().size() == 1 );
+
+            assertEquals( 0, retention.retireDataFiles() );
+            assertNotNull( dataDir.getFile("largeJournal0.data") );
+        }
+
+        spinUntilTrue( () -> largeJournal.getRunningReaders().isEmpty() );
+
+        assertTrue( retention.retireDataFiles() > 0 );
+        assertNull( dataDir.getFile("largeJournal0.data") );
+    }
+
+    private JournalReplicationClient createAndRegisterClient() {
+        JournalReplicationClient client = followerJournal.createReplicationClient( new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()) );
+
+        system.registerServicesAfter( client );
+
+        return client;
+    }
+
+    private void writeMessages( long numMessages ) {
+        Transaction2 transaction = new Transaction2();
+
+        for ( long i=0; i<numMessages; i++ ) {
+            leaderWriter.allocateTo( transaction );
+
+            transaction.setFrom( nextFrom++ );
+            transaction.setTo( 2 );
+            transaction.setAmount( 3 );
+
+            leaderWriter.completeMessage();
+        }
+    }
+
+    private void assertFollowerHasMessages( long expectedNumMessages ) {
+        JournalReader2 reader      = followerJournal.createReader().start();
+        Transaction2   transaction = new Transaction2();
+
+        try {
+            for ( long seq=0; seq<expectedNumMessages; seq++ ) {
+                assertTrue( reader.readNextInto(transaction) );
+                assertEquals( seq, transaction.getMessageSeq() );
+                assertEquals( seq, transaction.getFrom() );
+                assertEquals( 3.0, transaction.getAmount(), 1e-6 );
+            }
+
+            assertFalse( reader.readNextInto(transaction) );
+        } finally {
+            reader.stop();
+        }
+    }
+
+    private void corruptPayloadOfMessage( long messageSeq ) {
+        FileContents2 contents = dataDir.getFile( "junitJournal0.data" ).openFile2( FileModeEnum.READ_WRITE );
+        long          offset   = Journal2.FILEHEADER_SIZE + messageSeq*(Transaction2.SIZE_BYTES+Journal2.PER_MSGHEADER_SIZE) + Journal2.PER_MSGHEADER_SIZE;
+
+        try {
+            contents.writeLong( offset, offset+8, contents.readLong(offset, offset+8) + 1 );
+        } finally {
+            contents.release();
+        }
+    }
+
+}
@@ -0,0 +1,319 @@
+package com.mosaic.io.journal;
+
+import com.mosaic.io.filesystemx.DirectoryX;
+import com.mosaic.io.filesystemx.FileModeEnum;
+import com.mosaic.io.filesystemx.FileX;
+import com.mosaic.lang.time.DTM;
+import com.mosaic.lang.time.Duration;
+import com.softwaremosaic.junit.JUnitMosaicRunner;
+import com.softwaremosaic.junit.annotations.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+
+/**
+ * @see JournalRetentionService
+ */
+@RunWith(JUnitMosaicRunner.class)
+public class JournalRetentionServiceTest extends Tests {
+
+    // Size each journal file to be able to store exactly 20 transactions before overflowing
+    private static final long TRANSACTION_COUNT_PERDATAFILE = 20;
+    private static final long JOURNAL_FILE_SIZE             = Journal2.FILEHEADER_SIZE + Journal2.FILEFOOTER_SIZE +
+        + TRANSACTION_COUNT_PERDATAFILE*(Transaction2.SIZE_BYTES+Journal2.PER_MSGHEADER_SIZE);
+
+
+    private Journal2       journal     = new Journal2( dataDir, "junitJournal", JOURNAL_FILE_SIZE );
+    private JournalWriter2 writer      = journal.createWriter();
+    private Transaction2   transaction = new Transaction2();
+
+
+    public JournalRetentionServiceTest() {
+        system.registerServicesAfter( writer );
+    }
+
+
+// CONSUMED BY ALL READERS
+
+    @Test
+    public void givenNoReaders_retireConsumedFiles_expectNothingToBeRetired() {
+        writeMessages( TRANSACTION_COUNT_PERDATAFILE*4 + 5 );
+
+        JournalRetentionService retention = journal.createRetentionService( JournalRetentionPolicy.consumedByAllReaders(), system.clock );
+
+        assertEquals( 0, retention.retireDataFiles() );
+        assertEquals( 5, dataDir.files().size() );
+    }
+
+    @Test
+    public void givenReaderPartWayThroughJournal_retireConsumedFiles_expectFilesBehindTheReaderToBeRetired() {
+        writeMessages( TRANSACTION_COUNT_PERDATAFILE*4 + 5 );
+
+        JournalReader2 reader = createAndRegisterReader();
+        readMessages( reader, TRANSACTION_COUNT_PERDATAFILE*2 + 5 );   // positions the reader within the third data file
+
+        JournalRetentionService retention = journal.createRetentionService( JournalRetentionPolicy.consumedByAllReaders(), system.clock );
+
+        assertEquals( 2, retention.retireDataFiles() );
+        assertDataFiles( 2, 3, 4 );
+        assertIndexFiles( 2, 3, 4 );
+
+        assertNextMessageIs( reader, TRANSACTION_COUNT_PERDATAFILE*2 + 5 );
+    }
+
+    @Test
+    public void givenTwoReaders_retireConsumedFiles_expectTheSlowestReaderToBeRespected() {
+        writeMessages( TRANSACTION_COUNT_PERDATAFILE*4 + 5 );
+
+        JournalReader2 fastReader = createAndRegisterReader();
+        JournalReader2 slowReader = createAndRegisterReader();
+        readMessages( fastReader, TRANSACTION_COUNT_PERDATAFILE*3 );
+        readMessages( slowReader, TRANSACTION_COUNT_PERDATAFILE + 5 );
+
+        JournalRetentionService retention = journal.createRetentionService( JournalRetentionPolicy.consumedByAllReaders(), system.clock );
+
+        assertEquals( 1, retention.retireDataFiles() );
+        assertDataFiles( 1, 2, 3, 4 );
+    }
+
+    @Test
+    public void givenReaderAtTheEndOfTheJournal_retireConsumedFiles_expectTheTwoNewestFilesToBeKept() {
+        writeMessages( TRANSACTION_COUNT_PERDATAFILE*4 + 5 );
+
+        JournalReader2 reader = createAndRegisterReader();
+        readMessages( reader, TRANSACTION_COUNT_PERDATAFILE*4 + 5 );
+
+        JournalRetentionService retention = journal.createRetentionService( JournalRetentionPolicy.consumedByAllReaders(), system.clock );
+
+        assertEquals( 3, retention.retireDataFiles() );
+        assertDataFiles( 3, 4 );
+    }
+
+
+// TOTAL BYTES
+
+    @Test
+    public void givenJournalLargerThanLimit_expectOldestFilesToBeRetiredUntilUnderTheLimit() {
+        writeMessages( TRANSACTION_COUNT_PERDATAFILE*4 + 5 );
+
+        JournalRetentionService retention = journal.createRetentionService( JournalRetentionPolicy.totalBytesExceeds(JOURNAL_FILE_SIZE*3), system.clock );
+
+        assertEquals( 2, retention.retireDataFiles() );
+        assertDataFiles( 2, 3, 4 );
+
+        assertEquals( 0, retention.retireDataFiles() );
+        assertEquals( 2, retention.getNumDataFilesRetired() );
+    }
+
+    @Test
+    public void givenRetiredFiles_startNewReader_expectItToStartFromTheOldestRemainingMessage() {
+        writeMessages( TRANSACTION_COUNT_PERDATAFILE*4 + 5 );
+
+        journal.createRetentionService( JournalRetentionPolicy.totalBytesExceeds(JOURNAL_FILE_SIZE*3), system.clock ).retireDataFiles();
+
+        JournalReader2 reader = createAndRegisterReader();
+
+        assertNextMessageIs( reader, TRANSACTION_COUNT_PERDATAFILE*2 );
+    }
+
+    @Test
+    public void givenRetiredFiles_seekToRetainedAndRetiredMessages() {
+        writeMessages( TRANSACTION_COUNT_PERDATAFILE*4 + 5 );
+
+        journal.createRetentionService( JournalRetentionPolicy.totalBytesExceeds(JOURNAL_FILE_SIZE*3), system.clock ).retireDataFiles();
+
+        JournalReader2 reader = createAndRegisterReader();
+
+        assertTrue( reader.seekTo(TRANSACTION_COUNT_PERDATAFILE*3 + 2) );
+        assertNextMessageIs( reader, TRANSACTION_COUNT_PERDATAFILE*3 + 2 );
+
+        try {
+            reader.seekTo( 5 );
+            fail( "expected JournalNotFoundException2" );
+        } catch ( JournalNotFoundException2 ex ) {
+            // expected
+        }
+    }
+
+    @Test
+    public void givenReaderStillInTheFirstFile_expectTheReaderToProtectItsFileFromTheLimit() {
+        writeMessages( TRANSACTION_COUNT_PERDATAFILE*4 + 5 );
+
+        JournalReader2 reader = createAndRegisterReader();
+        readMessages( reader, 5 );
+
+        JournalRetentionService retention = journal.createRetentionService( JournalRetentionPolicy.totalBytesExceeds(JOURNAL_FILE_SIZE*3), system.clock );
+
+        assertEquals( 0, retention.retireDataFiles() );
+        assertEquals( 5, dataDir.files().size() );
+
+        readMessages( reader, TRANSACTION_COUNT_PERDATAFILE );
+
+        assertEquals( 1, retention.retireDataFiles() );
+        assertDataFiles( 1, 2, 3, 4 );
+    }
+
+
+// AGE
+
+    @Test
+    public void givenMaxAge_expectFilesToBeRetiredOnceTheyHaveBeenSealedForLongEnough() {
+        system.clock.fixCurrentDTM( new DTM(2020,1,1, 10,0,0) );
+
+        writeMessages( TRANSACTION_COUNT_PERDATAFILE*2 + 5 );
+
+        JournalRetentionService retention = journal.createRetentionService( JournalRetentionPolicy.olderThan(Duration.hours(1)), system.clock );
+
+        assertEquals( 0, retention.retireDataFiles() );
+
+        system.clock.add( Duration.minutes(30) );
+        writeMessages( TRANSACTION_COUNT_PERDATAFILE*2 );   // seals two more data files
+
+        assertEquals( 0, retention.retireDataFiles() );
+
+        system.clock.add( Duration.minutes(31) );
+        assertEquals( 1, retention.retireDataFiles() );
+        assertDataFiles( 1, 2, 3, 4 );
+
+        system.clock.add( Duration.minutes(30) );
+        assertEquals( 2, retention.retireDataFiles() );
+        assertDataFiles( 3, 4 );
+    }
+
+
+// ARCHIVE
+
+    @Test
+    public void givenArchiveDirectory_expectRetiredFilesToBeCompressedIntoTheArchive() throws IOException {
+        writeMessages( TRANSACTION_COUNT_PERDATAFILE*2 + 5 );
+
+        byte[]     originalBytes    = readAllBytes( dataDir.getFile("junitJournal0.data") );
+        DirectoryX archiveDirectory = system.fileSystem.getCurrentWorkingDirectory().getOrCreateDirectory( "archive" );
+
+        JournalRetentionService retention = journal.createRetentionService( JournalRetentionPolicy.totalBytesExceeds(JOURNAL_FILE_SIZE*2), system.clock, archiveDirectory );
+
+        assertEquals( 1, retention.retireDataFiles() );
+        assertDataFiles( 1, 2 );
+
+        FileX archivedFile = archiveDirectory.getFile( "junitJournal0.data.gz" );
+        assertNotNull( archivedFile );
+        assertTrue( archivedFile.sizeInBytes() < originalBytes.length );
+
+        assertTrue( Arrays.equals(originalBytes, decompress(archivedFile)) );
+    }
+
+    @Test
+    public void givenPartialArchiveLeftByAnEarlierAttempt_retire_expectOnlyTheCompleteArchiveToRemain() throws IOException {
+        writeMessages( TRANSACTION_COUNT_PERDATAFILE*2 + 5 );
+
+        byte[]     originalBytes    = readAllBytes( dataDir.getFile("junitJournal0.data") );
+        DirectoryX archiveDirectory = system.fileSystem.getCurrentWorkingDirectory().getOrCreateDirectory( "archive" );
+
+        archiveDirectory.addFile( "junitJournal0.data.gz.partial", "truncated" );
+
+        JournalRetentionService retention = journal.createRetentionService( JournalRetentionPolicy.totalBytesExceeds(JOURNAL_FILE_SIZE*2), system.clock, archiveDirectory );
+
+        assertEquals( 1, retention.retireDataFiles() );
+        assertEquals( 1, archiveDirectory.files().size() );
+        assertTrue( Arrays.equals(originalBytes, decompress(archiveDirectory.getFile("junitJournal0.data.gz"))) );
+    }
+
+
+// BACKGROUND
+
+    @Test( threadCheck=true )
+    public void givenRunningService_expectFilesToBeRetiredInTheBackground() {
+        writeMessages( TRANSACTION_COUNT_PERDATAFILE*4 + 5 );
+
+        JournalRetentionService retention = journal.createRetentionService( JournalRetentionPolicy.totalBytesExceeds(JOURNAL_FILE_SIZE*3), system.clock );
+        system.registerServicesAfter( retention );
+
+        spinUntilTrue( () -> retention.getNumDataFilesRetired() == 2 );
+
+        assertDataFiles( 2, 3, 4 );
+    }
+
+
+    private void writeMessages( long numMessages ) {
+        for ( long i=0; i<numMessages; i++ ) {
+            writer.allocateTo( transaction );
+
+            transaction.setFrom( 1 );
+            transaction.setTo( 2 );
+            transaction.setAmount( 3 );
+
+            writer.completeMessage();
+        }
+    }
+
+    private JournalReader2 createAndRegisterReader() {
+        JournalReader2 reader = journal.createReader();
+
+        system.registerServicesAfter( reader );
+
+        return reader;
+    }
+
+    private void readMessages( JournalReader2 reader, long numMessages ) {
+        for ( long i=0; i<numMessages; i++ ) {
+            assertTrue( reader.readNextInto(new Transaction2()) );
+        }
+    }
+
+    private void assertNextMessageIs( JournalReader2 reader, long expectedSeq ) {
+        Transaction2 entry = new Transaction2();
+
+        assertTrue( reader.readNextInto(entry) );
+        assertEquals( expectedSeq, entry.getMessageSeq() );
+    }
+
+    private void assertDataFiles( int...expectedFileSeqs ) {
+        assertEquals( expectedFileSeqs.length, dataDir.files().size() );
+
+        for ( int fileSeq : expectedFileSeqs ) {
+            assertNotNull( dataDir.getFile("junitJournal"+fileSeq+".data") );
+        }
+    }
+
+    private void assertIndexFiles( int...expectedFileSeqs ) {
+        DirectoryX indexDirectory = dataDir.getDirectory( JournalDataFile2.indexDirectoryName("junitJournal") );
+
+        assertEquals( expectedFileSeqs.length, indexDirectory.files(".idx").size() );
+
+        for ( int fileSeq : expectedFileSeqs ) {
+            assertNotNull( indexDirectory.getFile(JournalIndexFile2.fileName("junitJournal", fileSeq)) );
+        }
+    }
+
+    private byte[] readAllBytes( FileX file ) {
+        return file.processFile2( contents -> {
+            byte[] bytes = new byte[(int) contents.sizeBytes()];
+
+            contents.readBytes( 0, bytes.length, bytes );
+
+            return bytes;
+        }, FileModeEnum.READ_ONLY );
+    }
+
+    private byte[] decompress( FileX archivedFile ) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try ( InputStream in = new GZIPInputStream(new ByteArrayInputStream(readAllBytes(archivedFile))) ) {
+            byte[] buf = new byte[4096];
+            int    n;
+
+            while ( (n = in.read(buf)) > 0 ) {
+                out.write( buf, 0, n );
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+}
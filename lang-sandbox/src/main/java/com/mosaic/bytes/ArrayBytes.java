@@ -191,7 +191,7 @@ public class ArrayBytes extends BaseBytes {
 
         UTF8Tools.decode( array, (int) i, output );
 
-        if ( SystemX.isDebugRun() ) {
+        if ( SystemX.CHECK_BOUNDS ) {
             index( offset, maxExc, output.numBytesConsumed );
         }
     }
@@ -201,7 +201,7 @@ public class ArrayBytes extends BaseBytes {
 
         int numBytesUsed = UTF8Tools.write( array, (int) i, c );
 
-        if ( SystemX.isDebugRun() ) {
+        if ( SystemX.CHECK_BOUNDS ) {
             index( offset, maxExc, numBytesUsed );
         }
 
@@ -245,7 +245,7 @@ public class ArrayBytes extends BaseBytes {
         int  numBytes = Backdoor.toInt( Math.min(max, toAddressExc - toAddressInc) );
 
         throwIfInvalidIndex( i, maxExc, numBytes );
-        throwIfInvalidIndex( toAddressBase+toAddressInc, toAddressExc, numBytes );
+        QA.argIsWithinRange( toAddressBase, toAddressBase+toAddressInc, toAddressBase+toAddressInc+numBytes, toAddressBase+toAddressExc, "toAddressInc", "toAddressExc" );
 
         Backdoor.copyBytes( array, i, toAddressBase+toAddressInc, numBytes );
 
@@ -230,7 +230,7 @@ abstract class NativeBytes extends BaseBytes {
     }
 
     private void throwIfInvalidAddress( long address, long numBytes ) {
-        if ( SystemX.isDebugRun() ) {
+        if ( SystemX.CHECK_BOUNDS ) {
             if ( address < base ) {
                 throw new IllegalArgumentException( "Address has under shot the allocated region" );
             } else if ( address+numBytes > maxExc ) {
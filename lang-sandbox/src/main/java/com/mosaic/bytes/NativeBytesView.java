@@ -0,0 +1,33 @@
+package com.mosaic.bytes;
+
+import com.mosaic.bytes2.Bytes2;
+import com.mosaic.lang.QA;
+
+
+/**
+ * Presents native memory that is owned elsewhere, typically by an addressable Bytes2 such as
+ * MemoryMappedBytes2, via the v1 Bytes interface.  Lets v1 flyweights (ByteView, Struct) be
+ * pointed into memory that is managed by the v2 classes without copying it.<p/>
+ *
+ * Releasing the view does not free the memory, and the view becomes invalid once the owner of
+ * the memory has been resized or released.
+ */
+public class NativeBytesView extends NativeBytes {
+
+    public static NativeBytesView viewOf( Bytes2 bytes ) {
+        QA.isTrue( bytes.isAddressable() && bytes.getAddressBaseObject() == null, IllegalArgumentException.class, "%s is not backed by native memory", bytes.getClass().getName() );
+
+        return new NativeBytesView( bytes.getAddressBaseOffset(), bytes.sizeBytes() );
+    }
+
+
+    public NativeBytesView( long baseAddress, long numBytes ) {
+        super( baseAddress, baseAddress+numBytes );
+    }
+
+
+    public void resize( long newLength ) {
+        throw new UnsupportedOperationException( "the memory is owned elsewhere, resize its owner and create a new view" );
+    }
+
+}
@@ -1,37 +1,44 @@
 package com.mosaic.bytes;
 
 import com.mosaic.lang.QA;
-import com.mosaic.lang.system.Backdoor;
+import com.mosaic.lang.system.OffHeapAllocationPolicy;
 
 
 /**
- *
+ * Memory allocated off of the Java heap, by an OffHeapAllocationPolicy.  Must be released.
  */
 public class OffHeapBytes extends NativeBytes {
 
+    private final OffHeapAllocationPolicy allocationPolicy;
+
+
     public OffHeapBytes( long numBytes ) {
-        this( Backdoor.alloc(numBytes), numBytes );
+        this( numBytes, OffHeapAllocationPolicy.STANDARD );
     }
 
-    private OffHeapBytes( long base, long length ) {
+    public OffHeapBytes( long numBytes, OffHeapAllocationPolicy allocationPolicy ) {
+        this( allocationPolicy.alloc(numBytes), numBytes, allocationPolicy );
+    }
+
+    private OffHeapBytes( long base, long length, OffHeapAllocationPolicy allocationPolicy ) {
         super( base, base+length);
+
+        this.allocationPolicy = allocationPolicy;
     }
 
     public void release() {
+        long address  = base;
+        long numBytes = sizeBytes();
+
         super.release();
 
-        Backdoor.free( base );
+        allocationPolicy.free( address, numBytes );
     }
 
     public void resize( long newLength ) {
         QA.argIsGTZero( newLength, "newLength" );
 
-
-        long newBaseAddress = Backdoor.alloc( newLength );
-
-
-        Backdoor.copyBytes( base, newBaseAddress, Math.min(newLength,sizeBytes()) );
-        Backdoor.free( base );
+        long newBaseAddress = allocationPolicy.realloc( base, sizeBytes(), newLength );
 
         this.base   = newBaseAddress;
         this.maxExc = newBaseAddress+newLength;
@@ -0,0 +1,143 @@
+package com.mosaic.bytes.struct;
+
+import com.mosaic.bytes.ByteView;
+import com.mosaic.bytes.Bytes;
+import com.mosaic.bytes2.impl.Bytes2ToBytes1Adapter;
+import com.mosaic.io.filesystemx.FileContents2;
+import com.mosaic.io.filesystemx.FileModeEnum;
+import com.mosaic.io.filesystemx.FileX;
+import com.mosaic.lang.QA;
+import com.mosaic.lang.ServiceMixin;
+import com.mosaic.lang.functional.Function0;
+import com.mosaic.lang.functional.FunctionLong1;
+
+import java.util.Comparator;
+import java.util.Iterator;
+
+import static com.mosaic.lang.system.SystemX.SIZEOF_LONG;
+
+
+/**
+ * A StructsArray that is memory mapped to a file.  The file holds the same layout as the bytes
+ * of a StructsArray;  a header holding the number of records, followed by the records.  So
+ * starting this service maps the file and reads the header, which takes the same time no
+ * matter how many records the file holds;  the OS then pages the records in as they are used.<p/>
+ *
+ * The file is mapped via FileX.openFile2, so it may grow beyond 2GB;  past that size it is
+ * mapped a chunk at a time and growing maps only the new chunks.  The file is extended as more
+ * records are allocated, and the record count is only updated after the file has grown to hold
+ * the new records.  So the count survives the process crashing, but not the machine losing
+ * power;  the OS may write the count back before the pages of the new records.  Call sync() to
+ * force the records and the count to disk, otherwise the OS writes them back when it chooses to.<p/>
+ *
+ * Also see PersistentStruct, which maps a single struct.
+ */
+public class PersistentStructsArray<T extends ByteView> extends ServiceMixin<PersistentStructsArray<T>> implements Structs<T> {
+
+    private static final long HEADER_SIZE = SIZEOF_LONG;
+
+
+    private final FileX           dataFile;
+    private final Function0<T>    viewFactory;
+    private final long            initialCapacity;
+
+    private FileContents2   fileBytes;
+    private StructsArray<T> structs;
+
+
+    /**
+     * @param initialCapacity the number of records to size a new file for
+     */
+    public PersistentStructsArray( FileX dataFile, long initialCapacity, Function0<T> viewFactory ) {
+        super( dataFile.getFullPath() );
+
+        QA.argIsGTZero( initialCapacity, "initialCapacity" );
+
+        this.dataFile        = dataFile;
+        this.viewFactory     = viewFactory;
+        this.initialCapacity = initialCapacity;
+    }
+
+
+    public void sync() {
+        fileBytes.flush();
+    }
+
+    public long numRecords() {
+        return structs.numRecords();
+    }
+
+    public void selectInto( T view, long index ) {
+        structs.selectInto( view, index );
+    }
+
+    public T select( long index ) {
+        return structs.select( index );
+    }
+
+    public long allocateNewRecord() {
+        return structs.allocateNewRecord();
+    }
+
+    public long allocateNewRecords( long numRecords ) {
+        return structs.allocateNewRecords( numRecords );
+    }
+
+    public void clearAll() {
+        structs.clearAll();
+    }
+
+    public void sort( Comparator<T> comparator ) {
+        structs.sort( comparator );
+    }
+
+    public void sortBy( FunctionLong1<T> sortKeyFunc ) {
+        structs.sortBy( sortKeyFunc );
+    }
+
+    public void swapRecords( Bytes tmpBytes, long index1, long index2 ) {
+        structs.swapRecords( tmpBytes, index1, index2 );
+    }
+
+    public Iterator<T> iterator() {
+        return structs.iterator();
+    }
+
+
+    protected void doStart() throws Exception {
+        long recordSize = viewFactory.invoke().sizeBytes();
+
+        if ( dataFile.sizeInBytes() < HEADER_SIZE ) {
+            this.fileBytes = dataFile.openFile2( FileModeEnum.READ_WRITE, StructsArray.requiredSize(initialCapacity, recordSize) );
+
+            fileBytes.writeLong( 0, SIZEOF_LONG, 0 );
+        } else {
+            this.fileBytes = dataFile.openFile2( FileModeEnum.READ_WRITE );
+
+            throwIfTruncated( recordSize );
+        }
+
+        this.structs = new StructsArray<>( new Bytes2ToBytes1Adapter(fileBytes), viewFactory );
+    }
+
+    protected void doStop() throws Exception {
+        fileBytes.release();
+
+        this.fileBytes = null;
+        this.structs   = null;
+    }
+
+
+    private void throwIfTruncated( long recordSize ) {
+        long numRecords = fileBytes.readLong( 0, SIZEOF_LONG );
+        long fileSize   = fileBytes.sizeBytes();
+
+        if ( numRecords < 0 || StructsArray.requiredSize(numRecords, recordSize) > fileSize ) {
+            fileBytes.release();
+            this.fileBytes = null;
+
+            throw new IllegalStateException( "'"+dataFile.getFullPath()+"' claims to hold "+numRecords+" records of "+recordSize+" bytes, but is only "+fileSize+" bytes long" );
+        }
+    }
+
+}
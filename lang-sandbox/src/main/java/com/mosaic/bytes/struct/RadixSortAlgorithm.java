@@ -0,0 +1,201 @@
+package com.mosaic.bytes.struct;
+
+import com.mosaic.lang.QA;
+import com.mosaic.lang.functional.VoidFunctionInt2;
+import com.mosaic.lang.system.SystemX;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+
+
+/**
+ * Sorts pairs of (long key, int value) into ascending order of key, using a least significant
+ * digit radix sort.  Unlike QuickSortAlgorithm it never compares two elements;  each pass
+ * distributes the pairs by one byte of their key, so the cost is linear in the number of pairs.
+ * Passes over bytes that are the same for every key (such as the high bytes of ids and
+ * timestamps) are skipped.  The sort is stable.<p/>
+ *
+ * Large arrays are split into chunks that are counted and distributed in parallel on the fork
+ * join pool.  Each chunk writes its pairs to its own region of each bucket, which keeps the
+ * sort stable and lock free.
+ */
+public class RadixSortAlgorithm {
+
+    /**
+     * Arrays smaller than this are sorted in the calling thread.
+     */
+    public static final int MIN_CHUNK_SIZE = 1 << 16;
+
+    private static final int RADIX_BITS    = 8;  // 256 counters per chunk stay within the L1 cache
+    private static final int NUM_BUCKETS   = 1 << RADIX_BITS;
+    private static final int BUCKET_MASK   = NUM_BUCKETS - 1;
+
+
+    /**
+     * Sorts keys into ascending (signed) order, and moves each value to the same index as
+     * its key.
+     */
+    public static void sort( long[] keys, int[] values ) {
+        QA.argNotNull( keys, "keys" );
+        QA.argNotNull( values, "values" );
+        QA.isTrue( keys.length == values.length, IllegalArgumentException.class, "keys and values must be the same length: %s != %s", keys.length, values.length );
+
+        int n = keys.length;
+        if ( n < 2 ) {
+            return;
+        }
+
+        long varyingBits = findVaryingBits( keys );
+        if ( varyingBits == 0 ) {
+            return;
+        }
+
+        int     numChunks = numChunksFor( n );
+        int[][] offsets   = new int[numChunks][NUM_BUCKETS];
+
+        long[] fromKeys   = keys;
+        int[]  fromValues = values;
+        long[] toKeys     = new long[n];
+        int[]  toValues   = new int[n];
+
+        for ( int shift=0; shift<64; shift+=RADIX_BITS ) {
+            if ( ((varyingBits >>> shift) & BUCKET_MASK) == 0 ) {
+                continue;
+            }
+
+            countDigits( fromKeys, shift, offsets );
+            countsToOffsets( offsets );
+            distribute( fromKeys, fromValues, toKeys, toValues, shift, offsets );
+
+            long[] tmpKeys   = fromKeys;   fromKeys   = toKeys;   toKeys   = tmpKeys;
+            int[]  tmpValues = fromValues; fromValues = toValues; toValues = tmpValues;
+        }
+
+        if ( fromKeys != keys ) {
+            System.arraycopy( fromKeys, 0, keys, 0, n );
+            System.arraycopy( fromValues, 0, values, 0, n );
+        }
+    }
+
+    /**
+     * Splits [0,n) into chunks, and invokes job(fromInc,toExc) for each of them on the fork
+     * join pool.  Returns once every chunk has been processed.
+     */
+    public static void forEachChunk( int n, VoidFunctionInt2 job ) {
+        int numChunks = numChunksFor( n );
+
+        forEachChunkIndex( numChunks, c -> job.invoke(chunkStart(n, numChunks, c), chunkStart(n, numChunks, c+1)) );
+    }
+
+
+    private static void countDigits( long[] keys, int shift, int[][] counts ) {
+        int n         = keys.length;
+        int numChunks = counts.length;
+
+        forEachChunkIndex( numChunks, c -> {
+            int[] chunkCounts = counts[c];
+            int   toExc       = chunkStart( n, numChunks, c+1 );
+
+            Arrays.fill( chunkCounts, 0 );
+
+            for ( int i=chunkStart(n, numChunks, c); i<toExc; i++ ) {
+                chunkCounts[digitOf(keys[i], shift)]++;
+            }
+        });
+    }
+
+    /**
+     * Replaces the count of each digit within each chunk with the index that the chunk writes
+     * its first pair with that digit to.  Buckets are laid out in digit order, and within a
+     * bucket each chunk follows the chunks before it.
+     */
+    private static void countsToOffsets( int[][] counts ) {
+        int offset = 0;
+
+        for ( int digit=0; digit<NUM_BUCKETS; digit++ ) {
+            for ( int[] chunkCounts : counts ) {
+                int count = chunkCounts[digit];
+
+                chunkCounts[digit] = offset;
+                offset += count;
+            }
+        }
+    }
+
+    private static void distribute( long[] fromKeys, int[] fromValues, long[] toKeys, int[] toValues, int shift, int[][] offsets ) {
+        int n         = fromKeys.length;
+        int numChunks = offsets.length;
+
+        forEachChunkIndex( numChunks, c -> {
+            int[] chunkOffsets = offsets[c];
+            int   toExc        = chunkStart( n, numChunks, c+1 );
+
+            for ( int i=chunkStart(n, numChunks, c); i<toExc; i++ ) {
+                long key = fromKeys[i];
+                int  to  = chunkOffsets[digitOf(key, shift)]++;
+
+                toKeys[to]   = key;
+                toValues[to] = fromValues[i];
+            }
+        });
+    }
+
+    /**
+     * @return a mask of the bits that differ between at least two of the keys
+     */
+    private static long findVaryingBits( long[] keys ) {
+        long first       = keys[0];
+        long varyingBits = 0;
+
+        for ( long key : keys ) {
+            varyingBits |= key ^ first;
+        }
+
+        return varyingBits;
+    }
+
+    /**
+     * Flipping the sign bit makes negative keys sort before positive ones when the digits are
+     * treated as unsigned.
+     */
+    private static int digitOf( long key, int shift ) {
+        return (int) (((key ^ Long.MIN_VALUE) >>> shift) & BUCKET_MASK);
+    }
+
+    private static int numChunksFor( int n ) {
+        int maxChunks = SystemX.FORK_JOIN_POOL.getParallelism() * 4;
+
+        return Math.max( 1, Math.min(maxChunks, n / MIN_CHUNK_SIZE) );
+    }
+
+    private static int chunkStart( int n, int numChunks, int chunkIndex ) {
+        return (int) ((long) n * chunkIndex / numChunks);
+    }
+
+    private static void forEachChunkIndex( int numChunks, ChunkJob job ) {
+        if ( numChunks == 1 ) {
+            job.invoke( 0 );
+
+            return;
+        }
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>( numChunks );
+        for ( int c=0; c<numChunks; c++ ) {
+            int chunkIndex = c;
+
+            tasks.add( SystemX.FORK_JOIN_POOL.submit(() -> job.invoke(chunkIndex)) );
+        }
+
+        for ( ForkJoinTask<?> task : tasks ) {
+            task.join();
+        }
+    }
+
+
+    private static interface ChunkJob {
+        public void invoke( int chunkIndex );
+    }
+
+}
@@ -43,7 +43,7 @@ public class Struct extends ByteView {
     public void setBytes( Bytes bytes, long base, long maxExc ) {
         super.setBytes( bytes, base, maxExc );
 
-        if ( SystemX.isDebugRun() ) {  // maxExc is only used in debug builds
+        if ( SystemX.CHECK_BOUNDS ) {  // maxExc is only used when checking bounds
             // do not go over the registered fields, even if the supplied maxExc says that we can
             this.maxExc = Math.min( maxExc, base + structSizeBytes );
         }
@@ -201,7 +201,7 @@ public class Struct extends ByteView {
     
     
     private void assertValidIndex( long offset, long size ) {
-        if ( SystemX.isDebugRun() ) {
+        if ( SystemX.CHECK_BOUNDS ) {
             QA.argIsWithinRange( 0, offset, offset + size, structSizeBytes, "offset", "maxExc" );
         }
     }
@@ -0,0 +1,285 @@
+package com.mosaic.bytes.struct;
+
+import com.mosaic.bytes.ByteView;
+import com.mosaic.bytes.Bytes;
+import com.mosaic.bytes.OffHeapBytes;
+import com.mosaic.collections.LongIterator;
+import com.mosaic.lang.QA;
+import com.mosaic.lang.functional.Function0;
+import com.mosaic.lang.functional.FunctionLong1;
+
+import static com.mosaic.lang.system.SystemX.SIZEOF_LONG;
+
+
+/**
+ * A secondary index over a collection of structs.  Maps a primitive key, such as an account id
+ * or a timestamp, to the indexes of the records that hold that key;  avoiding a full scan of
+ * the structs when looking records up by a field other than their index.<p/>
+ *
+ * The index is a sorted array of (key, record index) entries held off heap, and is searched
+ * with a binary search.  Entries with the same key are ordered by record index.<p/>
+ *
+ * The index is maintained incrementally as records are appended.  A new record is not
+ * indexed when it is allocated, as its key has not been written yet;  call index(recordIndex)
+ * once it has been.  The records passed to index() since the index was last used are read,
+ * sorted and merged into the index before each lookup;  appends whose keys are never smaller
+ * than those already indexed (ids and timestamps) are added to the end without moving any of
+ * the existing entries.  The key of a record must not be changed once it has been indexed.
+ * Call rebuild() after changing the keys of indexed records, or after reordering or clearing
+ * the records.<p/>
+ *
+ * Not thread safe.  Holds off heap memory, which is freed by release().
+ */
+public class StructIndex<T extends ByteView> {
+
+    /**
+     * Indexes the records of structs by one of their long fields.
+     */
+    public static <T extends Struct> StructIndex<T> onField( Structs<T> structs, Function0<T> viewFactory, LongField field ) {
+        return new StructIndex<>( structs, viewFactory, field::get );
+    }
+
+    /**
+     * Indexes the records of structs by one of their int fields.
+     */
+    public static <T extends Struct> StructIndex<T> onField( Structs<T> structs, Function0<T> viewFactory, IntField field ) {
+        return new StructIndex<>( structs, viewFactory, view -> field.get(view) );
+    }
+
+
+    private static final long ENTRY_SIZE           = 2*SIZEOF_LONG;
+    private static final long KEY_OFFSET           = 0;
+    private static final long RECORD_INDEX_OFFSET  = SIZEOF_LONG;
+    private static final long MIN_CAPACITY         = 16;
+
+
+    private final Structs<T>       structs;
+    private final T                view;
+    private final FunctionLong1<T> keyFunc;
+
+    private Bytes entries;
+    private long  entryCount;
+    private long  readyCount;   // the records below this index have had their keys written
+
+
+    /**
+     * @param keyFunc reads the key of the record that the supplied view has been pointed at
+     */
+    public StructIndex( Structs<T> structs, Function0<T> viewFactory, FunctionLong1<T> keyFunc ) {
+        QA.argNotNull( structs, "structs" );
+        QA.argNotNull( keyFunc, "keyFunc" );
+
+        this.structs = structs;
+        this.view    = viewFactory.invoke();
+        this.keyFunc = keyFunc;
+        this.entries = new OffHeapBytes( Math.max(MIN_CAPACITY, structs.numRecords()) * ENTRY_SIZE );
+
+        rebuild();
+    }
+
+
+    /**
+     * The number of records covered by the index.
+     */
+    public long size() {
+        refresh();
+
+        return entryCount;
+    }
+
+    /**
+     * @return the index of the first record (lowest index) whose key equals key, or -1 if
+     *         there is no such record
+     */
+    public long findFirst( long key ) {
+        refresh();
+
+        long i = lowerBound( key );
+
+        return i < entryCount && keyAt(i) == key ? recordIndexAt(i) : -1;
+    }
+
+    /**
+     * Counts the records whose key is within [fromKeyInc, toKeyExc).
+     */
+    public long count( long fromKeyInc, long toKeyExc ) {
+        refresh();
+
+        if ( toKeyExc <= fromKeyInc ) {
+            return 0;
+        }
+
+        return lowerBound( toKeyExc ) - lowerBound( fromKeyInc );
+    }
+
+    /**
+     * Iterates over the indexes of the records whose key is within [fromKeyInc, toKeyExc), in
+     * ascending order of key.  The iterator must not be used after more records have been
+     * appended to the structs.
+     */
+    public LongIterator findRange( long fromKeyInc, long toKeyExc ) {
+        refresh();
+
+        long fromInc = lowerBound( fromKeyInc );
+        long toExc   = toKeyExc <= fromKeyInc ? fromInc : lowerBound( toKeyExc );
+
+        return new LongIterator() {
+            private long next  = fromInc;
+            private long index = -1;
+
+            public boolean hasNext() {
+                return next < toExc;
+            }
+
+            public long index() {
+                return index;
+            }
+
+            public long next() {
+                if ( !hasNext() ) {
+                    throw new IndexOutOfBoundsException( "hasNext() returned false" );
+                }
+
+                index++;
+
+                return recordIndexAt( next++ );
+            }
+        };
+    }
+
+    /**
+     * Declares that the key of the specified record, and of every record before it, has been
+     * written;  so the record will be covered by the next lookup.  Records that are allocated
+     * but never passed to index() are left out of the index, rather than being indexed under
+     * whatever their key held when the index was next used.
+     */
+    public void index( long recordIndex ) {
+        QA.argIsBetween( 0, recordIndex, structs.numRecords(), "recordIndex" );
+
+        readyCount = Math.max( readyCount, recordIndex+1 );
+    }
+
+    /**
+     * Indexes the records that have been passed to index() since the index was last used.
+     * Called before every lookup, so it only needs to be called directly to control when the
+     * cost of indexing the new records is paid.
+     */
+    public void refresh() {
+        long numRecords = Math.min( readyCount, structs.numRecords() );
+
+        if ( numRecords == entryCount ) {
+            return;
+        } else if ( numRecords < entryCount ) {  // cleared without a call to rebuild, start again
+            entryCount = 0;
+            readyCount = numRecords;
+        }
+
+        long fromRecord = entryCount;
+        long batchSize  = numRecords - fromRecord;
+
+        QA.isTrue( batchSize <= Integer.MAX_VALUE, IllegalStateException.class, "unable to index more than %s new records at a time, %s have been added", Integer.MAX_VALUE, batchSize );
+
+        int    n       = (int) batchSize;
+        long[] keys    = new long[n];
+        int[]  offsets = new int[n];
+
+        for ( int i=0; i<n; i++ ) {
+            structs.selectInto( view, fromRecord+i );
+
+            keys[i]    = keyFunc.invoke( view );
+            offsets[i] = i;
+        }
+
+        RadixSortAlgorithm.sort( keys, offsets );
+
+        ensureCapacity( numRecords );
+        mergeIntoEntries( keys, offsets, fromRecord );
+
+        entryCount = numRecords;
+    }
+
+    /**
+     * Discards the index, and indexes every record from scratch.  The keys of every record must
+     * have been written.
+     */
+    public void rebuild() {
+        entryCount = 0;
+        readyCount = structs.numRecords();
+
+        refresh();
+    }
+
+    public void release() {
+        entries.release();
+    }
+
+
+    /**
+     * Merges the sorted batch into the end of the sorted entries, working backwards from the
+     * end so that only the existing entries with larger keys have to move.
+     */
+    private void mergeIntoEntries( long[] keys, int[] offsets, long fromRecord ) {
+        long i = entryCount - 1;
+        long k = entryCount + keys.length - 1;
+
+        for ( int j=keys.length-1; j>=0; j--, k-- ) {
+            // the new records have larger indexes, so they go after existing entries with the same key
+            while ( i >= 0 && keyAt(i) > keys[j] ) {
+                writeEntry( k, keyAt(i), recordIndexAt(i) );
+
+                i--;
+                k--;
+            }
+
+            writeEntry( k, keys[j], fromRecord+offsets[j] );
+        }
+    }
+
+    /**
+     * @return the position of the first entry whose key is >= key, or entryCount if there is none
+     */
+    private long lowerBound( long key ) {
+        long lo = 0;
+        long hi = entryCount;
+
+        while ( lo < hi ) {
+            long mid = (lo + hi) >>> 1;
+
+            if ( keyAt(mid) < key ) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        return lo;
+    }
+
+    private void ensureCapacity( long numEntries ) {
+        long requiredBytes = numEntries * ENTRY_SIZE;
+
+        if ( entries.sizeBytes() < requiredBytes ) {
+            entries.resize( Math.max(requiredBytes, entries.sizeBytes()*2) );
+        }
+    }
+
+    private long keyAt( long i ) {
+        long offset = i*ENTRY_SIZE + KEY_OFFSET;
+
+        return entries.readLong( offset, offset+SIZEOF_LONG );
+    }
+
+    private long recordIndexAt( long i ) {
+        long offset = i*ENTRY_SIZE + RECORD_INDEX_OFFSET;
+
+        return entries.readLong( offset, offset+SIZEOF_LONG );
+    }
+
+    private void writeEntry( long i, long key, long recordIndex ) {
+        long offset = i*ENTRY_SIZE;
+
+        entries.writeLong( offset+KEY_OFFSET, offset+KEY_OFFSET+SIZEOF_LONG, key );
+        entries.writeLong( offset+RECORD_INDEX_OFFSET, offset+RECORD_INDEX_OFFSET+SIZEOF_LONG, recordIndex );
+    }
+
+}
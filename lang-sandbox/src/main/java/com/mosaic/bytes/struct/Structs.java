@@ -2,6 +2,7 @@ package com.mosaic.bytes.struct;
 
 import com.mosaic.bytes.ByteView;
 import com.mosaic.bytes.Bytes;
+import com.mosaic.lang.functional.FunctionLong1;
 
 import java.util.Comparator;
 
@@ -23,6 +24,11 @@ public interface Structs<T extends ByteView> extends Iterable<T> {
     public void clearAll();
     public void sort( Comparator<T> comparator );
 
+    /**
+     * Sorts the records into ascending order of a primitive key extracted from each record.
+     */
+    public void sortBy( FunctionLong1<T> sortKeyFunc );
+
     public void swapRecords( Bytes tmpBytes, long index1, long index2 );
 
 }
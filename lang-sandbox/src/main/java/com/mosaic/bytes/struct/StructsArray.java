@@ -4,9 +4,13 @@ import com.mosaic.bytes.ArrayBytes;
 import com.mosaic.bytes.ByteFactories;
 import com.mosaic.bytes.ByteView;
 import com.mosaic.bytes.Bytes;
+import com.mosaic.bytes.OffHeapBytes;
 import com.mosaic.lang.QA;
 import com.mosaic.lang.functional.Function0;
+import com.mosaic.lang.functional.FunctionLong1;
 import com.mosaic.lang.functional.LongFunction1;
+import com.mosaic.lang.system.Backdoor;
+import com.mosaic.lang.system.OffHeapAllocationPolicy;
 import com.mosaic.lang.system.SystemX;
 
 import java.util.Comparator;
@@ -34,6 +38,8 @@ public class StructsArray<T extends ByteView> implements Structs<T> {
         long  numBytes   = requiredSize( initialCapacity, recordSize );
         Bytes bytes      = bytesFactory.invoke( numBytes );
 
+        bytes.writeLong( 0, SIZEOF_LONG, 0 );  // off heap memory is not zeroed when allocated
+
         return new StructsArray<T>( bytes, viewFactory );
     }
 
@@ -41,6 +47,14 @@ public class StructsArray<T extends ByteView> implements Structs<T> {
         return allocate( initialCapacity, viewFactory, ByteFactories.OFFHEAP );
     }
 
+    /**
+     * Allocates the structs off heap using the specified policy;  for example
+     * OffHeapAllocationPolicy.HUGE_PAGES for large arrays that are accessed at random.
+     */
+    public static <T extends ByteView> StructsArray<T> allocateOffHeap( long initialCapacity, Function0<T> viewFactory, OffHeapAllocationPolicy allocationPolicy ) {
+        return allocate( initialCapacity, viewFactory, numBytes -> new OffHeapBytes(numBytes, allocationPolicy) );
+    }
+
     public static <T extends ByteView> StructsArray<T> allocateOnHeap( long initialCapacity, Function0<T> viewFactory ) {
         return allocate( initialCapacity, viewFactory, ByteFactories.ONHEAP );
     }
@@ -87,13 +101,19 @@ public class StructsArray<T extends ByteView> implements Structs<T> {
         long fromIndex = numRecords();
         long nextIndex = fromIndex+numRecords;
 
-        bytes.writeLong( 0, SIZEOF_LONG, nextIndex );
-
-        long maxOffsetExc = index2Offset(nextIndex);
+        long maxOffsetExc = requiredSize( nextIndex, recordSize );
         if ( bytes.sizeBytes() < maxOffsetExc ) {
-            bytes.resize( maxOffsetExc );
+            // grow geometrically;  resizing copies on heap arrays, and remaps memory mapped files
+            bytes.resize( Math.max(maxOffsetExc, bytes.sizeBytes()*2) );
         }
 
+        // an ordered store;  the bytes for the new records exist before they are counted, so a
+        // process that crashes part way through growing a file never leaves a count that runs
+        // past the end of the file.  This orders the stores only as the process sees them, the
+        // OS may still write the count to disk first;  so it does not protect against power loss
+        Backdoor.storeFence();
+        bytes.writeLong( 0, SIZEOF_LONG, nextIndex );
+
         return fromIndex;
     }
 
@@ -128,6 +148,45 @@ public class StructsArray<T extends ByteView> implements Structs<T> {
         sorter.sort( this );
     }
 
+    /**
+     * Sorts the records into ascending order of the key extracted from each of them.  Faster
+     * than sort(Comparator) for large arrays:  the keys are extracted once per record and radix
+     * sorted along with the index of their record (see RadixSortAlgorithm), after which each
+     * record is copied once into its sorted position rather than being swapped many times.
+     * Records with equal keys keep their relative order.<p/>
+     *
+     * Both the key extraction and the copying are split over the fork join pool, so sortKeyFunc
+     * will be called from multiple threads (with a different view on each thread).
+     */
+    public void sortBy( FunctionLong1<T> sortKeyFunc ) {
+        long numRecords = numRecords();
+
+        QA.isTrue( numRecords <= Integer.MAX_VALUE, IllegalStateException.class, "sortBy supports up to %s records, this array has %s", Integer.MAX_VALUE, numRecords );
+
+        int    n       = (int) numRecords;
+        if ( n < 2 ) {
+            return;
+        }
+
+        long[] keys    = new long[n];
+        int[]  indexes = new int[n];
+
+        RadixSortAlgorithm.forEachChunk( n, (fromInc,toExc) -> {
+            T view = viewFactory.invoke();
+
+            for ( int i=fromInc; i<toExc; i++ ) {
+                selectInto( view, i );
+
+                keys[i]    = sortKeyFunc.invoke( view );
+                indexes[i] = i;
+            }
+        });
+
+        RadixSortAlgorithm.sort( keys, indexes );
+
+        permuteRecords( indexes );
+    }
+
     public void swapRecords( Bytes tmpBytes, long index1, long index2 ) {
         long structOffset1 = index2Offset( index1 );
         long structMaxExc1 = structOffset1 + recordSize;
@@ -161,8 +220,36 @@ public class StructsArray<T extends ByteView> implements Structs<T> {
     }
 
 
+    /**
+     * Moves the record at sourceIndexes[i] to index i, for every i.  The records are gathered
+     * in their new order into a temporary buffer and then copied back in bulk.
+     */
+    private void permuteRecords( int[] sourceIndexes ) {
+        int   n      = sourceIndexes.length;
+        Bytes sorted = new OffHeapBytes( n*recordSize );
+
+        try {
+            RadixSortAlgorithm.forEachChunk( n, (fromInc,toExc) -> {
+                for ( int i=fromInc; i<toExc; i++ ) {
+                    long sourceOffset = index2Offset( sourceIndexes[i] );
+
+                    sorted.writeBytes( i*recordSize, (i+1)*recordSize, bytes, sourceOffset, sourceOffset+recordSize );
+                }
+            });
+
+            RadixSortAlgorithm.forEachChunk( n, (fromInc,toExc) -> {
+                long fromOffset  = fromInc*recordSize;
+                long toOffsetExc = toExc*recordSize;
+
+                bytes.writeBytes( HEADER_SIZE+fromOffset, HEADER_SIZE+toOffsetExc, sorted, fromOffset, toOffsetExc );
+            });
+        } finally {
+            sorted.release();
+        }
+    }
+
     private long index2Offset( long index ) {
-        if ( SystemX.isDebugRun() ) {
+        if ( SystemX.CHECK_BOUNDS ) {
             QA.isGTEZero( index, "structIndex" );
             QA.isLTE( index, numRecords(), "structIndex", "allocatedRecordCount" );
         }
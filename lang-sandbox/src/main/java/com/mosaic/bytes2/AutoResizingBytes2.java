@@ -1,6 +1,8 @@
 package com.mosaic.bytes2;
 
+import com.mosaic.bytes2.impl.OffHeapBytes2;
 import com.mosaic.lang.QA;
+import com.mosaic.lang.system.OffHeapAllocationPolicy;
 import com.mosaic.lang.system.SystemX;
 
 
@@ -14,6 +16,18 @@ public class AutoResizingBytes2 extends BytesView2 {
     private long    maxExpectedSize;
 
 
+    /**
+     * Allocates the bytes off heap using the specified policy.  The policy is also used each time that
+     * the bytes are resized.
+     *
+     * @param system          used for logging
+     * @param name            used for logging
+     * @param maxExpectedSize warn if the bytes grows past this size
+     */
+    public AutoResizingBytes2( SystemX system, String name, long initialSize, long maxExpectedSize, OffHeapAllocationPolicy allocationPolicy ) {
+        this( system, new OffHeapBytes2(initialSize, allocationPolicy), name, maxExpectedSize );
+    }
+
     /**
      *
      * @param system          used for logging
@@ -28,6 +42,21 @@ public class AutoResizingBytes2 extends BytesView2 {
         this.maxExpectedSize = maxExpectedSize;
     }
 
+    /**
+     * Direct access to the underlying bytes would bypass the resizing, and so is not supported.
+     */
+    public boolean isAddressable() {
+        return false;
+    }
+
+    public Object getAddressBaseObject() {
+        throw new UnsupportedOperationException( "AutoResizingBytes2 is not addressable" );
+    }
+
+    public long getAddressBaseOffset() {
+        throw new UnsupportedOperationException( "AutoResizingBytes2 is not addressable" );
+    }
+
     protected void touchRW( long offset, long maxExc, long size ) {
         resizeIfNeeded( maxExc );
     }
@@ -1,5 +1,7 @@
 package com.mosaic.bytes2;
 
+import com.mosaic.lang.system.Backdoor;
+import com.mosaic.lang.system.SystemX;
 import com.mosaic.lang.text.DecodedCharacter;
 import com.mosaic.lang.text.UTF8;
 
@@ -15,9 +17,39 @@ public interface Bytes2 {
     public long sizeBytes();
     public void flush();
 
+    /**
+     * Flushes only the specified range of bytes.  Implementations that cannot flush a
+     * subset of their bytes flush everything.
+     */
+    public default void flush( long from, long toExc ) {
+        flush();
+    }
+
     public void resize( long newLength );
     public void fill( long from, long toExc, byte v );
 
+    /**
+     * Returns true when the location of these bytes may be handed to sun.misc.Unsafe via
+     * getAddressBaseObject() and getAddressBaseOffset().  Used by generated flyweights to
+     * read and write fields without a chain of virtual calls per field.
+     */
+    public default boolean isAddressable() {
+        return false;
+    }
+
+    /**
+     * The object that, together with getAddressBaseOffset(), locates the first of these bytes;  null
+     * when the bytes are off heap, in which case the offset is an absolute address.  Only valid
+     * until the bytes are resized or released.
+     */
+    public default Object getAddressBaseObject() {
+        throw new UnsupportedOperationException( getClass().getName() + " is not addressable" );
+    }
+
+    public default long getAddressBaseOffset() {
+        throw new UnsupportedOperationException( getClass().getName() + " is not addressable" );
+    }
+
 
 
     public boolean readBoolean( long offset, long maxExc );
@@ -129,6 +161,114 @@ public interface Bytes2 {
 
 
 
+    /**
+     * Bulk copies primitives between these bytes and a primitive array.  The range is checked
+     * once per call rather than once per element, and the native implementations copy the
+     * values with a single memcpy.  The values are stored using the same byte order as
+     * readLong/writeLong et al, so the two styles of access may be mixed.
+     *
+     * It is an error to request more values than will fit between offset and maxExc.
+     *
+     * @return the number of bytes read/written
+     */
+    public default int readLongs( long offset, long maxExc, long[] destinationArray, int destinationArrayInc, int destinationArrayExc ) {
+        long i = offset;
+
+        for ( int n=destinationArrayInc; n<destinationArrayExc; n++ ) {
+            destinationArray[n] = readLong( i, maxExc );
+
+            i += SystemX.SIZEOF_LONG;
+        }
+
+        return Backdoor.toInt( i - offset );
+    }
+
+    public default int writeLongs( long offset, long maxExc, long[] sourceArray, int sourceArrayInc, int sourceArrayExc ) {
+        long i = offset;
+
+        for ( int n=sourceArrayInc; n<sourceArrayExc; n++ ) {
+            writeLong( i, maxExc, sourceArray[n] );
+
+            i += SystemX.SIZEOF_LONG;
+        }
+
+        return Backdoor.toInt( i - offset );
+    }
+
+    public default int readInts( long offset, long maxExc, int[] destinationArray, int destinationArrayInc, int destinationArrayExc ) {
+        long i = offset;
+
+        for ( int n=destinationArrayInc; n<destinationArrayExc; n++ ) {
+            destinationArray[n] = readInt( i, maxExc );
+
+            i += SystemX.SIZEOF_INT;
+        }
+
+        return Backdoor.toInt( i - offset );
+    }
+
+    public default int writeInts( long offset, long maxExc, int[] sourceArray, int sourceArrayInc, int sourceArrayExc ) {
+        long i = offset;
+
+        for ( int n=sourceArrayInc; n<sourceArrayExc; n++ ) {
+            writeInt( i, maxExc, sourceArray[n] );
+
+            i += SystemX.SIZEOF_INT;
+        }
+
+        return Backdoor.toInt( i - offset );
+    }
+
+    public default int readDoubles( long offset, long maxExc, double[] destinationArray, int destinationArrayInc, int destinationArrayExc ) {
+        long i = offset;
+
+        for ( int n=destinationArrayInc; n<destinationArrayExc; n++ ) {
+            destinationArray[n] = readDouble( i, maxExc );
+
+            i += SystemX.SIZEOF_DOUBLE;
+        }
+
+        return Backdoor.toInt( i - offset );
+    }
+
+    public default int writeDoubles( long offset, long maxExc, double[] sourceArray, int sourceArrayInc, int sourceArrayExc ) {
+        long i = offset;
+
+        for ( int n=sourceArrayInc; n<sourceArrayExc; n++ ) {
+            writeDouble( i, maxExc, sourceArray[n] );
+
+            i += SystemX.SIZEOF_DOUBLE;
+        }
+
+        return Backdoor.toInt( i - offset );
+    }
+
+    public default int readLongs( long offset, long maxExc, long[] destinationArray ) {
+        return readLongs( offset, maxExc, destinationArray, 0, destinationArray.length );
+    }
+
+    public default int writeLongs( long offset, long maxExc, long[] sourceArray ) {
+        return writeLongs( offset, maxExc, sourceArray, 0, sourceArray.length );
+    }
+
+    public default int readInts( long offset, long maxExc, int[] destinationArray ) {
+        return readInts( offset, maxExc, destinationArray, 0, destinationArray.length );
+    }
+
+    public default int writeInts( long offset, long maxExc, int[] sourceArray ) {
+        return writeInts( offset, maxExc, sourceArray, 0, sourceArray.length );
+    }
+
+    public default int readDoubles( long offset, long maxExc, double[] destinationArray ) {
+        return readDoubles( offset, maxExc, destinationArray, 0, destinationArray.length );
+    }
+
+    public default int writeDoubles( long offset, long maxExc, double[] sourceArray ) {
+        return writeDoubles( offset, maxExc, sourceArray, 0, sourceArray.length );
+    }
+
+
+
     public boolean compareBytes( long offset, long maxExc, byte[] targetBytes );
 
 
@@ -23,6 +23,11 @@ public class BytesView2 implements Bytes2 {
     protected long   base;
     protected long   maxExc;
 
+    // resolved on demand by resolveAddress(), and forgotten whenever the view moves
+    private boolean  isAddressResolved;
+    private Object   addressBaseObject;
+    private long     addressBaseOffset;
+
 
     public BytesView2() {}
 
@@ -47,6 +52,15 @@ public class BytesView2 implements Bytes2 {
      */
     protected void touchRO( long offset, long maxExc, long size ) {}
 
+    /**
+     * The maxExc to pass on to the wrapped bytes when reading or writing a single value.  The
+     * wrapped bytes only use it to check their bounds, so the view's own bound is only worked
+     * out when bounds are being checked (see SystemX.CHECK_BOUNDS).
+     */
+    private long viewMaxExc( long maxExc ) {
+        return SystemX.CHECK_BOUNDS ? Math.min( this.maxExc, base+maxExc ) : this.maxExc;
+    }
+
 
     /**
      * Points this view at a new location.
@@ -61,6 +75,64 @@ public class BytesView2 implements Bytes2 {
         this.bytes  = bytes;
         this.base   = base;
         this.maxExc = maxExc;
+
+        this.isAddressResolved = false;
+    }
+
+    /**
+     * Looks up where the viewed bytes live, so that fields at constant offsets from the start of
+     * the view may be accessed directly via Backdoor.  The lookup and its bounds check are made
+     * once each time that the view is moved, rather than once per field access;  which is what
+     * generated flyweights rely upon (see FlyweightGenerator).<p/>
+     *
+     * The address is not looked up again until the view is moved, so the viewed bytes must not be
+     * reallocated while this view is pointed at them (eg OffHeapBytes2.resize, or a file that is
+     * grown past 2GB and swapped onto chunked mappings);  call setBytes again after resizing them.
+     * Resizing via this view is the exception, as it forgets the address itself.  Breaking this
+     * rule is detected when bounds are being checked (see SystemX.CHECK_BOUNDS).
+     *
+     * @param minSizeBytes the number of bytes that the caller is about to access from the start of the view
+     * @return the offset to pass to Backdoor along with getResolvedAddressBaseObject()
+     */
+    public final long resolveAddress( long minSizeBytes ) {
+        if ( !isAddressResolved ) {
+            if ( maxExc - base < minSizeBytes ) {
+                throw new IndexOutOfBoundsException( "View of "+(maxExc-base)+" bytes is smaller than the "+minSizeBytes+" bytes required" );
+            }
+
+            this.addressBaseObject = bytes.getAddressBaseObject();
+            this.addressBaseOffset = bytes.getAddressBaseOffset() + base;
+            this.isAddressResolved = true;
+        } else if ( SystemX.CHECK_BOUNDS ) {
+            throwIfAddressHasMoved();
+        }
+
+        return addressBaseOffset;
+    }
+
+    /**
+     * Only valid after calling resolveAddress().
+     */
+    public final Object getResolvedAddressBaseObject() {
+        return addressBaseObject;
+    }
+
+    private void throwIfAddressHasMoved() {
+        if ( bytes.getAddressBaseObject() != addressBaseObject || bytes.getAddressBaseOffset()+base != addressBaseOffset ) {
+            throw new IllegalStateException( "The viewed bytes have been reallocated since this view was pointed at them, call setBytes again after resizing them" );
+        }
+    }
+
+    public boolean isAddressable() {
+        return bytes.isAddressable();
+    }
+
+    public Object getAddressBaseObject() {
+        return bytes.getAddressBaseObject();
+    }
+
+    public long getAddressBaseOffset() {
+        return bytes.getAddressBaseOffset() + base;
     }
 
 
@@ -79,13 +151,21 @@ public class BytesView2 implements Bytes2 {
 
         bytes.resize(newLength);
 
-        this.maxExc = newLength;
+        this.maxExc            = newLength;
+        this.isAddressResolved = false;
     }
 
     public void flush() {
         bytes.flush();
     }
 
+    public void flush( long from, long toExc ) {
+        long f = from + base;
+        long t = Math.min( this.maxExc, base+toExc );
+
+        bytes.flush( f, t );
+    }
+
     public void fill( long from, long toExc, byte v ) {
         touchRW( from, toExc, toExc-from );
 
@@ -100,7 +180,7 @@ public class BytesView2 implements Bytes2 {
         touchRO( offset, maxExc, SystemX.SIZEOF_BOOLEAN );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
         return bytes.readBoolean( f, t );
     }
@@ -109,7 +189,7 @@ public class BytesView2 implements Bytes2 {
         touchRW( offset, maxExc, SystemX.SIZEOF_BOOLEAN );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
         bytes.writeBoolean( f, t, v );
     }
@@ -118,7 +198,7 @@ public class BytesView2 implements Bytes2 {
         touchRO( offset, maxExc, SystemX.SIZEOF_BYTE );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
         return bytes.readByte( f, t );
     }
@@ -127,7 +207,7 @@ public class BytesView2 implements Bytes2 {
         touchRW( offset, maxExc, SystemX.SIZEOF_BYTE );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
         bytes.writeByte( f, t, v );
     }
@@ -136,7 +216,7 @@ public class BytesView2 implements Bytes2 {
         touchRO( offset, maxExc, SystemX.SIZEOF_SHORT );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
         return bytes.readShort( f, t );
     }
@@ -145,7 +225,7 @@ public class BytesView2 implements Bytes2 {
         touchRW( offset, maxExc, SystemX.SIZEOF_SHORT );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
         bytes.writeShort( f, t, v );
     }
@@ -154,7 +234,7 @@ public class BytesView2 implements Bytes2 {
         touchRO( offset, maxExc, SystemX.SIZEOF_CHAR );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
         return bytes.readCharacter( f, t );
     }
@@ -163,7 +243,7 @@ public class BytesView2 implements Bytes2 {
         touchRW( offset, maxExc, SystemX.SIZEOF_CHAR );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
         bytes.writeCharacter( f, t, v );
     }
@@ -172,7 +252,7 @@ public class BytesView2 implements Bytes2 {
         touchRO( offset, maxExc, SystemX.SIZEOF_INT );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
         return bytes.readInt( f, t );
     }
@@ -181,7 +261,7 @@ public class BytesView2 implements Bytes2 {
         touchRW( offset, maxExc, SystemX.SIZEOF_INT );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
 
         bytes.writeInt( f, t, v );
@@ -191,7 +271,7 @@ public class BytesView2 implements Bytes2 {
         touchRO( offset, maxExc, SystemX.SIZEOF_LONG );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
 
         return bytes.readLong( f, t );
@@ -201,7 +281,7 @@ public class BytesView2 implements Bytes2 {
         touchRW( offset, maxExc, SystemX.SIZEOF_LONG );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
 
         bytes.writeLong( f, t, v );
@@ -211,7 +291,7 @@ public class BytesView2 implements Bytes2 {
         touchRO( offset, maxExc, SystemX.SIZEOF_FLOAT );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
 
         return bytes.readFloat( f, t );
@@ -221,7 +301,7 @@ public class BytesView2 implements Bytes2 {
         touchRW( offset, maxExc, SystemX.SIZEOF_FLOAT );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
 
         bytes.writeFloat( f, t, v );
@@ -231,7 +311,7 @@ public class BytesView2 implements Bytes2 {
         touchRO( offset, maxExc, SystemX.SIZEOF_DOUBLE );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
 
         return bytes.readDouble( f, t );
@@ -241,7 +321,7 @@ public class BytesView2 implements Bytes2 {
         touchRW( offset, maxExc, SystemX.SIZEOF_DOUBLE );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
 
         bytes.writeDouble( f, t, v );
@@ -251,7 +331,7 @@ public class BytesView2 implements Bytes2 {
         touchRO( offset, maxExc, SystemX.SIZEOF_UNSIGNED_BYTE );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
 
         return bytes.readUnsignedByte( f, t );
@@ -261,7 +341,7 @@ public class BytesView2 implements Bytes2 {
         touchRW( offset, maxExc, SystemX.SIZEOF_UNSIGNED_BYTE );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
 
         bytes.writeUnsignedByte( f, t, v );
@@ -271,7 +351,7 @@ public class BytesView2 implements Bytes2 {
         touchRO( offset, maxExc, SystemX.SIZEOF_UNSIGNED_SHORT );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
 
         return bytes.readUnsignedShort( f, t );
@@ -281,7 +361,7 @@ public class BytesView2 implements Bytes2 {
         touchRW( offset, maxExc, SystemX.SIZEOF_UNSIGNED_SHORT );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
 
         bytes.writeUnsignedShort( f, t, v );
@@ -291,7 +371,7 @@ public class BytesView2 implements Bytes2 {
         touchRO( offset, maxExc, SystemX.SIZEOF_UNSIGNED_INT );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
 
         return bytes.readUnsignedInt( f, t );
@@ -301,7 +381,7 @@ public class BytesView2 implements Bytes2 {
         touchRW( offset, maxExc, SystemX.SIZEOF_UNSIGNED_INT );
 
         long f = base+offset;
-        long t = Math.min( this.maxExc, base+maxExc );
+        long t = viewMaxExc( maxExc );
 
 
         bytes.writeUnsignedInt( f, t, v );
@@ -487,6 +567,66 @@ public class BytesView2 implements Bytes2 {
         return bytes.writeBytes( f, t, fromAddressBase, fromAddressInc, fromAddressExc );
     }
 
+    public int readLongs( long offset, long maxExc, long[] destinationArray, int destinationArrayInc, int destinationArrayExc ) {
+        touchRO( offset, maxExc, (destinationArrayExc-destinationArrayInc)*SystemX.SIZEOF_LONG );
+
+        long f = base+offset;
+        long t = Math.min( this.maxExc, base+maxExc );
+
+
+        return bytes.readLongs( f, t, destinationArray, destinationArrayInc, destinationArrayExc );
+    }
+
+    public int writeLongs( long offset, long maxExc, long[] sourceArray, int sourceArrayInc, int sourceArrayExc ) {
+        touchRW( offset, maxExc, (sourceArrayExc-sourceArrayInc)*SystemX.SIZEOF_LONG );
+
+        long f = base+offset;
+        long t = Math.min( this.maxExc, base+maxExc );
+
+
+        return bytes.writeLongs( f, t, sourceArray, sourceArrayInc, sourceArrayExc );
+    }
+
+    public int readInts( long offset, long maxExc, int[] destinationArray, int destinationArrayInc, int destinationArrayExc ) {
+        touchRO( offset, maxExc, (destinationArrayExc-destinationArrayInc)*SystemX.SIZEOF_INT );
+
+        long f = base+offset;
+        long t = Math.min( this.maxExc, base+maxExc );
+
+
+        return bytes.readInts( f, t, destinationArray, destinationArrayInc, destinationArrayExc );
+    }
+
+    public int writeInts( long offset, long maxExc, int[] sourceArray, int sourceArrayInc, int sourceArrayExc ) {
+        touchRW( offset, maxExc, (sourceArrayExc-sourceArrayInc)*SystemX.SIZEOF_INT );
+
+        long f = base+offset;
+        long t = Math.min( this.maxExc, base+maxExc );
+
+
+        return bytes.writeInts( f, t, sourceArray, sourceArrayInc, sourceArrayExc );
+    }
+
+    public int readDoubles( long offset, long maxExc, double[] destinationArray, int destinationArrayInc, int destinationArrayExc ) {
+        touchRO( offset, maxExc, (destinationArrayExc-destinationArrayInc)*SystemX.SIZEOF_DOUBLE );
+
+        long f = base+offset;
+        long t = Math.min( this.maxExc, base+maxExc );
+
+
+        return bytes.readDoubles( f, t, destinationArray, destinationArrayInc, destinationArrayExc );
+    }
+
+    public int writeDoubles( long offset, long maxExc, double[] sourceArray, int sourceArrayInc, int sourceArrayExc ) {
+        touchRW( offset, maxExc, (sourceArrayExc-sourceArrayInc)*SystemX.SIZEOF_DOUBLE );
+
+        long f = base+offset;
+        long t = Math.min( this.maxExc, base+maxExc );
+
+
+        return bytes.writeDoubles( f, t, sourceArray, sourceArrayInc, sourceArrayExc );
+    }
+
     public boolean compareBytes( long offset, long maxExc, byte[] targetBytes ) {
         touchRO( offset, maxExc, offset+targetBytes.length );
 
@@ -2,11 +2,13 @@ package com.mosaic.bytes2;
 
 import com.mosaic.bytes2.fields.ByteFieldsRegistry2;
 import com.mosaic.lang.QA;
+import com.mosaic.lang.system.SystemX;
 
 
 /**
  * A specialisation of BytesView for views that always view the same number of bytes at a time.
- * It overrides setBytes to guard against overrunning maxExc.
+ * It overrides setBytes to guard against overrunning maxExc, unless bounds are not being
+ * checked (see SystemX.CHECK_BOUNDS).
  */
 public class FixedWidthBytesView extends BytesView2 {
 
@@ -35,6 +37,10 @@ public class FixedWidthBytesView extends BytesView2 {
     }
 
 
+    public long getWidthBytes() {
+        return widthBytes;
+    }
+
     public void setBytes( Bytes2 bytes, long base ) {
         this.setBytes( bytes, base, base+widthBytes );
     }
@@ -43,7 +49,9 @@ public class FixedWidthBytesView extends BytesView2 {
     public void setBytes( Bytes2 bytes, long base, long maxExc ) {
         long toExc = base + widthBytes;
 
-        QA.argIsLTE( toExc, maxExc, "maxExc" );
+        if ( SystemX.CHECK_BOUNDS ) {
+            QA.argIsLTE( toExc, maxExc, "maxExc" );
+        }
 
         super.setBytes( bytes, base, toExc );
     }
@@ -0,0 +1,132 @@
+package com.mosaic.bytes2;
+
+import com.mosaic.bytes2.fields.ByteFieldsRegistry2;
+import com.mosaic.bytes2.fields.BytesField2;
+import com.mosaic.bytes2.impl.ArrayBytes2;
+import com.mosaic.bytes2.impl.OffHeapBytes2;
+import com.mosaic.bytes2.impl.StructOfArraysBytes2;
+import com.mosaic.lang.QA;
+import com.mosaic.lang.functional.Function0;
+import com.mosaic.lang.functional.LongFunction1;
+
+import java.util.Iterator;
+
+
+/**
+ * A growable array of fixed width structs, stored column by column.  The records are selected
+ * with the same flyweights as structs laid out one after another (any BytesView2 whose fields
+ * were registered with the registry), while each field is held in its own contiguous region.
+ * Prefer it to an array of structs when queries scan a few fields of many records;  see
+ * getRegion and StructOfArraysBytes2.
+ */
+public class StructOfArrays2<T extends BytesView2> implements Iterable<T> {
+
+    public static <T extends BytesView2> StructOfArrays2<T> allocateOnHeap( ByteFieldsRegistry2 registry, long initialCapacity, Function0<T> viewFactory ) {
+        return new StructOfArrays2<>( registry, initialCapacity, viewFactory, ArrayBytes2::new );
+    }
+
+    public static <T extends BytesView2> StructOfArrays2<T> allocateOffHeap( ByteFieldsRegistry2 registry, long initialCapacity, Function0<T> viewFactory ) {
+        return new StructOfArrays2<>( registry, initialCapacity, viewFactory, OffHeapBytes2::new );
+    }
+
+
+    private final StructOfArraysBytes2 bytes;
+    private final long                 recordWidth;
+    private final Function0<T>         viewFactory;
+
+    private long numRecords;
+
+
+    public StructOfArrays2( ByteFieldsRegistry2 registry, long initialCapacity, Function0<T> viewFactory, LongFunction1<Bytes2> regionFactory ) {
+        this.bytes       = new StructOfArraysBytes2( registry, initialCapacity, regionFactory );
+        this.recordWidth = registry.sizeBytes();
+        this.viewFactory = viewFactory;
+    }
+
+
+    public long numRecords() {
+        return numRecords;
+    }
+
+    public void selectInto( T view, long index ) {
+        throwIfInvalidIndex( index );
+
+        long fromOffset = index*recordWidth;
+
+        view.setBytes( bytes, fromOffset, fromOffset+recordWidth );
+    }
+
+    public T select( long index ) {
+        T view = viewFactory.invoke();
+
+        selectInto( view, index );
+
+        return view;
+    }
+
+    public long allocateNewRecord() {
+        return allocateNewRecords( 1 );
+    }
+
+    public long allocateNewRecords( long n ) {
+        QA.argIsGTZero( n, "n" );
+
+        long fromIndex    = numRecords;
+        long maxOffsetExc = (fromIndex+n)*recordWidth;
+
+        if ( bytes.sizeBytes() < maxOffsetExc ) {
+            bytes.resize( Math.max(maxOffsetExc, bytes.sizeBytes()*2) );
+        }
+
+        numRecords = fromIndex+n;
+
+        return fromIndex;
+    }
+
+    public void clearAll() {
+        bytes.fill( 0, numRecords*recordWidth, (byte) 0 );
+
+        numRecords = 0;
+    }
+
+    /**
+     * The bytes that hold the specified field of every record, for scanning a single field of
+     * many records.  The field of record i is held at [i*field.sizeBytes(), (i+1)*field.sizeBytes()),
+     * for i < numRecords().  The region is resized in place as the array grows.
+     */
+    public Bytes2 getRegion( BytesField2 field ) {
+        return bytes.getRegion( field );
+    }
+
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private long i = 0;
+
+            public boolean hasNext() {
+                return i < numRecords;
+            }
+
+            public T next() {
+                return select( i++ );
+            }
+        };
+    }
+
+    public void release() {
+        bytes.release();
+    }
+
+
+    private void throwIfInvalidIndex( long index ) {
+        if ( index < 0 || index >= numRecords ) {
+            if ( numRecords == 0 ) {
+                throw new IndexOutOfBoundsException( "Unable to index " + index + ", the collection is empty" );
+            } else if ( index < 0 ) {
+                throw new IndexOutOfBoundsException( "Unable to index "+index+", the min valid index is currently 0" );
+            } else {
+                throw new IndexOutOfBoundsException( "Unable to index "+index+", the max valid index is currently "+(numRecords-1) );
+            }
+        }
+    }
+
+}
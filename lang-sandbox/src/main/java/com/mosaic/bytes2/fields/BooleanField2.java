@@ -30,4 +30,8 @@ public class BooleanField2 implements BytesField2 {
         return SystemX.SIZEOF_BOOLEAN;
     }
 
+    public long getOffset() {
+        return from;
+    }
+
 }
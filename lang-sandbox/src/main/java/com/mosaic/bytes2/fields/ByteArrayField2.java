@@ -46,4 +46,8 @@ public class ByteArrayField2 implements BytesField2 {
         return toExc-from;
     }
 
+    public long getOffset() {
+        return from;
+    }
+
 }
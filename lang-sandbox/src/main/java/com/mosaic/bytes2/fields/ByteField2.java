@@ -30,4 +30,8 @@ public class ByteField2 implements BytesField2 {
         return SystemX.SIZEOF_BYTE;
     }
 
+    public long getOffset() {
+        return from;
+    }
+
 }
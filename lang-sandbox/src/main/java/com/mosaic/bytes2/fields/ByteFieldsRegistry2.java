@@ -2,6 +2,10 @@ package com.mosaic.bytes2.fields;
 
 import com.mosaic.lang.Lockable;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 
 /**
  * A factory for creating ByteFields.  A ByteField is a subset of bytes assigned to represent
@@ -47,11 +51,20 @@ public class ByteFieldsRegistry2 extends Lockable<ByteFieldsRegistry2> {
 
     private int numBytesAssignedSoFar = 0;
 
+    private final List<BytesField2> fields = new ArrayList<>();
+
 
     public int sizeBytes() {
         return numBytesAssignedSoFar;
     }
 
+    /**
+     * The fields that have been registered, in the order that they appear within the struct.
+     */
+    public List<BytesField2> getFields() {
+        return Collections.unmodifiableList( fields );
+    }
+
     public BooleanField2 registerBoolean() {
         return registerNewField( new BooleanField2(numBytesAssignedSoFar) );
     }
@@ -109,6 +122,7 @@ public class ByteFieldsRegistry2 extends Lockable<ByteFieldsRegistry2> {
         throwIfLocked();
 
         this.numBytesAssignedSoFar += field.sizeBytes();
+        this.fields.add( field );
 
         return field;
     }
@@ -1,10 +1,15 @@
 package com.mosaic.bytes2.fields;
 
 /**
- *
+ * A field within a fixed width struct, as allocated by ByteFieldsRegistry2.
  */
 public interface BytesField2 {
 
     public long sizeBytes();
 
+    /**
+     * The offset of this field from the start of the struct.
+     */
+    public long getOffset();
+
 }
@@ -30,4 +30,8 @@ public class CharacterField2 implements BytesField2 {
         return SystemX.SIZEOF_CHAR;
     }
 
+    public long getOffset() {
+        return from;
+    }
+
 }
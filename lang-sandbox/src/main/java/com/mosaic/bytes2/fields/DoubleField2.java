@@ -30,4 +30,8 @@ public class DoubleField2 implements BytesField2 {
         return SystemX.SIZEOF_DOUBLE;
     }
 
+    public long getOffset() {
+        return from;
+    }
+
 }
@@ -30,4 +30,8 @@ public class FloatField2 implements BytesField2 {
         return SystemX.SIZEOF_FLOAT;
     }
 
+    public long getOffset() {
+        return from;
+    }
+
 }
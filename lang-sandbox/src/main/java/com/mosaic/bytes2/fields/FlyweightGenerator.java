@@ -0,0 +1,325 @@
+package com.mosaic.bytes2.fields;
+
+import com.mosaic.bytes2.BytesView2;
+import com.mosaic.lang.compiler.JavaCompilerClassLoader;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Generates final flyweight classes whose accessors read and write fields at a constant offset
+ * from the start of the struct, straight through Backdoor.  The bytes are bounds checked and
+ * located once each time that the flyweight is moved, rather than once per field access;  and as
+ * the generated class is final, each accessor is monomorphic and readily inlined by the JIT.<p/>
+ *
+ * The layout is described by an abstract class written in the same style as a hand written
+ * flyweight:  fields are registered with a ByteFieldsRegistry2 and held in static fields named
+ * '&lt;property&gt;Field', and the accessors to be generated are declared abstract and named
+ * get&lt;Property&gt;, is&lt;Property&gt; or set&lt;Property&gt;.  The struct is viewed either by
+ * the abstract class itself (when it extends BytesView2, for example via FixedWidthBytesView) or
+ * by a protected BytesView2 field called 'bytes' (for example JournalEntry).  Accessors for fields
+ * that are not fixed width primitives, such as UTF8Field2, are left for the abstract class to
+ * implement by hand.<p/>
+ *
+ * The generated class is defined by its own class loader, so the abstract class, its no-arg
+ * constructor and its abstract accessors must be public or protected.
+ *
+ * <pre>
+ * public abstract class Account extends FixedWidthBytesView {
+ *     private static final ByteFieldsRegistry2 registry = new ByteFieldsRegistry2();
+ *
+ *     private static final LongField2 balanceField = registry.registerLong();
+ *
+ *     public Account() { super(registry); }
+ *
+ *     public abstract long getBalance();
+ *     public abstract void setBalance( long newBalance );
+ * }
+ *
+ * Account account = FlyweightGenerator.newInstance( Account.class );
+ * </pre>
+ */
+public class FlyweightGenerator {
+
+    public static final String GENERATED_CLASS_SUFFIX = "$$Flyweight";
+
+    private static final String BACKDOOR = "com.mosaic.lang.system.Backdoor";
+
+    private static final Map<Class<?>,Class<?>> generatedClasses = new ConcurrentHashMap<>();
+    private static final Map<Class<?>,FieldTemplate> templates = createTemplates();
+
+
+    /**
+     * Returns the generated flyweight class for the specified abstract class.  The class is
+     * compiled on first request and reused thereafter.
+     *
+     * @throws IllegalArgumentException when the abstract class does not follow the flyweight conventions
+     * @throws com.mosaic.lang.compiler.CompilationException when the generated source fails to compile
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Class<? extends T> generateClass( Class<T> abstractClass ) {
+        return (Class<? extends T>) generatedClasses.computeIfAbsent(
+            abstractClass,
+            c -> new JavaCompilerClassLoader(c.getClassLoader()).compileClass( generateSource(c) )
+        );
+    }
+
+    /**
+     * Creates a new instance of the flyweight generated for the specified abstract class.
+     */
+    public static <T> T newInstance( Class<T> abstractClass ) {
+        Class<? extends T> generatedClass = generateClass( abstractClass );
+
+        try {
+            return generatedClass.newInstance();
+        } catch ( InstantiationException | IllegalAccessException ex ) {
+            throw new IllegalArgumentException( "Unable to instantiate the flyweight generated for " + abstractClass.getName(), ex );
+        }
+    }
+
+
+    static String generateSource( Class<?> abstractClass ) {
+        validateAbstractClass( abstractClass );
+
+        String                  region    = selectRegion( abstractClass );
+        Map<String,BytesField2> fields    = findFields( abstractClass );
+        long                    sizeBytes = 0;
+
+        for ( BytesField2 field : fields.values() ) {
+            sizeBytes = Math.max( sizeBytes, field.getOffset() + field.sizeBytes() );
+        }
+
+        String        packageName = abstractClass.getPackage().getName();
+        String        className   = abstractClass.getName().substring( packageName.length()+1 ).replace( '$', '_' ) + GENERATED_CLASS_SUFFIX;
+        StringBuilder buf         = new StringBuilder();
+
+        buf.append( "package " ).append( packageName ).append( ";\n\n" );
+        buf.append( "public final class " ).append( className ).append( " extends " ).append( abstractClass.getCanonicalName() ).append( " {\n\n" );
+        buf.append( "    private static final long SIZE_BYTES = " ).append( sizeBytes ).append( "L;\n\n" );
+        buf.append( "    public " ).append( className ).append( "() {\n" );
+        buf.append( "        super();\n" );
+        buf.append( "    }\n" );
+
+        for ( Method m : findAbstractMethods(abstractClass) ) {
+            appendAccessor( buf, abstractClass, m, region, fields );
+        }
+
+        buf.append( "\n}\n" );
+
+        return buf.toString();
+    }
+
+
+    private static void validateAbstractClass( Class<?> abstractClass ) {
+        if ( !Modifier.isAbstract(abstractClass.getModifiers()) || abstractClass.isInterface() ) {
+            throw new IllegalArgumentException( abstractClass.getName() + " must be an abstract class" );
+        }
+
+        for ( Class<?> c = abstractClass; c != null; c = c.getEnclosingClass() ) {
+            if ( !Modifier.isPublic(c.getModifiers()) ) {
+                throw new IllegalArgumentException( c.getName() + " must be public" );
+            }
+        }
+
+        if ( abstractClass.getEnclosingClass() != null && !Modifier.isStatic(abstractClass.getModifiers()) ) {
+            throw new IllegalArgumentException( abstractClass.getName() + " must be a static nested class" );
+        }
+
+        try {
+            int modifiers = abstractClass.getDeclaredConstructor().getModifiers();
+
+            if ( !Modifier.isPublic(modifiers) && !Modifier.isProtected(modifiers) ) {
+                throw new IllegalArgumentException( abstractClass.getName() + " must declare a public or protected no-arg constructor" );
+            }
+        } catch ( NoSuchMethodException ex ) {
+            throw new IllegalArgumentException( abstractClass.getName() + " must declare a public or protected no-arg constructor" );
+        }
+    }
+
+    /**
+     * Decides the expression used to reach the BytesView2 that the generated accessors read from.
+     */
+    private static String selectRegion( Class<?> abstractClass ) {
+        if ( BytesView2.class.isAssignableFrom(abstractClass) ) {
+            return "this";
+        }
+
+        for ( Class<?> c = abstractClass; c != null; c = c.getSuperclass() ) {
+            try {
+                Field f = c.getDeclaredField( "bytes" );
+                int   m = f.getModifiers();
+
+                if ( BytesView2.class.isAssignableFrom(f.getType()) && !Modifier.isStatic(m) && (Modifier.isPublic(m) || Modifier.isProtected(m)) ) {
+                    return "bytes";
+                }
+            } catch ( NoSuchFieldException ex ) {
+                // keep looking up the class hierarchy
+            }
+        }
+
+        throw new IllegalArgumentException( abstractClass.getName() + " must either extend BytesView2, or have a protected BytesView2 field called 'bytes'" );
+    }
+
+    /**
+     * Finds the methods that are left abstract by the abstract class.
+     */
+    private static List<Method> findAbstractMethods( Class<?> abstractClass ) {
+        Map<String,Method> methods = new LinkedHashMap<>();   // keyed by signature;  the most specific declaration wins
+
+        for ( Class<?> c = abstractClass; c != null; c = c.getSuperclass() ) {
+            for ( Method m : c.getDeclaredMethods() ) {
+                methods.putIfAbsent( m.getName() + Arrays.toString(m.getParameterTypes()), m );
+            }
+        }
+
+        for ( Method m : abstractClass.getMethods() ) {   // picks up methods declared by interfaces
+            methods.putIfAbsent( m.getName() + Arrays.toString(m.getParameterTypes()), m );
+        }
+
+        List<Method> abstractMethods = new ArrayList<>();
+
+        for ( Method m : methods.values() ) {
+            int modifiers = m.getModifiers();
+
+            if ( Modifier.isAbstract(modifiers) ) {
+                if ( !Modifier.isPublic(modifiers) && !Modifier.isProtected(modifiers) ) {
+                    throw new IllegalArgumentException( abstractClass.getName() + "." + m.getName() + "() must be public or protected" );
+                }
+
+                abstractMethods.add( m );
+            }
+        }
+
+        return abstractMethods;
+    }
+
+    /**
+     * Finds the static fields named &lt;property&gt;Field, keyed by property name.
+     */
+    private static Map<String,BytesField2> findFields( Class<?> abstractClass ) {
+        Map<String,BytesField2> fields = new HashMap<>();
+
+        for ( Class<?> c = abstractClass; c != null; c = c.getSuperclass() ) {
+            for ( Field f : c.getDeclaredFields() ) {
+                String name = f.getName();
+
+                if ( Modifier.isStatic(f.getModifiers()) && BytesField2.class.isAssignableFrom(f.getType()) && name.endsWith("Field") ) {
+                    String propertyName = name.substring( 0, name.length()-"Field".length() ).toLowerCase();
+
+                    if ( !fields.containsKey(propertyName) ) {
+                        f.setAccessible( true );
+
+                        try {
+                            fields.put( propertyName, (BytesField2) f.get(null) );
+                        } catch ( IllegalAccessException ex ) {
+                            throw new IllegalArgumentException( "Unable to read " + c.getName() + "." + name, ex );
+                        }
+                    }
+                }
+            }
+        }
+
+        return fields;
+    }
+
+    private static void appendAccessor( StringBuilder buf, Class<?> abstractClass, Method m, String region, Map<String,BytesField2> fields ) {
+        String        methodName = m.getName();
+        String        property   = propertyNameOf( methodName );
+        BytesField2   field      = property == null ? null : fields.get( property.toLowerCase() );
+        FieldTemplate template   = field == null ? null : templates.get( field.getClass() );
+
+        if ( template == null ) {
+            throw new IllegalArgumentException( abstractClass.getName() + "." + methodName + "() does not match a fixed width field named '" + (property == null ? methodName : decapitalise(property)) + "Field'" );
+        }
+
+        String modifier = Modifier.isPublic(m.getModifiers()) ? "public" : "protected";
+        String offset   = "a + " + field.getOffset() + "L";
+
+        buf.append( "\n" );
+
+        if ( methodName.startsWith("set") ) {
+            if ( m.getParameterCount() != 1 || m.getReturnType() != void.class || !template.acceptsParameterType(m.getParameterTypes()[0]) ) {
+                throw new IllegalArgumentException( abstractClass.getName() + "." + methodName + "() must take a single " + template.valueType.getName() + " and return void" );
+            }
+
+            String parameterType = m.getParameterTypes()[0].getName();
+
+            buf.append( "    " ).append( modifier ).append( " void " ).append( methodName ).append( "( " ).append( parameterType ).append( " v ) {\n" );
+            buf.append( "        long a = " ).append( region ).append( ".resolveAddress( SIZE_BYTES );\n\n" );
+            buf.append( "        " ).append( BACKDOOR ).append( "." ).append( String.format(template.writeTemplate, region+".getResolvedAddressBaseObject()", offset) ).append( ";\n" );
+            buf.append( "    }\n" );
+        } else {
+            if ( m.getParameterCount() != 0 || m.getReturnType() != template.valueType ) {
+                throw new IllegalArgumentException( abstractClass.getName() + "." + methodName + "() must take no arguments and return " + template.valueType.getName() );
+            }
+
+            buf.append( "    " ).append( modifier ).append( " " ).append( template.valueType.getName() ).append( " " ).append( methodName ).append( "() {\n" );
+            buf.append( "        long a = " ).append( region ).append( ".resolveAddress( SIZE_BYTES );\n\n" );
+            buf.append( "        return " ).append( String.format(template.readTemplate, BACKDOOR, region+".getResolvedAddressBaseObject()", offset) ).append( ";\n" );
+            buf.append( "    }\n" );
+        }
+    }
+
+    private static String propertyNameOf( String methodName ) {
+        if ( methodName.startsWith("get") || methodName.startsWith("set") ) {
+            return methodName.length() > 3 ? methodName.substring( 3 ) : null;
+        } else if ( methodName.startsWith("is") ) {
+            return methodName.length() > 2 ? methodName.substring( 2 ) : null;
+        }
+
+        return null;
+    }
+
+    private static String decapitalise( String property ) {
+        return Character.toLowerCase( property.charAt(0) ) + property.substring( 1 );
+    }
+
+
+    // readTemplate args: Backdoor, base object, offset
+    // writeTemplate args: base object, offset;  the new value is always called v
+    private static Map<Class<?>,FieldTemplate> createTemplates() {
+        Map<Class<?>,FieldTemplate> map = new HashMap<>();
+
+        map.put( BooleanField2.class,       new FieldTemplate(boolean.class, boolean.class, "%1$s.getByte( %2$s, %3$s ) != 0",                "setByte( %s, %s, v ? (byte) 1 : (byte) 0 )") );
+        map.put( ByteField2.class,          new FieldTemplate(byte.class,    byte.class,  "%1$s.getByte( %2$s, %3$s )",                     "setByte( %s, %s, v )") );
+        map.put( UnsignedByteField2.class,  new FieldTemplate(short.class,   byte.class,  "(short) (%1$s.getByte( %2$s, %3$s ) & 0xFF)",     "setByte( %s, %s, (byte) v )") );
+        map.put( ShortField2.class,         new FieldTemplate(short.class,   short.class, "%1$s.getShort( %2$s, %3$s )",                    "setShort( %s, %s, v )") );
+        map.put( UnsignedShortField2.class, new FieldTemplate(int.class,     int.class,   "%1$s.getShort( %2$s, %3$s ) & 0xFFFF",           "setShort( %s, %s, (short) v )") );
+        map.put( CharacterField2.class,     new FieldTemplate(char.class,    char.class,  "%1$s.getCharacter( %2$s, %3$s )",                "setCharacter( %s, %s, v )") );
+        map.put( IntField2.class,           new FieldTemplate(int.class,     int.class,   "%1$s.getInteger( %2$s, %3$s )",                  "setInteger( %s, %s, v )") );
+        map.put( UnsignedIntField2.class,   new FieldTemplate(long.class,    long.class,  "%1$s.getInteger( %2$s, %3$s ) & 0xFFFFFFFFL",    "setInteger( %s, %s, (int) v )") );
+        map.put( LongField2.class,          new FieldTemplate(long.class,    long.class,  "%1$s.getLong( %2$s, %3$s )",                     "setLong( %s, %s, v )") );
+        map.put( FloatField2.class,         new FieldTemplate(float.class,   float.class, "%1$s.getFloat( %2$s, %3$s )",                    "setFloat( %s, %s, v )") );
+        map.put( DoubleField2.class,        new FieldTemplate(double.class,  double.class,"%1$s.getDouble( %2$s, %3$s )",                   "setDouble( %s, %s, v )") );
+
+        return map;
+    }
+
+    private static class FieldTemplate {
+        public final Class<?> valueType;
+        public final Class<?> setterType;     // the type taken by the field's own setter, which may be narrower than valueType
+        public final String   readTemplate;
+        public final String   writeTemplate;
+
+        public FieldTemplate( Class<?> valueType, Class<?> setterType, String readTemplate, String writeTemplate ) {
+            this.valueType     = valueType;
+            this.setterType    = setterType;
+            this.readTemplate  = readTemplate;
+            this.writeTemplate = writeTemplate;
+        }
+
+        public boolean acceptsParameterType( Class<?> type ) {
+            return type == valueType || type == setterType;
+        }
+    }
+
+}
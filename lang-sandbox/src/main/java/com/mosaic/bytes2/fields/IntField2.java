@@ -41,4 +41,9 @@ public class IntField2 implements BytesField2 {
 
         return newValue;
     }
+
+    public long getOffset() {
+        return from;
+    }
+
 }
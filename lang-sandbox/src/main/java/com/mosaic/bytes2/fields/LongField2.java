@@ -30,4 +30,8 @@ public class LongField2 implements BytesField2 {
         return SystemX.SIZEOF_LONG;
     }
 
+    public long getOffset() {
+        return from;
+    }
+
 }
@@ -30,4 +30,8 @@ public class ShortField2 implements BytesField2 {
         return SystemX.SIZEOF_SHORT;
     }
 
+    public long getOffset() {
+        return from;
+    }
+
 }
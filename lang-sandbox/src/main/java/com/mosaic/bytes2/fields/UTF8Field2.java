@@ -32,4 +32,8 @@ public class UTF8Field2 implements BytesField2 {
         return maxLength;
     }
 
+    public long getOffset() {
+        return from;
+    }
+
 }
@@ -23,11 +23,15 @@ public class UnsignedByteField2 implements BytesField2 {
     }
 
     public void set( Bytes2 bytes, byte newValue ) {
-        bytes.writeUnsignedShort( from, toExc, newValue );
+        bytes.writeUnsignedByte( from, toExc, newValue );
     }
 
     public long sizeBytes() {
         return SystemX.SIZEOF_UNSIGNED_BYTE;
     }
 
+    public long getOffset() {
+        return from;
+    }
+
 }
@@ -30,4 +30,8 @@ public class UnsignedIntField2 implements BytesField2 {
         return SystemX.SIZEOF_UNSIGNED_INT;
     }
 
+    public long getOffset() {
+        return from;
+    }
+
 }
@@ -30,4 +30,8 @@ public class UnsignedShortField2 implements BytesField2 {
         return SystemX.SIZEOF_UNSIGNED_SHORT;
     }
 
+    public long getOffset() {
+        return from;
+    }
+
 }
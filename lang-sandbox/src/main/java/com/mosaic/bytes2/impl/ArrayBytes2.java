@@ -42,6 +42,18 @@ public class ArrayBytes2 extends BaseBytes2 {
     }
 
 
+    public boolean isAddressable() {
+        return true;
+    }
+
+    public Object getAddressBaseObject() {
+        return array;
+    }
+
+    public long getAddressBaseOffset() {
+        return Backdoor.getByteArrayBaseOffset() + base;
+    }
+
     public void resize( long newLength ) {
         QA.isInt( newLength, "newLength" );
         QA.argIsGTEZero( newLength, "newLength" );
@@ -192,7 +204,7 @@ public class ArrayBytes2 extends BaseBytes2 {
 
         UTF8Tools.decode( array, (int) i, output );
 
-        if ( SystemX.isDebugRun() ) {
+        if ( SystemX.CHECK_BOUNDS ) {
             index( offset, maxExc, output.numBytesConsumed );
         }
     }
@@ -202,7 +214,7 @@ public class ArrayBytes2 extends BaseBytes2 {
 
         int numBytesUsed = UTF8Tools.write( array, (int) i, c );
 
-        if ( SystemX.isDebugRun() ) {
+        if ( SystemX.CHECK_BOUNDS ) {
             index( offset, maxExc, numBytesUsed );
         }
 
@@ -246,7 +258,10 @@ public class ArrayBytes2 extends BaseBytes2 {
         int  numBytes = Backdoor.toInt( Math.min(max, toAddressExc - toAddressInc) );
 
         throwIfInvalidIndex( i, maxExc, numBytes );
-        throwIfInvalidIndex( toAddressBase+toAddressInc, toAddressExc, numBytes );
+
+        if ( SystemX.CHECK_BOUNDS ) {
+            QA.argIsWithinRange( toAddressBase, toAddressBase+toAddressInc, toAddressBase+toAddressInc+numBytes, toAddressBase+toAddressExc, "toAddressInc", "toAddressExc" );
+        }
 
         Backdoor.copyBytes( array, i, toAddressBase+toAddressInc, numBytes );
 
@@ -265,6 +280,60 @@ public class ArrayBytes2 extends BaseBytes2 {
         return numBytes;
     }
 
+    public int readLongs( long offset, long maxExc, long[] destinationArray, int destinationArrayInc, int destinationArrayExc ) {
+        int  numLongs = destinationArrayExc - destinationArrayInc;
+        long i        = index( offset, maxExc, numLongs*SIZEOF_LONG );
+
+        Backdoor.copyLongs( array, i, destinationArray, destinationArrayInc, numLongs );
+
+        return numLongs*SIZEOF_LONG;
+    }
+
+    public int writeLongs( long offset, long maxExc, long[] sourceArray, int sourceArrayInc, int sourceArrayExc ) {
+        int  numLongs = sourceArrayExc - sourceArrayInc;
+        long i        = index( offset, maxExc, numLongs*SIZEOF_LONG );
+
+        Backdoor.copyLongs( sourceArray, sourceArrayInc, array, i, numLongs );
+
+        return numLongs*SIZEOF_LONG;
+    }
+
+    public int readInts( long offset, long maxExc, int[] destinationArray, int destinationArrayInc, int destinationArrayExc ) {
+        int  numInts = destinationArrayExc - destinationArrayInc;
+        long i       = index( offset, maxExc, numInts*SIZEOF_INT );
+
+        Backdoor.copyInts( array, i, destinationArray, destinationArrayInc, numInts );
+
+        return numInts*SIZEOF_INT;
+    }
+
+    public int writeInts( long offset, long maxExc, int[] sourceArray, int sourceArrayInc, int sourceArrayExc ) {
+        int  numInts = sourceArrayExc - sourceArrayInc;
+        long i       = index( offset, maxExc, numInts*SIZEOF_INT );
+
+        Backdoor.copyInts( sourceArray, sourceArrayInc, array, i, numInts );
+
+        return numInts*SIZEOF_INT;
+    }
+
+    public int readDoubles( long offset, long maxExc, double[] destinationArray, int destinationArrayInc, int destinationArrayExc ) {
+        int  numDoubles = destinationArrayExc - destinationArrayInc;
+        long i          = index( offset, maxExc, numDoubles*SIZEOF_DOUBLE );
+
+        Backdoor.copyDoubles( array, i, destinationArray, destinationArrayInc, numDoubles );
+
+        return numDoubles*SIZEOF_DOUBLE;
+    }
+
+    public int writeDoubles( long offset, long maxExc, double[] sourceArray, int sourceArrayInc, int sourceArrayExc ) {
+        int  numDoubles = sourceArrayExc - sourceArrayInc;
+        long i          = index( offset, maxExc, numDoubles*SIZEOF_DOUBLE );
+
+        Backdoor.copyDoubles( sourceArray, sourceArrayInc, array, i, numDoubles );
+
+        return numDoubles*SIZEOF_DOUBLE;
+    }
+
     public boolean compareBytes( long offset, long maxExc, byte[] targetBytes ) {
         int fromIndex = Backdoor.toInt( base + offset );
 
@@ -102,7 +102,7 @@ public abstract class BaseBytes2 implements Bytes2 {
     public int writeUTF8String( long destinationIndex, long maxExc, CharSequence sourceCharacters ) {
         int utf8ByteLength = UTF8Tools.countBytesFor( sourceCharacters );
 
-        if ( !SystemX.isRecklessRun() ) {
+        if ( SystemX.CHECK_BOUNDS ) {
             long spaceLeft = this.maxExc-destinationIndex;
 
             QA.isLTE( utf8ByteLength, spaceLeft, "%s bytes are required, but only %s remain", utf8ByteLength, spaceLeft );
@@ -123,7 +123,7 @@ public abstract class BaseBytes2 implements Bytes2 {
     public int writeUTF8String( long destinationIndex, long maxExc, UTF8 sourceCharacters ) {
         int width = sourceCharacters.getByteCount() + 2;
 
-        if ( !SystemX.isRecklessRun() ) {
+        if ( SystemX.CHECK_BOUNDS ) {
             long spaceLeft = this.maxExc-destinationIndex;
 
             QA.isLTE( width, spaceLeft, "%s bytes are required, but only %s remain", width, spaceLeft );
@@ -228,7 +228,7 @@ public abstract class BaseBytes2 implements Bytes2 {
     protected long index( long offset, long maxExc, long numBytes ) {
         long i = this.base + offset;
 
-        if ( SystemX.isDebugRun() ) {
+        if ( SystemX.CHECK_BOUNDS ) {
             throwIfInvalidIndex( i, base + maxExc, numBytes );
         }
 
@@ -236,7 +236,7 @@ public abstract class BaseBytes2 implements Bytes2 {
     }
 
     protected void throwIfInvalidIndex( long offset, long maxExc, long numBytes ) {
-        if ( SystemX.isDebugRun() ) {
+        if ( SystemX.CHECK_BOUNDS ) {
             long max = Math.min(maxExc,this.maxExc);
 
             QA.argIsWithinRange( 0, offset, offset+numBytes, max, "offset", "maxExc" );
@@ -12,7 +12,7 @@ import java.io.InputStream;
  */
 public class BytesWrapper2 implements Bytes2 {
 
-    private final Bytes2 delegate;
+    private Bytes2 delegate;
 
 
     public BytesWrapper2( Bytes2 delegate ) {
@@ -20,6 +20,17 @@ public class BytesWrapper2 implements Bytes2 {
     }
 
 
+    protected Bytes2 getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Swaps the bytes being wrapped, for example when a file has to be remapped differently as it grows.
+     */
+    protected void setDelegate( Bytes2 newDelegate ) {
+        this.delegate = newDelegate;
+    }
+
     public void release() {
         delegate.release();
     }
@@ -32,6 +43,22 @@ public class BytesWrapper2 implements Bytes2 {
         delegate.flush();
     }
 
+    public void flush( long from, long toExc ) {
+        delegate.flush( from, toExc );
+    }
+
+    public boolean isAddressable() {
+        return delegate.isAddressable();
+    }
+
+    public Object getAddressBaseObject() {
+        return delegate.getAddressBaseObject();
+    }
+
+    public long getAddressBaseOffset() {
+        return delegate.getAddressBaseOffset();
+    }
+
     public void resize( long newLength ) {
         delegate.resize( newLength );
     }
@@ -200,6 +227,30 @@ public class BytesWrapper2 implements Bytes2 {
         return delegate.writeBytes( offset, maxExc, fromAddressBase, fromAddressInc, fromAddressExc );
     }
 
+    public int readLongs( long offset, long maxExc, long[] destinationArray, int destinationArrayInc, int destinationArrayExc ) {
+        return delegate.readLongs( offset, maxExc, destinationArray, destinationArrayInc, destinationArrayExc );
+    }
+
+    public int writeLongs( long offset, long maxExc, long[] sourceArray, int sourceArrayInc, int sourceArrayExc ) {
+        return delegate.writeLongs( offset, maxExc, sourceArray, sourceArrayInc, sourceArrayExc );
+    }
+
+    public int readInts( long offset, long maxExc, int[] destinationArray, int destinationArrayInc, int destinationArrayExc ) {
+        return delegate.readInts( offset, maxExc, destinationArray, destinationArrayInc, destinationArrayExc );
+    }
+
+    public int writeInts( long offset, long maxExc, int[] sourceArray, int sourceArrayInc, int sourceArrayExc ) {
+        return delegate.writeInts( offset, maxExc, sourceArray, sourceArrayInc, sourceArrayExc );
+    }
+
+    public int readDoubles( long offset, long maxExc, double[] destinationArray, int destinationArrayInc, int destinationArrayExc ) {
+        return delegate.readDoubles( offset, maxExc, destinationArray, destinationArrayInc, destinationArrayExc );
+    }
+
+    public int writeDoubles( long offset, long maxExc, double[] sourceArray, int sourceArrayInc, int sourceArrayExc ) {
+        return delegate.writeDoubles( offset, maxExc, sourceArray, sourceArrayInc, sourceArrayExc );
+    }
+
     public boolean compareBytes( long offset, long maxExc, byte[] targetBytes ) {
         return delegate.compareBytes( offset, maxExc, targetBytes );
     }
@@ -0,0 +1,562 @@
+package com.mosaic.bytes2.impl;
+
+import com.mosaic.bytes2.Bytes2;
+import com.mosaic.io.RuntimeIOException;
+import com.mosaic.io.filesystemx.FileModeEnum;
+import com.mosaic.lang.QA;
+import com.mosaic.lang.system.Backdoor;
+import com.mosaic.lang.text.DecodedCharacter;
+import com.mosaic.lang.text.UTF8Tools;
+import sun.misc.Cleaner;
+import sun.nio.ch.DirectBuffer;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.util.Arrays;
+
+import static com.mosaic.lang.system.SystemX.*;
+
+
+/**
+ * Memory maps a file as a series of fixed size chunks, rather than as a single region.  Offsets
+ * are routed to their chunk by offset >>> chunkShift.  Growing the bytes maps more chunks onto
+ * the end of the file and never moves the chunks that are already mapped, so resizing costs the
+ * same however large the file has become.  As no single mapping exceeds the chunk size, the file
+ * may also grow beyond the 2GB limit of MappedByteBuffer.<p/>
+ *
+ * The last chunk is mapped only up to the end of the file, or to the length requested when that
+ * is longer;  so opening a file never rounds it up to a whole chunk.  Thus growing within the
+ * last chunk remaps that one chunk, while every chunk before it keeps its address.  Values that
+ * straddle two chunks are assembled a byte at a time.
+ */
+public class ChunkedMemoryMappedBytes2 extends BaseBytes2 {
+
+    public static final long DEFAULT_CHUNK_SIZE = 64*1024*1024;
+
+    private static final boolean IS_LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+    private static final int     MAX_UTF8_BYTES   = 3;
+
+
+    public static Bytes2 mapFile( File f, FileModeEnum mode ) {
+        long size = Math.max( f.length(), 1 );
+
+        return mapFile( f, mode, size );
+    }
+
+    public static Bytes2 mapFile( File f, FileModeEnum mode, long numBytes ) {
+        return mapFile( f, mode, numBytes, DEFAULT_CHUNK_SIZE );
+    }
+
+    /**
+     * @param chunkSize a power of two, no larger than 1GB
+     */
+    public static Bytes2 mapFile( File f, FileModeEnum mode, long numBytes, long chunkSize ) {
+        QA.argIsGTZero( numBytes, "numBytes" );
+        QA.argIsBetween( 1, chunkSize, (1L << 30) + 1, "chunkSize" );
+        QA.isTrue( Long.bitCount(chunkSize) == 1, IllegalArgumentException.class, "chunkSize must be a power of two, was %s", chunkSize );
+
+        try {
+            RandomAccessFile raf = new RandomAccessFile( f, mode.toString() );
+
+            ChunkedMemoryMappedBytes2 bytes = new ChunkedMemoryMappedBytes2( raf, mode, chunkSize, numBytes );
+
+            try {
+                bytes.resize( numBytes );
+            } catch ( RuntimeException ex ) {
+                bytes.release();
+
+                throw ex;
+            }
+
+            return bytes;
+        } catch ( FileNotFoundException ex ) {
+            throw new RuntimeIOException( "File not found, and cannot create it on a RO request.  Change the call to RW and try again. " + f );
+        }
+    }
+
+
+    private final long       chunkSize;
+    private final int        chunkShift;
+    private final long       chunkMask;
+
+    private RandomAccessFile raf;
+    private FileModeEnum     mode;
+    private DirectBuffer[]   chunks         = new DirectBuffer[0];
+    private long[]           chunkAddresses = new long[0];
+
+    private final byte[]     utf8Buf        = new byte[MAX_UTF8_BYTES];
+
+
+    private ChunkedMemoryMappedBytes2( RandomAccessFile raf, FileModeEnum mode, long chunkSize, long numBytes ) {
+        super( 0, numBytes );
+
+        this.raf        = raf;
+        this.mode       = mode;
+        this.chunkSize  = chunkSize;
+        this.chunkShift = Long.numberOfTrailingZeros( chunkSize );
+        this.chunkMask  = chunkSize - 1;
+    }
+
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getNumChunks() {
+        return chunks.length;
+    }
+
+    /**
+     * The address that the specified chunk is mapped to;  stable for as long as the chunk remains mapped.
+     */
+    public long getChunkAddress( int chunkIndex ) {
+        return chunkAddresses[chunkIndex];
+    }
+
+    public void release() {
+        super.release();
+
+        for ( DirectBuffer chunk : chunks ) {
+            unmap( chunk );
+        }
+
+        try {
+            this.raf.close();
+        } catch ( IOException ex ) {
+            Backdoor.throwException( ex );
+        } finally {
+            this.raf            = null;
+            this.chunks         = null;
+            this.chunkAddresses = null;
+            this.maxExc         = 0;
+        }
+    }
+
+    /**
+     * Maps or unmaps chunks at the end of the file.  Only the last chunk is ever remapped, when
+     * the end of the file has moved within it;  every other chunk keeps its address.
+     */
+    public void resize( long newLength ) {
+        QA.argIsGTZero( newLength, "newLength" );
+        throwIfReleased();
+
+        if ( !mode.isWritable() && newLength > fileLength() ) {
+            throw new RuntimeIOException( "Unable to map "+newLength+" bytes of a read only file that holds only "+fileLength()+" bytes" );
+        }
+
+        long           mappableLength    = Math.max( newLength, fileLength() );
+        int            requiredNumChunks = Backdoor.toInt( (newLength + chunkMask) >>> chunkShift );
+        int            currentNumChunks  = chunks.length;
+        DirectBuffer[] newChunks         = Arrays.copyOf( chunks, requiredNumChunks );
+        long[]         newChunkAddresses = Arrays.copyOf( chunkAddresses, requiredNumChunks );
+        int            firstRemapIndex   = Math.max( 0, Math.min(currentNumChunks, requiredNumChunks) - 1 );
+
+        try {
+            for ( int i=firstRemapIndex; i<requiredNumChunks; i++ ) {
+                long length = chunkLength( i, mappableLength );
+
+                if ( i >= currentNumChunks || mappedLength(chunks[i]) != length ) {
+                    newChunks[i]         = mapChunk( i, length );
+                    newChunkAddresses[i] = newChunks[i].address();
+                }
+            }
+        } catch ( IOException ex ) {
+            for ( int i=firstRemapIndex; i<requiredNumChunks; i++ ) {
+                if ( newChunks[i] != null && (i >= currentNumChunks || newChunks[i] != chunks[i]) ) {
+                    unmap( newChunks[i] );
+                }
+            }
+
+            throw RuntimeIOException.recast( ex );
+        }
+
+        for ( int i=firstRemapIndex; i<currentNumChunks; i++ ) {
+            if ( i >= requiredNumChunks || newChunks[i] != chunks[i] ) {
+                unmap( chunks[i] );
+            }
+        }
+
+        this.chunks         = newChunks;
+        this.chunkAddresses = newChunkAddresses;
+        this.maxExc         = newLength;
+    }
+
+    public void flush() {
+        for ( DirectBuffer chunk : chunks ) {
+            ((MappedByteBuffer) chunk).force();
+        }
+    }
+
+    /**
+     * Syncs only the pages that overlap the specified range, chunk by chunk.
+     */
+    public void flush( long from, long toExc ) {
+        long fromInc = Math.max( 0, from );
+        long max     = Math.min( maxExc, toExc );
+
+        for ( long i=fromInc; i<max; ) {
+            int  chunkIndex   = (int) (i >>> chunkShift);
+            long chunkAddress = chunkAddresses[chunkIndex];
+            long segmentEnd   = Math.min( max, ((long) chunkIndex+1) << chunkShift );
+
+            MemoryMappedBytes2.forceRange( chunks[chunkIndex], chunkAddress, chunkAddress + (i & chunkMask), chunkAddress + (i & chunkMask) + (segmentEnd-i) );
+
+            i = segmentEnd;
+        }
+    }
+
+    public void fill( long from, long toExc, byte v ) {
+        throwIfInvalidRange( from, toExc, toExc-from );
+
+        for ( long i=from; i<toExc; ) {
+            long numBytes = segmentLength( i, toExc-i );
+
+            Backdoor.fill( addressOf(i), numBytes, v );
+
+            i += numBytes;
+        }
+    }
+
+
+    public byte readByte( long offset, long maxExc ) {
+        long i = index( offset, maxExc, SIZEOF_BYTE );
+
+        return Backdoor.getByte( addressOf(i) );
+    }
+
+    public void writeByte( long offset, long maxExc, byte v ) {
+        long i = index( offset, maxExc, SIZEOF_BYTE );
+
+        Backdoor.setByte( addressOf(i), v );
+    }
+
+    public short readShort( long offset, long maxExc ) {
+        long i = index( offset, maxExc, SIZEOF_SHORT );
+
+        return straddles(i,SIZEOF_SHORT) ? (short) readStraddling(i,SIZEOF_SHORT) : Backdoor.getShort( addressOf(i) );
+    }
+
+    public void writeShort( long offset, long maxExc, short v ) {
+        long i = index( offset, maxExc, SIZEOF_SHORT );
+
+        if ( straddles(i,SIZEOF_SHORT) ) {
+            writeStraddling( i, SIZEOF_SHORT, v );
+        } else {
+            Backdoor.setShort( addressOf(i), v );
+        }
+    }
+
+    public char readCharacter( long offset, long maxExc ) {
+        long i = index( offset, maxExc, SIZEOF_CHAR );
+
+        return straddles(i,SIZEOF_CHAR) ? (char) readStraddling(i,SIZEOF_CHAR) : Backdoor.getCharacter( addressOf(i) );
+    }
+
+    public void writeCharacter( long offset, long maxExc, char v ) {
+        long i = index( offset, maxExc, SIZEOF_CHAR );
+
+        if ( straddles(i,SIZEOF_CHAR) ) {
+            writeStraddling( i, SIZEOF_CHAR, v );
+        } else {
+            Backdoor.setCharacter( addressOf(i), v );
+        }
+    }
+
+    public int readInt( long offset, long maxExc ) {
+        long i = index( offset, maxExc, SIZEOF_INT );
+
+        return straddles(i,SIZEOF_INT) ? (int) readStraddling(i,SIZEOF_INT) : Backdoor.getInteger( addressOf(i) );
+    }
+
+    public void writeInt( long offset, long maxExc, int v ) {
+        long i = index( offset, maxExc, SIZEOF_INT );
+
+        if ( straddles(i,SIZEOF_INT) ) {
+            writeStraddling( i, SIZEOF_INT, v );
+        } else {
+            Backdoor.setInteger( addressOf(i), v );
+        }
+    }
+
+    public long readLong( long offset, long maxExc ) {
+        long i = index( offset, maxExc, SIZEOF_LONG );
+
+        return straddles(i,SIZEOF_LONG) ? readStraddling(i,SIZEOF_LONG) : Backdoor.getLong( addressOf(i) );
+    }
+
+    public void writeLong( long offset, long maxExc, long v ) {
+        long i = index( offset, maxExc, SIZEOF_LONG );
+
+        if ( straddles(i,SIZEOF_LONG) ) {
+            writeStraddling( i, SIZEOF_LONG, v );
+        } else {
+            Backdoor.setLong( addressOf(i), v );
+        }
+    }
+
+    public float readFloat( long offset, long maxExc ) {
+        return Float.intBitsToFloat( readInt(offset, maxExc) );
+    }
+
+    public void writeFloat( long offset, long maxExc, float v ) {
+        writeInt( offset, maxExc, Float.floatToRawIntBits(v) );
+    }
+
+    public double readDouble( long offset, long maxExc ) {
+        return Double.longBitsToDouble( readLong(offset, maxExc) );
+    }
+
+    public void writeDouble( long offset, long maxExc, double v ) {
+        writeLong( offset, maxExc, Double.doubleToRawLongBits(v) );
+    }
+
+    public short readUnsignedByte( long offset, long maxExc ) {
+        return (short) (readByte(offset, maxExc) & UNSIGNED_BYTE_MASK);
+    }
+
+    public void writeUnsignedByte( long offset, long maxExc, short v ) {
+        writeByte( offset, maxExc, (byte) v );
+    }
+
+    public int readUnsignedShort( long offset, long maxExc ) {
+        return readShort(offset, maxExc) & UNSIGNED_SHORT_MASK;
+    }
+
+    public void writeUnsignedShort( long offset, long maxExc, int v ) {
+        writeShort( offset, maxExc, (short) v );
+    }
+
+    public long readUnsignedInt( long offset, long maxExc ) {
+        return readInt(offset, maxExc) & UNSIGNED_INT_MASK;
+    }
+
+    public void writeUnsignedInt( long offset, long maxExc, long v ) {
+        writeInt( offset, maxExc, (int) v );
+    }
+
+    public void readUTF8Character( long offset, long maxExc, DecodedCharacter output ) {
+        long i   = index( offset, maxExc, SIZEOF_BYTE );  // we don't know the size yet, so under estimate and recheck later
+        long max = Math.min( maxExc, this.maxExc );
+
+        if ( straddles(i, MAX_UTF8_BYTES) ) {
+            int numBytes = (int) Math.min( MAX_UTF8_BYTES, max-i );
+
+            readBytes( i, max, utf8Buf, 0, numBytes );
+            UTF8Tools.decode( utf8Buf, 0, output );
+        } else {
+            long address = addressOf( i );
+
+            UTF8Tools.decode( address, address + Math.min(MAX_UTF8_BYTES, max-i), output );
+        }
+
+        if ( CHECK_BOUNDS ) {
+            index( offset, maxExc, output.numBytesConsumed );
+        }
+    }
+
+    public int writeUTF8Character( long offset, long maxExc, char c ) {
+        long i = index( offset, maxExc, UTF8Tools.countBytesFor(c) );
+
+        if ( straddles(i, MAX_UTF8_BYTES) ) {
+            int numBytes = UTF8Tools.write( utf8Buf, 0, c );
+
+            return writeBytes( i, maxExc, utf8Buf, 0, numBytes );
+        } else {
+            long address = addressOf( i );
+
+            return UTF8Tools.write( address, address + MAX_UTF8_BYTES, c );
+        }
+    }
+
+    public int readBytes( long offset, long maxExc, Bytes2 destination, long destinationInc, long destinationExc ) {
+        long max      = Math.min( maxExc, this.maxExc );
+        long numBytes = Math.min( max-offset, destinationExc-destinationInc );
+
+        throwIfInvalidRange( offset, max, numBytes );
+
+        for ( long n=0; n<numBytes; ) {
+            long segmentLength = segmentLength( offset+n, numBytes-n );
+
+            destination.writeBytes( destinationInc+n, destinationExc, addressOf(offset+n), 0, segmentLength );
+
+            n += segmentLength;
+        }
+
+        return Backdoor.toInt( numBytes );
+    }
+
+    public int writeBytes( long offset, long maxExc, Bytes2 sourceBytes, long sourceInc, long sourceExc ) {
+        long max      = Math.min( maxExc, this.maxExc );
+        long numBytes = Math.min( max-offset, sourceExc - sourceInc );
+
+        throwIfInvalidRange( offset, max, numBytes );
+
+        for ( long n=0; n<numBytes; ) {
+            long segmentLength = segmentLength( offset+n, numBytes-n );
+
+            sourceBytes.readBytes( sourceInc+n, sourceExc, addressOf(offset+n), 0, segmentLength );
+
+            n += segmentLength;
+        }
+
+        return Backdoor.toInt( numBytes );
+    }
+
+    public int readBytes( long offset, long maxExc, byte[] destinationArray, long destinationArrayInc, long destinationArrayExc ) {
+        long max      = Math.min( maxExc, this.maxExc );
+        int  numBytes = Backdoor.toInt( Math.min(max-offset, destinationArrayExc - destinationArrayInc) );
+
+        throwIfInvalidRange( offset, max, numBytes );
+
+        for ( int n=0; n<numBytes; ) {
+            int segmentLength = (int) segmentLength( offset+n, numBytes-n );
+
+            Backdoor.copyBytes( addressOf(offset+n), destinationArray, Backdoor.toInt(destinationArrayInc+n), segmentLength );
+
+            n += segmentLength;
+        }
+
+        return numBytes;
+    }
+
+    public int writeBytes( long offset, long maxExc, byte[] sourceArray, long sourceArrayInc, long sourceArrayExc ) {
+        int numBytes = Backdoor.toInt( sourceArrayExc - sourceArrayInc );
+
+        throwIfInvalidRange( offset, maxExc, numBytes );
+
+        for ( int n=0; n<numBytes; ) {
+            int segmentLength = (int) segmentLength( offset+n, numBytes-n );
+
+            Backdoor.copyBytes( sourceArray, Backdoor.toInt(sourceArrayInc+n), addressOf(offset+n), segmentLength );
+
+            n += segmentLength;
+        }
+
+        return numBytes;
+    }
+
+    public int readBytes( long offset, long maxExc, long toAddressBase, long toAddressInc, long toAddressExc ) {
+        long max      = Math.min( maxExc, this.maxExc );
+        long numBytes = Math.min( max-offset, toAddressExc - toAddressInc );
+
+        throwIfInvalidRange( offset, max, numBytes );
+
+        for ( long n=0; n<numBytes; ) {
+            long segmentLength = segmentLength( offset+n, numBytes-n );
+
+            Backdoor.copyBytes( addressOf(offset+n), toAddressBase+toAddressInc+n, segmentLength );
+
+            n += segmentLength;
+        }
+
+        return Backdoor.toInt( numBytes );
+    }
+
+    public int writeBytes( long offset, long maxExc, long fromAddressBase, long fromAddressInc, long fromAddressExc ) {
+        long numBytes = fromAddressExc - fromAddressInc;
+
+        throwIfInvalidRange( offset, maxExc, numBytes );
+
+        for ( long n=0; n<numBytes; ) {
+            long segmentLength = segmentLength( offset+n, numBytes-n );
+
+            Backdoor.copyBytes( fromAddressBase+fromAddressInc+n, addressOf(offset+n), segmentLength );
+
+            n += segmentLength;
+        }
+
+        return Backdoor.toInt( numBytes );
+    }
+
+    public boolean compareBytes( long offset, long maxExc, byte[] targetBytes ) {
+        throwIfInvalidRange( offset, maxExc, targetBytes.length );
+
+        for ( int n=0; n<targetBytes.length; n++ ) {
+            if ( Backdoor.getByte(addressOf(offset+n)) != targetBytes[n] ) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Bulk operations may legitimately copy zero bytes.
+     */
+    private void throwIfInvalidRange( long offset, long maxExc, long numBytes ) {
+        if ( CHECK_BOUNDS && numBytes > 0 ) {
+            throwIfInvalidIndex( offset, maxExc, numBytes );
+        }
+    }
+
+    private long addressOf( long offset ) {
+        return chunkAddresses[(int) (offset >>> chunkShift)] + (offset & chunkMask);
+    }
+
+    private boolean straddles( long offset, int numBytes ) {
+        return (offset & chunkMask) + numBytes > chunkSize;
+    }
+
+    /**
+     * The number of bytes from offset that may be copied before reaching the end of its chunk.
+     */
+    private long segmentLength( long offset, long numBytesRemaining ) {
+        return Math.min( numBytesRemaining, chunkSize - (offset & chunkMask) );
+    }
+
+    private long readStraddling( long offset, int numBytes ) {
+        long v = 0;
+
+        for ( int n=0; n<numBytes; n++ ) {
+            long b = Backdoor.getByte( addressOf(offset+n) ) & 0xFFL;
+
+            v |= IS_LITTLE_ENDIAN ? b << (n*8) : b << ((numBytes-n-1)*8);
+        }
+
+        return v;
+    }
+
+    private void writeStraddling( long offset, int numBytes, long v ) {
+        for ( int n=0; n<numBytes; n++ ) {
+            int shift = IS_LITTLE_ENDIAN ? n*8 : (numBytes-n-1)*8;
+
+            Backdoor.setByte( addressOf(offset+n), (byte) (v >>> shift) );
+        }
+    }
+
+    private long chunkLength( int chunkIndex, long totalLength ) {
+        return Math.min( chunkSize, totalLength - (((long) chunkIndex) << chunkShift) );
+    }
+
+    private DirectBuffer mapChunk( int chunkIndex, long length ) throws IOException {
+        long position = ((long) chunkIndex) << chunkShift;
+
+        return (DirectBuffer) raf.getChannel().map( mode.toMemoryMapMode(), position, length );
+    }
+
+    private long fileLength() {
+        try {
+            return raf.length();
+        } catch ( IOException ex ) {
+            throw RuntimeIOException.recast( ex );
+        }
+    }
+
+    private static long mappedLength( DirectBuffer chunk ) {
+        return ((MappedByteBuffer) chunk).capacity();
+    }
+
+    private static void unmap( DirectBuffer chunk ) {
+        Cleaner cleaner = chunk.cleaner();
+
+        if ( cleaner != null ) {
+            cleaner.clean();
+        }
+    }
+
+}
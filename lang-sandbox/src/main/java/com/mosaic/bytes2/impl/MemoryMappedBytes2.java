@@ -9,18 +9,42 @@ import sun.misc.Cleaner;
 import sun.nio.ch.DirectBuffer;
 
 import java.io.File;
+import java.io.FileDescriptor;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 
 
 /**
- *
+ * Memory maps a file as a single region.  A MappedByteBuffer cannot exceed Integer.MAX_VALUE
+ * bytes, so mapFile hands larger files to ChunkedMemoryMappedBytes2;  which maps them as a
+ * series of regions behind the same Bytes2 interface.
  */
 public class MemoryMappedBytes2 extends NativeBytes2 {
 
+    /**
+     * The largest file that will be mapped as a single region.
+     */
+    public static final long MAX_REGION_SIZE = Integer.MAX_VALUE;
+
+    /**
+     * The size of each region when mapping a file that is larger than MAX_REGION_SIZE.
+     */
+    public static final long LARGE_FILE_CHUNK_SIZE = 1L << 30;
+
+    /**
+     * MappedByteBuffer.force() msyncs the entire mapping.  JDK 8 offers no public way to
+     * msync part of a mapping (force(index,length) arrived in JDK 13), so we reach in for the
+     * native call that force() uses.  When it cannot be found, we fall back to force().
+     */
+    private static final Method FORCE0_METHOD = lookupForce0Method();
+    private static final Field  FD_FIELD      = lookupFDField();
+
+
     public static Bytes2 mapFile( File f, FileModeEnum mode ) {
         long size = Math.max( f.length(), 1 );  // if the file does not exist, use a default size.. 0  was not suitable for native buffers
 
@@ -30,6 +54,10 @@ public class MemoryMappedBytes2 extends NativeBytes2 {
     public static Bytes2 mapFile( File f, FileModeEnum mode, long numBytes ) {
         QA.argIsGTZero( numBytes, "numBytes" );
 
+        if ( numBytes > MAX_REGION_SIZE ) {
+            return ChunkedMemoryMappedBytes2.mapFile( f, mode, numBytes, LARGE_FILE_CHUNK_SIZE );
+        }
+
         try {
             RandomAccessFile raf = new RandomAccessFile( f, mode.toString() );
             FileChannel channel = raf.getChannel();
@@ -79,8 +107,14 @@ public class MemoryMappedBytes2 extends NativeBytes2 {
         }
     }
 
+    /**
+     * @param newLength no more than MAX_REGION_SIZE;  to grow beyond that the file has to be
+     *                  remapped via mapFile, which FileContents2 obtained from ActualFile does
+     *                  automatically
+     */
     public void resize( long newLength ) {
         QA.argIsGTZero( newLength, "newLength" );
+        QA.isTrue( newLength <= MAX_REGION_SIZE, IllegalArgumentException.class, "Unable to map %s bytes as a single region, remap the file via mapFile", newLength );
 
         try {
             FileChannel      channel         = raf.getChannel();
@@ -105,4 +139,66 @@ public class MemoryMappedBytes2 extends NativeBytes2 {
     public void flush() {
         ((MappedByteBuffer) buf).force();
     }
+
+    /**
+     * Syncs only the pages that overlap the specified range.  Used by the journals to
+     * fsync just the messages that have been appended since their last flush.
+     */
+    public void flush( long from, long toExc ) {
+        long fromAddress  = Math.max( base, base + from );
+        long toAddressExc = Math.min( maxExc, base + toExc );
+
+        forceRange( buf, base, fromAddress, toAddressExc );
+    }
+
+
+    /**
+     * msyncs the pages of the mapping that overlap [fromAddress,toAddressExc).  Falls back to
+     * syncing the whole mapping when the JDK internals that we rely upon cannot be found.
+     *
+     * @param mappingBase the address of the first byte of the mapping;  which is not page aligned when
+     *                    the mapping was requested from a position part way through a page
+     */
+    static void forceRange( DirectBuffer mapping, long mappingBase, long fromAddress, long toAddressExc ) {
+        if ( toAddressExc <= fromAddress ) {
+            return;
+        } else if ( FORCE0_METHOD == null ) {
+            ((MappedByteBuffer) mapping).force();
+
+            return;
+        }
+
+        long pageSize           = Backdoor.getPageSize();
+        long alignedFromAddress = Math.max( fromAddress - (fromAddress % pageSize), mappingBase - (mappingBase % pageSize) );  // msync requires page aligned addresses
+
+        try {
+            FileDescriptor fd = (FileDescriptor) FD_FIELD.get( mapping );
+
+            FORCE0_METHOD.invoke( mapping, fd, alignedFromAddress, toAddressExc-alignedFromAddress );
+        } catch ( ReflectiveOperationException ex ) {
+            Backdoor.throwException( ex );
+        }
+    }
+
+    private static Method lookupForce0Method() {
+        try {
+            Method m = MappedByteBuffer.class.getDeclaredMethod( "force0", FileDescriptor.class, Long.TYPE, Long.TYPE );
+            m.setAccessible( true );
+
+            return lookupFDField() == null ? null : m;
+        } catch ( ReflectiveOperationException|RuntimeException ex ) {
+            return null;
+        }
+    }
+
+    private static Field lookupFDField() {
+        try {
+            Field f = MappedByteBuffer.class.getDeclaredField( "fd" );
+            f.setAccessible( true );
+
+            return f;
+        } catch ( ReflectiveOperationException|RuntimeException ex ) {
+            return null;
+        }
+    }
 }
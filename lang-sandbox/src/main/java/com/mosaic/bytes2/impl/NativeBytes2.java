@@ -29,6 +29,18 @@ abstract class NativeBytes2 extends BaseBytes2 {
     }
 
 
+    public boolean isAddressable() {
+        return true;
+    }
+
+    public Object getAddressBaseObject() {
+        return null;
+    }
+
+    public long getAddressBaseOffset() {
+        return base;
+    }
+
     public void fill( long from, long toExc, byte v ) {
         long a        = base+from;
         long numBytes = toExc-from;
@@ -217,13 +229,67 @@ abstract class NativeBytes2 extends BaseBytes2 {
         int  numBytes         = Backdoor.toInt( fromAddressExc - fromAddressInc );
         long fromAddress      = fromAddressBase+fromAddressInc;
 
-        throwIfInvalidIndex( destinationIndex, maxExc, numBytes );
+        throwIfInvalidIndex( destinationIndex, base+maxExc, numBytes );
 
         Backdoor.copyBytes( fromAddress, destinationIndex, numBytes );
 
         return numBytes;
     }
 
+    public int readLongs( long offset, long maxExc, long[] destinationArray, int destinationArrayInc, int destinationArrayExc ) {
+        int  numLongs = destinationArrayExc - destinationArrayInc;
+        long address  = index( offset, maxExc, numLongs*SIZEOF_LONG );
+
+        Backdoor.copyLongs( address, destinationArray, destinationArrayInc, numLongs );
+
+        return numLongs*SIZEOF_LONG;
+    }
+
+    public int writeLongs( long offset, long maxExc, long[] sourceArray, int sourceArrayInc, int sourceArrayExc ) {
+        int  numLongs = sourceArrayExc - sourceArrayInc;
+        long address  = index( offset, maxExc, numLongs*SIZEOF_LONG );
+
+        Backdoor.copyLongs( sourceArray, sourceArrayInc, address, numLongs );
+
+        return numLongs*SIZEOF_LONG;
+    }
+
+    public int readInts( long offset, long maxExc, int[] destinationArray, int destinationArrayInc, int destinationArrayExc ) {
+        int  numInts = destinationArrayExc - destinationArrayInc;
+        long address = index( offset, maxExc, numInts*SIZEOF_INT );
+
+        Backdoor.copyInts( address, destinationArray, destinationArrayInc, numInts );
+
+        return numInts*SIZEOF_INT;
+    }
+
+    public int writeInts( long offset, long maxExc, int[] sourceArray, int sourceArrayInc, int sourceArrayExc ) {
+        int  numInts = sourceArrayExc - sourceArrayInc;
+        long address = index( offset, maxExc, numInts*SIZEOF_INT );
+
+        Backdoor.copyInts( sourceArray, sourceArrayInc, address, numInts );
+
+        return numInts*SIZEOF_INT;
+    }
+
+    public int readDoubles( long offset, long maxExc, double[] destinationArray, int destinationArrayInc, int destinationArrayExc ) {
+        int  numDoubles = destinationArrayExc - destinationArrayInc;
+        long address    = index( offset, maxExc, numDoubles*SIZEOF_DOUBLE );
+
+        Backdoor.copyDoubles( address, destinationArray, destinationArrayInc, numDoubles );
+
+        return numDoubles*SIZEOF_DOUBLE;
+    }
+
+    public int writeDoubles( long offset, long maxExc, double[] sourceArray, int sourceArrayInc, int sourceArrayExc ) {
+        int  numDoubles = sourceArrayExc - sourceArrayInc;
+        long address    = index( offset, maxExc, numDoubles*SIZEOF_DOUBLE );
+
+        Backdoor.copyDoubles( sourceArray, sourceArrayInc, address, numDoubles );
+
+        return numDoubles*SIZEOF_DOUBLE;
+    }
+
     public boolean compareBytes( long offset, long maxExc, byte[] targetBytes ) {
         throwIfInvalidIndex( offset, maxExc, targetBytes.length );
 
@@ -231,7 +297,7 @@ abstract class NativeBytes2 extends BaseBytes2 {
     }
 
     private void throwIfInvalidAddress( long address, long numBytes ) {
-        if ( SystemX.isDebugRun() ) {
+        if ( SystemX.CHECK_BOUNDS ) {
             if ( address < base ) {
                 throw new IllegalArgumentException( "Address has under shot the allocated region" );
             } else if ( address+numBytes > maxExc ) {
@@ -0,0 +1,409 @@
+package com.mosaic.bytes2.impl;
+
+import com.mosaic.bytes2.Bytes2;
+import com.mosaic.bytes2.fields.ByteFieldsRegistry2;
+import com.mosaic.bytes2.fields.BytesField2;
+import com.mosaic.lang.QA;
+import com.mosaic.lang.functional.LongFunction1;
+import com.mosaic.lang.system.Backdoor;
+import com.mosaic.lang.text.DecodedCharacter;
+
+import java.util.List;
+
+import static com.mosaic.lang.system.SystemX.*;
+
+
+/**
+ * Stores an array of fixed width structs as a struct of arrays;  each field of the struct is held
+ * in its own region, one value after another.  Presents the same offsets as an array of structs
+ * laid out one after another (record i starts at i*recordWidth), so that flyweights written
+ * against a ByteFieldsRegistry2 may be pointed at a record unchanged.  Each offset is routed to
+ * its field's region by offset % recordWidth, and values that are read or written must not
+ * straddle two fields.<p/>
+ *
+ * Whole record access costs a division per field access, and touches one region per field.
+ * The benefit comes from scanning a single field;  the field's region may be read directly (see
+ * getRegion), which streams through only the bytes of that field.<p/>
+ *
+ * These bytes are not addressable, so flyweights created by FlyweightGenerator cannot view them.
+ */
+public class StructOfArraysBytes2 extends BaseBytes2 {
+
+    private final long     recordWidth;
+    private final long[]   fieldOffsets;
+    private final long[]   fieldWidths;
+    private final int[]    fieldIndexes;    // the index of the field that holds each byte of a record
+    private final Bytes2[] regions;
+
+
+    /**
+     * @param regionFactory allocates the bytes of one field's region, given its size
+     */
+    public StructOfArraysBytes2( ByteFieldsRegistry2 registry, long numRecords, LongFunction1<Bytes2> regionFactory ) {
+        super( 0, numRecords*registry.sizeBytes() );
+
+        QA.argIsGTZero( numRecords, "numRecords" );
+        QA.argIsGTZero( registry.sizeBytes(), "registry.sizeBytes()" );
+
+        List<BytesField2> fields = registry.getFields();
+
+        this.recordWidth  = registry.sizeBytes();
+        this.fieldOffsets = new long[fields.size()];
+        this.fieldWidths  = new long[fields.size()];
+        this.fieldIndexes = new int[Backdoor.toInt(recordWidth)];
+        this.regions      = new Bytes2[fields.size()];
+
+        for ( int f=0; f<fields.size(); f++ ) {
+            BytesField2 field = fields.get( f );
+
+            fieldOffsets[f] = field.getOffset();
+            fieldWidths[f]  = field.sizeBytes();
+            regions[f]      = regionFactory.invoke( numRecords*field.sizeBytes() );
+
+            for ( long i=field.getOffset(); i<field.getOffset()+field.sizeBytes(); i++ ) {
+                fieldIndexes[(int) i] = f;
+            }
+        }
+    }
+
+
+    public long getRecordWidth() {
+        return recordWidth;
+    }
+
+    /**
+     * The bytes that hold the specified field of every record;  the field of record i is held at
+     * [i*field.sizeBytes(), (i+1)*field.sizeBytes()).
+     *
+     * @throws IllegalArgumentException if the field was not registered with the registry that these bytes were laid out from
+     */
+    public Bytes2 getRegion( BytesField2 field ) {
+        long offset = field.getOffset();
+
+        QA.isTrue( offset >= 0 && offset < recordWidth, IllegalArgumentException.class, "field at offset %s is not part of a struct of %s bytes", offset, recordWidth );
+
+        int f = fieldIndexes[(int) offset];
+        QA.isTrue( fieldOffsets[f] == offset && fieldWidths[f] == field.sizeBytes(), IllegalArgumentException.class, "field at offset %s is not part of this struct", offset );
+
+        return regions[f];
+    }
+
+    public void release() {
+        super.release();
+
+        for ( Bytes2 region : regions ) {
+            region.release();
+        }
+    }
+
+    public void flush() {
+        for ( Bytes2 region : regions ) {
+            region.flush();
+        }
+    }
+
+    /**
+     * @param newLength a multiple of the record width
+     */
+    public void resize( long newLength ) {
+        QA.argIsGTZero( newLength, "newLength" );
+        QA.isTrue( newLength % recordWidth == 0, IllegalArgumentException.class, "newLength (%s) must be a multiple of the record width (%s)", newLength, recordWidth );
+        throwIfReleased();
+
+        long numRecords = newLength / recordWidth;
+
+        for ( int f=0; f<regions.length; f++ ) {
+            regions[f].resize( numRecords*fieldWidths[f] );
+        }
+
+        this.maxExc = newLength;
+    }
+
+    public void fill( long from, long toExc, byte v ) {
+        throwIfInvalidRange( from, toExc, toExc-from );
+
+        for ( long i=from; i<toExc; ) {
+            long numBytes = segmentLength( i, toExc-i );
+            long r        = regionOffsetOf( i );
+
+            regionOf( i ).fill( r, r+numBytes, v );
+
+            i += numBytes;
+        }
+    }
+
+
+    public byte readByte( long offset, long maxExc ) {
+        long i = index( offset, maxExc, SIZEOF_BYTE );
+
+        return regionOf( i ).readByte( regionOffsetOf(i), regionMaxExcOf(i) );
+    }
+
+    public void writeByte( long offset, long maxExc, byte v ) {
+        long i = index( offset, maxExc, SIZEOF_BYTE );
+
+        regionOf( i ).writeByte( regionOffsetOf(i), regionMaxExcOf(i), v );
+    }
+
+    public short readShort( long offset, long maxExc ) {
+        long i = index( offset, maxExc, SIZEOF_SHORT );
+
+        return regionOf( i ).readShort( regionOffsetOf(i), regionMaxExcOf(i) );
+    }
+
+    public void writeShort( long offset, long maxExc, short v ) {
+        long i = index( offset, maxExc, SIZEOF_SHORT );
+
+        regionOf( i ).writeShort( regionOffsetOf(i), regionMaxExcOf(i), v );
+    }
+
+    public char readCharacter( long offset, long maxExc ) {
+        long i = index( offset, maxExc, SIZEOF_CHAR );
+
+        return regionOf( i ).readCharacter( regionOffsetOf(i), regionMaxExcOf(i) );
+    }
+
+    public void writeCharacter( long offset, long maxExc, char v ) {
+        long i = index( offset, maxExc, SIZEOF_CHAR );
+
+        regionOf( i ).writeCharacter( regionOffsetOf(i), regionMaxExcOf(i), v );
+    }
+
+    public int readInt( long offset, long maxExc ) {
+        long i = index( offset, maxExc, SIZEOF_INT );
+
+        return regionOf( i ).readInt( regionOffsetOf(i), regionMaxExcOf(i) );
+    }
+
+    public void writeInt( long offset, long maxExc, int v ) {
+        long i = index( offset, maxExc, SIZEOF_INT );
+
+        regionOf( i ).writeInt( regionOffsetOf(i), regionMaxExcOf(i), v );
+    }
+
+    public long readLong( long offset, long maxExc ) {
+        long i = index( offset, maxExc, SIZEOF_LONG );
+
+        return regionOf( i ).readLong( regionOffsetOf(i), regionMaxExcOf(i) );
+    }
+
+    public void writeLong( long offset, long maxExc, long v ) {
+        long i = index( offset, maxExc, SIZEOF_LONG );
+
+        regionOf( i ).writeLong( regionOffsetOf(i), regionMaxExcOf(i), v );
+    }
+
+    public float readFloat( long offset, long maxExc ) {
+        return Float.intBitsToFloat( readInt(offset, maxExc) );
+    }
+
+    public void writeFloat( long offset, long maxExc, float v ) {
+        writeInt( offset, maxExc, Float.floatToRawIntBits(v) );
+    }
+
+    public double readDouble( long offset, long maxExc ) {
+        return Double.longBitsToDouble( readLong(offset, maxExc) );
+    }
+
+    public void writeDouble( long offset, long maxExc, double v ) {
+        writeLong( offset, maxExc, Double.doubleToRawLongBits(v) );
+    }
+
+    public short readUnsignedByte( long offset, long maxExc ) {
+        return (short) (readByte(offset, maxExc) & UNSIGNED_BYTE_MASK);
+    }
+
+    public void writeUnsignedByte( long offset, long maxExc, short v ) {
+        writeByte( offset, maxExc, (byte) v );
+    }
+
+    public int readUnsignedShort( long offset, long maxExc ) {
+        return readShort(offset, maxExc) & UNSIGNED_SHORT_MASK;
+    }
+
+    public void writeUnsignedShort( long offset, long maxExc, int v ) {
+        writeShort( offset, maxExc, (short) v );
+    }
+
+    public long readUnsignedInt( long offset, long maxExc ) {
+        return readInt(offset, maxExc) & UNSIGNED_INT_MASK;
+    }
+
+    public void writeUnsignedInt( long offset, long maxExc, long v ) {
+        writeInt( offset, maxExc, (int) v );
+    }
+
+    public void readUTF8Character( long offset, long maxExc, DecodedCharacter output ) {
+        long i = index( offset, maxExc, SIZEOF_BYTE );  // we don't know the size yet, the region checks the bytes that it decodes
+
+        regionOf( i ).readUTF8Character( regionOffsetOf(i), regionMaxExcOf(i), output );
+    }
+
+    public int writeUTF8Character( long offset, long maxExc, char c ) {
+        long i = index( offset, maxExc, SIZEOF_BYTE );
+
+        return regionOf( i ).writeUTF8Character( regionOffsetOf(i), regionMaxExcOf(i), c );
+    }
+
+    public int readBytes( long offset, long maxExc, Bytes2 destination, long destinationInc, long destinationExc ) {
+        long max      = Math.min( maxExc, this.maxExc );
+        long numBytes = Math.min( max-offset, destinationExc-destinationInc );
+
+        throwIfInvalidRange( offset, max, numBytes );
+
+        for ( long n=0; n<numBytes; ) {
+            long segmentLength = segmentLength( offset+n, numBytes-n );
+            long r             = regionOffsetOf( offset+n );
+
+            regionOf( offset+n ).readBytes( r, r+segmentLength, destination, destinationInc+n, destinationExc );
+
+            n += segmentLength;
+        }
+
+        return Backdoor.toInt( numBytes );
+    }
+
+    public int writeBytes( long offset, long maxExc, Bytes2 sourceBytes, long sourceInc, long sourceExc ) {
+        long max      = Math.min( maxExc, this.maxExc );
+        long numBytes = Math.min( max-offset, sourceExc - sourceInc );
+
+        throwIfInvalidRange( offset, max, numBytes );
+
+        for ( long n=0; n<numBytes; ) {
+            long segmentLength = segmentLength( offset+n, numBytes-n );
+            long r             = regionOffsetOf( offset+n );
+
+            regionOf( offset+n ).writeBytes( r, r+segmentLength, sourceBytes, sourceInc+n, sourceInc+n+segmentLength );
+
+            n += segmentLength;
+        }
+
+        return Backdoor.toInt( numBytes );
+    }
+
+    public int readBytes( long offset, long maxExc, byte[] destinationArray, long destinationArrayInc, long destinationArrayExc ) {
+        long max      = Math.min( maxExc, this.maxExc );
+        int  numBytes = Backdoor.toInt( Math.min(max-offset, destinationArrayExc - destinationArrayInc) );
+
+        throwIfInvalidRange( offset, max, numBytes );
+
+        for ( int n=0; n<numBytes; ) {
+            int  segmentLength = (int) segmentLength( offset+n, numBytes-n );
+            long r             = regionOffsetOf( offset+n );
+
+            regionOf( offset+n ).readBytes( r, r+segmentLength, destinationArray, destinationArrayInc+n, destinationArrayInc+n+segmentLength );
+
+            n += segmentLength;
+        }
+
+        return numBytes;
+    }
+
+    public int writeBytes( long offset, long maxExc, byte[] sourceArray, long sourceArrayInc, long sourceArrayExc ) {
+        int numBytes = Backdoor.toInt( sourceArrayExc - sourceArrayInc );
+
+        throwIfInvalidRange( offset, maxExc, numBytes );
+
+        for ( int n=0; n<numBytes; ) {
+            int  segmentLength = (int) segmentLength( offset+n, numBytes-n );
+            long r             = regionOffsetOf( offset+n );
+
+            regionOf( offset+n ).writeBytes( r, r+segmentLength, sourceArray, sourceArrayInc+n, sourceArrayInc+n+segmentLength );
+
+            n += segmentLength;
+        }
+
+        return numBytes;
+    }
+
+    public int readBytes( long offset, long maxExc, long toAddressBase, long toAddressInc, long toAddressExc ) {
+        long max      = Math.min( maxExc, this.maxExc );
+        long numBytes = Math.min( max-offset, toAddressExc - toAddressInc );
+
+        throwIfInvalidRange( offset, max, numBytes );
+
+        for ( long n=0; n<numBytes; ) {
+            long segmentLength = segmentLength( offset+n, numBytes-n );
+            long r             = regionOffsetOf( offset+n );
+
+            regionOf( offset+n ).readBytes( r, r+segmentLength, toAddressBase, toAddressInc+n, toAddressInc+n+segmentLength );
+
+            n += segmentLength;
+        }
+
+        return Backdoor.toInt( numBytes );
+    }
+
+    public int writeBytes( long offset, long maxExc, long fromAddressBase, long fromAddressInc, long fromAddressExc ) {
+        long numBytes = fromAddressExc - fromAddressInc;
+
+        throwIfInvalidRange( offset, maxExc, numBytes );
+
+        for ( long n=0; n<numBytes; ) {
+            long segmentLength = segmentLength( offset+n, numBytes-n );
+            long r             = regionOffsetOf( offset+n );
+
+            regionOf( offset+n ).writeBytes( r, r+segmentLength, fromAddressBase, fromAddressInc+n, fromAddressInc+n+segmentLength );
+
+            n += segmentLength;
+        }
+
+        return Backdoor.toInt( numBytes );
+    }
+
+    public boolean compareBytes( long offset, long maxExc, byte[] targetBytes ) {
+        throwIfInvalidRange( offset, maxExc, targetBytes.length );
+
+        for ( int n=0; n<targetBytes.length; n++ ) {
+            if ( readByte(offset+n, maxExc) != targetBytes[n] ) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Bulk operations may legitimately copy zero bytes.
+     */
+    private void throwIfInvalidRange( long offset, long maxExc, long numBytes ) {
+        if ( CHECK_BOUNDS && numBytes > 0 ) {
+            throwIfInvalidIndex( offset, maxExc, numBytes );
+        }
+    }
+
+    private int fieldIndexOf( long offset ) {
+        return fieldIndexes[(int) (offset % recordWidth)];
+    }
+
+    private Bytes2 regionOf( long offset ) {
+        return regions[fieldIndexOf(offset)];
+    }
+
+    private long regionOffsetOf( long offset ) {
+        int f = fieldIndexOf( offset );
+
+        return offset/recordWidth*fieldWidths[f] + offset%recordWidth - fieldOffsets[f];
+    }
+
+    /**
+     * The end of the field that holds offset;  accesses that run past it would spill into the
+     * same field of the next record.
+     */
+    private long regionMaxExcOf( long offset ) {
+        int f = fieldIndexOf( offset );
+
+        return (offset/recordWidth + 1)*fieldWidths[f];
+    }
+
+    /**
+     * The number of bytes from offset that may be copied before reaching the end of its field.
+     */
+    private long segmentLength( long offset, long numBytesRemaining ) {
+        int f = fieldIndexOf( offset );
+
+        return Math.min( numBytesRemaining, fieldOffsets[f] + fieldWidths[f] - offset%recordWidth );
+    }
+
+}
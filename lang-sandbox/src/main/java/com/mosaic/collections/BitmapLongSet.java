@@ -0,0 +1,264 @@
+package com.mosaic.collections;
+
+import java.util.Arrays;
+
+
+/**
+ * Compressed bitmap of long primitives, in the style of a roaring bitmap.  Values are split
+ * into their high 48 bits, which select a container, and their low 16 bits, which are stored
+ * within that container.  A container holds either a sorted array of its low bits, or once it
+ * holds more than 4096 values (at which point the array would use more memory), a 65536 bit
+ * bitmap.<p/>
+ *
+ * Suits large sets of values that cluster together, such as the row ids of a column; a dense
+ * run of values costs a little over one bit each.  Iterates in ascending order.<p/>
+ *
+ * Not thread safe;  see ConcurrentLongSet.
+ */
+public class BitmapLongSet extends LongSet {
+
+    private static final int MAX_ARRAY_CONTAINER_SIZE = 4096;
+
+
+    private long[]      highKeys   = new long[4];
+    private Container[] containers = new Container[4];
+    private int         containerCount;
+
+    private long        size;
+
+
+    public long size() {
+        return size;
+    }
+
+    public void add( long v ) {
+        long high = highBitsOf( v );
+        int  i    = Arrays.binarySearch( highKeys, 0, containerCount, high );
+
+        if ( i < 0 ) {
+            i = -i - 1;
+
+            insertContainer( i, high );
+        }
+
+        Container container = containers[i];
+        int       before    = container.cardinality();
+
+        containers[i] = container.add( lowBitsOf(v) );
+
+        size += containers[i].cardinality() - before;
+    }
+
+    public boolean contains( long v ) {
+        int i = Arrays.binarySearch( highKeys, 0, containerCount, highBitsOf(v) );
+
+        return i >= 0 && containers[i].contains( lowBitsOf(v) );
+    }
+
+    public LongIterator iterator() {
+        return new LongIterator() {
+            private int  containerIndex = 0;
+            private int  nextLow        = containerCount == 0 ? -1 : containers[0].nextLow( 0 );
+            private long index          = -1;
+
+            public boolean hasNext() {
+                return nextLow >= 0;
+            }
+
+            public long index() {
+                return index;
+            }
+
+            public long next() {
+                if ( !hasNext() ) {
+                    throw new IndexOutOfBoundsException( "hasNext() returned false" );
+                }
+
+                long v = (highKeys[containerIndex] << 16) | nextLow;
+
+                nextLow = containers[containerIndex].nextLow( nextLow+1 );
+                while ( nextLow < 0 && containerIndex+1 < containerCount ) {
+                    containerIndex++;
+
+                    nextLow = containers[containerIndex].nextLow( 0 );
+                }
+
+                index++;
+
+                return v;
+            }
+        };
+    }
+
+    /**
+     * The values are already in order, so unlike LongSet.appendTo there is no need to box and
+     * sort them first.
+     */
+    public void appendTo( StringBuilder buf, String separator ) {
+        LongIterator it = iterator();
+
+        while ( it.hasNext() ) {
+            if ( it.index() >= 0 ) {
+                buf.append( separator );
+            }
+
+            buf.append( it.next() );
+        }
+    }
+
+
+    private void insertContainer( int i, long high ) {
+        if ( containerCount == highKeys.length ) {
+            highKeys   = Arrays.copyOf( highKeys, containerCount*2 );
+            containers = Arrays.copyOf( containers, containerCount*2 );
+        }
+
+        System.arraycopy( highKeys, i, highKeys, i+1, containerCount-i );
+        System.arraycopy( containers, i, containers, i+1, containerCount-i );
+
+        highKeys[i]   = high;
+        containers[i] = new ArrayContainer();
+
+        containerCount++;
+    }
+
+    /**
+     * Arithmetic shift, so that negative values sort before positive ones.
+     */
+    private static long highBitsOf( long v ) {
+        return v >> 16;
+    }
+
+    private static int lowBitsOf( long v ) {
+        return (int) (v & 0xFFFF);
+    }
+
+
+    private static abstract class Container {
+        public abstract int cardinality();
+
+        public abstract boolean contains( int low );
+
+        /**
+         * @return the container that now holds low;  either this container or its replacement
+         */
+        public abstract Container add( int low );
+
+        /**
+         * @return the smallest value in this container that is >= fromInc, or -1 if there is none
+         */
+        public abstract int nextLow( int fromInc );
+    }
+
+    /**
+     * Sorted array of the low 16 bits, for sparse containers.
+     */
+    private static class ArrayContainer extends Container {
+        private char[] values = new char[4];
+        private int    count;
+
+        public int cardinality() {
+            return count;
+        }
+
+        public boolean contains( int low ) {
+            return Arrays.binarySearch( values, 0, count, (char) low ) >= 0;
+        }
+
+        public Container add( int low ) {
+            int i = Arrays.binarySearch( values, 0, count, (char) low );
+
+            if ( i >= 0 ) {
+                return this;
+            } else if ( count == MAX_ARRAY_CONTAINER_SIZE ) {
+                return toBitmapContainer().add( low );
+            }
+
+            i = -i - 1;
+
+            if ( count == values.length ) {
+                values = Arrays.copyOf( values, Math.min(count*2, MAX_ARRAY_CONTAINER_SIZE) );
+            }
+
+            System.arraycopy( values, i, values, i+1, count-i );
+
+            values[i] = (char) low;
+            count++;
+
+            return this;
+        }
+
+        public int nextLow( int fromInc ) {
+            if ( fromInc > 0xFFFF ) {
+                return -1;
+            }
+
+            int i = Arrays.binarySearch( values, 0, count, (char) fromInc );
+            if ( i < 0 ) {
+                i = -i - 1;
+            }
+
+            return i < count ? values[i] : -1;
+        }
+
+        private BitmapContainer toBitmapContainer() {
+            BitmapContainer bitmap = new BitmapContainer();
+
+            for ( int i=0; i<count; i++ ) {
+                bitmap.add( values[i] );
+            }
+
+            return bitmap;
+        }
+    }
+
+    /**
+     * One bit for each of the 65536 possible low values, for dense containers.
+     */
+    private static class BitmapContainer extends Container {
+        private final long[] words = new long[1024];
+        private int          count;
+
+        public int cardinality() {
+            return count;
+        }
+
+        public boolean contains( int low ) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        public Container add( int low ) {
+            long before = words[low >>> 6];
+            long after  = before | (1L << low);
+
+            if ( after != before ) {
+                words[low >>> 6] = after;
+                count++;
+            }
+
+            return this;
+        }
+
+        public int nextLow( int fromInc ) {
+            int wordIndex = fromInc >>> 6;
+            if ( wordIndex >= words.length ) {
+                return -1;
+            }
+
+            long word = words[wordIndex] & (-1L << fromInc);
+
+            while ( word == 0 ) {
+                wordIndex++;
+
+                if ( wordIndex == words.length ) {
+                    return -1;
+                }
+
+                word = words[wordIndex];
+            }
+
+            return (wordIndex << 6) + Long.numberOfTrailingZeros( word );
+        }
+    }
+
+}
@@ -0,0 +1,329 @@
+package com.mosaic.collections;
+
+import com.mosaic.lang.QA;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Thread safe set of long primitives.  The values are spread over a number of segments, each of
+ * which is an open addressing hash table that is updated using compare and swap.  Adds and
+ * lookups take no locks;  the only lock is taken by the thread that grows a segment's table,
+ * and by any thread that has to wait for that segment to finish growing.<p/>
+ *
+ * Growing a segment copies its values into a table twice the size.  As each slot of the old
+ * table is copied, its empty slots are marked as MOVED, which stops late adds from landing in
+ * the old table after it has been copied;  such adds wait for the new table and retry there.
+ * Values 0 and 1 are reserved to mark empty and moved slots, so their membership is tracked
+ * separately.<p/>
+ *
+ * The iterator is weakly consistent;  it sees every value that was added before it was created,
+ * and may or may not see values that are added while it is in use.
+ */
+public class ConcurrentLongSet extends LongSet {
+
+    public static final int DEFAULT_NUM_SEGMENTS = 16;
+
+    private static final long EMPTY    = 0;
+    private static final long MOVED    = 1;
+
+    private static final int  INSERTED = 0;
+    private static final int  PRESENT  = 1;
+    private static final int  RETRY    = 2;
+    private static final int  FULL     = 3;
+
+    private static final int  HAS_ZERO = 1;
+    private static final int  HAS_ONE  = 2;
+
+
+    private final Segment[]     segments;
+    private final int           segmentBits;
+    private final AtomicInteger reservedValues = new AtomicInteger();
+
+
+    public ConcurrentLongSet( long expectedSize ) {
+        this( expectedSize, DEFAULT_NUM_SEGMENTS );
+    }
+
+    /**
+     * @param numSegments the number of independently grown tables, a power of two (one included)
+     */
+    public ConcurrentLongSet( long expectedSize, int numSegments ) {
+        QA.argIsGTEZero( expectedSize, "expectedSize" );
+        QA.isTrue( numSegments > 0 && Integer.bitCount(numSegments) == 1, IllegalArgumentException.class, "numSegments must be a power of two, was %s", numSegments );
+
+        this.segments    = new Segment[numSegments];
+        this.segmentBits = Integer.numberOfTrailingZeros( numSegments );
+
+        int initialCapacity = HashLongSet.capacityFor( expectedSize/numSegments );
+        for ( int i=0; i<numSegments; i++ ) {
+            segments[i] = new Segment( initialCapacity );
+        }
+    }
+
+
+    public long size() {
+        long size = Integer.bitCount( reservedValues.get() );
+
+        for ( Segment segment : segments ) {
+            size += segment.count.get();
+        }
+
+        return size;
+    }
+
+    public void add( long v ) {
+        if ( v == EMPTY || v == MOVED ) {
+            int flag = reservedFlagFor( v );
+
+            int current;
+            do {
+                current = reservedValues.get();
+            } while ( (current & flag) == 0 && !reservedValues.compareAndSet(current, current|flag) );
+
+            return;
+        }
+
+        long    hash    = hashOf( v );
+        Segment segment = segmentFor( hash );
+
+        while ( true ) {
+            AtomicLongArray table = segment.table;
+
+            switch ( insert(table, hash << segmentBits, v) ) {
+                case INSERTED:
+                    if ( segment.count.incrementAndGet() > growThresholdFor(table) ) {
+                        grow( segment, table );
+                    }
+
+                    return;
+                case PRESENT:
+                    return;
+                case FULL:  // other threads filled the last quarter of the table before it could grow
+                    grow( segment, table );
+                    break;
+                default:
+                    awaitGrowth( segment, table );
+            }
+        }
+    }
+
+    public boolean contains( long v ) {
+        if ( v == EMPTY || v == MOVED ) {
+            return (reservedValues.get() & reservedFlagFor(v)) != 0;
+        }
+
+        long    hash    = hashOf( v );
+        Segment segment = segmentFor( hash );
+
+        AtomicLongArray table = segment.table;
+        while ( true ) {
+            int  mask = table.length() - 1;
+            long slot = EMPTY;
+
+            for ( int i=indexOf(hash << segmentBits, table), n=0; n<=mask; i=(i+1)&mask, n++ ) {
+                slot = table.get( i );
+
+                if ( slot == v || slot == EMPTY || slot == MOVED ) {
+                    break;
+                }
+            }
+
+            if ( slot == v ) {
+                return true;
+            } else if ( slot != MOVED || segment.table == table ) {
+                // a MOVED slot in the current table means that v was not present when the
+                // segment started to grow, and cannot be added until the growth has finished
+                return false;
+            }
+
+            table = segment.table;
+        }
+    }
+
+    public LongIterator iterator() {
+        return new LongIterator() {
+            private final int reserved = reservedValues.get();
+
+            private int             reservedIndex = 0;
+            private int             segmentIndex  = -1;
+            private AtomicLongArray table;
+            private int             slot;
+
+            private boolean         hasNext;
+            private long            next;
+            private long            index         = -1;
+
+            {
+                advance();
+            }
+
+            public boolean hasNext() {
+                return hasNext;
+            }
+
+            public long index() {
+                return index;
+            }
+
+            public long next() {
+                if ( !hasNext() ) {
+                    throw new IndexOutOfBoundsException( "hasNext() returned false" );
+                }
+
+                long v = next;
+
+                advance();
+                index++;
+
+                return v;
+            }
+
+            private void advance() {
+                while ( reservedIndex < 2 ) {
+                    long candidate = reservedIndex++;
+
+                    if ( (reserved & reservedFlagFor(candidate)) != 0 ) {
+                        this.next    = candidate;
+                        this.hasNext = true;
+
+                        return;
+                    }
+                }
+
+                while ( true ) {
+                    while ( table != null && slot < table.length() ) {
+                        long candidate = table.get( slot++ );
+
+                        if ( candidate != EMPTY && candidate != MOVED ) {
+                            this.next    = candidate;
+                            this.hasNext = true;
+
+                            return;
+                        }
+                    }
+
+                    if ( segmentIndex+1 == segments.length ) {
+                        this.hasNext = false;
+
+                        return;
+                    }
+
+                    segmentIndex++;
+
+                    this.table = segments[segmentIndex].table;
+                    this.slot  = 0;
+                }
+            }
+        };
+    }
+
+
+    private void grow( Segment segment, AtomicLongArray oldTable ) {
+        segment.growLock.lock();
+
+        try {
+            if ( segment.table != oldTable ) {
+                return;  // another thread has already grown it
+            }
+
+            AtomicLongArray newTable = new AtomicLongArray( oldTable.length()*2 );
+
+            for ( int i=0; i<oldTable.length(); i++ ) {
+                long v = oldTable.get( i );
+
+                if ( v == EMPTY && oldTable.compareAndSet(i, EMPTY, MOVED) ) {
+                    continue;
+                } else if ( v == EMPTY ) {
+                    v = oldTable.get( i );  // lost the race to an add, copy its value instead
+                }
+
+                insert( newTable, hashOf(v) << segmentBits, v );
+            }
+
+            segment.table = newTable;
+        } finally {
+            segment.growLock.unlock();
+        }
+    }
+
+    /**
+     * The top segmentBits of the hash select the segment.  Shifted in two steps, as a single
+     * shift of 64 (one segment) would be masked by Java to a shift of zero.
+     */
+    private Segment segmentFor( long hash ) {
+        return segments[(int) ((hash >>> 1) >>> (63-segmentBits))];
+    }
+
+    /**
+     * Called after finding a MOVED slot, the growing thread holds the lock until it has
+     * published the new table.
+     */
+    private void awaitGrowth( Segment segment, AtomicLongArray oldTable ) {
+        if ( segment.table == oldTable ) {
+            segment.growLock.lock();
+            segment.growLock.unlock();
+        }
+    }
+
+    private static int insert( AtomicLongArray table, long shiftedHash, long v ) {
+        int mask = table.length() - 1;
+        int i    = indexOf( shiftedHash, table );
+
+        for ( int n=0; n<=mask; ) {
+            long slot = table.get( i );
+
+            if ( slot == v ) {
+                return PRESENT;
+            } else if ( slot == MOVED ) {
+                return RETRY;
+            } else if ( slot == EMPTY ) {
+                if ( table.compareAndSet(i, EMPTY, v) ) {
+                    return INSERTED;
+                }
+
+                // another thread filled the slot first, reread it as it may have added v
+            } else {
+                i = (i+1) & mask;
+                n++;
+            }
+        }
+
+        return FULL;
+    }
+
+    private static long hashOf( long v ) {
+        return v * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * The top bits of the hash select the segment, so they are shifted out before selecting the
+     * slot within the segment's table.
+     */
+    private static int indexOf( long shiftedHash, AtomicLongArray table ) {
+        return (int) (shiftedHash >>> (64 - Integer.numberOfTrailingZeros(table.length())));
+    }
+
+    private static int growThresholdFor( AtomicLongArray table ) {
+        return table.length() - table.length()/4;
+    }
+
+    private static int reservedFlagFor( long v ) {
+        return v == EMPTY ? HAS_ZERO : HAS_ONE;
+    }
+
+
+    private static class Segment {
+        public final AtomicInteger      count    = new AtomicInteger();
+        public final ReentrantLock      growLock = new ReentrantLock();
+
+        public volatile AtomicLongArray table;
+
+        public Segment( int initialCapacity ) {
+            this.table = new AtomicLongArray( initialCapacity );
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.mosaic.collections;
+
+import com.mosaic.lang.QA;
+import com.mosaic.utils.MathUtils;
+
+
+/**
+ * Set of long primitives held in a single open addressing hash table.  Linear probing over a
+ * power of two number of slots, with Fibonacci hashing to spread keys that are close together
+ * (such as row ids) across the table.  Value 0 marks an empty slot, so membership of 0 is
+ * tracked separately.  The table doubles once it is three quarters full.<p/>
+ *
+ * Not thread safe;  see ConcurrentLongSet.
+ */
+public class HashLongSet extends LongSet {
+
+    private static final int  MIN_CAPACITY      = 8;
+    private static final long MAX_EXPECTED_SIZE = (1<<30) / 4 * 3;
+
+
+    private long[]  table;
+    private int     hashShift;
+    private int     growThreshold;
+
+    private int     size;
+    private boolean hasZero;
+
+
+    public HashLongSet( long expectedSize ) {
+        QA.argIsGTEZero( expectedSize, "expectedSize" );
+
+        setTable( new long[capacityFor(expectedSize)] );
+    }
+
+
+    public long size() {
+        return size;
+    }
+
+    public void add( long v ) {
+        if ( v == 0 ) {
+            if ( !hasZero ) {
+                hasZero = true;
+                size++;
+            }
+
+            return;
+        }
+
+        if ( insert(table, hashShift, v) ) {
+            size++;
+
+            if ( size > growThreshold ) {
+                grow();
+            }
+        }
+    }
+
+    public boolean contains( long v ) {
+        if ( v == 0 ) {
+            return hasZero;
+        }
+
+        long[] table = this.table;
+        int    mask  = table.length - 1;
+
+        for ( int i=indexOf(v, hashShift); ; i=(i+1)&mask ) {
+            long candidate = table[i];
+
+            if ( candidate == v ) {
+                return true;
+            } else if ( candidate == 0 ) {
+                return false;
+            }
+        }
+    }
+
+    public LongIterator iterator() {
+        return new LongIterator() {
+            private int  slot  = hasZero ? -1 : nextSlot( 0 );
+            private long index = -1;
+
+            public boolean hasNext() {
+                return slot < table.length;
+            }
+
+            public long index() {
+                return index;
+            }
+
+            public long next() {
+                if ( !hasNext() ) {
+                    throw new IndexOutOfBoundsException( "hasNext() returned false" );
+                }
+
+                long v = slot < 0 ? 0 : table[slot];
+
+                slot = nextSlot( slot+1 );
+                index++;
+
+                return v;
+            }
+        };
+    }
+
+
+    private int nextSlot( int fromInc ) {
+        long[] table = this.table;
+
+        int i = fromInc;
+        while ( i < table.length && table[i] == 0 ) {
+            i++;
+        }
+
+        return i;
+    }
+
+    private void grow() {
+        long[] oldTable = table;
+        long[] newTable = new long[oldTable.length*2];
+        int    newShift = 64 - Integer.numberOfTrailingZeros( newTable.length );
+
+        for ( long v : oldTable ) {
+            if ( v != 0 ) {
+                insert( newTable, newShift, v );
+            }
+        }
+
+        setTable( newTable );
+    }
+
+    private void setTable( long[] newTable ) {
+        this.table         = newTable;
+        this.hashShift     = 64 - Integer.numberOfTrailingZeros( newTable.length );
+        this.growThreshold = newTable.length - newTable.length/4;
+    }
+
+
+    /**
+     * @return false if v was already in the table
+     */
+    private static boolean insert( long[] table, int hashShift, long v ) {
+        int mask = table.length - 1;
+
+        for ( int i=indexOf(v, hashShift); ; i=(i+1)&mask ) {
+            long candidate = table[i];
+
+            if ( candidate == v ) {
+                return false;
+            } else if ( candidate == 0 ) {
+                table[i] = v;
+
+                return true;
+            }
+        }
+    }
+
+    private static int indexOf( long v, int hashShift ) {
+        return (int) ((v * 0x9E3779B97F4A7C15L) >>> hashShift);
+    }
+
+    static int capacityFor( long expectedSize ) {
+        QA.isTrue( expectedSize <= MAX_EXPECTED_SIZE, IllegalArgumentException.class, "expectedSize %s is too large for a single table", expectedSize );
+
+        return MathUtils.roundUpToClosestPowerOf2( (int) Math.max(MIN_CAPACITY, expectedSize + expectedSize/3 + 1) );
+    }
+
+}
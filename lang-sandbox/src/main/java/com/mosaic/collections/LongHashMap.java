@@ -0,0 +1,470 @@
+package com.mosaic.collections;
+
+import com.mosaic.bytes2.Bytes2;
+import com.mosaic.bytes2.FixedWidthBytesView;
+import com.mosaic.bytes2.impl.OffHeapBytes2;
+import com.mosaic.lang.QA;
+import com.mosaic.utils.MathUtils;
+
+import static com.mosaic.lang.system.SystemX.SIZEOF_LONG;
+
+
+/**
+ * Hash map from long keys to fixed width values, held entirely within a Bytes2.  As the map
+ * keeps no objects of its own, it may live on heap, off heap or within a memory mapped file;
+ * and once it has grown to its working size, neither lookups nor updates allocate.<p/>
+ *
+ * Open addressing with linear probing over a power of two number of slots.  Removing a key
+ * shifts the later entries of its probe sequence back into the gap (backward shift deletion),
+ * so there are no tombstones to slow down later lookups.  Key 0 marks an empty slot, so the
+ * 0 key is given a slot of its own after the table.<p/>
+ *
+ * Values are either a single long (get/put), or a struct that is accessed by pointing a
+ * FixedWidthBytesView flyweight at it (getValue/allocate).  A flyweight is only valid until the
+ * map is next modified;  puts may resize the table and removes may move entries.
+ */
+public class LongHashMap {
+
+    public static final long MIN_CAPACITY = 8;
+
+    private static final long CAPACITY_OFFSET     = 0;
+    private static final long SIZE_OFFSET         = 8;
+    private static final long VALUE_WIDTH_OFFSET  = 16;
+    private static final long HAS_ZERO_KEY_OFFSET = 24;
+    private static final long HEADER_SIZE         = 32;
+
+    private static final long KEY_SIZE            = SIZEOF_LONG;
+    private static final long EMPTY_KEY           = 0;
+
+
+    /**
+     * The number of bytes used by a map with the specified number of slots.
+     */
+    public static long sizeBytesFor( long valueWidthBytes, long capacity ) {
+        return HEADER_SIZE + (capacity+1) * slotSizeFor( valueWidthBytes );
+    }
+
+    /**
+     * Creates a map of long to long values.
+     */
+    public static LongHashMap createLongLongMap( Bytes2 bytes, long expectedSize ) {
+        return new LongHashMap( bytes, SIZEOF_LONG, expectedSize );
+    }
+
+
+    private final Bytes2 bytes;
+    private final long   valueWidthBytes;
+    private final long   slotSize;
+
+    private long         capacity;
+    private long         mask;
+    private int          hashShift;
+    private long         maxTableSize;
+    private long         tableExc;
+
+    private long         size;
+    private boolean      hasZeroKey;
+
+
+    /**
+     * Formats bytes as an empty map, resizing them to fit.
+     *
+     * @param expectedSize the number of keys to size the table for;  the table grows beyond it on demand
+     */
+    public LongHashMap( Bytes2 bytes, long valueWidthBytes, long expectedSize ) {
+        QA.argNotNull( bytes, "bytes" );
+        QA.argIsGTEZero( valueWidthBytes, "valueWidthBytes" );
+        QA.argIsGTEZero( expectedSize, "expectedSize" );
+
+        this.bytes           = bytes;
+        this.valueWidthBytes = valueWidthBytes;
+        this.slotSize        = slotSizeFor( valueWidthBytes );
+
+        long capacity = MathUtils.roundUpToClosestPowerOf2( Math.max(MIN_CAPACITY, expectedSize + expectedSize/3 + 1) );
+
+        bytes.resize( sizeBytesFor(valueWidthBytes, capacity) );
+        bytes.writeLong( VALUE_WIDTH_OFFSET, HEADER_SIZE, valueWidthBytes );
+        bytes.writeLong( CAPACITY_OFFSET, HEADER_SIZE, capacity );
+
+        setCapacity( capacity );
+        clear();
+    }
+
+    /**
+     * Reopens a map that was previously written to bytes, for example to a memory mapped file.
+     */
+    public LongHashMap( Bytes2 bytes ) {
+        QA.argNotNull( bytes, "bytes" );
+
+        this.bytes           = bytes;
+        this.valueWidthBytes = bytes.readLong( VALUE_WIDTH_OFFSET, HEADER_SIZE );
+        this.slotSize        = slotSizeFor( valueWidthBytes );
+        this.size            = bytes.readLong( SIZE_OFFSET, HEADER_SIZE );
+        this.hasZeroKey      = bytes.readLong( HAS_ZERO_KEY_OFFSET, HEADER_SIZE ) != 0;
+
+        long capacity = bytes.readLong( CAPACITY_OFFSET, HEADER_SIZE );
+
+        QA.argIsPowerOf2( capacity, "capacity" );
+        QA.isTrue( bytes.sizeBytes() >= sizeBytesFor(valueWidthBytes,capacity), IllegalArgumentException.class, "bytes are smaller than the map that they claim to hold" );
+
+        setCapacity( capacity );
+    }
+
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public long getValueWidthBytes() {
+        return valueWidthBytes;
+    }
+
+    public boolean containsKey( long key ) {
+        return findSlot( key ) >= 0;
+    }
+
+    /**
+     * @return the long value mapped to key, or defaultValue when the key is not in the map
+     */
+    public long get( long key, long defaultValue ) {
+        throwIfNotLongValues();
+
+        long slot = findSlot( key );
+
+        return slot < 0 ? defaultValue : bytes.readLong( slot+KEY_SIZE, tableExc );
+    }
+
+    public void put( long key, long value ) {
+        throwIfNotLongValues();
+
+        long slot = findOrInsertSlot( key );
+
+        bytes.writeLong( slot+KEY_SIZE, tableExc, value );
+    }
+
+    /**
+     * Points view at the value mapped to key.
+     *
+     * @return false when the key is not in the map, in which case the view is left untouched
+     */
+    public boolean getValue( long key, FixedWidthBytesView view ) {
+        throwIfViewTooWide( view );
+
+        long slot = findSlot( key );
+        if ( slot < 0 ) {
+            return false;
+        }
+
+        view.setBytes( bytes, slot+KEY_SIZE );
+
+        return true;
+    }
+
+    /**
+     * Points view at the value mapped to key, adding the key with a zeroed value if it was not
+     * already in the map.
+     *
+     * @return true when the key was added by this call
+     */
+    public boolean allocate( long key, FixedWidthBytesView view ) {
+        throwIfViewTooWide( view );
+
+        long initialSize = size;
+        long slot        = findOrInsertSlot( key );
+
+        view.setBytes( bytes, slot+KEY_SIZE );
+
+        return size != initialSize;
+    }
+
+    /**
+     * @return true if the key was in the map
+     */
+    public boolean remove( long key ) {
+        if ( key == EMPTY_KEY ) {
+            if ( !hasZeroKey ) {
+                return false;
+            }
+
+            setHasZeroKey( false );
+            setSize( size-1 );
+
+            return true;
+        }
+
+        long slot = findSlot( key );
+        if ( slot < 0 ) {
+            return false;
+        }
+
+        long hole = (slot - HEADER_SIZE) / slotSize;
+        long i    = hole;
+
+        while ( true ) {
+            i = (i+1) & mask;
+
+            long k = readKey( i );
+            if ( k == EMPTY_KEY ) {
+                break;
+            }
+
+            long home = homeIndexOf( k );
+
+            // the entry may move back into the hole only if the hole lies between its home slot and i
+            if ( ((i - home) & mask) >= ((i - hole) & mask) ) {
+                copySlot( i, hole );
+
+                hole = i;
+            }
+        }
+
+        bytes.writeLong( slotOffset(hole), tableExc, EMPTY_KEY );
+        setSize( size-1 );
+
+        return true;
+    }
+
+    public void clear() {
+        bytes.fill( HEADER_SIZE, tableExc, (byte) 0 );
+
+        setSize( 0 );
+        setHasZeroKey( false );
+    }
+
+    /**
+     * Iterates over the keys in slot order.  The map must not be modified while iterating.
+     */
+    public LongIterator keys() {
+        return new LongIterator() {
+            private long nextIndex = skipEmptySlots( 0 );
+            private long index     = -1;
+
+            public boolean hasNext() {
+                return nextIndex <= capacity;
+            }
+
+            public long index() {
+                return index;
+            }
+
+            public long next() {
+                if ( !hasNext() ) {
+                    throw new IndexOutOfBoundsException( "hasNext() returned false" );
+                }
+
+                this.index     = nextIndex;
+                this.nextIndex = skipEmptySlots( nextIndex+1 );
+
+                return index == capacity ? EMPTY_KEY : readKey( index );
+            }
+        };
+    }
+
+    public void release() {
+        bytes.release();
+    }
+
+    public String toString() {
+        return "LongHashMap(size=" + size + ", capacity=" + capacity + ")";
+    }
+
+
+    /**
+     * @return the offset of the key's slot, or -1 when the key is not in the map
+     */
+    private long findSlot( long key ) {
+        if ( key == EMPTY_KEY ) {
+            return hasZeroKey ? slotOffset(capacity) : -1;
+        }
+
+        long i = homeIndexOf( key );
+
+        while ( true ) {
+            long offset = slotOffset( i );
+            long k      = bytes.readLong( offset, tableExc );
+
+            if ( k == key ) {
+                return offset;
+            } else if ( k == EMPTY_KEY ) {
+                return -1;
+            }
+
+            i = (i+1) & mask;
+        }
+    }
+
+    /**
+     * @return the offset of the key's slot;  new keys are given a zeroed value
+     */
+    private long findOrInsertSlot( long key ) {
+        if ( key == EMPTY_KEY ) {
+            long offset = slotOffset( capacity );
+
+            if ( !hasZeroKey ) {
+                zeroValue( offset );
+                setHasZeroKey( true );
+                setSize( size+1 );
+            }
+
+            return offset;
+        }
+
+        long i = homeIndexOf( key );
+
+        while ( true ) {
+            long offset = slotOffset( i );
+            long k      = bytes.readLong( offset, tableExc );
+
+            if ( k == key ) {
+                return offset;
+            } else if ( k == EMPTY_KEY ) {
+                if ( tableSize() >= maxTableSize ) {
+                    grow();
+
+                    return findOrInsertSlot( key );
+                }
+
+                bytes.writeLong( offset, tableExc, key );
+                zeroValue( offset );
+                setSize( size+1 );
+
+                return offset;
+            }
+
+            i = (i+1) & mask;
+        }
+    }
+
+    /**
+     * Doubles the number of slots and rehashes every entry.  The old table is staged off heap,
+     * as it may be larger than a java array can hold.
+     */
+    private void grow() {
+        long   oldCapacity = capacity;
+        long   oldTableExc = tableExc;
+        Bytes2 oldTable    = new OffHeapBytes2( oldTableExc - HEADER_SIZE );
+
+        try {
+            bytes.readBytes( HEADER_SIZE, oldTableExc, oldTable, 0, oldTable.sizeBytes() );
+
+            bytes.resize( sizeBytesFor(valueWidthBytes, oldCapacity*2) );
+            bytes.writeLong( CAPACITY_OFFSET, HEADER_SIZE, oldCapacity*2 );
+            setCapacity( oldCapacity*2 );
+            bytes.fill( HEADER_SIZE, tableExc, (byte) 0 );
+
+            for ( long i=0; i<oldCapacity; i++ ) {
+                long from = i*slotSize;
+                long key  = oldTable.readLong( from, from+KEY_SIZE );
+
+                if ( key != EMPTY_KEY ) {
+                    long j = homeIndexOf( key );
+
+                    while ( readKey(j) != EMPTY_KEY ) {
+                        j = (j+1) & mask;
+                    }
+
+                    oldTable.readBytes( from, from+slotSize, bytes, slotOffset(j), slotOffset(j)+slotSize );
+                }
+            }
+
+            long zeroSlotFrom = oldCapacity*slotSize;
+            oldTable.readBytes( zeroSlotFrom, zeroSlotFrom+slotSize, bytes, slotOffset(capacity), tableExc );
+        } finally {
+            oldTable.release();
+        }
+    }
+
+    private void setCapacity( long newCapacity ) {
+        this.capacity     = newCapacity;
+        this.mask         = newCapacity - 1;
+        this.hashShift    = 64 - Long.numberOfTrailingZeros( newCapacity );
+        this.maxTableSize = newCapacity - newCapacity/4;
+        this.tableExc     = sizeBytesFor( valueWidthBytes, newCapacity );
+    }
+
+    private void setSize( long newSize ) {
+        this.size = newSize;
+
+        bytes.writeLong( SIZE_OFFSET, HEADER_SIZE, newSize );
+    }
+
+    private void setHasZeroKey( boolean flag ) {
+        this.hasZeroKey = flag;
+
+        bytes.writeLong( HAS_ZERO_KEY_OFFSET, HEADER_SIZE, flag ? 1 : 0 );
+    }
+
+    /**
+     * The number of keys held within the table, which excludes the 0 key.
+     */
+    private long tableSize() {
+        return hasZeroKey ? size-1 : size;
+    }
+
+    /**
+     * Fibonacci hashing;  spreads keys that differ only in their high bits (or that share low
+     * bits) across the table.
+     */
+    private long homeIndexOf( long key ) {
+        return (key * 0x9E3779B97F4A7C15L) >>> hashShift;
+    }
+
+    private long slotOffset( long index ) {
+        return HEADER_SIZE + index*slotSize;
+    }
+
+    private long readKey( long index ) {
+        return bytes.readLong( slotOffset(index), tableExc );
+    }
+
+    private void copySlot( long fromIndex, long toIndex ) {
+        long from = slotOffset( fromIndex );
+        long to   = slotOffset( toIndex );
+
+        for ( long n=0; n<slotSize; n+=SIZEOF_LONG ) {
+            bytes.writeLong( to+n, tableExc, bytes.readLong(from+n, tableExc) );
+        }
+    }
+
+    private void zeroValue( long slot ) {
+        if ( slotSize > KEY_SIZE ) {
+            bytes.fill( slot+KEY_SIZE, slot+slotSize, (byte) 0 );
+        }
+    }
+
+    private long skipEmptySlots( long index ) {
+        long i = index;
+
+        while ( i < capacity && readKey(i) == EMPTY_KEY ) {
+            i++;
+        }
+
+        return i == capacity && !hasZeroKey ? capacity+1 : i;
+    }
+
+    private void throwIfNotLongValues() {
+        if ( valueWidthBytes != SIZEOF_LONG ) {
+            throw new UnsupportedOperationException( "the values of this map are "+valueWidthBytes+" bytes wide, use getValue/allocate instead" );
+        }
+    }
+
+    private void throwIfViewTooWide( FixedWidthBytesView view ) {
+        QA.isTrue( view.getWidthBytes() <= valueWidthBytes, IllegalArgumentException.class, "view of %s bytes is wider than the %s byte values of this map", view.getWidthBytes(), valueWidthBytes );
+    }
+
+    /**
+     * Keys and values are kept 8 byte aligned.
+     */
+    private static long slotSizeFor( long valueWidthBytes ) {
+        return KEY_SIZE + ((valueWidthBytes + 7) & ~7L);
+    }
+
+}
@@ -13,8 +13,37 @@ import java.util.List;
  */
 public abstract class LongSet {
 
+    /**
+     * Sets expected to hold no more than this many values are scanned linearly.
+     */
+    public static final long SMALL_SET_MAX_SIZE = 16;
+
+    /**
+     * Sets expected to hold more than this many values are stored as compressed bitmaps.
+     */
+    public static final long HASH_SET_MAX_SIZE  = 1<<16;
+
+
+    /**
+     * Creates a set that is suited to holding expectedSize values.  Small sets are scanned
+     * linearly, medium sets are hashed and large sets are stored as compressed bitmaps.
+     * None of them are thread safe.
+     */
     public static LongSet factory( long expectedSize ) {
-        return new SmallLongSet();
+        if ( expectedSize <= SMALL_SET_MAX_SIZE ) {
+            return new SmallLongSet();
+        } else if ( expectedSize <= HASH_SET_MAX_SIZE ) {
+            return new HashLongSet( expectedSize );
+        } else {
+            return new BitmapLongSet();
+        }
+    }
+
+    /**
+     * Creates a set that may be added to by many threads at once.
+     */
+    public static LongSet concurrentFactory( long expectedSize ) {
+        return new ConcurrentLongSet( expectedSize );
     }
 
     public static LongSet createLongSet( long...values ) {
@@ -0,0 +1,320 @@
+package com.mosaic.collections.map.mapped;
+
+import com.mosaic.bytes.ArrayBytes;
+import com.mosaic.bytes.ByteSerializer;
+import com.mosaic.bytes.ByteView;
+import com.mosaic.bytes.NativeBytesView;
+import com.mosaic.bytes2.Bytes2;
+import com.mosaic.bytes2.impl.MemoryMappedBytes2;
+import com.mosaic.collections.map.PersistableMap;
+import com.mosaic.io.filesystemx.FileModeEnum;
+import com.mosaic.lang.QA;
+import com.mosaic.lang.ServiceMixin;
+import com.mosaic.lang.system.Backdoor;
+import com.mosaic.lang.system.SystemX;
+import com.mosaic.utils.MathUtils;
+
+import java.io.File;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.mosaic.lang.system.SystemX.SIZEOF_LONG;
+
+
+/**
+ * An implementation of PersistableMap that stores fixed size keys and values in a memory mapped
+ * file, without any third party libraries.  Lookups do not allocate;  keys are encoded into a
+ * per thread buffer and values are shared with the caller's flyweight rather than copied.<p/>
+ *
+ * The table is split into segments, each its own open addressing hash table with linear probing
+ * and its own lock.  Lookups of existing keys take no lock, and threads that add keys to
+ * different segments do not contend.  The table does not grow;  it is sized for maxEntryCount
+ * when the file is created and an IllegalStateException is thrown when a segment fills up.<p/>
+ *
+ * Every slot starts with a state word (a non zero hash of its key), which is written only after
+ * the key and the zeroed value have been written.  So a process that dies part way through adding
+ * a key leaves behind a slot that is treated as empty when the file is reopened.  Likewise the
+ * file header is only marked as valid once the rest of the header has been written.
+ */
+@SuppressWarnings("unchecked")
+public class PersistableMappedMap<K, V extends ByteView> extends ServiceMixin<PersistableMap<K,V>>
+    implements PersistableMap<K,V>
+{
+    public static final int DEFAULT_NUM_SEGMENTS = 16;
+
+    private static final long MAGIC                    = 0x4D4F5341494D4150L;  // MOSAIMAP
+    private static final long MAGIC_OFFSET             = 0;
+    private static final long KEY_SIZE_OFFSET          = 8;
+    private static final long VALUE_SIZE_OFFSET        = 16;
+    private static final long NUM_SEGMENTS_OFFSET      = 24;
+    private static final long SLOTS_PER_SEGMENT_OFFSET = 32;
+    private static final long HEADER_SIZE              = 64;
+
+    private static final long EMPTY_STATE              = 0;
+
+
+    private final SystemX                system;
+    private final File                   file;
+    private final ByteSerializer<K>      keySerializer;
+
+    private final long                   fixedKeySize;
+    private final long                   fixedValueSize;
+    private final long                   paddedKeySize;
+    private final long                   slotSize;
+    private final int                    numSegments;
+    private final long                   slotsPerSegment;
+
+    private final ReentrantLock[]        segmentLocks;
+    private final ThreadLocal<KeyBuffer> keyBuffers;
+
+
+    private Bytes2                       bytes;
+    private NativeBytesView              valuesView;
+    private long                         tableExc;
+
+
+    public PersistableMappedMap( SystemX system, String serviceName, File file, ByteSerializer<K> keySerializer, long fixedKeySize, long fixedValueSize, long maxEntryCount ) {
+        this( system, serviceName, file, keySerializer, fixedKeySize, fixedValueSize, maxEntryCount, DEFAULT_NUM_SEGMENTS );
+    }
+
+    /**
+     * @param numSegments the number of independently locked segments, a power of two
+     */
+    public PersistableMappedMap(
+        SystemX           system,
+        String            serviceName,
+        File              file,
+        ByteSerializer<K> keySerializer,
+        long              fixedKeySize,
+        long              fixedValueSize,
+        long              maxEntryCount,
+        int               numSegments
+    ) {
+        super( serviceName );
+
+        QA.argNotNull( file, "file" );
+        QA.argNotNull( keySerializer, "keySerializer" );
+        QA.argIsGTZero( fixedKeySize, "fixedKeySize" );
+        QA.argIsGTZero( fixedValueSize, "fixedValueSize" );
+        QA.argIsGTZero( maxEntryCount, "maxEntryCount" );
+        QA.argIsPowerOf2( numSegments, "numSegments" );
+
+        this.system          = system;
+        this.file            = file;
+        this.keySerializer   = keySerializer;
+        this.fixedKeySize    = fixedKeySize;
+        this.fixedValueSize  = fixedValueSize;
+        this.paddedKeySize   = roundUpToLong( fixedKeySize );
+        this.slotSize        = SIZEOF_LONG + paddedKeySize + roundUpToLong( fixedValueSize );
+        this.numSegments     = numSegments;
+        this.slotsPerSegment = MathUtils.roundUpToClosestPowerOf2( Math.max(8, (maxEntryCount + maxEntryCount/3)/numSegments + 1) );
+        this.segmentLocks    = new ReentrantLock[numSegments];
+        this.keyBuffers      = ThreadLocal.withInitial( KeyBuffer::new );
+
+        for ( int i=0; i<numSegments; i++ ) {
+            segmentLocks[i] = new ReentrantLock();
+        }
+    }
+
+
+    public void getInto( K key, V value ) {
+        if ( bytes == null ) {
+            throw new IllegalStateException( "'"+getServiceName()+"' is not running" );
+        }
+
+        KeyBuffer keyBuffer = keyBuffers.get();
+        keyBuffer.encode( key );
+
+        long state   = keyBuffer.hash() | 1;  // never EMPTY_STATE
+        int  segment = (int) (state >>> 40) & (numSegments-1);
+        long slot    = findSlot( segment, state, keyBuffer );
+
+        if ( slot < 0 ) {
+            ReentrantLock lock = segmentLocks[segment];
+
+            lock.lock();
+            try {
+                slot = findOrInsertSlot( segment, state, keyBuffer );
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long valueOffset = slot + SIZEOF_LONG + paddedKeySize;
+
+        value.setBytes( valuesView, valueOffset, valueOffset+fixedValueSize );
+    }
+
+
+    protected void doStart() throws Exception {
+        this.tableExc = HEADER_SIZE + numSegments*slotsPerSegment*slotSize;
+
+        QA.isTrue( tableExc <= MemoryMappedBytes2.MAX_REGION_SIZE, IllegalArgumentException.class, "'%s' would need %s bytes, more than can be mapped as a single region", getServiceName(), tableExc );
+
+        boolean isNewFile = file.length() < HEADER_SIZE;
+
+        this.bytes = MemoryMappedBytes2.mapFile( file, FileModeEnum.READ_WRITE, Math.max(tableExc, file.length()) );
+
+        if ( isNewFile ) {
+            writeHeader();
+        } else if ( bytes.readLong(MAGIC_OFFSET, HEADER_SIZE) != MAGIC ) {
+            system.opsAudit( "Persistent map '%s' was not fully created, recreating %s", getServiceName(), file );
+
+            writeHeader();
+        } else {
+            validateHeader();
+        }
+
+        this.valuesView = NativeBytesView.viewOf( bytes );
+    }
+
+    protected void doStop() throws Exception {
+        bytes.flush();
+        bytes.release();
+
+        this.bytes      = null;
+        this.valuesView = null;
+    }
+
+
+    /**
+     * Lock free;  only finds keys that have been fully written.
+     *
+     * @return the offset of the key's slot, or -1 if the key was not found
+     */
+    private long findSlot( int segment, long state, KeyBuffer keyBuffer ) {
+        long segmentBase = HEADER_SIZE + segment*slotsPerSegment*slotSize;
+        long mask        = slotsPerSegment - 1;
+        long i           = state & mask;
+
+        for ( long n=0; n<slotsPerSegment; n++ ) {
+            long slot      = segmentBase + i*slotSize;
+            long slotState = bytes.readLong( slot, tableExc );
+
+            Backdoor.loadFence();  // the key was written before its state
+
+            if ( slotState == EMPTY_STATE ) {
+                return -1;
+            } else if ( slotState == state && keyBuffer.matches(slot+SIZEOF_LONG) ) {
+                return slot;
+            }
+
+            i = (i+1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Must be called while holding the segment's lock.
+     */
+    private long findOrInsertSlot( int segment, long state, KeyBuffer keyBuffer ) {
+        long segmentBase = HEADER_SIZE + segment*slotsPerSegment*slotSize;
+        long mask        = slotsPerSegment - 1;
+        long i           = state & mask;
+
+        for ( long n=0; n<slotsPerSegment; n++ ) {
+            long slot      = segmentBase + i*slotSize;
+            long slotState = bytes.readLong( slot, tableExc );
+
+            if ( slotState == EMPTY_STATE ) {
+                keyBuffer.writeTo( slot+SIZEOF_LONG );
+                bytes.fill( slot+SIZEOF_LONG+paddedKeySize, slot+slotSize, (byte) 0 );  // may hold the remains of an insert that did not complete
+
+                Backdoor.storeFence();  // publish the key and value before the state
+
+                bytes.writeLong( slot, tableExc, state );
+
+                return slot;
+            } else if ( slotState == state && keyBuffer.matches(slot+SIZEOF_LONG) ) {
+                return slot;
+            }
+
+            i = (i+1) & mask;
+        }
+
+        throw new IllegalStateException( "'"+getServiceName()+"' is full;  segment "+segment+" holds "+slotsPerSegment+" keys" );
+    }
+
+    private void writeHeader() {
+        bytes.fill( 0, tableExc, (byte) 0 );
+
+        bytes.writeLong( KEY_SIZE_OFFSET, HEADER_SIZE, fixedKeySize );
+        bytes.writeLong( VALUE_SIZE_OFFSET, HEADER_SIZE, fixedValueSize );
+        bytes.writeLong( NUM_SEGMENTS_OFFSET, HEADER_SIZE, numSegments );
+        bytes.writeLong( SLOTS_PER_SEGMENT_OFFSET, HEADER_SIZE, slotsPerSegment );
+        bytes.flush();
+
+        bytes.writeLong( MAGIC_OFFSET, HEADER_SIZE, MAGIC );
+        bytes.flush( 0, HEADER_SIZE );
+    }
+
+    private void validateHeader() {
+        throwIfHeaderMismatch( "fixedKeySize", KEY_SIZE_OFFSET, fixedKeySize );
+        throwIfHeaderMismatch( "fixedValueSize", VALUE_SIZE_OFFSET, fixedValueSize );
+        throwIfHeaderMismatch( "numSegments", NUM_SEGMENTS_OFFSET, numSegments );
+        throwIfHeaderMismatch( "slotsPerSegment", SLOTS_PER_SEGMENT_OFFSET, slotsPerSegment );
+    }
+
+    private void throwIfHeaderMismatch( String name, long offset, long expected ) {
+        long actual = bytes.readLong( offset, HEADER_SIZE );
+
+        if ( actual != expected ) {
+            bytes.release();
+            this.bytes = null;
+
+            throw new IllegalStateException( "'"+getServiceName()+"' was created with "+name+" "+actual+", not "+expected+": "+file );
+        }
+    }
+
+    private static long roundUpToLong( long n ) {
+        return (n + SIZEOF_LONG - 1) & ~(SIZEOF_LONG - 1);
+    }
+
+
+    /**
+     * Per thread scratch space that keys are encoded into, so that they can be hashed and
+     * compared a long at a time.
+     */
+    private class KeyBuffer {
+        private final byte[]     array      = new byte[(int) paddedKeySize];
+        private final ArrayBytes arrayBytes = new ArrayBytes( array );
+
+        public void encode( K key ) {
+            arrayBytes.fill( 0, paddedKeySize, (byte) 0 );
+
+            keySerializer.encodeInto( key, arrayBytes, 0, fixedKeySize );
+        }
+
+        public long hash() {
+            long h = 0;
+
+            for ( int i=0; i<paddedKeySize; i+=SIZEOF_LONG ) {
+                h = (h ^ Backdoor.getLongFrom(array, i)) * 0x9E3779B97F4A7C15L;
+            }
+
+            // murmur3's 64 bit finaliser
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+
+            return h;
+        }
+
+        public boolean matches( long offset ) {
+            for ( int i=0; i<paddedKeySize; i+=SIZEOF_LONG ) {
+                if ( bytes.readLong(offset+i, tableExc) != Backdoor.getLongFrom(array, i) ) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        public void writeTo( long offset ) {
+            bytes.writeBytes( offset, tableExc, array );
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.mosaic.io;
+
+import com.mosaic.bytes2.Bytes2;
+
+import java.nio.ByteOrder;
+
+
+/**
+ * CRC-32C (Castagnoli) checksum, calculated directly over a region of Bytes2 without copying
+ * it on to the heap.  Produces the same values as java.util.zip.CRC32C, which is not available
+ * on Java 8.<p/>
+ *
+ * Uses the slicing-by-8 algorithm, which consumes a long per iteration using eight lookup
+ * tables.  Unlike a sum of longs, every byte of the region contributes to the checksum.
+ */
+public class CRC32C {
+
+    private static final int     POLYNOMIAL_REVERSED = 0x82F63B78;
+    private static final boolean IS_LITTLE_ENDIAN    = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    private static final int[] T0 = new int[256];
+    private static final int[] T1 = new int[256];
+    private static final int[] T2 = new int[256];
+    private static final int[] T3 = new int[256];
+    private static final int[] T4 = new int[256];
+    private static final int[] T5 = new int[256];
+    private static final int[] T6 = new int[256];
+    private static final int[] T7 = new int[256];
+
+    static {
+        for ( int n=0; n<256; n++ ) {
+            int crc = n;
+
+            for ( int k=0; k<8; k++ ) {
+                crc = (crc & 1) == 1 ? (crc >>> 1) ^ POLYNOMIAL_REVERSED : crc >>> 1;
+            }
+
+            T0[n] = crc;
+        }
+
+        int[][] tables = {T0, T1, T2, T3, T4, T5, T6, T7};
+        for ( int t=1; t<tables.length; t++ ) {
+            for ( int n=0; n<256; n++ ) {
+                int prev = tables[t-1][n];
+
+                tables[t][n] = (prev >>> 8) ^ T0[prev & 0xFF];
+            }
+        }
+    }
+
+
+    public static int calculate( Bytes2 bytes, long fromInc, long toExc ) {
+        return ~update( ~0, bytes, fromInc, toExc );
+    }
+
+    /**
+     * Continues a checksum over another region.  The crc is in its internal (inverted) form, start
+     * with ~0 and invert the final result.
+     */
+    public static int update( int crc, Bytes2 bytes, long fromInc, long toExc ) {
+        long i = fromInc;
+
+        if ( IS_LITTLE_ENDIAN ) {
+            for ( ; i+8 <= toExc; i+=8 ) {
+                long v = bytes.readLong( i, toExc ) ^ (crc & 0xFFFFFFFFL);
+
+                crc = T7[(int) v & 0xFF]          ^ T6[(int) (v >>>  8) & 0xFF] ^
+                      T5[(int) (v >>> 16) & 0xFF] ^ T4[(int) (v >>> 24) & 0xFF] ^
+                      T3[(int) (v >>> 32) & 0xFF] ^ T2[(int) (v >>> 40) & 0xFF] ^
+                      T1[(int) (v >>> 48) & 0xFF] ^ T0[(int) (v >>> 56) & 0xFF];
+            }
+        }
+
+        for ( ; i<toExc; i++ ) {
+            crc = (crc >>> 8) ^ T0[(crc ^ bytes.readByte(i, toExc)) & 0xFF];
+        }
+
+        return crc;
+    }
+
+}
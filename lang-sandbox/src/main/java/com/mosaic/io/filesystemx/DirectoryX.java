@@ -65,4 +65,10 @@ public interface DirectoryX {
     public DirectoryX getParentDirectoryNbl();
     public DirectoryX getRoot();
 
+    /**
+     * Forces the files that have been created, renamed or deleted within this directory to
+     * disk;  flushing a file only forces its contents.
+     */
+    public void flush();
+
 }
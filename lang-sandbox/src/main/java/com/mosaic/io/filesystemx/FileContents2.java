@@ -2,6 +2,11 @@ package com.mosaic.io.filesystemx;
 
 import com.mosaic.bytes2.Bytes2;
 import com.mosaic.bytes2.impl.BytesWrapper2;
+import com.mosaic.io.RuntimeIOException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 
 
 /**
@@ -38,4 +43,34 @@ public abstract class FileContents2 extends BytesWrapper2 {
      */
     public abstract boolean unlockFile();
 
+    /**
+     * Writes the specified range of this file to a channel, typically a socket.  Files on disk
+     * hand the copy over to the OS (sendfile on Linux) so that the bytes are never copied into
+     * the JVM, reusing the same file channel until these contents are released;  other file
+     * systems copy the bytes via the heap.
+     *
+     * @return the number of bytes written, which is always toExc-fromInc
+     */
+    public long transferTo( long fromInc, long toExc, WritableByteChannel target ) {
+        byte[]     buf       = new byte[(int) Math.min( 64*1024, Math.max(0, toExc-fromInc) )];
+        ByteBuffer bufBuffer = ByteBuffer.wrap( buf );
+
+        try {
+            for ( long i=fromInc; i<toExc; i+=buf.length ) {
+                int numBytes = (int) Math.min( buf.length, toExc-i );
+
+                readBytes( i, i+numBytes, buf, 0, numBytes );
+
+                bufBuffer.clear().limit( numBytes );
+                while ( bufBuffer.hasRemaining() ) {
+                    target.write( bufBuffer );
+                }
+            }
+        } catch ( IOException ex ) {
+            throw RuntimeIOException.recast( ex );
+        }
+
+        return toExc - fromInc;
+    }
+
 }
@@ -6,6 +6,7 @@ import com.mosaic.lang.text.UTF8Tools;
 import com.mosaic.utils.PropertyUtils;
 
 import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
 import java.util.Comparator;
 import java.util.Map;
 import java.util.Properties;
@@ -73,10 +74,27 @@ public interface FileX {
         return processFile( action, FileModeEnum.READ_WRITE );
     }
 
+    /**
+     * Writes the specified range of this file to a channel, typically a socket.  Files on disk
+     * hand the copy over to the OS (sendfile on Linux) so that the bytes are never copied into
+     * the JVM;  other file systems copy the bytes via the heap.
+     *
+     * @return the number of bytes written, which is always toExc-fromInc
+     */
+    public default long transferTo( long fromInc, long toExc, WritableByteChannel target ) {
+        return processFile2( contents -> contents.transferTo(fromInc, toExc, target), FileModeEnum.READ_ONLY );
+    }
+
     public String getFullPath();
 
     public void delete();
 
+    /**
+     * Renames the file within its current directory.  Contents that are already open remain
+     * valid.  Replaces any existing file with the new name.
+     */
+    public void renameTo( String newFileName );
+
     public long sizeInBytes();
 
     public void isReadable( boolean isReadable );
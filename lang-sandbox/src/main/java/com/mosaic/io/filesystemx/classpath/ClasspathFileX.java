@@ -70,6 +70,10 @@ public class ClassPathFileX implements FileX {
         throw new UnsupportedOperationException( "cannot delete files from the classpath" );
     }
 
+    public void renameTo( String newFileName ) {
+        throw new UnsupportedOperationException( "cannot rename files on the classpath" );
+    }
+
 
     public long sizeInBytes() {
         lazyLoad();
@@ -3,6 +3,7 @@ package com.mosaic.io.filesystemx.disk;
 import com.mosaic.bytes.Bytes;
 import com.mosaic.bytes.MemoryMappedBytes;
 import com.mosaic.io.FileUtils;
+import com.mosaic.io.RuntimeIOException;
 import com.mosaic.io.filesystemx.DirectoryX;
 import com.mosaic.io.filesystemx.FileModeEnum;
 import com.mosaic.io.filesystemx.FileX;
@@ -13,6 +14,9 @@ import com.mosaic.utils.ArrayUtils;
 import com.mosaic.utils.SetUtils;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -266,6 +270,14 @@ public class ActualDirectory implements DirectoryX {
         return new ActualFile( fileSystem, destinationFile );
     }
 
+    public void flush() {
+        try ( FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ) ) {
+            channel.force( true );
+        } catch ( IOException ex ) {
+            throw RuntimeIOException.recast( ex );
+        }
+    }
+
     public String toString() {
         return file.toString();
     }
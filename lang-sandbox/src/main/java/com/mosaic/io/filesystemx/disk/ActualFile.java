@@ -5,6 +5,7 @@ import com.mosaic.bytes.MemoryMappedBytes;
 import com.mosaic.bytes.WrappedBytesLite;
 import com.mosaic.bytes2.Bytes2;
 import com.mosaic.bytes2.impl.MemoryMappedBytes2;
+import com.mosaic.io.RuntimeIOException;
 import com.mosaic.io.filesystemx.FileContents;
 import com.mosaic.io.filesystemx.FileContents2;
 import com.mosaic.io.filesystemx.FileModeEnum;
@@ -15,7 +16,10 @@ import com.mosaic.lang.system.Backdoor;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 
 
 /**
@@ -57,17 +61,31 @@ public class ActualFile implements FileX {
     public FileContents2 openFile2( FileModeEnum mode ) {
         Bytes2 bytes = MemoryMappedBytes2.mapFile( file, mode );
 
-        return new ActualFileContents2( bytes );
+        return new ActualFileContents2( bytes, mode );
     }
 
     public FileContents2 openFile2( FileModeEnum mode, long sizeInBytes ) {
         Bytes2 bytes = MemoryMappedBytes2.mapFile( file, mode, sizeInBytes );
 
-        return new ActualFileContents2( bytes );
+        return new ActualFileContents2( bytes, mode );
     }
 
 
 
+    public long transferTo( long fromInc, long toExc, WritableByteChannel target ) {
+        try ( FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ) ) {
+            long position = fromInc;
+
+            while ( position < toExc ) {
+                position += channel.transferTo( position, toExc-position, target );
+            }
+
+            return toExc - fromInc;
+        } catch ( IOException ex ) {
+            throw RuntimeIOException.recast( ex );
+        }
+    }
+
     public String getFullPath() {
         return file.getAbsolutePath();
     }
@@ -80,6 +98,16 @@ public class ActualFile implements FileX {
         this.file = null;
     }
 
+    public void renameTo( String newFileName ) {
+        File newFile = new File( file.getParentFile(), newFileName );
+
+        if ( !file.renameTo(newFile) ) {
+            throw new RuntimeIOException( "Unable to rename '"+file.getAbsolutePath()+"' to '"+newFileName+"'" );
+        }
+
+        this.file = newFile;
+    }
+
     public long sizeInBytes() {
         return file.length();
     }
@@ -180,16 +208,64 @@ public class ActualFile implements FileX {
     }
 
     private class ActualFileContents2 extends FileContents2 {
-        private FileLock fileLock;
+        private final FileModeEnum mode;
+
+        private FileLock    fileLock;
+        private FileChannel transferChannel;   // opened by the first transferTo, and reused until released
 
-        public ActualFileContents2( Bytes2 delegate ) {
+        public ActualFileContents2( Bytes2 delegate, FileModeEnum mode ) {
             super( delegate );
 
+            this.mode = mode;
+
             fileSystem.incrementOpenFileCount();
         }
 
         public void release() {
             fileSystem.decrementOpenFileCount();
+
+            if ( transferChannel != null ) {
+                try {
+                    transferChannel.close();
+                } catch ( IOException ex ) {
+                    throw RuntimeIOException.recast( ex );
+                } finally {
+                    this.transferChannel = null;
+                }
+            }
+        }
+
+        public long transferTo( long fromInc, long toExc, WritableByteChannel target ) {
+            try {
+                if ( transferChannel == null ) {
+                    this.transferChannel = FileChannel.open( file.toPath(), StandardOpenOption.READ );
+                }
+
+                long position = fromInc;
+
+                while ( position < toExc ) {
+                    position += transferChannel.transferTo( position, toExc-position, target );
+                }
+
+                return toExc - fromInc;
+            } catch ( IOException ex ) {
+                throw RuntimeIOException.recast( ex );
+            }
+        }
+
+        /**
+         * A file that is mapped as a single region cannot grow beyond MAX_REGION_SIZE, so it is
+         * remapped as a series of regions when it crosses that size.
+         */
+        public void resize( long newLength ) {
+            if ( newLength > MemoryMappedBytes2.MAX_REGION_SIZE && getDelegate() instanceof MemoryMappedBytes2 ) {
+                Bytes2 oldBytes = getDelegate();
+
+                setDelegate( MemoryMappedBytes2.mapFile(file, mode, newLength) );
+                oldBytes.release();
+            } else {
+                super.resize( newLength );
+            }
         }
 
         public boolean lockFile() {
@@ -11,6 +11,7 @@ import com.mosaic.utils.ArrayUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 
 /**
@@ -25,8 +26,8 @@ public class InMemoryDirectory implements DirectoryX {
     private       String      directoryNameNbl;
 
 
-    private List<InMemoryFile>      files       = new ArrayList();
-    private List<InMemoryDirectory> directories = new ArrayList();
+    private List<InMemoryFile>      files       = new CopyOnWriteArrayList<>();   // journals create and delete files from background threads
+    private List<InMemoryDirectory> directories = new CopyOnWriteArrayList<>();
 
 
     /**
@@ -112,6 +113,10 @@ public class InMemoryDirectory implements DirectoryX {
         return parentDirectoryNbl == null ? this : parentDirectoryNbl.getRoot();
     }
 
+    public void flush() {
+        // there is no disk to force the directory to
+    }
+
     public FileX copyFile( FileX sourceFile, String destinationPath ) {
         Bytes data = sourceFile.openFile( FileModeEnum.READ_ONLY );
 
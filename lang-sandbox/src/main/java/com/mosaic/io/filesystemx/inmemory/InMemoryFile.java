@@ -120,6 +120,18 @@ public class InMemoryFile implements FileX {
         this.hasBeenDeletedFlag = true;
     }
 
+    public void renameTo( String newFileName ) {
+        throwIfDeleted();
+        QA.argNotBlank( newFileName, "newFileName" );
+
+        FileX existingFile = parentDirectory.getFile( newFileName );
+        if ( existingFile != null && existingFile != this ) {
+            existingFile.delete();
+        }
+
+        this.fileName = newFileName;
+    }
+
     public void isReadable( boolean isReadable ) {
         this.isReadable = isReadable;
     }
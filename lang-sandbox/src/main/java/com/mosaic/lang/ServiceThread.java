@@ -20,16 +20,29 @@ public abstract class ServiceThread<T extends Service<T>> extends ServiceMixin<T
     }
 
 
-    private Thread     thread;
-    private ThreadType threadType;
+    private Thread             thread;
+    private ThreadType         threadType;
+    private final WaitStrategy waitStrategy;
+
+    private volatile long      loopCount;
+    private volatile long      idleLoopCount;
 
 
     public ServiceThread( String serviceName, ThreadType threadType ) {
+        this( serviceName, threadType, WaitStrategy.sleep() );
+    }
+
+    /**
+     * @param waitStrategy decides how the thread waits when loop() has no work to do
+     */
+    public ServiceThread( String serviceName, ThreadType threadType, WaitStrategy waitStrategy ) {
         super( serviceName );
 
-        QA.argNotNull( threadType, "threadType" );
+        QA.argNotNull( threadType,   "threadType"   );
+        QA.argNotNull( waitStrategy, "waitStrategy" );
 
-        this.threadType = threadType;
+        this.threadType   = threadType;
+        this.waitStrategy = waitStrategy;
     }
 
 
@@ -41,17 +54,51 @@ public abstract class ServiceThread<T extends Service<T>> extends ServiceMixin<T
      * the running thread will be interrupted, so allow the exception to propagate
      * up.
      *
-     * @return  The number of milliseconds to yield between invocations.
+     * @return  The number of milliseconds to yield between invocations.  Zero means that work was
+     *          done and to call loop() again straight away, any other value is passed to the WaitStrategy
+     *          (the default strategy sleeps for that many milliseconds).
      */
     protected abstract long loop() throws InterruptedException;
 
 
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * The number of times that loop() has been called.
+     */
+    public long getLoopCount() {
+        return loopCount;
+    }
+
+    /**
+     * The number of times that loop() has been called and found no work to do.
+     */
+    public long getIdleLoopCount() {
+        return idleLoopCount;
+    }
+
+
     protected void doStart() throws IOException {
         this.thread = new Thread( getServiceName() ) {
             public void run() {
+                long consecutiveIdleCount = 0;
+
                 while ( isRunning() ) {
                     try {
-                        Thread.sleep( loop() );
+                        long requestedMillis = loop();
+
+                        loopCount++;   // only ever written by this thread
+
+                        if ( requestedMillis > 0 ) {
+                            idleLoopCount++;
+                            consecutiveIdleCount++;
+
+                            waitStrategy.idle( consecutiveIdleCount, requestedMillis );
+                        } else {
+                            consecutiveIdleCount = 0;
+                        }
                     } catch ( InterruptedException e ) {
                         assert !isRunning();
                     }
@@ -0,0 +1,168 @@
+package com.mosaic.lang;
+
+import com.mosaic.lang.time.Duration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Decides how a ServiceThread waits after a call to loop() that found no work.  Sleeping costs
+ * the least CPU but adds milliseconds of latency, spinning reacts within microseconds but burns
+ * a core;  the strategies in between trade one for the other.<p/>
+ *
+ * Each strategy counts how many times it spun, yielded and parked so that the cost of the choice
+ * can be monitored via ServiceThread.getWaitStrategy().  The counts are only written by the
+ * service's thread, so they may lag when read from another thread.  As the strategies hold state,
+ * an instance must not be shared between ServiceThreads.
+ */
+public abstract class WaitStrategy {
+
+    /**
+     * Sleeps for the number of milliseconds returned by loop();  the original behaviour of ServiceThread.
+     */
+    public static WaitStrategy sleep() {
+        return new SleepWaitStrategy();
+    }
+
+    /**
+     * Never gives up the CPU.  Lowest latency, but dedicates a core to the thread.
+     */
+    public static WaitStrategy busySpin() {
+        return new BusySpinWaitStrategy();
+    }
+
+    /**
+     * Spins for the first numSpins idle loops, and then yields the CPU on every idle loop after that.
+     */
+    public static WaitStrategy spinThenYield( int numSpins ) {
+        return new SpinThenYieldWaitStrategy( numSpins );
+    }
+
+    /**
+     * Spins, then yields and then parks the thread.  Each successive park doubles in length, starting
+     * from a microsecond up to maxPark.  The back off resets as soon as loop() finds more work.
+     */
+    public static WaitStrategy spinThenPark( int numSpins, int numYields, Duration maxPark ) {
+        return new SpinThenParkWaitStrategy( numSpins, numYields, maxPark );
+    }
+
+
+    private long spinCount;
+    private long yieldCount;
+    private long parkCount;
+
+
+    /**
+     * Called after loop() found no work to do.
+     *
+     * @param idleCount       the number of consecutive calls to loop() that have found no work, starting at 1
+     * @param requestedMillis the value returned by loop()
+     */
+    public abstract void idle( long idleCount, long requestedMillis ) throws InterruptedException;
+
+    public long getSpinCount() {
+        return spinCount;
+    }
+
+    public long getYieldCount() {
+        return yieldCount;
+    }
+
+    /**
+     * The number of times that the thread was parked or put to sleep.
+     */
+    public long getParkCount() {
+        return parkCount;
+    }
+
+    public String toString() {
+        return getClass().getSimpleName() + "(spins=" + spinCount + ", yields=" + yieldCount + ", parks=" + parkCount + ")";
+    }
+
+
+    protected final void spin() {
+        spinCount++;   // Thread.onSpinWait() arrived in Java 9;  on Java 8 the best that we can do is to go around again
+    }
+
+    protected final void yieldThread() {
+        yieldCount++;
+
+        Thread.yield();
+    }
+
+    protected final void park( long nanos ) {
+        parkCount++;
+
+        LockSupport.parkNanos( nanos );
+    }
+
+    protected final void sleep( long millis ) throws InterruptedException {
+        parkCount++;
+
+        Thread.sleep( millis );
+    }
+
+
+    private static class SleepWaitStrategy extends WaitStrategy {
+        public void idle( long idleCount, long requestedMillis ) throws InterruptedException {
+            sleep( requestedMillis );
+        }
+    }
+
+    private static class BusySpinWaitStrategy extends WaitStrategy {
+        public void idle( long idleCount, long requestedMillis ) {
+            spin();
+        }
+    }
+
+    private static class SpinThenYieldWaitStrategy extends WaitStrategy {
+        private final int numSpins;
+
+        public SpinThenYieldWaitStrategy( int numSpins ) {
+            QA.argIsGTEZero( numSpins, "numSpins" );
+
+            this.numSpins = numSpins;
+        }
+
+        public void idle( long idleCount, long requestedMillis ) {
+            if ( idleCount <= numSpins ) {
+                spin();
+            } else {
+                yieldThread();
+            }
+        }
+    }
+
+    private static class SpinThenParkWaitStrategy extends WaitStrategy {
+        private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos( 1 );
+
+        private final int  numSpins;
+        private final int  numYields;
+        private final long maxParkNanos;
+
+        public SpinThenParkWaitStrategy( int numSpins, int numYields, Duration maxPark ) {
+            QA.argIsGTEZero( numSpins,  "numSpins"  );
+            QA.argIsGTEZero( numYields, "numYields" );
+            QA.argNotNull(   maxPark,   "maxPark"   );
+
+            this.numSpins     = numSpins;
+            this.numYields    = numYields;
+            this.maxParkNanos = Math.max( MIN_PARK_NANOS, TimeUnit.MILLISECONDS.toNanos(maxPark.getMillis()) );
+        }
+
+        public void idle( long idleCount, long requestedMillis ) {
+            if ( idleCount <= numSpins ) {
+                spin();
+            } else if ( idleCount <= numSpins + numYields ) {
+                yieldThread();
+            } else {
+                long numParks  = idleCount - numSpins - numYields;  // starts at 1
+                long parkNanos = numParks >= 63 ? maxParkNanos : Math.min( maxParkNanos, MIN_PARK_NANOS << Math.min(numParks-1, 40) );
+
+                park( parkNanos );
+            }
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.mosaic.lang.system;
+
+import com.mosaic.lang.QA;
+
+import static com.mosaic.lang.system.SystemX.SIZEOF_LONG;
+
+
+/**
+ * Over allocates via malloc, and then hands out the first address within the block that falls on
+ * the requested boundary.  The address that was returned by malloc is stored in the word just
+ * before the aligned address, ready for free.
+ */
+class AlignedAllocationPolicy implements OffHeapAllocationPolicy {
+
+    private final int alignment;
+
+
+    public AlignedAllocationPolicy( long alignment ) {
+        QA.argIsGTZero( alignment, "alignment" );
+        QA.isTrue( Long.bitCount(alignment) == 1, IllegalArgumentException.class, "alignment must be a power of two, was %s", alignment );
+
+        this.alignment = (int) alignment;
+    }
+
+
+    public long alloc( long numBytes ) {
+        QA.argIsGTZero( numBytes, "numBytes" );
+
+        long rawAddress     = Backdoor.alloc( numBytes + alignment + SIZEOF_LONG );
+        long alignedAddress = Backdoor.alignAddress( rawAddress + SIZEOF_LONG, alignment );
+
+        Backdoor.setLong( alignedAddress - SIZEOF_LONG, rawAddress );
+
+        return alignedAddress;
+    }
+
+    public void free( long address, long numBytes ) {
+        Backdoor.free( Backdoor.getLong(address - SIZEOF_LONG) );
+    }
+
+    public String toString() {
+        return "ALIGNED(" + alignment + ")";
+    }
+
+}
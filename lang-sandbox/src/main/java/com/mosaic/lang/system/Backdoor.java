@@ -69,6 +69,13 @@ public class Backdoor {
         unsafe.fullFence();
     }
 
+    /**
+     * The size of a page of virtual memory, as used by the OS when memory mapping files.
+     */
+    public static int getPageSize() {
+        return unsafe.pageSize();
+    }
+
     /**
      * Returns a count of how many more calls to allocOffHeap() than free().  The counter
      * is incremented when allocOffHeap() is called, and decremented when free() is
@@ -247,6 +254,130 @@ public class Backdoor {
         unsafe.copyMemory( fromArray, BYTE_ARRAY_BASE_OFFSET+fromArrayIndex, toArray, BYTE_ARRAY_BASE_OFFSET+toArrayIndex, numBytes );
     }
 
+    /**
+     * Copies numLongs from native memory into toArray with a single memcpy.  The longs are
+     * expected to be in the platforms native byte order, which matches getLong/setLong.
+     */
+    public static void copyLongs( long fromAddress, long[] toArray, int toArrayIndex, int numLongs ) {
+        if ( SystemX.isDebugRun() ) {
+            QA.argIsBetweenInc( 0, toArrayIndex, toArray.length, "toArrayIndex" );
+            QA.argIsBetweenInc( 0, toArrayIndex + numLongs, toArray.length, "toArrayIndex+numLongs" );
+        }
+
+        unsafe.copyMemory( null, fromAddress, toArray, LONG_ARRAY_BASE_OFFSET+toArrayIndex*LONG_ARRAY_SCALE, numLongs*LONG_ARRAY_SCALE );
+    }
+
+    public static void copyLongs( long[] fromArray, int fromArrayIndex, long toAddress, int numLongs ) {
+        if ( SystemX.isDebugRun() ) {
+            QA.argIsBetweenInc( 0, fromArrayIndex, fromArray.length, "fromArrayIndex" );
+            QA.argIsBetweenInc( 0, fromArrayIndex + numLongs, fromArray.length, "fromArrayIndex+numLongs" );
+
+            debugAddress( toAddress, numLongs*LONG_ARRAY_SCALE );
+        }
+
+        unsafe.copyMemory( fromArray, LONG_ARRAY_BASE_OFFSET+fromArrayIndex*LONG_ARRAY_SCALE, null, toAddress, numLongs*LONG_ARRAY_SCALE );
+    }
+
+    /**
+     * Copies numLongs out of a byte array, starting from fromArrayIndex (measured in bytes).
+     */
+    public static void copyLongs( byte[] fromArray, long fromArrayIndex, long[] toArray, int toArrayIndex, int numLongs ) {
+        if ( SystemX.isDebugRun() ) {
+            QA.argIsBetweenInc( 0, fromArrayIndex + numLongs*LONG_ARRAY_SCALE, fromArray.length, "fromArrayIndex+numBytes" );
+            QA.argIsBetweenInc( 0, toArrayIndex + numLongs, toArray.length, "toArrayIndex+numLongs" );
+        }
+
+        unsafe.copyMemory( fromArray, BYTE_ARRAY_BASE_OFFSET+fromArrayIndex, toArray, LONG_ARRAY_BASE_OFFSET+toArrayIndex*LONG_ARRAY_SCALE, numLongs*LONG_ARRAY_SCALE );
+    }
+
+    /**
+     * Copies numLongs into a byte array, starting from toArrayIndex (measured in bytes).
+     */
+    public static void copyLongs( long[] fromArray, int fromArrayIndex, byte[] toArray, long toArrayIndex, int numLongs ) {
+        if ( SystemX.isDebugRun() ) {
+            QA.argIsBetweenInc( 0, fromArrayIndex + numLongs, fromArray.length, "fromArrayIndex+numLongs" );
+            QA.argIsBetweenInc( 0, toArrayIndex + numLongs*LONG_ARRAY_SCALE, toArray.length, "toArrayIndex+numBytes" );
+        }
+
+        unsafe.copyMemory( fromArray, LONG_ARRAY_BASE_OFFSET+fromArrayIndex*LONG_ARRAY_SCALE, toArray, BYTE_ARRAY_BASE_OFFSET+toArrayIndex, numLongs*LONG_ARRAY_SCALE );
+    }
+
+    public static void copyInts( long fromAddress, int[] toArray, int toArrayIndex, int numInts ) {
+        if ( SystemX.isDebugRun() ) {
+            QA.argIsBetweenInc( 0, toArrayIndex, toArray.length, "toArrayIndex" );
+            QA.argIsBetweenInc( 0, toArrayIndex + numInts, toArray.length, "toArrayIndex+numInts" );
+        }
+
+        unsafe.copyMemory( null, fromAddress, toArray, INT_ARRAY_BASE_OFFSET+toArrayIndex*INT_ARRAY_SCALE, numInts*INT_ARRAY_SCALE );
+    }
+
+    public static void copyInts( int[] fromArray, int fromArrayIndex, long toAddress, int numInts ) {
+        if ( SystemX.isDebugRun() ) {
+            QA.argIsBetweenInc( 0, fromArrayIndex, fromArray.length, "fromArrayIndex" );
+            QA.argIsBetweenInc( 0, fromArrayIndex + numInts, fromArray.length, "fromArrayIndex+numInts" );
+
+            debugAddress( toAddress, numInts*INT_ARRAY_SCALE );
+        }
+
+        unsafe.copyMemory( fromArray, INT_ARRAY_BASE_OFFSET+fromArrayIndex*INT_ARRAY_SCALE, null, toAddress, numInts*INT_ARRAY_SCALE );
+    }
+
+    public static void copyInts( byte[] fromArray, long fromArrayIndex, int[] toArray, int toArrayIndex, int numInts ) {
+        if ( SystemX.isDebugRun() ) {
+            QA.argIsBetweenInc( 0, fromArrayIndex + numInts*INT_ARRAY_SCALE, fromArray.length, "fromArrayIndex+numBytes" );
+            QA.argIsBetweenInc( 0, toArrayIndex + numInts, toArray.length, "toArrayIndex+numInts" );
+        }
+
+        unsafe.copyMemory( fromArray, BYTE_ARRAY_BASE_OFFSET+fromArrayIndex, toArray, INT_ARRAY_BASE_OFFSET+toArrayIndex*INT_ARRAY_SCALE, numInts*INT_ARRAY_SCALE );
+    }
+
+    public static void copyInts( int[] fromArray, int fromArrayIndex, byte[] toArray, long toArrayIndex, int numInts ) {
+        if ( SystemX.isDebugRun() ) {
+            QA.argIsBetweenInc( 0, fromArrayIndex + numInts, fromArray.length, "fromArrayIndex+numInts" );
+            QA.argIsBetweenInc( 0, toArrayIndex + numInts*INT_ARRAY_SCALE, toArray.length, "toArrayIndex+numBytes" );
+        }
+
+        unsafe.copyMemory( fromArray, INT_ARRAY_BASE_OFFSET+fromArrayIndex*INT_ARRAY_SCALE, toArray, BYTE_ARRAY_BASE_OFFSET+toArrayIndex, numInts*INT_ARRAY_SCALE );
+    }
+
+    public static void copyDoubles( long fromAddress, double[] toArray, int toArrayIndex, int numDoubles ) {
+        if ( SystemX.isDebugRun() ) {
+            QA.argIsBetweenInc( 0, toArrayIndex, toArray.length, "toArrayIndex" );
+            QA.argIsBetweenInc( 0, toArrayIndex + numDoubles, toArray.length, "toArrayIndex+numDoubles" );
+        }
+
+        unsafe.copyMemory( null, fromAddress, toArray, DOUBLE_ARRAY_BASE_OFFSET+toArrayIndex*DOUBLE_ARRAY_SCALE, numDoubles*DOUBLE_ARRAY_SCALE );
+    }
+
+    public static void copyDoubles( double[] fromArray, int fromArrayIndex, long toAddress, int numDoubles ) {
+        if ( SystemX.isDebugRun() ) {
+            QA.argIsBetweenInc( 0, fromArrayIndex, fromArray.length, "fromArrayIndex" );
+            QA.argIsBetweenInc( 0, fromArrayIndex + numDoubles, fromArray.length, "fromArrayIndex+numDoubles" );
+
+            debugAddress( toAddress, numDoubles*DOUBLE_ARRAY_SCALE );
+        }
+
+        unsafe.copyMemory( fromArray, DOUBLE_ARRAY_BASE_OFFSET+fromArrayIndex*DOUBLE_ARRAY_SCALE, null, toAddress, numDoubles*DOUBLE_ARRAY_SCALE );
+    }
+
+    public static void copyDoubles( byte[] fromArray, long fromArrayIndex, double[] toArray, int toArrayIndex, int numDoubles ) {
+        if ( SystemX.isDebugRun() ) {
+            QA.argIsBetweenInc( 0, fromArrayIndex + numDoubles*DOUBLE_ARRAY_SCALE, fromArray.length, "fromArrayIndex+numBytes" );
+            QA.argIsBetweenInc( 0, toArrayIndex + numDoubles, toArray.length, "toArrayIndex+numDoubles" );
+        }
+
+        unsafe.copyMemory( fromArray, BYTE_ARRAY_BASE_OFFSET+fromArrayIndex, toArray, DOUBLE_ARRAY_BASE_OFFSET+toArrayIndex*DOUBLE_ARRAY_SCALE, numDoubles*DOUBLE_ARRAY_SCALE );
+    }
+
+    public static void copyDoubles( double[] fromArray, int fromArrayIndex, byte[] toArray, long toArrayIndex, int numDoubles ) {
+        if ( SystemX.isDebugRun() ) {
+            QA.argIsBetweenInc( 0, fromArrayIndex + numDoubles, fromArray.length, "fromArrayIndex+numDoubles" );
+            QA.argIsBetweenInc( 0, toArrayIndex + numDoubles*DOUBLE_ARRAY_SCALE, toArray.length, "toArrayIndex+numBytes" );
+        }
+
+        unsafe.copyMemory( fromArray, DOUBLE_ARRAY_BASE_OFFSET+fromArrayIndex*DOUBLE_ARRAY_SCALE, toArray, BYTE_ARRAY_BASE_OFFSET+toArrayIndex, numDoubles*DOUBLE_ARRAY_SCALE );
+    }
+
 
 
     private static Unsafe fetchUnsafe() {
@@ -300,6 +431,13 @@ public class Backdoor {
     private static final long BYTE_ARRAY_BASE_OFFSET = unsafe.arrayBaseOffset( byte[].class );
     private static final long BYTE_ARRAY_SCALE       = unsafe.arrayIndexScale( byte[].class );
 
+    private static final long LONG_ARRAY_BASE_OFFSET   = unsafe.arrayBaseOffset( long[].class );
+    private static final long LONG_ARRAY_SCALE         = unsafe.arrayIndexScale( long[].class );
+    private static final long INT_ARRAY_BASE_OFFSET    = unsafe.arrayBaseOffset( int[].class );
+    private static final long INT_ARRAY_SCALE          = unsafe.arrayIndexScale( int[].class );
+    private static final long DOUBLE_ARRAY_BASE_OFFSET = unsafe.arrayBaseOffset( double[].class );
+    private static final long DOUBLE_ARRAY_SCALE       = unsafe.arrayIndexScale( double[].class );
+
     static {
         QA.isNotZero( BYTE_ARRAY_BASE_OFFSET, "BYTE_ARRAY_BASE_OFFSET" );
     }
@@ -463,6 +601,56 @@ public class Backdoor {
         }
     }
 
+    /**
+     * The offset of the first element of a byte[], for use with the Object based accessors below.
+     */
+    public static long getByteArrayBaseOffset() {
+        return BYTE_ARRAY_BASE_OFFSET;
+    }
+
+    // The following accessors read and write relative to an object, or an absolute address when obj
+    // is null.  See Bytes2.getAddressBaseObject().
+
+    public static byte getByte( Object obj, long offset ) {
+        return unsafe.getByte( obj, offset );
+    }
+
+    public static void setByte( Object obj, long offset, byte v ) {
+        unsafe.putByte( obj, offset, v );
+    }
+
+    public static short getShort( Object obj, long offset ) {
+        return unsafe.getShort( obj, offset );
+    }
+
+    public static void setShort( Object obj, long offset, short v ) {
+        unsafe.putShort( obj, offset, v );
+    }
+
+    public static char getCharacter( Object obj, long offset ) {
+        return unsafe.getChar( obj, offset );
+    }
+
+    public static void setCharacter( Object obj, long offset, char v ) {
+        unsafe.putChar( obj, offset, v );
+    }
+
+    public static int getInteger( Object obj, long offset ) {
+        return unsafe.getInt( obj, offset );
+    }
+
+    public static void setInteger( Object obj, long offset, int v ) {
+        unsafe.putInt( obj, offset, v );
+    }
+
+    public static long getLong( Object obj, long offset ) {
+        return unsafe.getLong( obj, offset );
+    }
+
+    public static void setLong( Object obj, long offset, long v ) {
+        unsafe.putLong( obj, offset, v );
+    }
+
     public static void setFloat( Object obj, long fieldOffset, float v ) {
         unsafe.putFloat( obj, fieldOffset, v );
     }
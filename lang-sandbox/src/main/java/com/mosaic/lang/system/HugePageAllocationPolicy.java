@@ -0,0 +1,117 @@
+package com.mosaic.lang.system;
+
+import com.mosaic.lang.QA;
+import sun.misc.Cleaner;
+import sun.nio.ch.DirectBuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * See OffHeapAllocationPolicy.HUGE_PAGES.<p/>
+ *
+ * Java offers no way to madvise(MADV_HUGEPAGE) or to mmap(MAP_HUGETLB) anonymous memory, so huge
+ * pages are requested by mapping a file created on a hugetlbfs mount.  The file is deleted as soon
+ * as it has been mapped;  the pages are returned to the pool when the mapping is released.  The
+ * kernel reserves the huge pages of a shared mapping when it is created, so when the pool is
+ * exhausted the mapping fails here rather than faulting later.<p/>
+ *
+ * A single FileChannel mapping cannot exceed 2GB, and separate mappings are not guaranteed to be
+ * contiguous;  so larger requests are handed straight to the fallback policy.
+ */
+class HugePageAllocationPolicy implements OffHeapAllocationPolicy {
+
+    private final File                          hugetlbfsDir;
+    private final long                          hugePageSize;
+    private final long                          maxMappingSize;
+    private final OffHeapAllocationPolicy       fallbackPolicy;
+
+    // keyed by address;  holds the mappings that have been handed out, so that they can be unmapped
+    private final Map<Long,DirectBuffer>        mappings = new ConcurrentHashMap<>();
+
+    private volatile boolean                    isHugetlbfsAvailable;
+
+
+    public HugePageAllocationPolicy( File hugetlbfsDir, long hugePageSize ) {
+        QA.argNotNull( hugetlbfsDir, "hugetlbfsDir" );
+        QA.argIsGTZero( hugePageSize, "hugePageSize" );
+
+        this.hugetlbfsDir         = hugetlbfsDir;
+        this.hugePageSize         = hugePageSize;
+        this.maxMappingSize       = Integer.MAX_VALUE & ~(hugePageSize - 1);
+        this.fallbackPolicy       = new AlignedAllocationPolicy( hugePageSize );
+        this.isHugetlbfsAvailable = hugetlbfsDir.isDirectory() && hugetlbfsDir.canWrite();
+    }
+
+
+    /**
+     * Returns true while allocations are being backed by hugetlbfs.  Becomes false the first time
+     * that the hugetlbfs mount turns out to be missing or its pool of huge pages exhausted, after
+     * which every allocation falls back to huge page aligned malloc.
+     */
+    public boolean isHugetlbfsAvailable() {
+        return isHugetlbfsAvailable;
+    }
+
+    public long alloc( long numBytes ) {
+        QA.argIsGTZero( numBytes, "numBytes" );
+
+        long roundedNumBytes = roundUpToHugePage( numBytes );
+
+        if ( isHugetlbfsAvailable && roundedNumBytes <= maxMappingSize ) {
+            try {
+                return mapHugePages( roundedNumBytes );
+            } catch ( IOException ex ) {
+                // creating the file or mapping it failed;  eg the mount has gone or no huge pages are left
+                this.isHugetlbfsAvailable = false;
+            }
+        }
+
+        return fallbackPolicy.alloc( roundedNumBytes );
+    }
+
+    public void free( long address, long numBytes ) {
+        DirectBuffer mapping = mappings.remove( address );
+
+        if ( mapping == null ) {
+            fallbackPolicy.free( address, roundUpToHugePage(numBytes) );
+        } else {
+            Cleaner cleaner = mapping.cleaner();
+
+            if ( cleaner != null ) {
+                cleaner.clean();
+            }
+        }
+    }
+
+    public String toString() {
+        return "HUGE_PAGES(" + hugetlbfsDir + ")";
+    }
+
+
+    private long roundUpToHugePage( long numBytes ) {
+        return (numBytes + hugePageSize - 1) & ~(hugePageSize - 1);
+    }
+
+    private long mapHugePages( long numBytes ) throws IOException {
+        File f = File.createTempFile( "mosaic", ".hugepages", hugetlbfsDir );
+
+        try ( RandomAccessFile raf = new RandomAccessFile(f, "rw") ) {
+            MappedByteBuffer buf     = raf.getChannel().map( FileChannel.MapMode.READ_WRITE, 0, numBytes );
+            DirectBuffer     mapping = (DirectBuffer) buf;
+
+            mappings.put( mapping.address(), mapping );
+
+            return mapping.address();
+        } finally {
+            f.delete();
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.mosaic.lang.system;
+
+import java.io.File;
+
+
+/**
+ * Decides how blocks of memory are allocated off of the heap.  Large off heap structures that are
+ * accessed at random spend much of their time on TLB misses when backed by 4K pages, which the
+ * page aligned and huge page policies are intended to reduce.<p/>
+ *
+ * Memory must be returned to the policy that allocated it, along with the number of bytes that
+ * were requested.
+ */
+public interface OffHeapAllocationPolicy {
+
+    public static final long HUGE_PAGE_SIZE = 2*1024*1024;
+
+
+    /**
+     * Unsafe.allocateMemory;  which is malloc, and so the memory is only guaranteed to be word aligned.
+     */
+    public static final OffHeapAllocationPolicy STANDARD = new StandardAllocationPolicy();
+
+    /**
+     * Starts every allocation on the boundary of an OS page.
+     */
+    public static final OffHeapAllocationPolicy PAGE_ALIGNED = new AlignedAllocationPolicy( Backdoor.getPageSize() );
+
+    /**
+     * Backs allocations with huge pages, mapped from the hugetlbfs mount named by the system
+     * property 'mosaic.hugetlbfs.dir' (default /dev/hugepages).  When no huge pages are available
+     * then the allocation is aligned to the huge page size instead, which lets the kernel back it
+     * with transparent huge pages when they are enabled.  Sizes are rounded up to a multiple of
+     * HUGE_PAGE_SIZE, so this policy is only suitable for large allocations.
+     */
+    public static final OffHeapAllocationPolicy HUGE_PAGES = new HugePageAllocationPolicy(
+        new File(System.getProperty("mosaic.hugetlbfs.dir", "/dev/hugepages")),
+        HUGE_PAGE_SIZE
+    );
+
+    /**
+     * STANDARD allocation, with every page faulted in before the memory is handed over.
+     */
+    public static final OffHeapAllocationPolicy PRE_TOUCHED = preTouched( STANDARD );
+
+
+    /**
+     * Wraps another policy, touching every page of each allocation before it is returned.  This
+     * moves the cost of the page faults to allocation time, and as Linux places a page on the NUMA
+     * node of the thread that first touches it, memory allocated by this policy is local to the
+     * thread that allocated it.  So allocate from the thread that will use the memory.
+     */
+    public static OffHeapAllocationPolicy preTouched( OffHeapAllocationPolicy policy ) {
+        return new PreTouchedAllocationPolicy( policy );
+    }
+
+
+    /**
+     * @return the address of the first of numBytes;  the contents of the memory are undefined
+     */
+    public long alloc( long numBytes );
+
+    /**
+     * @param numBytes the number of bytes that were requested when the memory was allocated
+     */
+    public void free( long address, long numBytes );
+
+    /**
+     * Moves a block of memory to a new allocation of a different size.  The contents are preserved
+     * up to the smaller of the two sizes.
+     */
+    public default long realloc( long address, long numBytes, long newNumBytes ) {
+        long newAddress = alloc( newNumBytes );
+
+        Backdoor.copyBytes( address, newAddress, Math.min(numBytes,newNumBytes) );
+        free( address, numBytes );
+
+        return newAddress;
+    }
+
+}
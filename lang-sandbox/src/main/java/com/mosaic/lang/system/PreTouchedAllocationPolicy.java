@@ -0,0 +1,45 @@
+package com.mosaic.lang.system;
+
+import com.mosaic.lang.QA;
+
+
+/**
+ * See OffHeapAllocationPolicy.preTouched.
+ */
+class PreTouchedAllocationPolicy implements OffHeapAllocationPolicy {
+
+    private final OffHeapAllocationPolicy delegate;
+    private final int                     pageSize = Backdoor.getPageSize();
+
+
+    public PreTouchedAllocationPolicy( OffHeapAllocationPolicy delegate ) {
+        QA.argNotNull( delegate, "delegate" );
+
+        this.delegate = delegate;
+    }
+
+
+    public long alloc( long numBytes ) {
+        long address = delegate.alloc( numBytes );
+        long toExc   = address + numBytes;
+
+        // write to one byte per page;  writing rather than reading is what forces the OS to
+        // back the page with its own physical memory
+        for ( long a=address; a<toExc; a+=pageSize ) {
+            Backdoor.setByte( a, (byte) 0 );
+        }
+
+        Backdoor.setByte( toExc-1, (byte) 0 );
+
+        return address;
+    }
+
+    public void free( long address, long numBytes ) {
+        delegate.free( address, numBytes );
+    }
+
+    public String toString() {
+        return "PRE_TOUCHED(" + delegate + ")";
+    }
+
+}
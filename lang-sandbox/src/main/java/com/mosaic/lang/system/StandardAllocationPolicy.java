@@ -0,0 +1,21 @@
+package com.mosaic.lang.system;
+
+
+/**
+ * See OffHeapAllocationPolicy.STANDARD.
+ */
+class StandardAllocationPolicy implements OffHeapAllocationPolicy {
+
+    public long alloc( long numBytes ) {
+        return Backdoor.alloc( numBytes );
+    }
+
+    public void free( long address, long numBytes ) {
+        Backdoor.free( address );
+    }
+
+    public String toString() {
+        return "STANDARD";
+    }
+
+}
@@ -57,7 +57,7 @@ public abstract class SystemX extends ServiceMixin<SystemX> {
 
     public static final int  UNSIGNED_BYTE_MASK  = 0xFF;
     public static final int  UNSIGNED_SHORT_MASK = 0xFFFF;
-    public static final long UNSIGNED_INT_MASK   = 0xFFFFFFFF;
+    public static final long UNSIGNED_INT_MASK   = 0xFFFFFFFFL;
 
     public static final int MAX_UNSIGNED_INT = (Short.MAX_VALUE << 1)+1;
     public static final byte NULL_BYTE = 0;
@@ -76,6 +76,14 @@ public abstract class SystemX extends ServiceMixin<SystemX> {
 
     private static final boolean areAssertionsEnabled = detectWhetherAssertionsAreEnabled();
 
+    /**
+     * True when Bytes, Bytes2, their views and Struct are to check every offset against the
+     * bounds that they were given;  which is the case unless this is a reckless run (see
+     * isRecklessRun).  The access paths test this constant directly, so that once Hotspot
+     * has compiled them the checks of a reckless run fold away to nothing.
+     */
+    public static final boolean CHECK_BOUNDS = !isRecklessRun();
+
 
     public static int getCacheLineLengthBytes() {
         return 64;  // todo detect or configure this
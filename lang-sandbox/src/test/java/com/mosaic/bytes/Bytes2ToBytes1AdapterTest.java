@@ -0,0 +1,16 @@
+package com.mosaic.bytes;
+
+import com.mosaic.bytes2.impl.Bytes2ToBytes1Adapter;
+import com.mosaic.bytes2.impl.OffHeapBytes2;
+
+import java.io.IOException;
+
+
+public class Bytes2ToBytes1AdapterTest extends BaseBytesTest {
+
+    @Override
+    protected Bytes _createBytes( long numBytes ) throws IOException {
+        return new Bytes2ToBytes1Adapter(new OffHeapBytes2(numBytes));
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.mosaic.bytes.struct;
+
+import com.mosaic.bytes.struct.examples.redbull.RedBullStruct;
+import com.mosaic.io.filesystemx.DirectoryX;
+import com.mosaic.io.filesystemx.FileContents;
+import com.mosaic.io.filesystemx.FileModeEnum;
+import com.mosaic.io.filesystemx.FileX;
+import com.mosaic.lang.system.SystemX;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.mosaic.lang.system.SystemX.SIZEOF_LONG;
+import static org.junit.Assert.*;
+
+
+public abstract class BasePersistentStructsArrayTestCases {
+
+    private DirectoryX                            tmpDirectory;
+    private FileX                                 dataFile;
+    private PersistentStructsArray<RedBullStruct> bulls;
+
+    protected abstract SystemX createSystem();
+
+
+    @Before
+    public void setup() {
+        SystemX system = createSystem();
+
+        this.tmpDirectory = system.fileSystem.getTempDirectory().createDirectoryWithRandomName( this.getClass().getSimpleName(), ".junit" );
+        this.dataFile     = tmpDirectory.getOrCreateFile( "bulls.data" );
+        this.bulls        = new PersistentStructsArray<>( dataFile, 2, RedBullStruct::new );
+
+        system.registerServicesAfter( bulls );
+
+        system.start();
+    }
+
+    @After
+    public void tearDown() {
+        createSystem().stop();
+
+        this.tmpDirectory.deleteAll();
+    }
+
+
+    @Test
+    public void givenNewFile_expectNoRecords() {
+        assertEquals( 0, bulls.numRecords() );
+    }
+
+    @Test
+    public void allocateRecords_stop_expectAccessToDataToBeUnavailable() {
+        allocateBulls( 3 );
+
+        bulls.stop();
+
+        try {
+            bulls.numRecords();
+            fail( "expected exception" );
+        } catch ( NullPointerException ex ) {
+
+        }
+    }
+
+    @Test
+    public void allocateMoreRecordsThanTheInitialCapacity_restart_expectRecordsToStillBeAvailable() {
+        allocateBulls( 10 );
+
+        bulls.stop();
+        bulls.start();
+
+        assertEquals( 10, bulls.numRecords() );
+        for ( int i=0; i<10; i++ ) {
+            assertBull( i );
+        }
+    }
+
+    @Test
+    public void restart_allocateMoreRecords_expectThemToFollowTheExistingRecords() {
+        allocateBulls( 3 );
+
+        bulls.stop();
+        bulls.start();
+
+        allocateBulls( 4 );
+
+        assertEquals( 7, bulls.numRecords() );
+        for ( int i=0; i<7; i++ ) {
+            assertBull( i );
+        }
+    }
+
+    @Test
+    public void sortBy_restart_expectSortedOrderToBeKept() {
+        allocateBulls( 5 );
+
+        bulls.sortBy( bull -> -bull.getAge() );
+        bulls.sync();
+
+        bulls.stop();
+        bulls.start();
+
+        for ( int i=0; i<5; i++ ) {
+            assertEquals( 4-i, bulls.select(i).getAge() );
+        }
+    }
+
+    @Test
+    public void givenFileWhoseRecordCountRunsPastItsEnd_start_expectException() {
+        bulls.stop();
+
+        FileContents contents = dataFile.openFile( FileModeEnum.READ_WRITE );
+        contents.writeLong( 0, SIZEOF_LONG, 1000 );
+        contents.release();
+
+        try {
+            bulls.start();
+            fail( "expected IllegalStateException" );
+        } catch ( IllegalStateException ex ) {
+            assertTrue( ex.getMessage(), ex.getMessage().contains("claims to hold 1000 records of "+RedBullStruct.SIZE_BYTES+" bytes") );
+        }
+    }
+
+
+    private void allocateBulls( int numBulls ) {
+        long firstIndex = bulls.allocateNewRecords( numBulls );
+
+        for ( long i=firstIndex; i<firstIndex+numBulls; i++ ) {
+            RedBullStruct bull = bulls.select( i );
+
+            bull.setWeight( i+0.1f );
+            bull.setHasWings( i % 2 == 0 );
+            bull.setAge( (int) i );
+        }
+    }
+
+    private void assertBull( long i ) {
+        RedBullStruct bull = bulls.select( i );
+
+        assertEquals( i, bull.getAge() );
+        assertEquals( i % 2 == 0, bull.getHasWings() );
+        assertEquals( i+0.1f, bull.getWeight(), 1e-6 );
+    }
+
+}
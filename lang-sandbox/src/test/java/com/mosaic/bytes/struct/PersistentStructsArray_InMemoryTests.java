@@ -0,0 +1,17 @@
+package com.mosaic.bytes.struct;
+
+import com.mosaic.lang.system.DebugSystem;
+import com.mosaic.lang.system.SystemX;
+
+
+/**
+ *
+ */
+public class PersistentStructsArray_InMemoryTests extends BasePersistentStructsArrayTestCases {
+
+    @Override
+    protected SystemX createSystem() {
+        return new DebugSystem();
+    }
+
+}
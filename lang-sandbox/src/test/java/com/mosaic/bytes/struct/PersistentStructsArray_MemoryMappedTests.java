@@ -0,0 +1,17 @@
+package com.mosaic.bytes.struct;
+
+import com.mosaic.lang.system.DebugSystem;
+import com.mosaic.lang.system.SystemX;
+
+
+/**
+ *
+ */
+public class PersistentStructsArray_MemoryMappedTests extends BasePersistentStructsArrayTestCases {
+
+    @Override
+    protected SystemX createSystem() {
+        return DebugSystem.withActualFileSystem();
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.mosaic.bytes.struct;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+
+public class RadixSortAlgorithmTest {
+
+    @Test
+    public void givenEmptyArrays_sort_expectNoChange() {
+        long[] keys   = new long[0];
+        int[]  values = new int[0];
+
+        RadixSortAlgorithm.sort( keys, values );
+
+        assertEquals( 0, keys.length );
+    }
+
+    @Test
+    public void givenArraysOfDifferentLengths_sort_expectException() {
+        try {
+            RadixSortAlgorithm.sort( new long[2], new int[3] );
+            fail( "expected IllegalArgumentException" );
+        } catch ( IllegalArgumentException ex ) {
+            assertEquals( "keys and values must be the same length: 2 != 3", ex.getMessage() );
+        }
+    }
+
+    @Test
+    public void sortTenNumbers_expectValuesToFollowTheirKeys() {
+        long[] keys   = new long[] {3,2,1,5,4,6,9,0,7,8};
+        int[]  values = new int[]  {3,2,1,5,4,6,9,0,7,8};
+
+        RadixSortAlgorithm.sort( keys, values );
+
+        assertArrayEquals( new long[] {0,1,2,3,4,5,6,7,8,9}, keys );
+        assertArrayEquals( new int[]  {0,1,2,3,4,5,6,7,8,9}, values );
+    }
+
+    @Test
+    public void givenNegativeKeys_sort_expectSignedOrder() {
+        long[] keys   = new long[] {5, -1, Long.MAX_VALUE, 0, Long.MIN_VALUE, -300};
+        int[]  values = new int[]  {0,  1,              2, 3,              4,    5};
+
+        RadixSortAlgorithm.sort( keys, values );
+
+        assertArrayEquals( new long[] {Long.MIN_VALUE, -300, -1, 0, 5, Long.MAX_VALUE}, keys );
+        assertArrayEquals( new int[]  {4, 5, 1, 3, 0, 2}, values );
+    }
+
+    @Test
+    public void givenDuplicateKeys_sort_expectEqualKeysToKeepTheirOriginalOrder() {
+        long[] keys   = new long[] {2, 1, 2, 1, 2, 1};
+        int[]  values = new int[]  {0, 1, 2, 3, 4, 5};
+
+        RadixSortAlgorithm.sort( keys, values );
+
+        assertArrayEquals( new long[] {1, 1, 1, 2, 2, 2}, keys );
+        assertArrayEquals( new int[]  {1, 3, 5, 0, 2, 4}, values );
+    }
+
+    @Test
+    public void givenRandomKeys_sort_expectSameOrderAsArraysSort() {
+        Random rnd = new Random( 42 );
+
+        for ( int n : new int[] {2, 17, 1000, 3*RadixSortAlgorithm.MIN_CHUNK_SIZE+7} ) {
+            assertSortsLikeArraysSort( rnd.longs(n).toArray() );
+            assertSortsLikeArraysSort( rnd.longs(n, 0, 10000).toArray() );  // most passes are skipped
+        }
+    }
+
+
+    private void assertSortsLikeArraysSort( long[] keys ) {
+        int[] values = new int[keys.length];
+        for ( int i=0; i<values.length; i++ ) {
+            values[i] = i;
+        }
+
+        long[] original = keys.clone();
+        long[] expected = keys.clone();
+        Arrays.sort( expected );
+
+        RadixSortAlgorithm.sort( keys, values );
+
+        assertArrayEquals( expected, keys );
+
+        for ( int i=0; i<values.length; i++ ) {
+            assertEquals( keys[i], original[values[i]] );
+
+            if ( i > 0 && keys[i] == keys[i-1] ) {
+                assertTrue( values[i] > values[i-1] );
+            }
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.mosaic.bytes.struct;
+
+import com.mosaic.collections.LongIterator;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+
+public class StructIndexTest {
+
+    private static final StructRegistry structRegistry = new StructRegistry();
+    private static final LongField      accountIdField = structRegistry.registerLong();
+    private static final IntField       timestampField = structRegistry.registerInteger();
+
+
+    private StructsArray<Struct> structs     = StructsArray.allocateOnHeap( 4, structRegistry::createUnallocatedStruct );
+    private StructIndex<Struct>  byAccountId = StructIndex.onField( structs, structRegistry::createUnallocatedStruct, accountIdField );
+    private StructIndex<Struct>  byTimestamp = StructIndex.onField( structs, structRegistry::createUnallocatedStruct, timestampField );
+
+
+    @After
+    public void tearDown() {
+        byAccountId.release();
+        byTimestamp.release();
+    }
+
+
+    @Test
+    public void givenNoRecords_expectEmptyIndex() {
+        assertEquals( 0, byAccountId.size() );
+        assertEquals( -1, byAccountId.findFirst(0) );
+        assertEquals( 0, byAccountId.count(Long.MIN_VALUE, Long.MAX_VALUE) );
+        assertFalse( byAccountId.findRange(Long.MIN_VALUE, Long.MAX_VALUE).hasNext() );
+    }
+
+    @Test
+    public void appendRecords_findFirst_expectLowestRecordIndexWithThatKey() {
+        appendRecord( 30, 1 );
+        appendRecord( 10, 2 );
+        appendRecord( 20, 3 );
+        appendRecord( 10, 4 );
+
+        assertEquals( 1, byAccountId.findFirst(10) );
+        assertEquals( 2, byAccountId.findFirst(20) );
+        assertEquals( 0, byAccountId.findFirst(30) );
+        assertEquals( -1, byAccountId.findFirst(15) );
+        assertEquals( -1, byAccountId.findFirst(40) );
+        assertEquals( 4, byAccountId.size() );
+    }
+
+    @Test
+    public void appendRecords_findRange_expectRecordIndexesInKeyOrder() {
+        appendRecord( 30, 1 );
+        appendRecord( 10, 2 );
+        appendRecord( 20, 3 );
+        appendRecord( 10, 4 );
+        appendRecord( -5, 5 );
+
+        assertEquals( Arrays.asList(1L, 3L, 2L), toList(byAccountId.findRange(10, 30)) );
+        assertEquals( Arrays.asList(4L, 1L, 3L, 2L, 0L), toList(byAccountId.findRange(Long.MIN_VALUE, Long.MAX_VALUE)) );
+        assertEquals( Arrays.asList(), toList(byAccountId.findRange(11, 20)) );
+        assertEquals( Arrays.asList(), toList(byAccountId.findRange(30, 10)) );
+
+        assertEquals( 3, byAccountId.count(10, 30) );
+        assertEquals( 0, byAccountId.count(30, 10) );
+    }
+
+    @Test
+    public void queryBetweenAppends_expectNewRecordsToBeMergedIntoTheIndex() {
+        appendRecord( 50, 500 );
+        appendRecord( 10, 100 );
+
+        assertEquals( Arrays.asList(1L, 0L), toList(byAccountId.findRange(0, 100)) );
+        assertEquals( Arrays.asList(1L, 0L), toList(byTimestamp.findRange(0, 1000)) );
+
+        appendRecord( 30, 300 );
+        appendRecord( 10, 600 );
+
+        assertEquals( Arrays.asList(1L, 3L, 2L, 0L), toList(byAccountId.findRange(0, 100)) );
+        assertEquals( Arrays.asList(1L, 2L, 0L, 3L), toList(byTimestamp.findRange(0, 1000)) );
+    }
+
+    @Test
+    public void queryBetweenAllocatingARecordAndSettingItsKey_expectTheRecordToBeIndexedUnderItsKey() {
+        appendRecord( 10, 100 );
+
+        long   recordIndex = structs.allocateNewRecord();
+        Struct record      = structs.select( recordIndex );
+
+        assertEquals( 1, byAccountId.size() );
+        assertEquals( -1, byAccountId.findFirst(0) );
+
+        accountIdField.set( record, 20 );
+        byAccountId.index( recordIndex );
+
+        assertEquals( 2, byAccountId.size() );
+        assertEquals( -1, byAccountId.findFirst(0) );
+        assertEquals( recordIndex, byAccountId.findFirst(20) );
+    }
+
+    @Test
+    public void clearAll_rebuild_expectIndexToBeEmptied() {
+        appendRecord( 50, 500 );
+        assertEquals( 0, byAccountId.findFirst(50) );
+
+        structs.clearAll();
+        byAccountId.rebuild();
+
+        assertEquals( 0, byAccountId.size() );
+
+        appendRecord( 60, 600 );
+
+        assertEquals( -1, byAccountId.findFirst(50) );
+        assertEquals( 0, byAccountId.findFirst(60) );
+    }
+
+    @Test
+    public void sortRecords_rebuild_expectIndexToFollowTheRecords() {
+        appendRecord( 50, 500 );
+        appendRecord( 10, 100 );
+        assertEquals( 0, byAccountId.findFirst(50) );
+
+        structs.sortBy( accountIdField::get );
+        byAccountId.rebuild();
+
+        assertEquals( 1, byAccountId.findFirst(50) );
+        assertEquals( 0, byAccountId.findFirst(10) );
+    }
+
+    @Test
+    public void appendManyRandomRecordsInBatches_expectSameResultsAsAScan() {
+        Random rnd = new Random( 7 );
+
+        for ( int batch=0; batch<20; batch++ ) {
+            int batchSize = rnd.nextInt( 200 );
+
+            for ( int i=0; i<batchSize; i++ ) {
+                appendRecord( rnd.nextInt(100), rnd.nextInt() );
+            }
+
+            long from  = rnd.nextInt( 100 );
+            long toExc = from + rnd.nextInt( 20 );
+
+            assertEquals( scanForRange(from, toExc), toList(byAccountId.findRange(from, toExc)) );
+        }
+    }
+
+
+    private void appendRecord( long accountId, int timestamp ) {
+        long   recordIndex = structs.allocateNewRecord();
+        Struct record      = structs.select( recordIndex );
+
+        accountIdField.set( record, accountId );
+        timestampField.set( record, timestamp );
+
+        byAccountId.index( recordIndex );
+        byTimestamp.index( recordIndex );
+    }
+
+    private List<Long> scanForRange( long fromKeyInc, long toKeyExc ) {
+        List<Long> matches = new ArrayList<>();
+
+        for ( long key=fromKeyInc; key<toKeyExc; key++ ) {
+            for ( long i=0; i<structs.numRecords(); i++ ) {
+                if ( accountIdField.get(structs.select(i)) == key ) {
+                    matches.add( i );
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    private static List<Long> toList( LongIterator it ) {
+        List<Long> list = new ArrayList<>();
+
+        while ( it.hasNext() ) {
+            list.add( it.next() );
+        }
+
+        return list;
+    }
+
+}
@@ -22,6 +22,8 @@ public class StructsArrayBenchmark {
     private Structs<Trade> trades = new StructsArray<>( bytes, Trade::new );
     private Trade           trade  = new Trade();
 
+    private long            sortDirection = 1;
+
 
     @Before
     public void init() {
@@ -96,4 +98,24 @@ in order off heap
         return buyCost + sellCost;
     }
 
+
+    /*
+     * Each run flips the direction of the sort, so that neither sort is given already sorted
+     * records.  The radix sort does the same amount of work whatever the input order.
+     */
+
+    @Benchmark( value=3, batchCount=1, units="sort" )
+    public void sortByPrice() {
+        long direction = sortDirection = -sortDirection;
+
+        trades.sortBy( t -> direction*t.getPrice() );
+    }
+
+    @Benchmark( value=3, batchCount=1, units="sort" )
+    public void sortByPriceUsingComparator() {
+        long direction = sortDirection = -sortDirection;
+
+        trades.sort( (a,b) -> Long.compare(direction*a.getPrice(), direction*b.getPrice()) );
+    }
+
 }
@@ -300,6 +300,44 @@ public class StructsArrayTest {
         assertEquals( 3, structs.numRecords() );
     }
 
+    @Test
+    public void allocateRecords_sortByDescendingAge_expectWholeRecordsToMove() {
+        allocateBulls( 5 );
+
+        structs.sortBy( bull -> -bull.getAge() );
+
+        for ( int i=0; i<5; i++ ) {
+            int originalIndex = 4-i;
+
+            assertBull( i, originalIndex, originalIndex % 2 == 0, originalIndex+0.1f );
+        }
+
+        assertEquals( 5, structs.numRecords() );
+    }
+
+    @Test
+    public void allocateRecordsOffHeap_sortByWings_expectEqualKeysToKeepTheirOrder() {
+        structs = StructsArray.allocateOffHeap( 6, RedBullStruct::new );
+
+        allocateBulls( 6 );
+
+        structs.sortBy( bull -> bull.getHasWings() ? 0 : 1 );
+
+        int[] expectedAges = new int[] {0, 2, 4, 1, 3, 5};
+        for ( int i=0; i<expectedAges.length; i++ ) {
+            int age = expectedAges[i];
+
+            assertBull( i, age, age % 2 == 0, age+0.1f );
+        }
+    }
+
+    @Test
+    public void givenNoRecords_sortBy_expectNoChange() {
+        structs.sortBy( RedBullStruct::getAge );
+
+        assertEquals( 0, structs.numRecords() );
+    }
+
 
 // PERSISTENCE
 
@@ -311,6 +311,82 @@ public abstract class BaseBytesTest2 {
     }
 
 
+// BULK PRIMITIVES
+
+    @Test
+    public void writeLongs_expectThemToBeReadableOneAtATime() {
+        Bytes2 b = initBytes();
+
+        assertEquals( 24, b.writeLongs(2, 100, new long[] {1, -2, Long.MAX_VALUE}) );
+
+        assertAllBytes2AreZero( b, 0, 2 );
+        assertEquals( 1, b.readLong(2, 100) );
+        assertEquals( -2, b.readLong(10, 100) );
+        assertEquals( Long.MAX_VALUE, b.readLong(18, 100) );
+        assertAllBytes2AreZero( b, 26, b.sizeBytes() );
+    }
+
+    @Test
+    public void writeLongsOneAtATime_readThemBackInBulk() {
+        Bytes2 b = initBytes();
+
+        b.writeLong( 3, 100, 10 );
+        b.writeLong( 11, 100, 11 );
+        b.writeLong( 19, 100, 12 );
+
+        long[] buf = new long[5];
+        assertEquals( 24, b.readLongs(3, 100, buf, 1, 4) );
+
+        assertArrayEquals( new long[] {0, 10, 11, 12, 0}, buf );
+    }
+
+    @Test
+    public void writeSubsetOfLongsArray_expectOnlyThatSubsetToBeWritten() {
+        Bytes2 b = initBytes();
+
+        assertEquals( 16, b.writeLongs(0, 100, new long[] {1, 2, 3, 4}, 1, 3) );
+
+        assertEquals( 2, b.readLong(0, 100) );
+        assertEquals( 3, b.readLong(8, 100) );
+        assertAllBytes2AreZero( b, 16, b.sizeBytes() );
+    }
+
+    @Test
+    public void writeInts_readThemBackInBulkAndOneAtATime() {
+        Bytes2 b = initBytes();
+
+        assertEquals( 12, b.writeInts(1, 100, new int[] {7, -8, Integer.MIN_VALUE}) );
+
+        assertAllBytes2AreZero( b, 0, 1 );
+        assertEquals( 7, b.readInt(1, 100) );
+        assertEquals( -8, b.readInt(5, 100) );
+        assertEquals( Integer.MIN_VALUE, b.readInt(9, 100) );
+        assertAllBytes2AreZero( b, 13, b.sizeBytes() );
+
+        int[] buf = new int[3];
+        assertEquals( 12, b.readInts(1, 100, buf) );
+
+        assertArrayEquals( new int[] {7, -8, Integer.MIN_VALUE}, buf );
+    }
+
+    @Test
+    public void writeDoubles_readThemBackInBulkAndOneAtATime() {
+        Bytes2 b = initBytes();
+
+        assertEquals( 16, b.writeDoubles(4, 100, new double[] {1.5, -2.25}) );
+
+        assertAllBytes2AreZero( b, 0, 4 );
+        assertEquals( 1.5, b.readDouble(4, 100), 0.0 );
+        assertEquals( -2.25, b.readDouble(12, 100), 0.0 );
+        assertAllBytes2AreZero( b, 20, b.sizeBytes() );
+
+        double[] buf = new double[2];
+        assertEquals( 16, b.readDoubles(4, 100, buf) );
+
+        assertArrayEquals( new double[] {1.5, -2.25}, buf, 0.0 );
+    }
+
+
 // RESIZE
 
     @Test
@@ -0,0 +1,200 @@
+package com.mosaic.bytes2;
+
+import com.mosaic.bytes2.impl.ChunkedMemoryMappedBytes2;
+import com.mosaic.io.filesystemx.FileModeEnum;
+import com.mosaic.lang.text.DecodedCharacter;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Runs the standard Bytes2 tests with a tiny chunk size, so that most values straddle two chunks.
+ */
+public class ChunkedMemoryMappedBytes2Test extends BaseBytesTest2 {
+
+    private static final long CHUNK_SIZE = 16;
+
+    private File file;
+
+
+    protected Bytes2 _createBytes( long numBytes ) throws IOException {
+        file = File.createTempFile( "ChunkedMemoryMappedBytes2Test", ".dat" );
+
+        return ChunkedMemoryMappedBytes2.mapFile( file, FileModeEnum.READ_WRITE, numBytes, CHUNK_SIZE );
+    }
+
+    @After
+    public void tearDown() {
+        super.tearDown();
+
+        if ( file != null ) {
+            file.delete();
+        }
+    }
+
+
+    @Test
+    public void writeValuesThatStraddleChunks_expectToReadThemBack() {
+        Bytes2 bytes = createBytes( 64 );
+
+        for ( long i=0; i<CHUNK_SIZE; i++ ) {
+            bytes.writeLong( CHUNK_SIZE-i, 64, 0x0102030405060708L + i );
+            assertEquals( 0x0102030405060708L + i, bytes.readLong(CHUNK_SIZE-i, 64) );
+
+            bytes.writeInt( 2*CHUNK_SIZE-2, 64, -42 );
+            assertEquals( -42, bytes.readInt(2*CHUNK_SIZE-2, 64) );
+
+            bytes.writeDouble( 3*CHUNK_SIZE-5, 64, 1.25 );
+            assertEquals( 1.25, bytes.readDouble(3*CHUNK_SIZE-5, 64), 1e-9 );
+        }
+    }
+
+    @Test
+    public void writeUTF8CharacterThatStraddlesChunks_expectToReadItBack() {
+        Bytes2           bytes = createBytes( 64 );
+        DecodedCharacter c     = new DecodedCharacter();
+
+        assertEquals( 3, bytes.writeUTF8Character(CHUNK_SIZE-1, 64, '€') );
+
+        bytes.readUTF8Character( CHUNK_SIZE-1, 64, c );
+
+        assertEquals( '€', c.c );
+        assertEquals( 3, c.numBytesConsumed );
+    }
+
+    @Test
+    public void growByManyChunks_expectExistingContentsToBeKept() {
+        ChunkedMemoryMappedBytes2 bytes = (ChunkedMemoryMappedBytes2) createBytes( 20 );
+
+        bytes.writeLong( 10, 20, 123 );
+        assertEquals( 2, bytes.getNumChunks() );
+
+        bytes.resize( 1000 );
+        bytes.writeLong( 990, 1000, 456 );
+
+        assertEquals( 63, bytes.getNumChunks() );
+        assertEquals( 1000, bytes.sizeBytes() );
+        assertEquals( 123, bytes.readLong(10, 20) );
+        assertEquals( 456, bytes.readLong(990, 1000) );
+
+        bytes.resize( 20 );
+
+        assertEquals( 2, bytes.getNumChunks() );
+        assertEquals( 123, bytes.readLong(10, 20) );
+    }
+
+    @Test
+    public void resizeToPartOfAChunk_expectTheFileToHoldExactlyThatManyBytes() {
+        Bytes2 bytes = createBytes( 20 );
+
+        assertEquals( 20, file.length() );
+
+        bytes.writeInt( 16, 20, 7 );
+        bytes.resize( 37 );
+        bytes.writeByte( 36, 37, (byte) 9 );
+
+        assertEquals( 37, bytes.sizeBytes() );
+        assertEquals( 37, file.length() );
+        assertEquals( 7, bytes.readInt(16, 20) );
+        assertEquals( 9, bytes.readByte(36, 37) );
+    }
+
+    @Test
+    public void growWithinAndBeyondTheLastChunk_expectOnlyTheLastChunkToMove() {
+        ChunkedMemoryMappedBytes2 bytes = (ChunkedMemoryMappedBytes2) createBytes( 20 );
+
+        long chunk0 = bytes.getChunkAddress( 0 );
+
+        bytes.writeByte( 17, 20, (byte) 3 );
+        bytes.resize( 30 );
+
+        assertEquals( chunk0, bytes.getChunkAddress(0) );
+        assertEquals( 3, bytes.readByte(17, 30) );
+
+        bytes.resize( 100 );
+
+        assertEquals( chunk0, bytes.getChunkAddress(0) );
+        assertEquals( 3, bytes.readByte(17, 100) );
+        assertEquals( 100, file.length() );
+    }
+
+    @Test
+    public void reopenAFileLongerThanRequested_expectTheWholeFileToStayMapped() throws IOException {
+        Bytes2 bytes = createBytes( 40 );
+        bytes.writeByte( 39, 40, (byte) 6 );
+
+        Bytes2 reopened = ChunkedMemoryMappedBytes2.mapFile( file, FileModeEnum.READ_WRITE, 20, CHUNK_SIZE );
+
+        try {
+            reopened.resize( 40 );
+
+            assertEquals( 6, reopened.readByte(39, 40) );
+            assertEquals( 40, file.length() );
+        } finally {
+            reopened.release();
+        }
+    }
+
+    @Test
+    public void mapReadOnly_expectTheLastChunkToEndWithTheFile() throws IOException {
+        File roFile = File.createTempFile( "ChunkedMemoryMappedBytes2Test", ".dat" );
+
+        try {
+            try ( RandomAccessFile raf = new RandomAccessFile(roFile, "rw") ) {
+                raf.setLength( 20 );
+                raf.seek( 19 );
+                raf.writeByte( 5 );
+            }
+
+            Bytes2 readOnlyBytes = ChunkedMemoryMappedBytes2.mapFile( roFile, FileModeEnum.READ_ONLY, 20, CHUNK_SIZE );
+
+            try {
+                assertEquals( 5, readOnlyBytes.readByte(19, 20) );
+                assertEquals( 20, roFile.length() );
+            } finally {
+                readOnlyBytes.release();
+            }
+        } finally {
+            roFile.delete();
+        }
+    }
+
+    @Test
+    public void copyBytesAcrossChunks_expectTheSameBytesBack() {
+        Bytes2 bytes  = createBytes( 100 );
+        byte[] source = new byte[70];
+
+        for ( int i=0; i<source.length; i++ ) {
+            source[i] = (byte) i;
+        }
+
+        bytes.writeBytes( 7, 100, source );
+
+        byte[] destination = new byte[70];
+        assertEquals( 70, bytes.readBytes(7, 100, destination) );
+        assertArrayEquals( source, destination );
+
+        assertTrue( bytes.compareBytes(7, 100, source) );
+    }
+
+    @Test
+    public void flushRange_expectBytesToBeVisibleViaTheFile() throws IOException {
+        Bytes2 bytes = createBytes( 100 );
+
+        bytes.writeLong( 30, 38, 42 );
+        bytes.flush( 30, 38 );
+
+        try ( RandomAccessFile raf = new RandomAccessFile(file, "r") ) {
+            raf.seek( 30 );
+
+            assertEquals( 42, Long.reverseBytes(raf.readLong()) );
+        }
+    }
+
+}
@@ -1,11 +1,17 @@
 package com.mosaic.bytes2;
 
+import com.mosaic.bytes2.impl.ChunkedMemoryMappedBytes2;
 import com.mosaic.bytes2.impl.MemoryMappedBytes2;
 import com.mosaic.io.filesystemx.FileModeEnum;
 import org.junit.After;
+import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 
 /**
@@ -29,4 +35,56 @@ public class MemoryMappedBytes2Test extends BaseBytesTest2 {
         file.delete();
     }
 
+
+    @Test
+    public void flushRange_expectBytesToBeVisibleViaTheFile() throws IOException {
+        Bytes2 bytes = createBytes( 3*4096 );
+
+        bytes.writeLong( 5000, 5008, 42 );
+        bytes.flush( 5000, 5008 );
+        bytes.flush( 0, 0 );              // empty ranges are ignored
+        bytes.flush( 8000, 100000 );      // ranges are clamped to the mapped region
+
+        try ( RandomAccessFile raf = new RandomAccessFile(file, "r") ) {
+            raf.seek( 5000 );
+
+            assertEquals( 42, Long.reverseBytes(raf.readLong()) );
+        }
+    }
+
+    @Test
+    public void mapFileLargerThan2GB_expectItToBeMappedAsSeveralRegions() {
+        long   numBytes = 5L*1024*1024*1024;  // the file is sparse, so only the pages written to take up space
+        Bytes2 bytes    = createBytes( numBytes );
+
+        assertTrue( bytes instanceof ChunkedMemoryMappedBytes2 );
+        assertEquals( numBytes, bytes.sizeBytes() );
+        assertEquals( numBytes, file.length() );
+
+        long straddlingOffset = MemoryMappedBytes2.MAX_REGION_SIZE - 3;
+
+        bytes.writeLong( straddlingOffset, numBytes, 42 );
+        bytes.writeLong( numBytes-8, numBytes, 43 );
+
+        assertEquals( 42, bytes.readLong(straddlingOffset, numBytes) );
+        assertEquals( 43, bytes.readLong(numBytes-8, numBytes) );
+    }
+
+    @Test
+    public void mapFileLargerThan2GBThatIsNotAWholeNumberOfChunks_expectTheFileToKeepItsLength() throws IOException {
+        long   numBytes = 2L*1024*1024*1024 + 12345;
+        Bytes2 bytes    = MemoryMappedBytes2.mapFile( file = File.createTempFile("MemoryMappedBytesTest", ".dat"), FileModeEnum.READ_WRITE, numBytes );
+
+        try {
+            assertEquals( numBytes, file.length() );
+
+            bytes.writeLong( numBytes-8, numBytes, 44 );
+            assertEquals( 44, bytes.readLong(numBytes-8, numBytes) );
+        } finally {
+            bytes.release();
+        }
+
+        assertEquals( numBytes, file.length() );
+    }
+
 }
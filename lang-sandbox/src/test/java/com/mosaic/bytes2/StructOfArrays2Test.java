@@ -0,0 +1,178 @@
+package com.mosaic.bytes2;
+
+import com.mosaic.bytes2.fields.ByteFieldsRegistry2;
+import com.mosaic.bytes2.fields.IntField2;
+import com.mosaic.bytes2.fields.LongField2;
+import com.mosaic.bytes2.fields.UTF8Field2;
+import com.mosaic.bytes2.impl.ArrayBytes2;
+import com.mosaic.lang.text.UTF8;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class StructOfArrays2Test {
+
+    public static class Account extends FixedWidthBytesView {
+        public static final ByteFieldsRegistry2 registry = new ByteFieldsRegistry2();
+
+        public static final LongField2 idField      = registry.registerLong();
+        public static final IntField2  branchField  = registry.registerInteger();
+        public static final UTF8Field2 nameField    = registry.registerUTF8( 12 );
+        public static final LongField2 balanceField = registry.registerLong();
+
+
+        public Account() {
+            super( registry );
+        }
+
+        public long getId() { return idField.get(this); }
+        public void setId( long id ) { idField.set(this, id); }
+
+        public int getBranch() { return branchField.get(this); }
+        public void setBranch( int branch ) { branchField.set(this, branch); }
+
+        public UTF8 getName() { return nameField.get(this); }
+        public void setName( String name ) { nameField.set(this, new UTF8(name)); }
+
+        public long getBalance() { return balanceField.get(this); }
+        public void setBalance( long balance ) { balanceField.set(this, balance); }
+    }
+
+
+    private StructOfArrays2<Account> accounts = StructOfArrays2.allocateOffHeap( Account.registry, 2, Account::new );
+
+
+    @After
+    public void tearDown() {
+        accounts.release();
+    }
+
+
+    @Test
+    public void givenNoRecords_select_expectException() {
+        assertEquals( 0, accounts.numRecords() );
+
+        try {
+            accounts.select( 0 );
+            fail( "expected IndexOutOfBoundsException" );
+        } catch ( IndexOutOfBoundsException ex ) {
+            assertEquals( "Unable to index 0, the collection is empty", ex.getMessage() );
+        }
+    }
+
+    @Test
+    public void allocateMoreRecordsThanTheInitialCapacity_expectEachRecordToKeepItsFields() {
+        allocateAccounts( 10 );
+
+        assertEquals( 10, accounts.numRecords() );
+        for ( int i=0; i<10; i++ ) {
+            assertAccount( i, accounts.select(i) );
+        }
+    }
+
+    @Test
+    public void allocateRecordsOnHeap_expectEachRecordToKeepItsFields() {
+        accounts.release();
+        accounts = StructOfArrays2.allocateOnHeap( Account.registry, 1, Account::new );
+
+        allocateAccounts( 5 );
+
+        int i = 0;
+        for ( Account account : accounts ) {
+            assertAccount( i++, account );
+        }
+
+        assertEquals( 5, i );
+    }
+
+    @Test
+    public void getRegion_expectEachFieldToBeStoredContiguously() {
+        allocateAccounts( 5 );
+
+        Bytes2 balances = accounts.getRegion( Account.balanceField );
+        Bytes2 branches = accounts.getRegion( Account.branchField );
+
+        for ( int i=0; i<5; i++ ) {
+            assertEquals( i*100L, balances.readLong(i*8, (i+1)*8) );
+            assertEquals( i%3, branches.readInt(i*4, (i+1)*4) );
+        }
+    }
+
+    @Test
+    public void givenFieldFromAnotherStruct_getRegion_expectException() {
+        ByteFieldsRegistry2 otherRegistry = new ByteFieldsRegistry2();
+        otherRegistry.registerByte();
+        IntField2 otherField = otherRegistry.registerInteger();
+
+        try {
+            accounts.getRegion( otherField );
+            fail( "expected IllegalArgumentException" );
+        } catch ( IllegalArgumentException ex ) {
+            assertEquals( "field at offset 1 is not part of this struct", ex.getMessage() );
+        }
+    }
+
+    @Test
+    public void readWholeRecord_expectSameBytesAsAnArrayOfStructs() {
+        accounts.release();
+        accounts = StructOfArrays2.allocateOnHeap( Account.registry, 1, Account::new );  // zeroed, unlike off heap memory
+
+        allocateAccounts( 3 );
+
+        Account rowLayout = new Account();
+        rowLayout.setBytes( new ArrayBytes2(Account.registry.sizeBytes()), 0 );
+        populate( 2, rowLayout );
+
+        byte[] expected = new byte[Account.registry.sizeBytes()];
+        byte[] actual   = new byte[Account.registry.sizeBytes()];
+
+        rowLayout.readBytes( 0, expected.length, expected );
+        accounts.select( 2 ).readBytes( 0, actual.length, actual );
+
+        assertArrayEquals( expected, actual );
+    }
+
+    @Test
+    public void clearAll_expectRecordsToBeZeroedWhenReallocated() {
+        allocateAccounts( 3 );
+
+        accounts.clearAll();
+        assertEquals( 0, accounts.numRecords() );
+
+        accounts.allocateNewRecords( 3 );
+
+        Account account = accounts.select( 2 );
+        assertEquals( 0, account.getId() );
+        assertEquals( 0, account.getBalance() );
+        assertEquals( "", account.getName().toString() );
+    }
+
+
+    private void allocateAccounts( int n ) {
+        long from = accounts.allocateNewRecords( n );
+
+        Account account = new Account();
+        for ( long i=from; i<from+n; i++ ) {
+            accounts.selectInto( account, i );
+
+            populate( i, account );
+        }
+    }
+
+    private void populate( long i, Account account ) {
+        account.setId( i+1 );
+        account.setBranch( (int) (i%3) );
+        account.setName( "acc"+i );
+        account.setBalance( i*100 );
+    }
+
+    private void assertAccount( long i, Account account ) {
+        assertEquals( i+1, account.getId() );
+        assertEquals( i%3, account.getBranch() );
+        assertEquals( "acc"+i, account.getName().toString() );
+        assertEquals( i*100, account.getBalance() );
+    }
+
+}
@@ -0,0 +1,253 @@
+package com.mosaic.bytes2.fields;
+
+import com.mosaic.bytes2.Bytes2;
+import com.mosaic.bytes2.BytesView2;
+import com.mosaic.bytes2.FixedWidthBytesView;
+import com.mosaic.bytes2.impl.ArrayBytes2;
+import com.mosaic.bytes2.impl.OffHeapBytes2;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ *
+ */
+public class FlyweightGeneratorTest {
+
+    public static abstract class Sample extends FixedWidthBytesView {
+        private static final ByteFieldsRegistry2 registry = new ByteFieldsRegistry2();
+
+        private static final BooleanField2       activeField   = registry.registerBoolean();
+        private static final ByteField2          flagsField    = registry.registerByte();
+        private static final UnsignedByteField2  levelField    = registry.registerUnsignedByte();
+        private static final ShortField2         deltaField    = registry.registerShort();
+        private static final UnsignedShortField2 portField     = registry.registerUnsignedShort();
+        private static final CharacterField2     codeField     = registry.registerCharacter();
+        private static final IntField2           ageField      = registry.registerInteger();
+        private static final UnsignedIntField2   countField    = registry.registerUnsignedInteger();
+        private static final LongField2          idField       = registry.registerLong();
+        private static final FloatField2         weightField   = registry.registerFloat();
+        private static final DoubleField2        balanceField  = registry.registerDouble();
+
+        public static final long SIZE_BYTES = registry.sizeBytes();
+
+        public Sample() {
+            super( registry );
+        }
+
+        public abstract boolean isActive();
+        public abstract void setActive( boolean v );
+        public abstract byte getFlags();
+        public abstract void setFlags( byte v );
+        public abstract short getLevel();
+        public abstract void setLevel( short v );
+        public abstract short getDelta();
+        public abstract void setDelta( short v );
+        public abstract int getPort();
+        public abstract void setPort( int v );
+        public abstract char getCode();
+        public abstract void setCode( char v );
+        public abstract int getAge();
+        public abstract void setAge( int v );
+        public abstract long getCount();
+        public abstract void setCount( long v );
+        public abstract long getId();
+        public abstract void setId( long v );
+        public abstract float getWeight();
+        public abstract void setWeight( float v );
+        public abstract double getBalance();
+        public abstract void setBalance( double v );
+
+        // hand written, to compare against the generated accessors
+        public long getIdViaField() {
+            return idField.get( this );
+        }
+
+        public int getPortViaField() {
+            return portField.get( this );
+        }
+
+        public long getCountViaField() {
+            return countField.get( this );
+        }
+
+        public short getLevelViaField() {
+            return levelField.get( this );
+        }
+
+        public boolean isActiveViaField() {
+            return activeField.get( this );
+        }
+    }
+
+    public static abstract class Wrapper {
+        private static final ByteFieldsRegistry2 registry = new ByteFieldsRegistry2();
+
+        private static final LongField2 idField = registry.registerLong();
+
+        protected BytesView2 bytes = new BytesView2();
+
+        public void setView( Bytes2 bytes, long offset ) {
+            this.bytes.setBytes( bytes, offset, offset+registry.sizeBytes() );
+        }
+
+        public abstract long getId();
+        public abstract void setId( long v );
+    }
+
+    public static abstract class MissingField extends FixedWidthBytesView {
+        public MissingField() {
+            super( 8 );
+        }
+
+        public abstract long getId();
+    }
+
+
+    @Test
+    public void givenArrayBytes_writeViaGeneratedAccessors_expectFieldsToReadBackTheSameValues() {
+        Bytes2 bytes = new ArrayBytes2( Sample.SIZE_BYTES*3 );
+
+        writeAndReadBack( bytes );
+    }
+
+    @Test
+    public void givenOffHeapBytes_writeViaGeneratedAccessors_expectFieldsToReadBackTheSameValues() {
+        Bytes2 bytes = new OffHeapBytes2( Sample.SIZE_BYTES*3 );
+
+        try {
+            writeAndReadBack( bytes );
+        } finally {
+            bytes.release();
+        }
+    }
+
+    @Test
+    public void moveFlyweightBetweenRecords_expectEachRecordToKeepItsOwnValues() {
+        Bytes2 bytes  = new ArrayBytes2( Sample.SIZE_BYTES*3 );
+        Sample sample = FlyweightGenerator.newInstance( Sample.class );
+
+        for ( int i=0; i<3; i++ ) {
+            sample.setBytes( bytes, i*Sample.SIZE_BYTES );
+            sample.setId( 100+i );
+        }
+
+        for ( int i=0; i<3; i++ ) {
+            sample.setBytes( bytes, i*Sample.SIZE_BYTES );
+
+            assertEquals( 100+i, sample.getId() );
+            assertEquals( 100+i, bytes.readLong(i*Sample.SIZE_BYTES + Sample.idField.getOffset(), (i+1)*Sample.SIZE_BYTES) );
+        }
+    }
+
+    @Test
+    public void givenClassWithBytesField_expectAccessorsToUseThatField() {
+        Bytes2  bytes   = new ArrayBytes2( 16 );
+        Wrapper wrapper = FlyweightGenerator.newInstance( Wrapper.class );
+
+        wrapper.setView( bytes, 8 );
+        wrapper.setId( 42 );
+
+        assertEquals( 42, wrapper.getId() );
+        assertEquals( 42, bytes.readLong(8, 16) );
+    }
+
+    @Test
+    public void generateTwice_expectSameClass() {
+        assertSame( FlyweightGenerator.generateClass(Sample.class), FlyweightGenerator.generateClass(Sample.class) );
+        assertTrue( FlyweightGenerator.generateClass(Sample.class).getName().endsWith(FlyweightGenerator.GENERATED_CLASS_SUFFIX) );
+    }
+
+    @Test
+    public void givenViewSmallerThanTheStruct_expectIndexOutOfBoundsException() {
+        Wrapper wrapper = FlyweightGenerator.newInstance( Wrapper.class );
+
+        wrapper.bytes.setBytes( new ArrayBytes2(16), 0, 4 );
+
+        try {
+            wrapper.getId();
+            fail( "expected IndexOutOfBoundsException" );
+        } catch ( IndexOutOfBoundsException ex ) {
+            assertEquals( "View of 4 bytes is smaller than the 8 bytes required", ex.getMessage() );
+        }
+    }
+
+    @Test
+    public void resizeTheViewedBytesWithoutRepositioningTheView_expectIllegalStateException() {
+        Bytes2 bytes  = new OffHeapBytes2( Sample.SIZE_BYTES );
+        Sample sample = FlyweightGenerator.newInstance( Sample.class );
+
+        try {
+            sample.setBytes( bytes, 0 );
+            sample.setId( 1 );
+
+            bytes.resize( 16*1024*1024 );  // too large to be grown in place, so the bytes move
+
+            try {
+                sample.getId();
+                fail( "expected IllegalStateException" );
+            } catch ( IllegalStateException ex ) {
+                assertEquals( "The viewed bytes have been reallocated since this view was pointed at them, call setBytes again after resizing them", ex.getMessage() );
+            }
+
+            sample.setBytes( bytes, 0 );
+            assertEquals( 1, sample.getId() );
+        } finally {
+            bytes.release();
+        }
+    }
+
+    @Test
+    public void givenAbstractMethodWithNoMatchingField_expectIllegalArgumentException() {
+        try {
+            FlyweightGenerator.generateClass( MissingField.class );
+            fail( "expected IllegalArgumentException" );
+        } catch ( IllegalArgumentException ex ) {
+            assertEquals( MissingField.class.getName()+".getId() does not match a fixed width field named 'idField'", ex.getMessage() );
+        }
+    }
+
+
+    private void writeAndReadBack( Bytes2 bytes ) {
+        Sample sample = FlyweightGenerator.newInstance( Sample.class );
+
+        bytes.fill( 0, bytes.sizeBytes(), (byte) 0 );
+        sample.setBytes( bytes, Sample.SIZE_BYTES );
+
+        sample.setActive( true );
+        sample.setFlags( (byte) -3 );
+        sample.setLevel( (short) 200 );
+        sample.setDelta( (short) -1000 );
+        sample.setPort( 60000 );
+        sample.setCode( 'x' );
+        sample.setAge( -42 );
+        sample.setCount( 4000000000L );
+        sample.setId( Long.MAX_VALUE - 7 );
+        sample.setWeight( 1.5f );
+        sample.setBalance( -12.25 );
+
+        assertTrue( sample.isActive() );
+        assertEquals( -3, sample.getFlags() );
+        assertEquals( 200, sample.getLevel() );
+        assertEquals( -1000, sample.getDelta() );
+        assertEquals( 60000, sample.getPort() );
+        assertEquals( 'x', sample.getCode() );
+        assertEquals( -42, sample.getAge() );
+        assertEquals( 4000000000L, sample.getCount() );
+        assertEquals( Long.MAX_VALUE - 7, sample.getId() );
+        assertEquals( 1.5f, sample.getWeight(), 1e-6 );
+        assertEquals( -12.25, sample.getBalance(), 1e-6 );
+
+        assertTrue( sample.isActiveViaField() );
+        assertEquals( 200, sample.getLevelViaField() );
+        assertEquals( 60000, sample.getPortViaField() );
+        assertEquals( 4000000000L, sample.getCountViaField() );
+        assertEquals( Long.MAX_VALUE - 7, sample.getIdViaField() );
+
+        // the neighbouring records were not touched
+        assertEquals( 0, bytes.readLong(0, 8) );
+        assertEquals( 0, bytes.readLong(Sample.SIZE_BYTES*2, Sample.SIZE_BYTES*2+8) );
+    }
+
+}
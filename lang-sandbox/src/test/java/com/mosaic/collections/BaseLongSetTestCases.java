@@ -0,0 +1,129 @@
+package com.mosaic.collections;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+
+public abstract class BaseLongSetTestCases {
+
+    protected abstract LongSet createSet( long expectedSize );
+
+
+    @Test
+    public void givenEmptySet_expectSizeZeroAndNoValues() {
+        LongSet set = createSet( 10 );
+
+        assertEquals( 0, set.size() );
+        assertTrue( set.isEmpty() );
+        assertFalse( set.iterator().hasNext() );
+
+        for ( long v=-100; v<=100; v++ ) {
+            assertFalse( set.contains(v) );
+        }
+    }
+
+    @Test
+    public void addTheSameValuesTwice_expectEachValueToBeCountedOnce() {
+        LongSet set = createSet( 10 );
+
+        for ( int n=0; n<2; n++ ) {
+            set.add( 0 );
+            set.add( 1 );
+            set.add( -1 );
+            set.add( Long.MIN_VALUE );
+            set.add( Long.MAX_VALUE );
+        }
+
+        assertEquals( 5, set.size() );
+        assertTrue( set.contains(0) );
+        assertTrue( set.contains(1) );
+        assertTrue( set.contains(-1) );
+        assertTrue( set.contains(Long.MIN_VALUE) );
+        assertTrue( set.contains(Long.MAX_VALUE) );
+        assertFalse( set.contains(2) );
+    }
+
+    @Test
+    public void givenSetContainingMinus10And0And42_appendToBuffer_expectAscendingOrder() {
+        LongSet set = createSet( 10 );
+
+        set.add( 42 );
+        set.add( 0 );
+        set.add( -10 );
+
+        StringBuilder buf = new StringBuilder();
+        set.appendTo( buf, ", " );
+
+        assertEquals( "-10, 0, 42", buf.toString() );
+    }
+
+    @Test
+    public void addMoreValuesThanExpected_expectTheSetToGrowAndKeepEveryValue() {
+        LongSet set = createSet( 10 );
+
+        for ( long v=0; v<100_000; v+=3 ) {
+            set.add( v );
+        }
+
+        assertEquals( 33_334, set.size() );
+
+        for ( long v=-10; v<100_010; v++ ) {
+            assertEquals( v+"", v >= 0 && v < 100_000 && v%3 == 0, set.contains(v) );
+        }
+    }
+
+    @Test
+    public void addRandomValues_expectTheSameValuesAsAHashSet() {
+        LongSet   set      = createSet( 1000 );
+        Set<Long> expected = new HashSet<>();
+        Random    rnd      = new Random( 42 );
+
+        for ( int i=0; i<20_000; i++ ) {
+            long v = (i%2 == 0) ? rnd.nextLong() : rnd.nextInt(5000) - 2500;  // sparse and dense values
+
+            set.add( v );
+            expected.add( v );
+        }
+
+        assertEquals( expected.size(), set.size() );
+
+        for ( long v : expected ) {
+            assertTrue( v+"", set.contains(v) );
+        }
+
+        LongIterator it            = set.iterator();
+        long         expectedIndex = 0;
+        while ( it.hasNext() ) {
+            long v = it.next();
+
+            assertTrue( v+"", expected.remove(v) );
+            assertEquals( expectedIndex, it.index() );
+
+            expectedIndex++;
+        }
+
+        assertTrue( expected.isEmpty() );
+    }
+
+    @Test
+    public void givenExhaustedIterator_callNext_expectException() {
+        LongSet set = createSet( 10 );
+        set.add( 7 );
+
+        LongIterator it = set.iterator();
+        assertEquals( 7, it.next() );
+
+        try {
+            it.next();
+            fail( "expected IndexOutOfBoundsException" );
+        } catch ( IndexOutOfBoundsException ex ) {
+            assertEquals( "hasNext() returned false", ex.getMessage() );
+        }
+    }
+
+}
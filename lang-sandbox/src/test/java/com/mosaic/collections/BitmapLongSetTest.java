@@ -0,0 +1,10 @@
+package com.mosaic.collections;
+
+
+public class BitmapLongSetTest extends BaseLongSetTestCases {
+
+    protected LongSet createSet( long expectedSize ) {
+        return new BitmapLongSet();
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.mosaic.collections;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+
+public class ConcurrentLongSetTest extends BaseLongSetTestCases {
+
+    protected LongSet createSet( long expectedSize ) {
+        return new ConcurrentLongSet( expectedSize, 4 );
+    }
+
+
+    @Test
+    public void givenASingleSegment_addAndGrow_expectEveryValueToBeFound() {
+        LongSet set = new ConcurrentLongSet( 10, 1 );
+
+        for ( long v=-5_000; v<5_000; v++ ) {
+            set.add( v );
+            set.add( v );
+        }
+
+        for ( long v=-5_000; v<5_000; v++ ) {
+            assertTrue( set.contains(v) );
+        }
+
+        assertFalse( set.contains(5_000) );
+        assertEquals( 10_000, set.size() );
+    }
+
+    @Test
+    public void addOverlappingValuesFromManyThreadsWhileTheSetGrows_expectEveryValueToBeAddedOnce() throws InterruptedException {
+        LongSet                    set     = new ConcurrentLongSet( 10, 2 );
+        List<Thread>               threads = new ArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        for ( int t=0; t<4; t++ ) {
+            int offset = t*25_000;
+
+            Thread thread = new Thread( () -> {
+                try {
+                    for ( long v=0; v<50_000; v++ ) {
+                        long value = offset + v;
+
+                        set.add( value );
+
+                        if ( !set.contains(value) ) {
+                            throw new AssertionError( "lost " + value );
+                        }
+                    }
+                } catch ( Throwable ex ) {
+                    failure.set( ex );
+                }
+            });
+
+            threads.add( thread );
+            thread.start();
+        }
+
+        for ( Thread thread : threads ) {
+            thread.join();
+        }
+
+        assertNull( failure.get() );
+        assertEquals( 125_000, set.size() );
+
+        for ( long v=-10; v<125_010; v++ ) {
+            assertEquals( v+"", v >= 0 && v < 125_000, set.contains(v) );
+        }
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.mosaic.collections;
+
+
+public class HashLongSetTest extends BaseLongSetTestCases {
+
+    protected LongSet createSet( long expectedSize ) {
+        return new HashLongSet( expectedSize );
+    }
+
+}
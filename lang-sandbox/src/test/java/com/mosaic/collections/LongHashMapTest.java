@@ -0,0 +1,253 @@
+package com.mosaic.collections;
+
+import com.mosaic.bytes2.Bytes2;
+import com.mosaic.bytes2.FixedWidthBytesView;
+import com.mosaic.bytes2.fields.ByteFieldsRegistry2;
+import com.mosaic.bytes2.fields.IntField2;
+import com.mosaic.bytes2.fields.LongField2;
+import com.mosaic.bytes2.impl.ArrayBytes2;
+import com.mosaic.bytes2.impl.MemoryMappedBytes2;
+import com.mosaic.bytes2.impl.OffHeapBytes2;
+import com.mosaic.io.filesystemx.FileModeEnum;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+
+/**
+ *
+ */
+public class LongHashMapTest {
+
+    private static class Account extends FixedWidthBytesView {
+        private static final ByteFieldsRegistry2 registry = new ByteFieldsRegistry2();
+
+        private static final LongField2 balanceField = registry.registerLong();
+        private static final IntField2  flagsField   = registry.registerInteger();
+
+        public Account() {
+            super( registry );
+        }
+
+        public long getBalance() {
+            return balanceField.get( this );
+        }
+
+        public void setBalance( long v ) {
+            balanceField.set( this, v );
+        }
+
+        public int getFlags() {
+            return flagsField.get( this );
+        }
+
+        public void setFlags( int v ) {
+            flagsField.set( this, v );
+        }
+    }
+
+
+    @Test
+    public void givenEmptyMap_expectNoKeys() {
+        LongHashMap map = LongHashMap.createLongLongMap( new ArrayBytes2(1), 10 );
+
+        assertEquals( 0, map.size() );
+        assertTrue( map.isEmpty() );
+        assertFalse( map.containsKey(0) );
+        assertFalse( map.containsKey(42) );
+        assertEquals( -1, map.get(42, -1) );
+        assertFalse( map.remove(42) );
+        assertFalse( map.keys().hasNext() );
+    }
+
+    @Test
+    public void putKeys_expectToGetThemBack() {
+        LongHashMap map = LongHashMap.createLongLongMap( new ArrayBytes2(1), 10 );
+
+        map.put( 1, 10 );
+        map.put( -5, 50 );
+        map.put( Long.MIN_VALUE, 70 );
+        map.put( 1, 11 );
+
+        assertEquals( 3, map.size() );
+        assertEquals( 11, map.get(1, -1) );
+        assertEquals( 50, map.get(-5, -1) );
+        assertEquals( 70, map.get(Long.MIN_VALUE, -1) );
+        assertEquals( -1, map.get(2, -1) );
+    }
+
+    @Test
+    public void putAndRemoveZeroKey_expectItToBehaveLikeAnyOtherKey() {
+        LongHashMap map = LongHashMap.createLongLongMap( new ArrayBytes2(1), 10 );
+
+        map.put( 0, 99 );
+        map.put( 3, 33 );
+
+        assertTrue( map.containsKey(0) );
+        assertEquals( 99, map.get(0, -1) );
+        assertEquals( 2, map.size() );
+        assertEquals( 2, countKeys(map) );
+
+        assertTrue( map.remove(0) );
+        assertFalse( map.remove(0) );
+
+        assertFalse( map.containsKey(0) );
+        assertEquals( 33, map.get(3, -1) );
+        assertEquals( 1, map.size() );
+    }
+
+    @Test
+    public void putManyMoreKeysThanExpected_expectTheMapToGrowAndKeepEveryKey() {
+        LongHashMap map = LongHashMap.createLongLongMap( new OffHeapBytes2(1), 4 );
+
+        try {
+            for ( long i=0; i<10_000; i++ ) {
+                map.put( i*7, i );
+            }
+
+            assertEquals( 10_000, map.size() );
+            assertTrue( map.capacity() >= 10_000 );
+
+            for ( long i=0; i<10_000; i++ ) {
+                assertEquals( i, map.get(i*7, -1) );
+            }
+        } finally {
+            map.release();
+        }
+    }
+
+    @Test
+    public void removeKeysFromTheMiddleOfProbeSequences_expectTheOtherKeysToStillBeFound() {
+        LongHashMap map = LongHashMap.createLongLongMap( new ArrayBytes2(1), 100 );
+
+        Random         rnd      = new Random( 42 );
+        Map<Long,Long> expected = new HashMap<>();
+
+        for ( int i=0; i<50_000; i++ ) {
+            long key = rnd.nextInt( 200 );
+
+            if ( rnd.nextBoolean() ) {
+                map.put( key, i );
+                expected.put( key, (long) i );
+            } else {
+                assertEquals( expected.remove(key) != null, map.remove(key) );
+            }
+
+            assertEquals( expected.size(), map.size() );
+        }
+
+        for ( long key=0; key<200; key++ ) {
+            assertEquals( expected.containsKey(key), map.containsKey(key) );
+            assertEquals( expected.getOrDefault(key, -1L).longValue(), map.get(key, -1) );
+        }
+    }
+
+    @Test
+    public void iterateOverKeys_expectEveryKeyOnce() {
+        LongHashMap map = LongHashMap.createLongLongMap( new ArrayBytes2(1), 10 );
+
+        map.put( 0, 1 );
+        map.put( 5, 1 );
+        map.put( -8, 1 );
+        map.put( 100, 1 );
+        map.remove( 5 );
+
+        Set<Long>    keys = new HashSet<>();
+        LongIterator it   = map.keys();
+
+        while ( it.hasNext() ) {
+            assertTrue( keys.add(it.next()) );
+        }
+
+        assertEquals( new HashSet<>(java.util.Arrays.asList(0L, -8L, 100L)), keys );
+    }
+
+    @Test
+    public void clear_expectEmptyMap() {
+        LongHashMap map = LongHashMap.createLongLongMap( new ArrayBytes2(1), 10 );
+
+        map.put( 0, 1 );
+        map.put( 5, 1 );
+        map.clear();
+
+        assertEquals( 0, map.size() );
+        assertFalse( map.containsKey(0) );
+        assertFalse( map.containsKey(5) );
+    }
+
+    @Test
+    public void allocateStructValues_expectFlyweightToReadAndWriteTheValue() {
+        LongHashMap map     = new LongHashMap( new ArrayBytes2(1), Account.registry.sizeBytes(), 10 );
+        Account     account = new Account();
+
+        assertTrue( map.allocate(17, account) );
+        assertEquals( 0, account.getBalance() );
+        account.setBalance( 1000 );
+        account.setFlags( 3 );
+
+        assertFalse( map.allocate(17, account) );
+        assertEquals( 1000, account.getBalance() );
+
+        assertFalse( map.getValue(18, account) );
+        assertTrue( map.getValue(17, account) );
+        assertEquals( 1000, account.getBalance() );
+        assertEquals( 3, account.getFlags() );
+
+        try {
+            map.get( 17, -1 );
+            fail( "expected UnsupportedOperationException" );
+        } catch ( UnsupportedOperationException ex ) {
+            assertEquals( "the values of this map are 12 bytes wide, use getValue/allocate instead", ex.getMessage() );
+        }
+    }
+
+    @Test
+    public void givenMapInMemoryMappedFile_reopenIt_expectTheSameKeys() throws IOException {
+        File file = File.createTempFile( "LongHashMapTest", ".dat" );
+
+        try {
+            Bytes2      bytes = MemoryMappedBytes2.mapFile( file, FileModeEnum.READ_WRITE, 1 );
+            LongHashMap map   = LongHashMap.createLongLongMap( bytes, 10 );
+
+            for ( long i=0; i<100; i++ ) {
+                map.put( i, i*2 );
+            }
+
+            map.release();
+
+
+            LongHashMap reopened = new LongHashMap( MemoryMappedBytes2.mapFile(file, FileModeEnum.READ_ONLY) );
+
+            assertEquals( 100, reopened.size() );
+            for ( long i=0; i<100; i++ ) {
+                assertEquals( i*2, reopened.get(i, -1) );
+            }
+
+            reopened.release();
+        } finally {
+            file.delete();
+        }
+    }
+
+
+    private int countKeys( LongHashMap map ) {
+        int          count = 0;
+        LongIterator it    = map.keys();
+
+        while ( it.hasNext() ) {
+            it.next();
+            count++;
+        }
+
+        return count;
+    }
+
+}
@@ -107,6 +107,12 @@ public class LongSetTest {
         }
     }
 
-
+    @Test
+    public void factory_expectTheImplementationToSuitTheExpectedSize() {
+        assertEquals( "SmallLongSet", LongSet.factory(10).getClass().getSimpleName() );
+        assertEquals( HashLongSet.class, LongSet.factory(1000).getClass() );
+        assertEquals( BitmapLongSet.class, LongSet.factory(1_000_000).getClass() );
+        assertEquals( ConcurrentLongSet.class, LongSet.concurrentFactory(10).getClass() );
+    }
 
 }
@@ -1,4 +1,4 @@
-package com.mosaic.io.chronicle.map;
+package com.mosaic.collections.map;
 
 import com.mosaic.bytes.ArrayBytes;
 import com.mosaic.bytes.ByteView;
@@ -7,7 +7,6 @@ import com.mosaic.bytes.struct.DoubleField;
 import com.mosaic.bytes.struct.LongField;
 import com.mosaic.bytes.struct.Struct;
 import com.mosaic.bytes.struct.StructRegistry;
-import com.mosaic.collections.map.PersistableMap;
 import com.mosaic.lang.Service;
 import com.mosaic.lang.functional.VoidFunction1;
 import org.junit.After;
@@ -0,0 +1,171 @@
+package com.mosaic.collections.map;
+
+import com.mosaic.bytes.ByteSerializers;
+import com.mosaic.bytes.ByteView;
+import com.mosaic.collections.map.mapped.PersistableMappedMap;
+import com.mosaic.io.FileUtils;
+import com.mosaic.lang.system.DebugSystem;
+import com.mosaic.lang.system.SystemX;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+
+public class PersistableMappedMapTest extends BasePersistableMapTestCases {
+
+    private File    dir    = FileUtils.makeTempDirectory("PersistableMappedMapTest",".junit");
+    private SystemX system = DebugSystem.withActualFileSystem( dir.getAbsolutePath() );
+
+
+    protected PersistableMap<String, Account> _createPersistableMap( long fixedKeySize, long fixedValueSize, long maxEntryCount ) {
+        return newMap( fixedKeySize, fixedValueSize, maxEntryCount, PersistableMappedMap.DEFAULT_NUM_SEGMENTS );
+    }
+
+
+    @After
+    public void tearDown() {
+        super.tearDown();
+
+        FileUtils.deleteAll( dir );
+    }
+
+
+    @Test
+    public void writeFromManyThreadsAtOnce_expectEveryKeyToBeStoredOnce() throws InterruptedException {
+        PersistableMappedMap<String,Account> map = newMap( 8, ACCOUNT_SIZE, 4000, 4 );
+        map.start();
+
+        try {
+            List<Thread>               threads = new ArrayList<>();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+
+            for ( int t=0; t<4; t++ ) {
+                Thread thread = new Thread( () -> {
+                    try {
+                        Account account = new Account();
+
+                        for ( int i=0; i<1000; i++ ) {
+                            map.getInto( "k" + i, account );
+                            account.setAccountId( i );
+                        }
+                    } catch ( Throwable ex ) {
+                        failure.set( ex );
+                    }
+                });
+
+                threads.add( thread );
+                thread.start();
+            }
+
+            for ( Thread thread : threads ) {
+                thread.join();
+            }
+
+            assertNull( failure.get() );
+
+            Account account = new Account();
+            for ( int i=0; i<1000; i++ ) {
+                map.getInto( "k" + i, account );
+
+                assertEquals( i, account.getAccountId() );
+            }
+        } finally {
+            map.stop();
+        }
+    }
+
+    @Test
+    public void givenInsertThatDidNotComplete_reopenMap_expectTheKeyToBeTreatedAsMissing() throws IOException {
+        PersistableMappedMap<String,Account> map = newMap( 5, ACCOUNT_SIZE, 100, 2 );
+        Account                              account = new Account();
+
+        map.start();
+        map.getInto( "acc1", account );
+        account.setAccountId( 42 );
+        map.stop();
+
+        zeroSlotStates();   // simulate a crash after the key was written, but before its state was published
+
+        map.start();
+        map.getInto( "acc1", account );
+
+        assertEquals( 0, account.getAccountId() );
+        account.assertIsEmpty( ACCOUNT_SIZE );
+
+        map.stop();
+    }
+
+    @Test
+    public void givenFileCreatedWithADifferentLayout_start_expectException() {
+        PersistableMappedMap<String,Account> map = newMap( 5, ACCOUNT_SIZE, 100, 2 );
+        map.start();
+        map.stop();
+
+        PersistableMappedMap<String,Account> differentMap = newMap( 9, ACCOUNT_SIZE, 100, 2 );
+
+        try {
+            differentMap.start();
+            fail( "expected IllegalStateException" );
+        } catch ( IllegalStateException ex ) {
+            assertTrue( ex.getMessage(), ex.getMessage().startsWith("'junit' was created with fixedKeySize 5, not 9") );
+        }
+    }
+
+    @Test
+    public void givenFullMap_addAnotherKey_expectException() {
+        PersistableMappedMap<String,Account> map = newMap( 5, ACCOUNT_SIZE, 1, 2 );  // two segments of 8 slots
+        Account                              account = new Account();
+
+        map.start();
+
+        try {
+            for ( int i=0; i<=16; i++ ) {
+                map.getInto( "k"+i, account );
+            }
+
+            fail( "expected IllegalStateException" );
+        } catch ( IllegalStateException ex ) {
+            assertTrue( ex.getMessage(), ex.getMessage().matches("'junit' is full;  segment [01] holds 8 keys") );
+        } finally {
+            map.stop();
+        }
+    }
+
+
+    private <V extends ByteView> PersistableMappedMap<String,V> newMap( long fixedKeySize, long fixedValueSize, long maxEntryCount, int numSegments ) {
+        return new PersistableMappedMap<>(
+            system,
+            "junit",
+            new File(dir, "map.dat"),
+            ByteSerializers.NULL_TERMINATED_STRING_SERIALIZER,
+            fixedKeySize,
+            fixedValueSize,
+            maxEntryCount,
+            numSegments
+        );
+    }
+
+    /**
+     * Each slot of a map with 5 byte keys and an ACCOUNT_SIZE value is a state long, followed by
+     * the key and value padded to longs.
+     */
+    private void zeroSlotStates() throws IOException {
+        long slotSize = 8 + 8 + ((ACCOUNT_SIZE + 7) & ~7L);
+
+        try ( RandomAccessFile raf = new RandomAccessFile(new File(dir, "map.dat"), "rw") ) {
+            for ( long slot=64; slot+slotSize<=raf.length(); slot+=slotSize ) {
+                raf.seek( slot );
+                raf.writeLong( 0 );
+            }
+        }
+    }
+
+}
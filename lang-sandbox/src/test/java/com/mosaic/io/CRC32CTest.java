@@ -0,0 +1,78 @@
+package com.mosaic.io;
+
+import com.mosaic.bytes2.Bytes2;
+import com.mosaic.bytes2.impl.ArrayBytes2;
+import com.mosaic.bytes2.impl.OffHeapBytes2;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class CRC32CTest {
+
+    @Test
+    public void givenStandardCheckValue_expectStandardResult() {
+        Bytes2 bytes = new ArrayBytes2( "123456789".getBytes() );
+
+        assertEquals( 0xE3069283, CRC32C.calculate(bytes, 0, 9) );
+    }
+
+    @Test
+    public void givenEmptyRegion_expectZero() {
+        assertEquals( 0, CRC32C.calculate(new ArrayBytes2(8), 0, 0) );
+    }
+
+    @Test
+    public void givenThirtyTwoZeroBytes_expectRFC3720Result() {
+        assertEquals( 0x8A9136AA, CRC32C.calculate(new ArrayBytes2(32), 0, 32) );
+    }
+
+    @Test
+    public void givenOffHeapAndOnHeapCopiesOfTheSameBytes_expectTheSameResultForEveryAlignment() {
+        Bytes2 onHeap  = new ArrayBytes2( 64 );
+        Bytes2 offHeap = new OffHeapBytes2( 64 );
+
+        try {
+            for ( int i=0; i<64; i++ ) {
+                onHeap.writeByte( i, i+1, (byte) (i*31) );
+                offHeap.writeByte( i, i+1, (byte) (i*31) );
+            }
+
+            for ( int from=0; from<9; from++ ) {
+                for ( int toExc=from; toExc<64; toExc++ ) {
+                    assertEquals( CRC32C.calculate(onHeap, from, toExc), CRC32C.calculate(offHeap, from, toExc) );
+                    assertEquals( bytewise(onHeap, from, toExc), CRC32C.calculate(offHeap, from, toExc) );
+                }
+            }
+        } finally {
+            offHeap.release();
+        }
+    }
+
+    @Test
+    public void changeTheLastByte_expectDifferentChecksum() {
+        Bytes2 bytes = new ArrayBytes2( 15 );
+        int    before = CRC32C.calculate( bytes, 0, 15 );
+
+        bytes.writeByte( 14, 15, (byte) 1 );
+
+        assertTrue( before != CRC32C.calculate(bytes, 0, 15) );
+    }
+
+
+    private static int bytewise( Bytes2 bytes, long from, long toExc ) {
+        int crc = ~0;
+
+        for ( long i=from; i<toExc; i++ ) {
+            crc ^= bytes.readByte( i, toExc ) & 0xFF;
+
+            for ( int k=0; k<8; k++ ) {
+                crc = (crc & 1) == 1 ? (crc >>> 1) ^ 0x82F63B78 : crc >>> 1;
+            }
+        }
+
+        return ~crc;
+    }
+
+}
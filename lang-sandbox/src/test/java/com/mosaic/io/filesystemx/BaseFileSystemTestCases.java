@@ -7,7 +7,10 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.Map;
 
 import static org.junit.Assert.*;
@@ -231,6 +234,96 @@ public abstract class BaseFileSystemTestCases {
         copiedFile.delete();
     }
 
+    @Test
+    public void givenFile_renameIt_expectItToOnlyBeVisibleUnderItsNewName() {
+        FileX newFile = fileSystem.getCurrentWorkingDirectory().addFile( "foo.txt", "abc", "123" );
+
+        newFile.renameTo( "bar.txt" );
+
+        assertEquals( "bar.txt", newFile.getFileName() );
+        assertNull( fileSystem.getCurrentWorkingDirectory().getFile("foo.txt") );
+        assertEquals( 1, fileSystem.getCurrentWorkingDirectory().files().size() );
+
+        Bytes2 fileContents = fileSystem.getCurrentWorkingDirectory().getFile("bar.txt").openFile2( FileModeEnum.READ_ONLY );
+
+        assertEquals( "abc\n123", fileContents.toString() );
+
+        fileContents.release();
+    }
+
+    @Test
+    public void givenOpenFile_renameIt_expectOpenContentsToRemainValid() {
+        FileX  newFile      = fileSystem.getCurrentWorkingDirectory().addFile( "foo.txt", "abc" );
+        Bytes2 fileContents = newFile.openFile2( FileModeEnum.READ_WRITE );
+
+        newFile.renameTo( "bar.txt" );
+
+        fileContents.writeUTF8StringUndemarcated( 0, 3, "xyz" );
+        fileContents.release();
+
+        Bytes2 renamedContents = fileSystem.getCurrentWorkingDirectory().getFile("bar.txt").openFile2( FileModeEnum.READ_ONLY );
+
+        assertEquals( "xyz", renamedContents.toString() );
+
+        renamedContents.release();
+    }
+
+    @Test
+    public void givenTwoFiles_renameOneOverTheOther_expectTheOtherToBeReplaced() {
+        FileX foo = fileSystem.getCurrentWorkingDirectory().addFile( "foo.txt", "abc" );
+        fileSystem.getCurrentWorkingDirectory().addFile( "bar.txt", "123" );
+
+        foo.renameTo( "bar.txt" );
+
+        assertEquals( 1, fileSystem.getCurrentWorkingDirectory().files().size() );
+
+        Bytes2 fileContents = fileSystem.getCurrentWorkingDirectory().getFile("bar.txt").openFile2( FileModeEnum.READ_ONLY );
+
+        assertEquals( "abc", fileContents.toString() );
+
+        fileContents.release();
+    }
+
+    @Test
+    public void givenRenamedFile_flushItsDirectory_expectTheFileToKeepItsNewName() {
+        DirectoryX dir = fileSystem.getCurrentWorkingDirectory();
+
+        dir.addFile( "foo.txt", "abc" ).renameTo( "bar.txt" );
+        dir.flush();
+
+        assertNull( dir.getFile("foo.txt") );
+        assertNotNull( dir.getFile("bar.txt") );
+    }
+
+// TRANSFER TO
+
+    @Test
+    public void givenFile_transferPartOfItToAChannel_expectOnlyThatRangeToBeWritten() {
+        FileX                 file = fileSystem.getCurrentWorkingDirectory().addFile( "foo.txt", "abc", "123" );
+        ByteArrayOutputStream out  = new ByteArrayOutputStream();
+
+        assertEquals( 4, file.transferTo(2, 6, Channels.newChannel(out)) );
+
+        assertEquals( "c\n12", new String(out.toByteArray()) );
+    }
+
+    @Test
+    public void givenOpenFile_transferSeveralRangesToAChannel_expectEachRangeToBeWrittenInTurn() {
+        FileX                 file     = fileSystem.getCurrentWorkingDirectory().addFile( "foo.txt", "abc", "123" );
+        FileContents2         contents = file.openFile2( FileModeEnum.READ_ONLY );
+        ByteArrayOutputStream out      = new ByteArrayOutputStream();
+        WritableByteChannel   channel  = Channels.newChannel( out );
+
+        try {
+            assertEquals( 2, contents.transferTo(0, 2, channel) );
+            assertEquals( 3, contents.transferTo(4, 7, channel) );
+        } finally {
+            contents.release();
+        }
+
+        assertEquals( "ab123", new String(out.toByteArray()) );
+    }
+
 // UPDATE AN EXISTING FILE
 
     @Test
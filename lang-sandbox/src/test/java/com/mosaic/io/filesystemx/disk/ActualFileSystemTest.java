@@ -1,7 +1,9 @@
 package com.mosaic.io.filesystemx.disk;
 
+import com.mosaic.bytes2.impl.MemoryMappedBytes2;
 import com.mosaic.io.filesystemx.BaseFileSystemTestCases;
 import com.mosaic.io.filesystemx.FileContents;
+import com.mosaic.io.filesystemx.FileContents2;
 import com.mosaic.io.filesystemx.FileModeEnum;
 import com.mosaic.io.filesystemx.FileSystemX;
 import com.mosaic.io.filesystemx.FileX;
@@ -67,6 +69,29 @@ public class ActualFileSystemTest extends BaseFileSystemTestCases {
         });
     }
 
+    @Test
+    public void growFileBeyond2GB_expectContentsToBeKeptAndTheNewBytesToBeUsable() {
+        FileX         file     = fileSystem.getCurrentWorkingDirectory().getOrCreateFile( "large.dat" );
+        FileContents2 contents = file.openFile2( FileModeEnum.READ_WRITE, 1024 );
+        long          numBytes = 3L*1024*1024*1024;
+
+        try {
+            contents.writeLong( 8, 16, 42 );
+            contents.resize( numBytes );
+            contents.writeLong( numBytes-8, numBytes, 43 );
+
+            assertEquals( numBytes, contents.sizeBytes() );
+            assertEquals( 42, contents.readLong(8, 16) );
+            assertEquals( 43, contents.readLong(numBytes-8, numBytes) );
+
+            contents.resize( MemoryMappedBytes2.MAX_REGION_SIZE - 1 );
+            assertEquals( 42, contents.readLong(8, 16) );
+        } finally {
+            contents.release();
+            file.delete();
+        }
+    }
+
 
     public static class LockFileMain {
         public static void main( String[] args ) {
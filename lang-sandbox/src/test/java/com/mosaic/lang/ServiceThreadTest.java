@@ -1,5 +1,6 @@
 package com.mosaic.lang;
 
+import com.mosaic.lang.time.Duration;
 import com.softwaremosaic.junit.JUnitMosaic;
 import org.junit.Test;
 
@@ -7,6 +8,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 
 /**
@@ -58,8 +60,97 @@ public class ServiceThreadTest {
     }
 
 
+// WAIT STRATEGIES
 
+    @Test
+    public void givenDefaultWaitStrategy_expectIdleLoopsToSleep() {
+        MyServiceThread service = new MyServiceThread( "ServiceThreadTest.givenDefaultWaitStrategy_expectIdleLoopsToSleep" );
+
+        service.start();
+        JUnitMosaic.spinUntilTrue( () -> service.getWaitStrategy().getParkCount() > 1 );
+        service.stop();
+
+        assertEquals( 0, service.getWaitStrategy().getSpinCount() );
+        assertTrue( service.getLoopCount() > 1 );
+        assertEquals( service.getLoopCount(), service.getIdleLoopCount() );
+    }
+
+    @Test
+    public void givenBusySpinWaitStrategy_expectIdleLoopsToSpinWithoutSleeping() {
+        IdleServiceThread service = new IdleServiceThread( "ServiceThreadTest.givenBusySpinWaitStrategy", WaitStrategy.busySpin() );
+
+        service.start();
+        JUnitMosaic.spinUntilTrue( () -> service.getIdleLoopCount() > 1000 );
+        service.stop();
+
+        assertTrue( service.getWaitStrategy().getSpinCount() > 1000 );
+        assertEquals( 0, service.getWaitStrategy().getYieldCount() );
+        assertEquals( 0, service.getWaitStrategy().getParkCount() );
+    }
+
+    @Test
+    public void givenSpinThenYieldWaitStrategy_expectSpinsToBeFollowedByYields() {
+        IdleServiceThread service = new IdleServiceThread( "ServiceThreadTest.givenSpinThenYieldWaitStrategy", WaitStrategy.spinThenYield(100) );
+
+        service.start();
+        JUnitMosaic.spinUntilTrue( () -> service.getWaitStrategy().getYieldCount() > 10 );
+        service.stop();
+
+        assertEquals( 100, service.getWaitStrategy().getSpinCount() );
+        assertEquals( 0, service.getWaitStrategy().getParkCount() );
+    }
+
+    @Test
+    public void givenSpinThenParkWaitStrategy_expectToBackOffToParking() {
+        IdleServiceThread service = new IdleServiceThread( "ServiceThreadTest.givenSpinThenParkWaitStrategy", WaitStrategy.spinThenPark(10, 5, Duration.millis(1)) );
+
+        service.start();
+        JUnitMosaic.spinUntilTrue( () -> service.getWaitStrategy().getParkCount() > 10 );
+        service.stop();
 
+        assertEquals( 10, service.getWaitStrategy().getSpinCount() );
+        assertEquals( 5, service.getWaitStrategy().getYieldCount() );
+    }
+
+    @Test
+    public void givenSpinThenParkWaitStrategyWithLongParks_stop_expectTheThreadToStopPromptly() {
+        String            serviceName = "ServiceThreadTest.givenSpinThenParkWaitStrategyWithLongParks_stop";
+        IdleServiceThread service     = new IdleServiceThread( serviceName, WaitStrategy.spinThenPark(0, 0, Duration.minutes(10)) );
+
+        service.start();
+        JUnitMosaic.spinUntilTrue( () -> service.getWaitStrategy().getParkCount() > 18 );   // each park is now a quarter of a second and doubling
+        service.stop();
+
+        JUnitMosaic.spinUntilAllThreadsComplete( serviceName );
+    }
+
+    @Test
+    public void givenWorkAfterIdling_expectBackOffToReset() {
+        AtomicLong      workToDo = new AtomicLong();
+        ServiceThread<?> service = new ServiceThread( "ServiceThreadTest.givenWorkAfterIdling_expectBackOffToReset", ServiceThread.ThreadType.DAEMON, WaitStrategy.spinThenYield(5) ) {
+            protected long loop() {
+                return workToDo.get() > 0 && workToDo.decrementAndGet() >= 0 ? 0 : 1;
+            }
+        };
+
+        service.start();
+        JUnitMosaic.spinUntilTrue( () -> service.getWaitStrategy().getYieldCount() > 0 );
+
+        workToDo.set( 1 );
+        JUnitMosaic.spinUntilTrue( () -> service.getWaitStrategy().getSpinCount() >= 10 );  // 5 spins before the work, and 5 after
+        service.stop();
+    }
+
+
+    private static class IdleServiceThread extends ServiceThread<IdleServiceThread> {
+        public IdleServiceThread( String serviceName, WaitStrategy waitStrategy ) {
+            super( serviceName, ThreadType.DAEMON, waitStrategy );
+        }
+
+        protected long loop() {
+            return 10;
+        }
+    }
 
     private static class MyServiceThread extends ServiceThread<MyServiceThread> {
         public final AtomicLong workCounter = new AtomicLong( 0L );
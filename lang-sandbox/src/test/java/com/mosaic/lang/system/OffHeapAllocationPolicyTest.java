@@ -0,0 +1,128 @@
+package com.mosaic.lang.system;
+
+import com.mosaic.bytes2.Bytes2;
+import com.mosaic.bytes2.impl.OffHeapBytes2;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+
+public class OffHeapAllocationPolicyTest {
+
+    private static final List<OffHeapAllocationPolicy> ALL_POLICIES = Arrays.asList(
+        OffHeapAllocationPolicy.STANDARD,
+        OffHeapAllocationPolicy.PAGE_ALIGNED,
+        OffHeapAllocationPolicy.HUGE_PAGES,
+        OffHeapAllocationPolicy.PRE_TOUCHED,
+        OffHeapAllocationPolicy.preTouched( OffHeapAllocationPolicy.PAGE_ALIGNED )
+    );
+
+    private long initialAllocCount;
+
+
+    @Before
+    public void setup() {
+        initialAllocCount = Backdoor.getActiveAllocCounter();
+    }
+
+    @After
+    public void tearDown() {
+        assertEquals( "memory leak", initialAllocCount, Backdoor.getActiveAllocCounter() );
+    }
+
+
+    @Test
+    public void allocWriteReadFree_expectEveryPolicyToHandOutUsableMemory() {
+        for ( OffHeapAllocationPolicy policy : ALL_POLICIES ) {
+            long address = policy.alloc( 10_000 );
+
+            Backdoor.fill( address, 10_000, (byte) 7 );
+            Backdoor.setLong( address + 10_000 - 8, 42 );
+
+            assertEquals( policy.toString(), 7, Backdoor.getByte(address) );
+            assertEquals( policy.toString(), 42, Backdoor.getLong(address + 10_000 - 8) );
+
+            policy.free( address, 10_000 );
+        }
+    }
+
+    @Test
+    public void pageAligned_expectAddressesToStartOnAPageBoundary() {
+        long address1 = OffHeapAllocationPolicy.PAGE_ALIGNED.alloc( 1 );
+        long address2 = OffHeapAllocationPolicy.PAGE_ALIGNED.alloc( 100_000 );
+
+        assertEquals( 0, address1 % Backdoor.getPageSize() );
+        assertEquals( 0, address2 % Backdoor.getPageSize() );
+
+        OffHeapAllocationPolicy.PAGE_ALIGNED.free( address1, 1 );
+        OffHeapAllocationPolicy.PAGE_ALIGNED.free( address2, 100_000 );
+    }
+
+    @Test
+    public void hugePages_expectAddressesToStartOnAHugePageBoundary() {
+        long address = OffHeapAllocationPolicy.HUGE_PAGES.alloc( 3 );
+
+        assertEquals( 0, address % OffHeapAllocationPolicy.HUGE_PAGE_SIZE );
+
+        OffHeapAllocationPolicy.HUGE_PAGES.free( address, 3 );
+    }
+
+    @Test
+    public void givenMissingHugetlbfsMount_expectFallbackToAlignedMalloc() {
+        HugePageAllocationPolicy policy = new HugePageAllocationPolicy( new File("/no/such/hugetlbfs"), OffHeapAllocationPolicy.HUGE_PAGE_SIZE );
+
+        assertFalse( policy.isHugetlbfsAvailable() );
+
+        long address = policy.alloc( 100 );
+        assertEquals( 0, address % OffHeapAllocationPolicy.HUGE_PAGE_SIZE );
+
+        policy.free( address, 100 );
+    }
+
+    @Test
+    public void givenRequestLargerThanASingleMapping_expectFallbackWithoutDisablingHugetlbfs() throws IOException {
+        File dir = Files.createTempDirectory( "OffHeapAllocationPolicyTest" ).toFile();
+
+        try {
+            HugePageAllocationPolicy policy = new HugePageAllocationPolicy( dir, OffHeapAllocationPolicy.HUGE_PAGE_SIZE );
+
+            long numBytes = Integer.MAX_VALUE + 1L;
+            long address  = policy.alloc( numBytes );
+
+            assertEquals( 0, address % OffHeapAllocationPolicy.HUGE_PAGE_SIZE );
+            assertTrue( policy.isHugetlbfsAvailable() );
+
+            policy.free( address, numBytes );
+        } finally {
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void givenOffHeapBytesWithPolicy_resize_expectContentsToBeKept() {
+        for ( OffHeapAllocationPolicy policy : ALL_POLICIES ) {
+            Bytes2 bytes = new OffHeapBytes2( 16, policy );
+
+            bytes.writeLong( 8, 16, 99 );
+            bytes.resize( 64 );
+            bytes.writeLong( 56, 64, 100 );
+
+            assertEquals( policy.toString(), 99, bytes.readLong(8, 16) );
+            assertEquals( policy.toString(), 100, bytes.readLong(56, 64) );
+
+            bytes.resize( 16 );
+            assertEquals( policy.toString(), 99, bytes.readLong(8, 16) );
+
+            bytes.release();
+        }
+    }
+
+}